@@ -12,6 +12,10 @@ db.restaurants.createIndex({ "name": 1 });
 db.restaurants.createIndex({ "city": 1 });
 db.restaurants.createIndex({ "isActive": 1 });
 db.restaurants.createIndex({ "cuisineType": 1 });
+db.restaurants.createIndex(
+    { "name": 1, "_id": 1 },
+    { name: "idx_restaurant_name_id" }
+);
 
 // Create indexes for spaces collection
 print('Creating indexes for spaces collection...');
@@ -39,6 +43,16 @@ db.reservations.createIndex(
 );
 db.reservations.createIndex({ "customerEmail": 1 });
 db.reservations.createIndex({ "status": 1 });
-db.reservations.createIndex({ "reservationDate": 1 });
+db.reservations.createIndex(
+    { "reservationDate": 1, "_id": 1 },
+    { name: "idx_reservation_date_id" }
+);
+
+// Create indexes for occupancy_rollups collection
+print('Creating indexes for occupancy_rollups collection...');
+db.occupancy_rollups.createIndex(
+    { "restaurantId": 1, "date": 1 },
+    { name: "idx_occupancy_rollup_restaurant_date" }
+);
 
 print('=== Index creation complete ===');
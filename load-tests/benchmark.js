@@ -22,8 +22,16 @@ import {
  * All test data is dynamically fetched from the API - no hardcoded IDs.
  *
  * Run: k6 run load-tests/benchmark.js
+ *
+ * Compare the blocking and reactive availability read paths (steady and peak phases):
+ *   k6 run -e AVAILABILITY_VARIANT=mvc load-tests/benchmark.js
+ *   k6 run -e AVAILABILITY_VARIANT=reactive load-tests/benchmark.js
  */
 
+// mvc: /availability/spaces/{id}, reactive: /availability/spaces/{id}/reactive
+const AVAILABILITY_VARIANT = __ENV.AVAILABILITY_VARIANT || 'mvc';
+const AVAILABILITY_SUFFIX = AVAILABILITY_VARIANT === 'reactive' ? '/reactive' : '';
+
 // Custom metrics
 const createReservationMetric = new Trend('reservation_create_ms');
 const checkAvailabilityMetric = new Trend('availability_check_ms');
@@ -158,8 +166,9 @@ export default function (data) {
     // 1. Check Availability
     {
         const start = Date.now();
-        const res = http.get(`${BASE_URL}/availability/spaces/${space.id}?date=${testDate}`);
-        checkAvailabilityMetric.add(Date.now() - start);
+        const res = http.get(`${BASE_URL}/availability/spaces/${space.id}${AVAILABILITY_SUFFIX}?date=${testDate}`,
+            { tags: { variant: AVAILABILITY_VARIANT } });
+        checkAvailabilityMetric.add(Date.now() - start, { variant: AVAILABILITY_VARIANT });
         check(res, { 'availability ok': (r) => r.status === 200 });
     }
 
@@ -241,6 +250,7 @@ export function handleSummary(data) {
     // Write results to JSON file
     const jsonResult = JSON.stringify({
         timestamp: new Date().toISOString(),
+        availability_variant: AVAILABILITY_VARIANT,
         metrics: {
             reservation_create_p95: data.metrics.reservation_create_ms?.values?.['p(95)'],
             availability_check_p95: data.metrics.availability_check_ms?.values?.['p(95)'],
@@ -33,6 +33,9 @@ export const options = {
     iterations: 10,
     duration: '15s',
 
+    // Tail latency matters here: contended bookings retry with backoff, so track p99 too
+    summaryTrendStats: ['avg', 'min', 'med', 'max', 'p(90)', 'p(95)', 'p(99)'],
+
     thresholds: {
         // Note: 409 responses are expected (capacity exceeded), so we don't set http_req_failed threshold
         // Instead we verify no 5xx errors via checks
@@ -0,0 +1,95 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+import {
+    fetchTestData,
+    getBaseUrl,
+} from './test-utils.js';
+
+/**
+ * Report Engine Benchmark - IN_MEMORY vs AGGREGATION vs ROLLUP
+ *
+ * Requests the same occupancy report with every engine for 30, 90 and 365-day ranges
+ * ending today, one user at a time, and records latency per engine and range.
+ * Bytes read from Mongo per engine are measured without a database by
+ * src/jmh/java/com/opentable/privatedining/service/ReportEngineBenchmark.java.
+ *
+ * ROLLUP only sees bookings made while rollups were enabled; backfill the seed data first:
+ *   curl -X POST "http://localhost:8080/api/v1/reports/occupancy/rollups/rebuild?restaurantId=...&startDate=...&endDate=..."
+ *
+ * Run: k6 run load-tests/report-engine-benchmark.js
+ */
+
+const ENGINES = (__ENV.ENGINES || 'IN_MEMORY,AGGREGATION,ROLLUP').split(',');
+const RANGES = (__ENV.RANGES || '30,90,365').split(',').map(Number);
+const ITERATIONS = parseInt(__ENV.ITERATIONS || '20');
+
+const latency = {};
+ENGINES.forEach((engine) => {
+    RANGES.forEach((days) => {
+        latency[`${engine}_${days}`] = new Trend(`report_${engine.toLowerCase()}_${days}d_ms`, true);
+    });
+});
+
+export const options = {
+    vus: 1,
+    iterations: ITERATIONS,
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'max'],
+};
+
+function isoDate(date) {
+    return date.toISOString().split('T')[0];
+}
+
+export function setup() {
+    console.log('\n' + '='.repeat(60));
+    console.log('REPORT ENGINE BENCHMARK');
+    console.log('='.repeat(60));
+
+    const testData = fetchTestData();
+    if (!testData.restaurantId) {
+        console.log('ERROR: Could not fetch test data from API');
+        return { error: true };
+    }
+    console.log(`Restaurant: ${testData.restaurantName} (ID: ${testData.restaurantId})`);
+    console.log(`Engines: ${ENGINES.join(', ')} | Ranges: ${RANGES.join(', ')} days`);
+    console.log('='.repeat(60) + '\n');
+
+    return { restaurantId: testData.restaurantId };
+}
+
+export default function (data) {
+    if (data.error) return;
+
+    const BASE_URL = getBaseUrl();
+    const end = new Date();
+    RANGES.forEach((days) => {
+        const start = new Date(end.getTime() - (days - 1) * 24 * 60 * 60 * 1000);
+        ENGINES.forEach((engine) => {
+            const res = http.get(
+                `${BASE_URL}/reports/occupancy?restaurantId=${data.restaurantId}` +
+                `&startDate=${isoDate(start)}&endDate=${isoDate(end)}&granularity=HOURLY&engine=${engine}`,
+                { tags: { name: 'report', engine: engine, days: String(days) } });
+            check(res, { 'report ok': (r) => r.status === 200 });
+            latency[`${engine}_${days}`].add(res.timings.duration);
+        });
+    });
+}
+
+export function handleSummary(data) {
+    const lines = ['='.repeat(60), 'REPORT ENGINE BENCHMARK RESULT (p95 ms)', '='.repeat(60)];
+    RANGES.forEach((days) => {
+        const cells = ENGINES.map((engine) => {
+            const metric = data.metrics[`report_${engine.toLowerCase()}_${days}d_ms`];
+            const p95 = metric && metric.values ? metric.values['p(95)'] : undefined;
+            return `${engine}=${p95 !== undefined ? p95.toFixed(1) : 'n/a'}`;
+        });
+        lines.push(`${String(days).padStart(3)} days: ${cells.join('  ')}`);
+    });
+    lines.push('='.repeat(60), '');
+
+    return {
+        stdout: lines.join('\n'),
+        'load-tests/results/report-engine.json': JSON.stringify({ metrics: data.metrics }, null, 2),
+    };
+}
@@ -0,0 +1,207 @@
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+import {
+    fetchTestData,
+    getFutureDate,
+    getBaseUrl,
+} from './test-utils.js';
+
+/**
+ * Thread Mode Benchmark - Platform Thread Pool vs Virtual Threads
+ *
+ * Drives a stepped arrival rate of Mongo-bound reads (availability + reports) and samples
+ * JVM metrics from the actuator, so two runs can be compared side by side:
+ *
+ *   # Java 17 / Tomcat worker pool (default)
+ *   ./mvnw spring-boot:run -Dspring-boot.run.profiles=local
+ *   k6 run -e MODE=platform load-tests/thread-mode-benchmark.js
+ *
+ *   # Java 21 / virtual threads
+ *   ./mvnw -Pjdk21 spring-boot:run -Dspring-boot.run.profiles=local,virtual
+ *   k6 run -e MODE=virtual load-tests/thread-mode-benchmark.js
+ *
+ * Reported per run:
+ * - max sustained RPS: highest arrival-rate stage whose p95 stayed under LATENCY_SLO_MS
+ *   with less than 1% errors and no dropped iterations
+ * - memory per in-flight request: (peak JVM memory - idle JVM memory) / peak in-flight requests
+ * - peak live JVM threads
+ *
+ * Run: k6 run load-tests/thread-mode-benchmark.js
+ */
+
+const MODE = __ENV.MODE || 'unknown';
+const LATENCY_SLO_MS = parseInt(__ENV.LATENCY_SLO_MS || '500');
+const STAGE_RATES = (__ENV.STAGE_RATES || '50,100,200,400,800').split(',').map(Number);
+const STAGE_SECONDS = parseInt(__ENV.STAGE_SECONDS || '30');
+const REPORT_SHARE = parseFloat(__ENV.REPORT_SHARE || '0.1');
+// Actuator is served from the application root, not under the API prefix
+const ACTUATOR_URL = __ENV.ACTUATOR_URL || getBaseUrl().replace(/\/api\/v1\/?$/, '') + '/actuator';
+
+const requestErrors = new Counter('thread_mode_errors');
+const jvmMemoryUsed = new Trend('jvm_memory_used_bytes');
+const jvmThreadsLive = new Trend('jvm_threads_live');
+const inFlight = new Trend('in_flight_requests');
+
+function buildScenarios() {
+    const scenarios = {};
+    STAGE_RATES.forEach((rate, i) => {
+        scenarios[`stage_${rate}`] = {
+            executor: 'constant-arrival-rate',
+            rate: rate,
+            timeUnit: '1s',
+            duration: `${STAGE_SECONDS}s`,
+            startTime: `${i * STAGE_SECONDS}s`,
+            preAllocatedVUs: rate,
+            maxVUs: rate * 4,
+            exec: 'traffic',
+            tags: { stage: String(rate) },
+        };
+    });
+    scenarios.jvm_sampler = {
+        executor: 'constant-vus',
+        vus: 1,
+        duration: `${STAGE_RATES.length * STAGE_SECONDS}s`,
+        exec: 'sample',
+    };
+    return scenarios;
+}
+
+function stageThresholds() {
+    // Sub-metric thresholds make per-stage values visible in the summary
+    const thresholds = {};
+    STAGE_RATES.forEach((rate) => {
+        thresholds[`http_req_duration{stage:${rate}}`] = [`p(95)<${LATENCY_SLO_MS}`];
+        thresholds[`http_req_failed{stage:${rate}}`] = ['rate<0.01'];
+        thresholds[`dropped_iterations{scenario:stage_${rate}}`] = ['count<1'];
+    });
+    return thresholds;
+}
+
+export const options = {
+    scenarios: buildScenarios(),
+    thresholds: stageThresholds(),
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+};
+
+function readMetric(name) {
+    const res = http.get(`${ACTUATOR_URL}/metrics/${name}`,
+        { tags: { name: 'actuator' } });
+    if (res.status !== 200) {
+        return null;
+    }
+    // Gauges report VALUE; the active-requests long task timer reports ACTIVE_TASKS
+    const measurement = JSON.parse(res.body).measurements
+        .find((m) => m.statistic === 'VALUE' || m.statistic === 'ACTIVE_TASKS');
+    return measurement ? measurement.value : null;
+}
+
+export function setup() {
+    console.log('\n' + '='.repeat(60));
+    console.log(`THREAD MODE BENCHMARK - MODE=${MODE}`);
+    console.log('='.repeat(60));
+
+    const testData = fetchTestData();
+    if (!testData.restaurantId || testData.spaces.length === 0) {
+        console.log('ERROR: Could not fetch test data from API');
+        return { error: true };
+    }
+
+    const idleMemory = readMetric('jvm.memory.used');
+    console.log(`Stages (req/s): ${STAGE_RATES.join(', ')} x ${STAGE_SECONDS}s`);
+    console.log(`Latency SLO: p95 < ${LATENCY_SLO_MS}ms`);
+    console.log(`Idle JVM memory: ${idleMemory ? (idleMemory / 1048576).toFixed(1) + ' MB' : 'n/a'}`);
+    console.log('='.repeat(60) + '\n');
+
+    return {
+        restaurantId: testData.restaurantId,
+        spaces: testData.spaces,
+        idleMemory: idleMemory,
+    };
+}
+
+export function traffic(data) {
+    if (data.error) return;
+
+    const BASE_URL = getBaseUrl();
+    let res;
+    if (Math.random() < REPORT_SHARE) {
+        const startDate = getFutureDate(-30);
+        const endDate = getFutureDate(0);
+        res = http.get(
+            `${BASE_URL}/reports/occupancy?restaurantId=${data.restaurantId}&startDate=${startDate}&endDate=${endDate}&granularity=DAILY`,
+            { tags: { name: 'report' } });
+    } else {
+        const space = data.spaces[Math.floor(Math.random() * data.spaces.length)];
+        const date = getFutureDate(Math.floor(Math.random() * 30) + 1);
+        res = http.get(`${BASE_URL}/availability/spaces/${space.id}?date=${date}`,
+            { tags: { name: 'availability' } });
+    }
+
+    if (!check(res, { 'status 200': (r) => r.status === 200 })) {
+        requestErrors.add(1);
+    }
+}
+
+export function sample() {
+    const memory = readMetric('jvm.memory.used');
+    const threads = readMetric('jvm.threads.live');
+    // Requests currently being served, as seen by the server
+    const active = readMetric('http.server.requests.active');
+
+    if (memory !== null) jvmMemoryUsed.add(memory);
+    if (threads !== null) jvmThreadsLive.add(threads);
+    if (active !== null) inFlight.add(active);
+
+    sleep(1);
+}
+
+function metricValue(data, name, stat) {
+    const metric = data.metrics[name];
+    return metric && metric.values ? metric.values[stat] : undefined;
+}
+
+export function handleSummary(data) {
+    let maxSustained = 0;
+    STAGE_RATES.forEach((rate) => {
+        const p95 = metricValue(data, `http_req_duration{stage:${rate}}`, 'p(95)');
+        const failed = metricValue(data, `http_req_failed{stage:${rate}}`, 'rate');
+        const dropped = metricValue(data, `dropped_iterations{scenario:stage_${rate}}`, 'count') || 0;
+        if (p95 !== undefined && p95 < LATENCY_SLO_MS && (failed || 0) < 0.01 && dropped === 0) {
+            maxSustained = rate;
+        }
+    });
+
+    const idleMemory = data.setup_data ? data.setup_data.idleMemory : null;
+    const peakMemory = metricValue(data, 'jvm_memory_used_bytes', 'max');
+    const peakInFlight = metricValue(data, 'in_flight_requests', 'max');
+    const peakThreads = metricValue(data, 'jvm_threads_live', 'max');
+    const memoryPerRequest = idleMemory && peakMemory && peakInFlight
+        ? (peakMemory - idleMemory) / peakInFlight
+        : null;
+
+    const lines = [
+        '='.repeat(60),
+        `THREAD MODE BENCHMARK RESULT - MODE=${MODE}`,
+        '='.repeat(60),
+        `Max sustained RPS (p95 < ${LATENCY_SLO_MS}ms): ${maxSustained}`,
+        `Peak in-flight requests: ${peakInFlight !== undefined ? peakInFlight : 'n/a'}`,
+        `Peak live JVM threads: ${peakThreads !== undefined ? peakThreads : 'n/a'}`,
+        `Memory per in-flight request: ${memoryPerRequest !== null
+            ? (memoryPerRequest / 1024).toFixed(1) + ' KB' : 'n/a'}`,
+        '='.repeat(60),
+        '',
+    ];
+
+    return {
+        stdout: lines.join('\n'),
+        [`load-tests/results/thread-mode-${MODE}.json`]: JSON.stringify({
+            mode: MODE,
+            maxSustainedRps: maxSustained,
+            peakInFlight: peakInFlight,
+            peakThreads: peakThreads,
+            memoryPerInFlightBytes: memoryPerRequest,
+            metrics: data.metrics,
+        }, null, 2),
+    };
+}
@@ -0,0 +1,187 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.config.MongoConfig;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.enums.ReservationStatus;
+import com.opentable.privatedining.repository.ReservationRepository.OccupancyFacets;
+import com.opentable.privatedining.util.OccupancyGrid;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client side of each report engine for a busy restaurant (4 spaces, 40 bookings a day)
+ * over 30, 90 and 365 days: decoding what Mongo sends back and turning it into an
+ * {@link OccupancyGrid}.
+ *
+ * inMemory receives every confirmed reservation document; aggregation receives the one
+ * document of the $facet pipeline with day-space and day-hour totals. Bytes on the wire
+ * do not depend on timing, so they are printed once per trial. Server-side latency needs
+ * a database: compare engines end to end with load-tests/report-engine-benchmark.js.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="ReportEngineBenchmark -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReportEngineBenchmark {
+
+    private static final int SPACES = 4;
+    private static final int BOOKINGS_PER_DAY = 40;
+
+    @Param({"30", "90", "365"})
+    private int days;
+
+    private LocalDate start;
+    private List<UUID> spaceIds;
+    private MappingMongoConverter converter;
+    private final DocumentCodec codec = new DocumentCodec();
+    private List<RawBsonDocument> reservationDocuments;
+    private List<OccupancyFacets.CountRow> cancelled;
+    private RawBsonDocument facetDocument;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        ObjectId restaurantId = new ObjectId();
+        spaceIds = new ArrayList<>();
+        for (int i = 0; i < SPACES; i++) {
+            spaceIds.add(UUID.randomUUID());
+        }
+
+        Random random = new Random(42);
+        start = LocalDate.of(2024, 1, 1);
+        List<Reservation> confirmed = new ArrayList<>();
+        reservationDocuments = new ArrayList<>();
+        cancelled = new ArrayList<>();
+        for (int day = 0; day < days; day++) {
+            OccupancyFacets.CountRow cancelledToday = new OccupancyFacets.CountRow();
+            cancelledToday.setId(start.plusDays(day));
+            cancelled.add(cancelledToday);
+            for (int i = 0; i < BOOKINGS_PER_DAY; i++) {
+                int hour = 11 + random.nextInt(11);
+                Reservation reservation = Reservation.builder()
+                        .id(new ObjectId())
+                        .restaurantId(restaurantId)
+                        .spaceId(spaceIds.get(random.nextInt(SPACES)))
+                        .reservationDate(start.plusDays(day))
+                        .startTime(String.format("%02d:%s", hour, random.nextBoolean() ? "00" : "30"))
+                        .endTime(String.format("%02d:00", hour + 2))
+                        .partySize(2 + random.nextInt(30))
+                        .customerName("Benchmark Customer " + i)
+                        .customerEmail("customer" + i + "@example.com")
+                        .customerPhone("+1-555-0100")
+                        .specialRequests("Window table if possible")
+                        .status(random.nextInt(10) == 0 ? ReservationStatus.CANCELLED : ReservationStatus.CONFIRMED)
+                        .createdAt(LocalDateTime.of(2023, 12, 1, 12, 0))
+                        .updatedAt(LocalDateTime.of(2023, 12, 1, 12, 0))
+                        .version(0L)
+                        .build();
+                if (reservation.getStatus() == ReservationStatus.CANCELLED) {
+                    cancelledToday.setTotal(cancelledToday.getTotal() + 1);
+                    continue;
+                }
+                confirmed.add(reservation);
+                reservationDocuments.add(encode(reservation));
+            }
+        }
+
+        facetDocument = encode(toFacets(newGrid().addReservations(confirmed).addCancelled(cancelled)));
+
+        long reservationBytes = reservationDocuments.stream().mapToLong(document -> document.getByteBuffer().remaining()).sum();
+        long facetBytes = facetDocument.getByteBuffer().remaining();
+        System.out.printf("%n%d days: inMemory receives %d documents (%,d bytes), aggregation 1 document (%,d bytes)%n",
+                days, reservationDocuments.size(), reservationBytes, facetBytes);
+    }
+
+    @Benchmark
+    public OccupancyGrid inMemory() {
+        List<Reservation> reservations = new ArrayList<>(reservationDocuments.size());
+        for (RawBsonDocument document : reservationDocuments) {
+            reservations.add(converter.read(Reservation.class, decode(document)));
+        }
+        return newGrid().addReservations(reservations).addCancelled(cancelled);
+    }
+
+    @Benchmark
+    public OccupancyGrid aggregation() {
+        return newGrid().addFacets(converter.read(OccupancyFacets.class, decode(facetDocument)));
+    }
+
+    private OccupancyGrid newGrid() {
+        return new OccupancyGrid(start, start.plusDays(days - 1), spaceIds);
+    }
+
+    private RawBsonDocument encode(Object source) {
+        Document document = new Document();
+        converter.write(source, document);
+        return new RawBsonDocument(document, codec);
+    }
+
+    private Document decode(RawBsonDocument document) {
+        return codec.decode(document.asBsonReader(), DecoderContext.builder().build());
+    }
+
+    private OccupancyFacets toFacets(OccupancyGrid grid) {
+        OccupancyFacets facets = new OccupancyFacets();
+        for (int day = 0; day < grid.days(); day++) {
+            for (int space = 0; space < spaceIds.size(); space++) {
+                if (grid.spaceReservations(day, space) == 0) {
+                    continue;
+                }
+                OccupancyFacets.DaySpaceKey key = new OccupancyFacets.DaySpaceKey();
+                key.setDate(grid.date(day));
+                key.setSpaceId(spaceIds.get(space));
+                OccupancyFacets.DaySpaceRow row = new OccupancyFacets.DaySpaceRow();
+                row.setId(key);
+                row.setTotalReservations(grid.spaceReservations(day, space));
+                row.setTotalGuests(grid.spaceGuests(day, space));
+                facets.getDaySpace().add(row);
+            }
+            for (int hour = 0; hour < OccupancyGrid.HOURS; hour++) {
+                if (grid.hourReservations(day, hour) == 0) {
+                    continue;
+                }
+                OccupancyFacets.DayHourKey key = new OccupancyFacets.DayHourKey();
+                key.setDate(grid.date(day));
+                key.setHour(String.format("%02d", hour));
+                OccupancyFacets.DayHourRow row = new OccupancyFacets.DayHourRow();
+                row.setId(key);
+                row.setTotalReservations(grid.hourReservations(day, hour));
+                row.setTotalGuests(grid.hourGuests(day, hour));
+                facets.getDayHour().add(row);
+            }
+        }
+        facets.setCancelled(cancelled);
+        return facets;
+    }
+}
@@ -0,0 +1,196 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.dto.request.OccupancyReportRequest;
+import com.opentable.privatedining.dto.response.DailyOccupancy;
+import com.opentable.privatedining.dto.response.HourlyOccupancy;
+import com.opentable.privatedining.dto.response.OccupancyReportResponse;
+import com.opentable.privatedining.dto.response.SpaceOccupancy;
+import com.opentable.privatedining.model.OperatingHours;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.Restaurant;
+import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.enums.ReportGranularity;
+import com.opentable.privatedining.util.OccupancyGrid;
+import com.opentable.privatedining.util.SlotSupply;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Report assembly for a year of a busy restaurant (5 spaces, 40 bookings a day), once the
+ * confirmed reservations are loaded.
+ *
+ * groupingBy is the previous daily breakdown (reservations regrouped by date, then by
+ * space and by hour for every day, with a BigDecimal per percentage); denseGrid folds
+ * them into an {@link OccupancyGrid} in one pass and runs
+ * {@link ReportingService#assembleReport}, which also builds the summary and insights and
+ * computes utilization in seat-minutes from the restaurant's operating hours.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="ReportingServiceBenchmark -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReportingServiceBenchmark {
+
+    private static final int SPACES = 5;
+    private static final int BOOKINGS_PER_DAY = 40;
+    private static final int DAYS = 365;
+
+    @Param({"DAILY", "HOURLY"})
+    private ReportGranularity granularity;
+
+    private final ReportingService reportingService = new ReportingService(null, null, null, null, null);
+    private OccupancyReportRequest request;
+    private Restaurant restaurant;
+    private List<Space> spaces;
+    private List<UUID> spaceIds;
+    private SlotSupply supply;
+    private List<Reservation> reservations;
+
+    @Setup
+    public void setUp() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = start.plusDays(DAYS - 1);
+        request = OccupancyReportRequest.builder()
+                .restaurantId(new ObjectId().toHexString())
+                .startDate(start)
+                .endDate(end)
+                .granularity(granularity)
+                .build();
+        List<OperatingHours> operatingHours = new ArrayList<>();
+        for (int dayOfWeek = 0; dayOfWeek < 7; dayOfWeek++) {
+            operatingHours.add(OperatingHours.builder()
+                    .dayOfWeek(dayOfWeek)
+                    .openTime("11:00")
+                    .closeTime("23:00")
+                    .build());
+        }
+        restaurant = Restaurant.builder().name("Benchmark Bistro").operatingHours(operatingHours).build();
+
+        spaces = new ArrayList<>();
+        spaceIds = new ArrayList<>();
+        for (int i = 0; i < SPACES; i++) {
+            Space space = Space.builder()
+                    .id(UUID.randomUUID())
+                    .name("Room " + i)
+                    .maxCapacity(20 + 10 * i)
+                    .build();
+            spaces.add(space);
+            spaceIds.add(space.getId());
+        }
+        supply = SlotSupply.of(operatingHours, spaces);
+
+        Random random = new Random(42);
+        reservations = new ArrayList<>(DAYS * BOOKINGS_PER_DAY);
+        for (int day = 0; day < DAYS; day++) {
+            for (int i = 0; i < BOOKINGS_PER_DAY; i++) {
+                int hour = 11 + random.nextInt(11);
+                reservations.add(Reservation.builder()
+                        .spaceId(spaceIds.get(random.nextInt(SPACES)))
+                        .reservationDate(start.plusDays(day))
+                        .startTime(String.format("%02d:%s", hour, random.nextBoolean() ? "00" : "30"))
+                        .partySize(2 + random.nextInt(30))
+                        .build());
+            }
+        }
+    }
+
+    @Benchmark
+    public OccupancyReportResponse denseGrid() {
+        OccupancyGrid grid = new OccupancyGrid(request.getStartDate(), request.getEndDate(), spaceIds)
+                .addReservations(reservations);
+        return reportingService.assembleReport(request, restaurant, spaces, supply, grid);
+    }
+
+    @Benchmark
+    public List<DailyOccupancy> groupingBy() {
+        boolean includeHourly = granularity == ReportGranularity.HOURLY;
+        Map<LocalDate, List<Reservation>> byDate = reservations.stream()
+                .collect(Collectors.groupingBy(Reservation::getReservationDate));
+        int totalCapacity = spaces.stream().mapToInt(Space::getMaxCapacity).sum();
+
+        List<DailyOccupancy> dailyList = new ArrayList<>();
+        for (LocalDate date = request.getStartDate(); !date.isAfter(request.getEndDate()); date = date.plusDays(1)) {
+            List<Reservation> dayReservations = byDate.getOrDefault(date, Collections.emptyList());
+            long totalGuests = dayReservations.stream().mapToInt(Reservation::getPartySize).sum();
+
+            Map<String, Long> hourlyGuests = dayReservations.stream()
+                    .collect(Collectors.groupingBy(r -> r.getStartTime().substring(0, 2) + ":00",
+                            Collectors.summingLong(Reservation::getPartySize)));
+            String peakHour = hourlyGuests.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+
+            Map<UUID, List<Reservation>> bySpace = dayReservations.stream()
+                    .collect(Collectors.groupingBy(Reservation::getSpaceId));
+            List<SpaceOccupancy> spaceBreakdown = spaces.stream()
+                    .map(space -> {
+                        List<Reservation> spaceReservations = bySpace.getOrDefault(space.getId(), Collections.emptyList());
+                        long guests = spaceReservations.stream().mapToInt(Reservation::getPartySize).sum();
+                        return SpaceOccupancy.builder()
+                                .spaceId(space.getId())
+                                .reservations((long) spaceReservations.size())
+                                .guests(guests)
+                                .utilizationPercentage(percentage(guests, space.getMaxCapacity()))
+                                .build();
+                    })
+                    .collect(Collectors.toList());
+
+            List<HourlyOccupancy> hourlyBreakdown = null;
+            if (includeHourly) {
+                hourlyBreakdown = dayReservations.stream()
+                        .collect(Collectors.groupingBy(r -> r.getStartTime().substring(0, 2) + ":00"))
+                        .entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .map(entry -> {
+                            long guests = entry.getValue().stream().mapToInt(Reservation::getPartySize).sum();
+                            return HourlyOccupancy.builder()
+                                    .hour(entry.getKey())
+                                    .reservations((long) entry.getValue().size())
+                                    .guests(guests)
+                                    .utilizationPercentage(percentage(guests, totalCapacity))
+                                    .build();
+                        })
+                        .collect(Collectors.toList());
+            }
+
+            dailyList.add(DailyOccupancy.builder()
+                    .date(date)
+                    .dayOfWeek(date.getDayOfWeek())
+                    .totalReservations((long) dayReservations.size())
+                    .totalGuests(totalGuests)
+                    .utilizationPercentage(percentage(totalGuests, totalCapacity))
+                    .peakHour(peakHour)
+                    .peakHourUtilization(peakHour != null
+                            ? percentage(hourlyGuests.get(peakHour), totalCapacity) : BigDecimal.ZERO)
+                    .spaceBreakdown(spaceBreakdown)
+                    .hourlyBreakdown(hourlyBreakdown)
+                    .build());
+        }
+        return dailyList;
+    }
+
+    private static BigDecimal percentage(long guests, int capacity) {
+        return BigDecimal.valueOf(guests * 100.0 / capacity).setScale(1, RoundingMode.HALF_UP);
+    }
+}
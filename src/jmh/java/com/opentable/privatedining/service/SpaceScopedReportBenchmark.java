@@ -0,0 +1,124 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.dto.request.OccupancyReportRequest;
+import com.opentable.privatedining.dto.response.OccupancyReportResponse;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.Restaurant;
+import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.enums.ReportGranularity;
+import com.opentable.privatedining.util.OccupancyGrid;
+import com.opentable.privatedining.util.SlotSupply;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-room occupancy report over a year, as the restaurant grows from 5 to 40 spaces
+ * (8 bookings per space a day).
+ *
+ * wholeRestaurant is what a spaceId report used to cost: every reservation of the
+ * restaurant folded into a grid of every space. spaceScoped folds only the requested
+ * space's reservations (what findBySpaceIdAndReservationDateBetweenAndStatus returns) into
+ * a one-space grid, so its time should stay flat as spaces grows. The Mongo query itself is
+ * not measured; it shrinks the same way, the space-date-status index reading one space's
+ * documents instead of the restaurant's.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="SpaceScopedReportBenchmark -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpaceScopedReportBenchmark {
+
+    private static final int BOOKINGS_PER_SPACE_PER_DAY = 8;
+    private static final int DAYS = 365;
+
+    @Param({"5", "10", "40"})
+    private int spaces;
+
+    private final ReportingService reportingService = new ReportingService(null, null, null, null, null);
+    private OccupancyReportRequest request;
+    private Restaurant restaurant;
+    private List<Space> allSpaces;
+    private List<UUID> allSpaceIds;
+    private List<Reservation> allReservations;
+    private SlotSupply allSupply;
+    private List<Space> space;
+    private SlotSupply spaceSupply;
+    private List<UUID> spaceIds;
+    private List<Reservation> spaceReservations;
+
+    @Setup
+    public void setUp() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        request = OccupancyReportRequest.builder()
+                .restaurantId(new ObjectId().toHexString())
+                .startDate(start)
+                .endDate(start.plusDays(DAYS - 1))
+                .granularity(ReportGranularity.DAILY)
+                .build();
+        restaurant = Restaurant.builder().name("Benchmark Bistro").build();
+
+        allSpaces = new ArrayList<>();
+        allSpaceIds = new ArrayList<>();
+        for (int i = 0; i < spaces; i++) {
+            Space room = Space.builder()
+                    .id(UUID.randomUUID())
+                    .name("Room " + i)
+                    .maxCapacity(20 + 10 * (i % 4))
+                    .build();
+            allSpaces.add(room);
+            allSpaceIds.add(room.getId());
+        }
+        space = List.of(allSpaces.get(0));
+        spaceIds = List.of(allSpaceIds.get(0));
+        allSupply = SlotSupply.of(restaurant.getOperatingHours(), allSpaces);
+        spaceSupply = SlotSupply.of(restaurant.getOperatingHours(), space);
+
+        Random random = new Random(42);
+        allReservations = new ArrayList<>(DAYS * spaces * BOOKINGS_PER_SPACE_PER_DAY);
+        spaceReservations = new ArrayList<>(DAYS * BOOKINGS_PER_SPACE_PER_DAY);
+        for (int day = 0; day < DAYS; day++) {
+            for (int i = 0; i < spaces * BOOKINGS_PER_SPACE_PER_DAY; i++) {
+                int hour = 11 + random.nextInt(11);
+                Reservation reservation = Reservation.builder()
+                        .spaceId(allSpaceIds.get(i % spaces))
+                        .reservationDate(start.plusDays(day))
+                        .startTime(String.format("%02d:%s", hour, random.nextBoolean() ? "00" : "30"))
+                        .partySize(2 + random.nextInt(20))
+                        .build();
+                allReservations.add(reservation);
+                if (i % spaces == 0) {
+                    spaceReservations.add(reservation);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public OccupancyReportResponse wholeRestaurant() {
+        OccupancyGrid grid = new OccupancyGrid(request.getStartDate(), request.getEndDate(), allSpaceIds)
+                .addReservations(allReservations);
+        return reportingService.assembleReport(request, restaurant, allSpaces, allSupply, grid);
+    }
+
+    @Benchmark
+    public OccupancyReportResponse spaceScoped() {
+        OccupancyGrid grid = new OccupancyGrid(request.getStartDate(), request.getEndDate(), spaceIds)
+                .addReservations(spaceReservations);
+        return reportingService.assembleReport(request, restaurant, space, spaceSupply, grid);
+    }
+}
@@ -0,0 +1,94 @@
+package com.opentable.privatedining.util;
+
+import com.opentable.privatedining.dto.response.TimeSlotResponse;
+import com.opentable.privatedining.model.OperatingHours;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.Space;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slot generation for a large event hall: 15-minute slots over 08:00-23:45 against
+ * a day of bookings.
+ *
+ * pairwiseScan is the previous implementation (every slot streams every reservation
+ * twice and parses its time strings on each comparison); sweepLine is
+ * {@link TimeSlotGenerator#generateTimeSlots}.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="TimeSlotGeneratorBenchmark -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TimeSlotGeneratorBenchmark {
+
+    @Param({"10", "100", "500"})
+    private int reservationCount;
+
+    private final TimeSlotGenerator timeSlotGenerator = new TimeSlotGenerator();
+    private OperatingHours operatingHours;
+    private Space space;
+    private List<Reservation> reservations;
+
+    @Setup
+    public void setUp() {
+        operatingHours = OperatingHours.builder().dayOfWeek(1).openTime("08:00").closeTime("23:45").build();
+        space = Space.builder().name("Event Hall").maxCapacity(5000).slotDurationMinutes(15).build();
+
+        Random random = new Random(42);
+        reservations = new ArrayList<>(reservationCount);
+        for (int i = 0; i < reservationCount; i++) {
+            LocalTime start = LocalTime.of(8, 0).plusMinutes(15L * random.nextInt(60));
+            LocalTime end = start.plusMinutes(15L * (1 + random.nextInt(8)));
+            reservations.add(Reservation.builder()
+                    .startTime(start.toString())
+                    .endTime(end.toString())
+                    .partySize(1 + random.nextInt(20))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<TimeSlotResponse> sweepLine() {
+        return timeSlotGenerator.generateTimeSlots(operatingHours, space, reservations);
+    }
+
+    @Benchmark
+    public int[] pairwiseScan() {
+        LocalTime open = operatingHours.getOpenTimeAsLocalTime();
+        LocalTime close = operatingHours.getCloseTimeAsLocalTime();
+        int slotCount = 0;
+        int checksum = 0;
+        for (LocalTime slotStart = open; ; slotStart = slotStart.plusMinutes(space.getSlotDurationMinutes())) {
+            LocalTime slotEnd = slotStart.plusMinutes(space.getSlotDurationMinutes());
+            if (slotEnd.isBefore(slotStart) || slotEnd.isAfter(close)) {
+                break;
+            }
+            LocalTime start = slotStart;
+            int booked = reservations.stream()
+                    .filter(r -> r.getStartTimeAsLocalTime().isBefore(slotEnd)
+                            && r.getEndTimeAsLocalTime().isAfter(start))
+                    .mapToInt(Reservation::getPartySize)
+                    .sum();
+            int count = (int) reservations.stream()
+                    .filter(r -> r.getStartTimeAsLocalTime().isBefore(slotEnd)
+                            && r.getEndTimeAsLocalTime().isAfter(start))
+                    .count();
+            checksum += booked + count;
+            slotCount++;
+        }
+        return new int[]{slotCount, checksum};
+    }
+}
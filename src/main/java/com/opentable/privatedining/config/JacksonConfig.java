@@ -8,10 +8,12 @@ import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.bson.types.ObjectId;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 
 import java.io.IOException;
 
@@ -25,7 +27,23 @@ public class JacksonConfig {
 
         // Register JSR310 module for Java 8 time support
         mapper.findAndRegisterModules();
+        mapper.registerModule(objectIdModule());
+        return mapper;
+    }
 
+    /**
+     * CBOR converter, used when a client sends Accept: application/cbor.
+     * Shares the modules of the JSON mapper so both formats carry the same fields.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        CBORMapper mapper = new CBORMapper();
+        mapper.findAndRegisterModules();
+        mapper.registerModule(objectIdModule());
+        return new MappingJackson2CborHttpMessageConverter(mapper);
+    }
+
+    private static SimpleModule objectIdModule() {
         SimpleModule module = new SimpleModule();
 
         // Custom serializer to convert ObjectId to String
@@ -49,7 +67,6 @@ public class JacksonConfig {
             }
         });
 
-        mapper.registerModule(module);
-        return mapper;
+        return module;
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.opentable.privatedining.config;
 
 import org.bson.UuidRepresentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
@@ -10,9 +12,10 @@ import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 
 import java.util.Arrays;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
- * MongoDB configuration for UUID conversion.
+ * MongoDB configuration for UUID conversion and driver connection pooling.
  * Handles conversion between MongoDB Binary UUID and Java UUID types.
  */
 @Configuration
@@ -26,6 +29,20 @@ public class MongoConfig {
         ));
     }
 
+    /**
+     * Bound the driver connection pool.
+     * Under virtual threads the pool, not the web thread pool, caps concurrent Mongo work,
+     * so both its size and how long a request may wait for a connection are configurable.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+            @Value("${app.mongo.pool.max-size:100}") int maxSize,
+            @Value("${app.mongo.pool.max-wait-ms:120000}") long maxWaitMs) {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxSize)
+                .maxWaitTime(maxWaitMs, TimeUnit.MILLISECONDS));
+    }
+
     /**
      * Converter to read Binary UUID from MongoDB into Java UUID.
      */
@@ -1,6 +1,8 @@
 package com.opentable.privatedining.config;
 
+import com.opentable.privatedining.model.OccupancyRollup;
 import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.Restaurant;
 import com.opentable.privatedining.model.Space;
 import com.mongodb.MongoCommandException;
 import jakarta.annotation.PostConstruct;
@@ -41,6 +43,8 @@ public class MongoIndexConfig {
         log.info("Creating MongoDB indexes...");
         createReservationIndexes();
         createSpaceIndexes();
+        createRestaurantIndexes();
+        createReportingIndexes();
         log.info("MongoDB index creation complete");
     }
 
@@ -71,6 +75,17 @@ public class MongoIndexConfig {
                         .named("idx_reservation_restaurant_date"),
                 "reservation restaurant-date");
 
+        // Index for cursor pagination by date (KeysetPager)
+        ensureIndexSafely(Reservation.class,
+                new Index()
+                        .on("reservationDate", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .named("idx_reservation_date_id"),
+                "reservation date-id");
+        // The date-id index also serves every reservationDate-only query; drop the
+        // single-field index older mongo-init scripts created
+        dropIndexSafely(Reservation.class, "reservationDate_1");
+
         // Index for customer lookups
         ensureIndexSafely(Reservation.class,
                 new Index()
@@ -89,6 +104,50 @@ public class MongoIndexConfig {
                 "space restaurant-active");
     }
 
+    private void createRestaurantIndexes() {
+        // Index for city-wide availability search
+        ensureIndexSafely(Restaurant.class,
+                new Index()
+                        .on("city", Sort.Direction.ASC)
+                        .on("isActive", Sort.Direction.ASC)
+                        .named("idx_restaurant_city_active"),
+                "restaurant city-active");
+
+        // Index for cursor pagination by name (KeysetPager)
+        ensureIndexSafely(Restaurant.class,
+                new Index()
+                        .on("name", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .named("idx_restaurant_name_id"),
+                "restaurant name-id");
+    }
+
+    private void createReportingIndexes() {
+        // Index for reading a restaurant's occupancy rollups over a date range
+        ensureIndexSafely(OccupancyRollup.class,
+                new Index()
+                        .on("restaurantId", Sort.Direction.ASC)
+                        .on("date", Sort.Direction.ASC)
+                        .named("idx_occupancy_rollup_restaurant_date"),
+                "occupancy rollup restaurant-date");
+    }
+
+    /**
+     * Drop an index superseded by another one, if it exists.
+     */
+    private void dropIndexSafely(Class<?> entityClass, String indexName) {
+        try {
+            boolean exists = mongoTemplate.indexOps(entityClass).getIndexInfo().stream()
+                    .anyMatch(info -> info.getName().equals(indexName));
+            if (exists) {
+                mongoTemplate.indexOps(entityClass).dropIndex(indexName);
+                log.info("Dropped superseded index {}", indexName);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to drop superseded index {}: {}", indexName, e.getMessage());
+        }
+    }
+
     /**
      * Safely ensure an index exists, handling conflicts gracefully.
      * If an index with the same fields but different name exists, log and continue.
@@ -1,7 +1,14 @@
 package com.opentable.privatedining.controller;
 
+import com.opentable.privatedining.dto.response.AvailabilityCalendarResponse;
 import com.opentable.privatedining.dto.response.AvailabilityResponse;
+import com.opentable.privatedining.dto.response.AvailabilitySearchResponse;
+import com.opentable.privatedining.dto.response.CompactAvailabilityResponse;
+import com.opentable.privatedining.dto.response.SlotCapacityChange;
+import com.opentable.privatedining.service.AvailabilitySearchService;
 import com.opentable.privatedining.service.AvailabilityService;
+import com.opentable.privatedining.service.ReactiveAvailabilityService;
+import com.opentable.privatedining.service.SlotCapacityChangeStream;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,11 +17,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.UUID;
+import java.util.function.Function;
 
 /**
  * Controller for checking availability.
@@ -25,9 +41,23 @@ import java.util.UUID;
 public class AvailabilityController {
 
     private final AvailabilityService availabilityService;
+    private final ReactiveAvailabilityService reactiveAvailabilityService;
+    private final AvailabilitySearchService availabilitySearchService;
+    private final SlotCapacityChangeStream slotCapacityChangeStream;
 
-    public AvailabilityController(AvailabilityService availabilityService) {
+    /**
+     * Comment events sent on idle streams, so proxies do not close the connection.
+     */
+    private static final Duration STREAM_HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
+    public AvailabilityController(AvailabilityService availabilityService,
+                                  ReactiveAvailabilityService reactiveAvailabilityService,
+                                  AvailabilitySearchService availabilitySearchService,
+                                  SlotCapacityChangeStream slotCapacityChangeStream) {
         this.availabilityService = availabilityService;
+        this.reactiveAvailabilityService = reactiveAvailabilityService;
+        this.availabilitySearchService = availabilitySearchService;
+        this.slotCapacityChangeStream = slotCapacityChangeStream;
     }
 
     @GetMapping("/spaces/{spaceId}")
@@ -35,7 +65,8 @@ public class AvailabilityController {
             summary = "Get space availability",
             description = "Get available time slots for a space on a specific date. " +
                     "Shows capacity information for each slot, allowing for flexible booking " +
-                    "where multiple reservations can share the same time slot if capacity allows."
+                    "where multiple reservations can share the same time slot if capacity allows. " +
+                    "Send the returned ETag in If-None-Match to get 304 Not Modified while availability is unchanged."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -46,16 +77,240 @@ public class AvailabilityController {
                             schema = @Schema(implementation = AvailabilityResponse.class)
                     )
             ),
+            @ApiResponse(responseCode = "304", description = "Availability unchanged since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Space not found")
     })
     public ResponseEntity<AvailabilityResponse> getSpaceAvailability(
             @Parameter(description = "Space UUID", required = true)
             @PathVariable UUID spaceId,
 
+            @Parameter(description = "Date to check availability", required = true, example = "2024-02-15")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+
+            WebRequest request
+    ) {
+        return conditionalAvailability(spaceId, date, "full", request, Function.identity());
+    }
+
+    @GetMapping(value = "/spaces/{spaceId}", produces = CompactAvailabilityResponse.MEDIA_TYPE_JSON)
+    @Operation(
+            summary = "Get space availability (compact)",
+            description = "Same data as the availability endpoint with slots packed as " +
+                    "[startMinute, available, booked] triples. Selected with Accept: " +
+                    CompactAvailabilityResponse.MEDIA_TYPE_JSON + " or application/cbor. " +
+                    "Send the returned ETag in If-None-Match to get 304 Not Modified while availability is unchanged."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Availability retrieved successfully",
+                    content = {
+                            @Content(mediaType = CompactAvailabilityResponse.MEDIA_TYPE_JSON,
+                                    schema = @Schema(implementation = CompactAvailabilityResponse.class)),
+                            @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE,
+                                    schema = @Schema(implementation = CompactAvailabilityResponse.class))
+                    }
+            ),
+            @ApiResponse(responseCode = "304", description = "Availability unchanged since the given ETag"),
+            @ApiResponse(responseCode = "404", description = "Space not found")
+    })
+    public ResponseEntity<CompactAvailabilityResponse> getSpaceAvailabilityCompact(
+            @Parameter(description = "Space UUID", required = true)
+            @PathVariable UUID spaceId,
+
+            @Parameter(description = "Date to check availability", required = true, example = "2024-02-15")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+
+            WebRequest request
+    ) {
+        return conditionalAvailability(spaceId, date, "compact", request, CompactAvailabilityResponse::from);
+    }
+
+    /**
+     * CBOR encoding of the compact representation. Mapped separately from the compact JSON
+     * handler so that each representation gets its own strong ETag.
+     */
+    @GetMapping(value = "/spaces/{spaceId}", produces = MediaType.APPLICATION_CBOR_VALUE)
+    @Operation(hidden = true)
+    public ResponseEntity<CompactAvailabilityResponse> getSpaceAvailabilityCbor(
+            @PathVariable UUID spaceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request
+    ) {
+        return conditionalAvailability(spaceId, date, "cbor", request, CompactAvailabilityResponse::from);
+    }
+
+    /**
+     * Answer If-None-Match from the space-day's version tag before any reservation is loaded.
+     * The strong ETag is the version tag plus the representation. The tag is read before the
+     * availability, so it is never newer than the body it is sent with. Without version tags
+     * (app.availability.etag.enabled=false) the availability is always sent.
+     */
+    private <T> ResponseEntity<T> conditionalAvailability(UUID spaceId, LocalDate date, String representation,
+                                                          WebRequest request,
+                                                          Function<AvailabilityResponse, T> body) {
+        if (!availabilityService.isVersionTagEnabled()) {
+            return ResponseEntity.ok()
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(body.apply(availabilityService.getAvailability(spaceId, date)));
+        }
+        String etag = "\"" + availabilityService.getAvailabilityVersionTag(spaceId, date)
+                + "-" + representation + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(etag)
+                .body(body.apply(availabilityService.getAvailability(spaceId, date)));
+    }
+
+    @GetMapping("/spaces/{spaceId}/calendar")
+    @Operation(
+            summary = "Get space availability calendar",
+            description = "Get a per-day availability summary for a space over a date range of up to " +
+                    AvailabilityService.MAX_CALENDAR_DAYS + " days, computed from a single reservation query. " +
+                    "Set includeSlots=true to also return every day's time slots."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Availability calendar retrieved successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = AvailabilityCalendarResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid date range"),
+            @ApiResponse(responseCode = "404", description = "Space not found")
+    })
+    public ResponseEntity<AvailabilityCalendarResponse> getSpaceAvailabilityCalendar(
+            @Parameter(description = "Space UUID", required = true)
+            @PathVariable UUID spaceId,
+
+            @Parameter(description = "First day (inclusive)", required = true, example = "2024-02-15")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "Last day (inclusive)", required = true, example = "2024-02-28")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Include every day's time slots", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeSlots
+    ) {
+        AvailabilityCalendarResponse response =
+                availabilityService.getAvailabilityCalendar(spaceId, startDate, endDate, includeSlots);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/spaces/{spaceId}/reactive")
+    @Operation(
+            summary = "Get space availability (non-blocking)",
+            description = "Same response as the availability endpoint, served from the reactive Mongo driver. " +
+                    "The space/restaurant lookups and the reservation query run concurrently and no " +
+                    "request thread is held while waiting on the database."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Availability retrieved successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = AvailabilityResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "404", description = "Space not found")
+    })
+    public Mono<AvailabilityResponse> getSpaceAvailabilityReactive(
+            @Parameter(description = "Space UUID", required = true)
+            @PathVariable UUID spaceId,
+
             @Parameter(description = "Date to check availability", required = true, example = "2024-02-15")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
     ) {
-        AvailabilityResponse response = availabilityService.getAvailability(spaceId, date);
+        return reactiveAvailabilityService.getAvailability(spaceId, date);
+    }
+
+    @GetMapping(value = "/spaces/{spaceId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream live slot capacity changes",
+            description = "Server-Sent Events stream of a space-day's slot capacity. Load availability first, " +
+                    "then apply \"slot\" events, which carry a slot's current booked capacity. Events for the same " +
+                    "slot are coalesced while the client is behind; on a \"resync\" event, reload availability."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Event stream opened",
+                    content = @Content(
+                            mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = SlotCapacityChange.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "503", description = "Live streaming is not enabled")
+    })
+    public ResponseEntity<Flux<ServerSentEvent<SlotCapacityChange>>> streamSlotCapacity(
+            @Parameter(description = "Space UUID", required = true)
+            @PathVariable UUID spaceId,
+
+            @Parameter(description = "Date to watch", required = true, example = "2024-02-15")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        if (!slotCapacityChangeStream.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        Flux<ServerSentEvent<SlotCapacityChange>> changes = slotCapacityChangeStream.subscribe(spaceId, date)
+                .map(change -> ServerSentEvent.builder(change).event(change.getType()).build());
+        Flux<ServerSentEvent<SlotCapacityChange>> heartbeats = Flux.interval(STREAM_HEARTBEAT_INTERVAL)
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<SlotCapacityChange>builder().comment("heartbeat").build());
+        return ResponseEntity.ok(Flux.merge(changes, heartbeats));
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search availability across spaces",
+            description = "Find slots that can seat a party across all spaces of a restaurant or of a city. " +
+                    "Candidate spaces are evaluated concurrently from a single reservation query; results are " +
+                    "ranked by closeness to the preferred time, then by tightest fit. If the search exceeds its " +
+                    "latency budget, the spaces evaluated so far are returned and partial is true."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Search completed",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = AvailabilitySearchResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid search parameters"),
+            @ApiResponse(responseCode = "404", description = "Restaurant not found")
+    })
+    public ResponseEntity<AvailabilitySearchResponse> searchAvailability(
+            @Parameter(description = "Restaurant ID (exclusive with city)", example = "507f1f77bcf86cd799439011")
+            @RequestParam(required = false) String restaurantId,
+
+            @Parameter(description = "City (exclusive with restaurantId)", example = "New York")
+            @RequestParam(required = false) String city,
+
+            @Parameter(description = "Date", required = true, example = "2024-02-16")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+
+            @Parameter(description = "Party size", required = true, example = "14")
+            @RequestParam int partySize,
+
+            @Parameter(description = "Preferred start time (HH:mm)", example = "19:00")
+            @RequestParam(required = false) String time,
+
+            @Parameter(description = "Minutes around the preferred time a slot may start", example = "90")
+            @RequestParam(defaultValue = "90") int windowMinutes,
+
+            @Parameter(description = "Maximum results", example = "20")
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        AvailabilitySearchResponse response = availabilitySearchService.search(
+                restaurantId, city, date, partySize, time, windowMinutes, limit);
         return ResponseEntity.ok(response);
     }
 
@@ -2,7 +2,13 @@ package com.opentable.privatedining.controller;
 
 import com.opentable.privatedining.dto.request.OccupancyReportRequest;
 import com.opentable.privatedining.dto.response.OccupancyReportResponse;
+import com.opentable.privatedining.dto.response.PortfolioReportResponse;
+import com.opentable.privatedining.model.Restaurant;
+import com.opentable.privatedining.model.enums.ExportFormat;
+import com.opentable.privatedining.model.enums.ReportEngine;
 import com.opentable.privatedining.model.enums.ReportGranularity;
+import com.opentable.privatedining.service.OccupancyExportService;
+import com.opentable.privatedining.service.PortfolioReportService;
 import com.opentable.privatedining.service.ReportingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,11 +18,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Controller for occupancy and analytics reports.
@@ -26,10 +40,19 @@ import java.util.UUID;
 @Tag(name = "Reports", description = "Occupancy analytics and reporting API")
 public class ReportingController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
     private final ReportingService reportingService;
+    private final OccupancyExportService exportService;
+    private final PortfolioReportService portfolioReportService;
 
-    public ReportingController(ReportingService reportingService) {
+    public ReportingController(ReportingService reportingService,
+                               OccupancyExportService exportService,
+                               PortfolioReportService portfolioReportService) {
         this.reportingService = reportingService;
+        this.exportService = exportService;
+        this.portfolioReportService = portfolioReportService;
     }
 
     @GetMapping("/occupancy")
@@ -48,7 +71,7 @@ public class ReportingController {
                     )
             ),
             @ApiResponse(responseCode = "400", description = "Invalid date range or parameters"),
-            @ApiResponse(responseCode = "404", description = "Restaurant not found")
+            @ApiResponse(responseCode = "404", description = "Restaurant or space not found")
     })
     public ResponseEntity<OccupancyReportResponse> getOccupancyReport(
             @Parameter(description = "Restaurant ID", required = true)
@@ -63,8 +86,11 @@ public class ReportingController {
             @Parameter(description = "Report granularity (DAILY or HOURLY)", example = "DAILY")
             @RequestParam(required = false, defaultValue = "DAILY") ReportGranularity granularity,
 
-            @Parameter(description = "Optional: Filter by specific space UUID")
-            @RequestParam(required = false) UUID spaceId
+            @Parameter(description = "Optional: Scope the report to one active space of the restaurant")
+            @RequestParam(required = false) UUID spaceId,
+
+            @Parameter(description = "Report engine (IN_MEMORY, AGGREGATION or ROLLUP)", example = "IN_MEMORY")
+            @RequestParam(required = false) ReportEngine engine
     ) {
         OccupancyReportRequest request = OccupancyReportRequest.builder()
                 .restaurantId(restaurantId)
@@ -72,9 +98,126 @@ public class ReportingController {
                 .endDate(endDate)
                 .granularity(granularity)
                 .spaceId(spaceId)
+                .engine(engine)
                 .build();
 
         OccupancyReportResponse response = reportingService.generateOccupancyReport(request);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/occupancy/portfolio")
+    @Operation(
+            summary = "Get portfolio occupancy report",
+            description = "Generate the occupancy summaries of several restaurants concurrently, on a bounded " +
+                    "pool, with one row per restaurant and a combined summary. Restaurants whose report " +
+                    "fails or times out are returned with an error and left out of the combined summary."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Report generated successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PortfolioReportResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid date range or restaurant count")
+    })
+    public ResponseEntity<PortfolioReportResponse> getPortfolioReport(
+            @Parameter(description = "Restaurant IDs (comma-separated or repeated)", required = true)
+            @RequestParam List<String> restaurantIds,
+
+            @Parameter(description = "Start date (inclusive)", required = true, example = "2024-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "End date (inclusive)", required = true, example = "2024-01-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Report engine (IN_MEMORY, AGGREGATION or ROLLUP)", example = "ROLLUP")
+            @RequestParam(required = false) ReportEngine engine
+    ) {
+        return ResponseEntity.ok(portfolioReportService.generatePortfolioReport(
+                restaurantIds, startDate, endDate, engine));
+    }
+
+    @PostMapping("/occupancy/rollups/rebuild")
+    @Operation(
+            summary = "Rebuild occupancy rollups",
+            description = "Re-aggregate a restaurant's reservations within a date range into the occupancy " +
+                    "rollups read by the ROLLUP report engine. Backfills ranges booked before rollups " +
+                    "were enabled and repairs rollups whose increments failed."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rollups rebuilt; returns the number of rows written"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range or rollups disabled"),
+            @ApiResponse(responseCode = "404", description = "Restaurant not found")
+    })
+    public ResponseEntity<Map<String, Integer>> rebuildOccupancyRollups(
+            @Parameter(description = "Restaurant ID", required = true)
+            @RequestParam String restaurantId,
+
+            @Parameter(description = "Start date (inclusive)", required = true, example = "2024-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "End date (inclusive)", required = true, example = "2024-01-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+    ) {
+        int rows = reportingService.rebuildOccupancyRollups(restaurantId, startDate, endDate);
+        return ResponseEntity.ok(Map.of("rollups", rows));
+    }
+
+    @GetMapping("/occupancy/export")
+    @Operation(
+            summary = "Export occupancy",
+            description = "Stream one DAY row per date and one SPACE row per active space and date for one or " +
+                    "more restaurants, as CSV or NDJSON. Rows are written while the range is read, so long " +
+                    "ranges use constant memory. Gzipped when the client sends Accept-Encoding: gzip."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed",
+                    content = {@Content(mediaType = "text/csv"), @Content(mediaType = "application/x-ndjson")}),
+            @ApiResponse(responseCode = "400", description = "Invalid date range, engine or restaurant count"),
+            @ApiResponse(responseCode = "404", description = "Restaurant not found")
+    })
+    public ResponseEntity<StreamingResponseBody> exportOccupancy(
+            @Parameter(description = "Restaurant IDs (comma-separated or repeated)", required = true)
+            @RequestParam List<String> restaurantIds,
+
+            @Parameter(description = "Start date (inclusive)", required = true, example = "2020-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "End date (inclusive)", required = true, example = "2024-12-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Row format (CSV or NDJSON)", example = "CSV")
+            @RequestParam(required = false, defaultValue = "CSV") ExportFormat format,
+
+            @Parameter(description = "Source: reservations (IN_MEMORY) or occupancy rollups (ROLLUP)", example = "IN_MEMORY")
+            @RequestParam(required = false, defaultValue = "IN_MEMORY") ReportEngine engine,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        List<Restaurant> restaurants = exportService.prepareExport(restaurantIds, startDate, endDate, engine);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = output -> {
+            OutputStream target = gzip ? new GZIPOutputStream(output, 64 * 1024) : output;
+            exportService.export(restaurants, startDate, endDate, format, engine, target);
+            if (target instanceof GZIPOutputStream gzipOutput) {
+                gzipOutput.finish();
+            }
+        };
+
+        String extension = format == ExportFormat.NDJSON ? "ndjson" : "csv";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format == ExportFormat.NDJSON ? NDJSON : CSV);
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("occupancy-" + startDate + "-" + endDate + "." + extension)
+                .build());
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
 }
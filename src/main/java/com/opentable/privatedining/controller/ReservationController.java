@@ -1,13 +1,17 @@
 package com.opentable.privatedining.controller;
 
 import com.opentable.privatedining.dto.ReservationDTO;
+import com.opentable.privatedining.dto.request.BatchReservationRequest;
 import com.opentable.privatedining.dto.request.CancellationRequest;
 import com.opentable.privatedining.dto.request.CreateReservationRequest;
+import com.opentable.privatedining.dto.response.BatchReservationResponse;
 import com.opentable.privatedining.dto.response.CancellationResponse;
+import com.opentable.privatedining.dto.response.CursorPageResponse;
 import com.opentable.privatedining.dto.response.PageResponse;
 import com.opentable.privatedining.dto.response.ReservationResponse;
 import com.opentable.privatedining.mapper.ReservationMapper;
 import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.service.BatchReservationService;
 import com.opentable.privatedining.service.ReservationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -39,10 +43,13 @@ public class ReservationController {
 
     private final ReservationService reservationService;
     private final ReservationMapper reservationMapper;
+    private final BatchReservationService batchReservationService;
 
-    public ReservationController(ReservationService reservationService, ReservationMapper reservationMapper) {
+    public ReservationController(ReservationService reservationService, ReservationMapper reservationMapper,
+                                 BatchReservationService batchReservationService) {
         this.reservationService = reservationService;
         this.reservationMapper = reservationMapper;
+        this.batchReservationService = batchReservationService;
     }
 
     @GetMapping
@@ -70,6 +77,34 @@ public class ReservationController {
         return PageResponse.from(dtoPage);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Get reservations by cursor",
+            description = "Retrieve reservations a page at a time, resuming after the nextCursor of the previous " +
+                    "page. Unlike the offset listing, deep pages cost the same as the first one and the total " +
+                    "is only counted when includeTotal=true.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page of reservations",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, size or sort field")
+    })
+    public CursorPageResponse<ReservationDTO> getReservationsByCursor(
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of items per page (1-500)", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort field (reservationDate)", example = "reservationDate")
+            @RequestParam(defaultValue = "reservationDate") String sortBy,
+            @Parameter(description = "Sort direction (asc/desc)", example = "desc")
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @Parameter(description = "Also count all reservations", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return reservationService.getReservationsByCursor(cursor, size, sortBy, direction, includeTotal)
+                .map(reservationMapper::toDTO);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get reservation by ID", description = "Retrieve a reservation by its unique identifier")
     @ApiResponses(value = {
@@ -108,9 +143,26 @@ public class ReservationController {
     public ResponseEntity<ReservationResponse> createReservation(
             @Parameter(description = "Reservation details", required = true)
             @Valid @RequestBody CreateReservationRequest request) {
-        Reservation savedReservation = reservationService.createReservation(request);
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(reservationService.toResponse(savedReservation));
+                .body(reservationService.createReservationAndRespond(request));
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Create reservations in batch",
+            description = "Create up to " + BatchReservationRequest.MAX_BATCH_SIZE + " reservations in one call. " +
+                    "Each item is validated and admitted on its own; the response reports the outcome " +
+                    "of every item in request order, so a batch can partially succeed."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item outcomes",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchReservationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+    })
+    public ResponseEntity<BatchReservationResponse> createReservations(
+            @Parameter(description = "Reservations to create", required = true)
+            @Valid @RequestBody BatchReservationRequest request) {
+        return ResponseEntity.ok(batchReservationService.createReservations(request));
     }
 
     @PostMapping("/{id}/cancel")
@@ -2,6 +2,7 @@ package com.opentable.privatedining.controller;
 
 import com.opentable.privatedining.dto.RestaurantDTO;
 import com.opentable.privatedining.dto.SpaceDTO;
+import com.opentable.privatedining.dto.response.CursorPageResponse;
 import com.opentable.privatedining.dto.response.PageResponse;
 import com.opentable.privatedining.mapper.RestaurantMapper;
 import com.opentable.privatedining.mapper.SpaceMapper;
@@ -74,6 +75,34 @@ public class RestaurantController {
         return PageResponse.from(dtoPage);
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Get restaurants by cursor",
+            description = "Retrieve restaurants a page at a time, resuming after the nextCursor of the previous " +
+                    "page. Unlike the offset listing, deep pages cost the same as the first one and the total " +
+                    "is only counted when includeTotal=true.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page of restaurants",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, size or sort field")
+    })
+    public CursorPageResponse<RestaurantDTO> getRestaurantsByCursor(
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of items per page (1-500)", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort field (name)", example = "name")
+            @RequestParam(defaultValue = "name") String sortBy,
+            @Parameter(description = "Sort direction (asc/desc)", example = "asc")
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Also count all restaurants", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return restaurantService.getRestaurantsByCursor(cursor, size, sortBy, direction, includeTotal)
+                .map(restaurantMapper::toDTO);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get restaurant by ID", description = "Retrieve a restaurant by its unique identifier")
     @ApiResponses(value = {
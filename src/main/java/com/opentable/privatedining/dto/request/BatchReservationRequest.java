@@ -0,0 +1,30 @@
+package com.opentable.privatedining.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for creating several reservations at once.
+ * Items are validated individually, so one invalid item does not reject the batch.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to create multiple private dining reservations in one call")
+public class BatchReservationRequest {
+
+    public static final int MAX_BATCH_SIZE = 100;
+
+    @NotEmpty(message = "At least one reservation is required")
+    @Size(max = MAX_BATCH_SIZE, message = "A batch cannot contain more than 100 reservations")
+    @Schema(description = "Reservations to create, in priority order", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<CreateReservationRequest> reservations;
+}
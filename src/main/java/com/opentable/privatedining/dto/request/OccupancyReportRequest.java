@@ -1,5 +1,6 @@
 package com.opentable.privatedining.dto.request;
 
+import com.opentable.privatedining.model.enums.ReportEngine;
 import com.opentable.privatedining.model.enums.ReportGranularity;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
@@ -39,4 +40,7 @@ public class OccupancyReportRequest {
 
     @Schema(description = "Optional: Filter by specific space UUID", example = "123e4567-e89b-12d3-a456-426614174000")
     private UUID spaceId;
+
+    @Schema(description = "Report engine; defaults to IN_MEMORY", example = "AGGREGATION")
+    private ReportEngine engine;
 }
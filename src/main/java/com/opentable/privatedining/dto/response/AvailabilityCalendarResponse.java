@@ -0,0 +1,40 @@
+package com.opentable.privatedining.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for availability of a space over a range of days.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Per-day availability of a space over a date range")
+public class AvailabilityCalendarResponse {
+
+    @Schema(description = "UUID of the space", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID spaceId;
+
+    @Schema(description = "Name of the space", example = "Garden Room")
+    private String spaceName;
+
+    @Schema(description = "Maximum capacity of the space", example = "20")
+    private Integer maxCapacity;
+
+    @Schema(description = "First day of the range (inclusive)", example = "2024-02-15")
+    private LocalDate startDate;
+
+    @Schema(description = "Last day of the range (inclusive)", example = "2024-02-28")
+    private LocalDate endDate;
+
+    @Schema(description = "One entry per day in the range, in date order")
+    private List<CalendarDayAvailability> days;
+}
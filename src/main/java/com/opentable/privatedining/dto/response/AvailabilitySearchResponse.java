@@ -0,0 +1,42 @@
+package com.opentable.privatedining.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Response DTO for availability search across spaces.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Ranked slots across all spaces that can seat a party")
+public class AvailabilitySearchResponse {
+
+    @Schema(description = "Date searched", example = "2024-02-16")
+    private LocalDate date;
+
+    @Schema(description = "Party size searched", example = "14")
+    private Integer partySize;
+
+    @Schema(description = "Preferred start time, if any", example = "19:00")
+    private String time;
+
+    @Schema(description = "Candidate spaces large enough for the party", example = "12")
+    private Integer spacesConsidered;
+
+    @Schema(description = "Candidate spaces evaluated within the latency budget", example = "12")
+    private Integer spacesEvaluated;
+
+    @Schema(description = "Whether the latency budget cut the search short", example = "false")
+    private Boolean partial;
+
+    @Schema(description = "Matching slots, best first (closest to the preferred time, then tightest fit)")
+    private List<SpaceSlotMatch> results;
+}
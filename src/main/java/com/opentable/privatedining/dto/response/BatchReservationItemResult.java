@@ -0,0 +1,38 @@
+package com.opentable.privatedining.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single item of a batch reservation request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of one reservation in a batch")
+public class BatchReservationItemResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+
+    @Schema(description = "Position of the item in the request", example = "0")
+    private int index;
+
+    @Schema(description = "Outcome of the item", example = "CREATED", allowableValues = {"CREATED", "REJECTED"})
+    private String status;
+
+    @Schema(description = "Created reservation (only for CREATED items)")
+    private ReservationResponse reservation;
+
+    @Schema(description = "Error code (only for REJECTED items)", example = "CAPACITY_EXCEEDED")
+    private String errorCode;
+
+    @Schema(description = "Error message (only for REJECTED items)")
+    private String message;
+}
@@ -0,0 +1,32 @@
+package com.opentable.privatedining.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for a batch reservation request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Per-item outcomes of a batch reservation request")
+public class BatchReservationResponse {
+
+    @Schema(description = "Number of reservations requested", example = "12")
+    private int requested;
+
+    @Schema(description = "Number of reservations created", example = "10")
+    private int created;
+
+    @Schema(description = "Number of reservations rejected", example = "2")
+    private int rejected;
+
+    @Schema(description = "Outcome per item, in request order")
+    private List<BatchReservationItemResult> results;
+}
@@ -0,0 +1,48 @@
+package com.opentable.privatedining.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.opentable.privatedining.model.enums.SlotStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Availability summary of a single calendar day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Availability summary for one day")
+public class CalendarDayAvailability {
+
+    @Schema(description = "Date", example = "2024-02-15")
+    private LocalDate date;
+
+    @Schema(description = "Whether the restaurant is open on this day", example = "true")
+    private Boolean isOpen;
+
+    @Schema(description = "Operating hours for this day", example = "09:00 - 22:00")
+    private String operatingHours;
+
+    @Schema(description = "Best status across the day's slots (FULL when closed)", example = "LIMITED")
+    private SlotStatus status;
+
+    @Schema(description = "Number of slots in the day", example = "8")
+    private Integer totalSlots;
+
+    @Schema(description = "Number of slots that still have capacity", example = "5")
+    private Integer availableSlots;
+
+    @Schema(description = "Largest remaining capacity of any slot", example = "12")
+    private Integer maxAvailableCapacity;
+
+    @Schema(description = "Time slots (included when includeSlots=true)")
+    private List<TimeSlotResponse> timeSlots;
+}
@@ -0,0 +1,92 @@
+package com.opentable.privatedining.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact availability representation for clients that poll frequently.
+ *
+ * Slots are packed into one flat integer array instead of one object per slot, so
+ * field names, time strings and status names are not repeated for every slot:
+ *   slots = [startMinute, availableCapacity, bookedCapacity, startMinute, ...]
+ * startMinute is minutes since midnight; every slot lasts slotMinutes. Status is
+ * derived by the client (FULL when available <= 0, LIMITED below 25% of maxCapacity).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Availability with slots packed as [startMinute, available, booked] triples")
+public class CompactAvailabilityResponse {
+
+    /**
+     * Media type of the compact representation as JSON; application/cbor serves the same
+     * representation as CBOR.
+     */
+    public static final String MEDIA_TYPE_JSON = "application/vnd.privatedining.availability-compact+json";
+
+    /**
+     * Integers per slot in {@link #slots}.
+     */
+    public static final int SLOT_STRIDE = 3;
+
+    @Schema(description = "UUID of the space", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID spaceId;
+
+    @Schema(description = "Date for availability check", example = "2024-02-15")
+    private LocalDate date;
+
+    @Schema(description = "Maximum capacity of the space", example = "20")
+    private Integer maxCapacity;
+
+    @Schema(description = "Whether the restaurant is open on this day", example = "true")
+    private Boolean open;
+
+    @Schema(description = "Length of every slot in minutes", example = "60")
+    private Integer slotMinutes;
+
+    @Schema(description = "Slots as consecutive [startMinute, available, booked] triples",
+            example = "[1080, 12, 8, 1140, 20, 0]")
+    private int[] slots;
+
+    /**
+     * Pack a full availability response.
+     */
+    public static CompactAvailabilityResponse from(AvailabilityResponse availability) {
+        List<TimeSlotResponse> timeSlots = availability.getTimeSlots();
+        int[] packed = new int[timeSlots.size() * SLOT_STRIDE];
+        int slotMinutes = 0;
+        for (int i = 0; i < timeSlots.size(); i++) {
+            TimeSlotResponse slot = timeSlots.get(i);
+            int start = minuteOfDay(slot.getStartTime());
+            if (i == 0) {
+                slotMinutes = minuteOfDay(slot.getEndTime()) - start;
+            }
+            packed[i * SLOT_STRIDE] = start;
+            packed[i * SLOT_STRIDE + 1] = slot.getAvailableCapacity();
+            packed[i * SLOT_STRIDE + 2] = slot.getBookedCapacity();
+        }
+
+        return CompactAvailabilityResponse.builder()
+                .spaceId(availability.getSpaceId())
+                .date(availability.getDate())
+                .maxCapacity(availability.getMaxCapacity())
+                .open(availability.getIsOpen())
+                .slotMinutes(slotMinutes)
+                .slots(packed)
+                .build();
+    }
+
+    private static int minuteOfDay(String time) {
+        LocalTime parsed = LocalTime.parse(time);
+        return parsed.getHour() * 60 + parsed.getMinute();
+    }
+}
@@ -0,0 +1,53 @@
+package com.opentable.privatedining.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cursor-paginated (keyset) response wrapper.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cursor-paginated response wrapper")
+public class CursorPageResponse<T> {
+
+    @Schema(description = "List of items in the current page")
+    private List<T> content;
+
+    @Schema(description = "Number of items requested per page", example = "20")
+    private int size;
+
+    @Schema(description = "Whether there are more items after this page")
+    private boolean hasNext;
+
+    @Schema(description = "Opaque cursor of the next page; absent on the last page",
+            example = "cmVzZXJ2YXRpb25EYXRlOkRFU0M6NjVkNGY...")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    @Schema(description = "Total number of items, only when includeTotal=true", example = "100")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+
+    /**
+     * Same page with its items converted, e.g. to DTOs.
+     */
+    public <R> CursorPageResponse<R> map(Function<? super T, ? extends R> mapper) {
+        return CursorPageResponse.<R>builder()
+                .content(content.stream().<R>map(mapper).toList())
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .totalElements(totalElements)
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.opentable.privatedining.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for an occupancy report across several restaurants.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Combined occupancy summary of a portfolio of restaurants, with one row per restaurant")
+public class PortfolioReportResponse {
+
+    @Schema(description = "Report period information")
+    private OccupancyReportResponse.ReportPeriod period;
+
+    @Schema(description = "Restaurants requested", example = "200")
+    private Integer restaurantsRequested;
+
+    @Schema(description = "Restaurants whose report was generated", example = "200")
+    private Integer restaurantsReported;
+
+    @Schema(description = "Combined summary of the reported restaurants; average utilization is the mean of " +
+            "their average utilizations")
+    private OccupancySummary summary;
+
+    @Schema(description = "Per-restaurant summaries, in request order")
+    private List<PortfolioRestaurantOccupancy> restaurants;
+}
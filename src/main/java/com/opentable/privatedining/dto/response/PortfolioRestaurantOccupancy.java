@@ -0,0 +1,39 @@
+package com.opentable.privatedining.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+
+/**
+ * One restaurant's row of a portfolio report.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Occupancy summary of one restaurant of a portfolio")
+public class PortfolioRestaurantOccupancy {
+
+    @Schema(description = "Restaurant ID", example = "507f1f77bcf86cd799439011")
+    private String restaurantId;
+
+    @Schema(description = "Restaurant name", example = "The Grand Restaurant")
+    private String restaurantName;
+
+    @Schema(description = "Summary statistics for the report period; null if the report failed")
+    private OccupancySummary summary;
+
+    @Schema(description = "Day of week with highest average utilization", example = "SATURDAY")
+    private DayOfWeek busiestDay;
+
+    @Schema(description = "Average utilization on the busiest day", example = "85.0")
+    private BigDecimal busiestDayAverageUtilization;
+
+    @Schema(description = "Why the report failed, if it did", example = "Restaurant not found with id: 507f1f77bcf86cd799439011")
+    private String error;
+}
@@ -0,0 +1,85 @@
+package com.opentable.privatedining.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.opentable.privatedining.model.SlotCapacity;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One event of the live slot capacity stream.
+ *
+ * A "slot" event carries the slot's current booked capacity (not a difference), so a
+ * subscriber that only sees the latest event per slot is still up to date. A "resync"
+ * event means changes may have been dropped; the subscriber should reload availability.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Live change of a slot's booked capacity")
+public class SlotCapacityChange {
+
+    public static final String SLOT = "slot";
+    public static final String RESYNC = "resync";
+
+    @Schema(description = "Event type: slot or resync", example = "slot")
+    private String type;
+
+    @Schema(description = "UUID of the space", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID spaceId;
+
+    @Schema(description = "Date of the slot", example = "2024-02-15")
+    private LocalDate date;
+
+    @Schema(description = "Slot start time (HH:mm)", example = "18:00")
+    private String startTime;
+
+    @Schema(description = "Slot end time (HH:mm)", example = "19:00")
+    private String endTime;
+
+    @Schema(description = "Currently booked capacity", example = "8")
+    private Integer bookedCapacity;
+
+    @Schema(description = "Remaining capacity", example = "12")
+    private Integer availableCapacity;
+
+    @Schema(description = "Slot version; increases with every change", example = "5")
+    private Long version;
+
+    /**
+     * Slot event from the current state of a slot capacity document.
+     */
+    public static SlotCapacityChange of(SlotCapacity slot) {
+        Integer available = slot.getMaxCapacity() != null && slot.getBookedCapacity() != null
+                ? slot.getAvailableCapacity()
+                : null;
+        return SlotCapacityChange.builder()
+                .type(SLOT)
+                .spaceId(slot.getSpaceId())
+                .date(slot.getDate())
+                .startTime(slot.getStartTime())
+                .endTime(slot.getEndTime())
+                .bookedCapacity(slot.getBookedCapacity())
+                .availableCapacity(available)
+                .version(slot.getVersion())
+                .build();
+    }
+
+    /**
+     * Resync event for a space-day.
+     */
+    public static SlotCapacityChange resync(UUID spaceId, LocalDate date) {
+        return SlotCapacityChange.builder()
+                .type(RESYNC)
+                .spaceId(spaceId)
+                .date(date)
+                .build();
+    }
+}
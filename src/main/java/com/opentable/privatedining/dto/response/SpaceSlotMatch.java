@@ -0,0 +1,48 @@
+package com.opentable.privatedining.dto.response;
+
+import com.opentable.privatedining.model.enums.SlotStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * A bookable slot of a space found by availability search.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Slot of a space that can seat the requested party")
+public class SpaceSlotMatch {
+
+    @Schema(description = "ID of the restaurant", example = "507f1f77bcf86cd799439011")
+    private String restaurantId;
+
+    @Schema(description = "Name of the restaurant", example = "The Grand Bistro")
+    private String restaurantName;
+
+    @Schema(description = "UUID of the space", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID spaceId;
+
+    @Schema(description = "Name of the space", example = "Garden Room")
+    private String spaceName;
+
+    @Schema(description = "Maximum capacity of the space", example = "20")
+    private Integer maxCapacity;
+
+    @Schema(description = "Start time in HH:mm format", example = "19:00")
+    private String startTime;
+
+    @Schema(description = "End time in HH:mm format", example = "20:30")
+    private String endTime;
+
+    @Schema(description = "Available capacity for this slot", example = "16")
+    private Integer availableCapacity;
+
+    @Schema(description = "Status of the slot", example = "AVAILABLE")
+    private SlotStatus status;
+}
@@ -0,0 +1,45 @@
+package com.opentable.privatedining.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Change counter of one space-day's availability, bumped after every write that can
+ * change what the availability endpoint returns for that day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "availability_day_versions")
+public class AvailabilityDayVersion {
+
+    /**
+     * Compound ID: spaceId:date
+     * Example: "9cb34a37-d514-4103-bae9-b0ed1f7c7d09:2024-02-15"
+     */
+    @Id
+    private String id;
+
+    private UUID spaceId;
+    private LocalDate date;
+
+    /**
+     * Number of changes applied to the space-day; only grows.
+     */
+    private Long version;
+
+    /**
+     * Generate the compound ID for a space-day.
+     */
+    public static String generateId(UUID spaceId, LocalDate date) {
+        return String.format("%s:%s", spaceId.toString(), date.toString());
+    }
+}
@@ -0,0 +1,137 @@
+package com.opentable.privatedining.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Materialized bookings of a space-day, so availability can be served from one document
+ * instead of scanning the day's reservations.
+ *
+ * The snapshot holds each confirmed reservation's time window and party size, keyed by
+ * reservation id, plus the ids of reservations released since. A reservation counts if it
+ * is booked and not released, so applying the same booking or release twice changes
+ * nothing. Windows rather than generated slots are stored, so the snapshot stays valid
+ * when the space's slot length or the restaurant's hours change.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "availability_snapshots")
+public class AvailabilitySnapshot {
+
+    /**
+     * Compound ID: spaceId:date (same format as {@link SpaceDayCapacity}).
+     */
+    @Id
+    private String id;
+
+    private UUID spaceId;
+    private LocalDate date;
+
+    /**
+     * Booked reservations by id (hex).
+     */
+    @Builder.Default
+    private Map<String, BookedWindow> bookings = new HashMap<>();
+
+    /**
+     * Ids of reservations cancelled or deleted; they no longer count even if still booked.
+     */
+    @Builder.Default
+    private Set<String> released = new HashSet<>();
+
+    /**
+     * Whether the day's reservations have been merged in. Until then the document only
+     * holds the changes applied since it was created and is not served.
+     */
+    private boolean complete;
+
+    /**
+     * Incremented on every change; lets reconciliation detect concurrent updates.
+     */
+    @Builder.Default
+    private long revision = 0L;
+
+    /**
+     * When the snapshot was last built from reservations.
+     */
+    private LocalDateTime rebuiltAt;
+
+    /**
+     * Generate the compound ID for a space-day.
+     */
+    public static String generateId(UUID spaceId, LocalDate date) {
+        return SpaceDayCapacity.generateId(spaceId, date);
+    }
+
+    /**
+     * Key of the window [startTime, endTime).
+     */
+    public static String intervalKey(String startTime, String endTime) {
+        return startTime + "-" + endTime;
+    }
+
+    /**
+     * Reservations that count: booked and not released.
+     */
+    public Map<String, BookedWindow> activeBookings() {
+        Map<String, BookedWindow> active = new HashMap<>();
+        if (bookings != null) {
+            bookings.forEach((reservationId, window) -> {
+                if (released == null || !released.contains(reservationId)) {
+                    active.put(reservationId, window);
+                }
+            });
+        }
+        return active;
+    }
+
+    /**
+     * Active bookings folded by window, in window order.
+     */
+    public Map<String, IntervalTally> tallies() {
+        Map<String, IntervalTally> tallies = new TreeMap<>();
+        activeBookings().values().forEach(booking -> {
+            IntervalTally tally = tallies.computeIfAbsent(booking.getWindow(), key -> new IntervalTally());
+            tally.setPartySize(tally.getPartySize() + booking.getPartySize());
+            tally.setReservations(tally.getReservations() + 1);
+        });
+        return tallies;
+    }
+
+    /**
+     * Window and guests of one booked reservation.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BookedWindow {
+        private String window;
+        private int partySize;
+    }
+
+    /**
+     * Guests and reservations booked in one window.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IntervalTally {
+        private int partySize;
+        private int reservations;
+    }
+}
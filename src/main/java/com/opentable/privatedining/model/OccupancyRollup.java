@@ -0,0 +1,75 @@
+package com.opentable.privatedining.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Pre-aggregated reservation totals of one space for one start hour of one day, so
+ * occupancy reports read a few rows per space-day instead of every reservation.
+ *
+ * A reservation from 18:30 to 20:00 counts towards hour 18, matching how reports
+ * attribute reservations to the hour they start in.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "occupancy_rollups")
+public class OccupancyRollup {
+
+    /**
+     * Compound ID: restaurantId:date:spaceId:hour
+     * Example: "507f1f77bcf86cd799439011:2024-02-15:9cb34a37-d514-4103-bae9-b0ed1f7c7d09:18"
+     */
+    @Id
+    private String id;
+
+    private ObjectId restaurantId;
+    private LocalDate date;
+    private UUID spaceId;
+
+    /**
+     * Start hour of the reservations counted here (0-23).
+     */
+    private Integer hour;
+
+    /**
+     * Confirmed reservations.
+     */
+    @Builder.Default
+    private long reservations = 0L;
+
+    /**
+     * Guests of the confirmed reservations.
+     */
+    @Builder.Default
+    private long guests = 0L;
+
+    /**
+     * Cancelled reservations.
+     */
+    @Builder.Default
+    private long cancelled = 0L;
+
+    /**
+     * Generate the compound ID for a restaurant-day-space-hour.
+     */
+    public static String generateId(ObjectId restaurantId, LocalDate date, UUID spaceId, int hour) {
+        return String.format("%s:%s:%s:%d", restaurantId.toHexString(), date, spaceId, hour);
+    }
+
+    /**
+     * Start hour of an HH:mm time.
+     */
+    public static int hourOf(String startTime) {
+        return Integer.parseInt(startTime.substring(0, 2));
+    }
+}
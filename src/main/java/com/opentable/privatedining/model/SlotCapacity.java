@@ -8,6 +8,7 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.UUID;
 
@@ -48,10 +49,17 @@ public class SlotCapacity {
 
     /**
      * Version for optimistic locking.
+     * Also incremented by every admission and release, so the sum over a space-day's
+     * slots only grows while its availability changes.
      */
     @Version
     private Long version;
 
+    /**
+     * When capacity last moved, set by the same update that increments the version.
+     */
+    private Instant changedAt;
+
     /**
      * Generate the compound ID for a slot.
      */
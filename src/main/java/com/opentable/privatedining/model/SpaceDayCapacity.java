@@ -0,0 +1,122 @@
+package com.opentable.privatedining.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tracks booked capacity for a whole space-day in fixed-size time buckets.
+ * Used for overlap-correct admission when reservations of different lengths or
+ * start times share a space.
+ *
+ * A reservation from 18:00 to 19:30 increments every bucket between those times,
+ * so any other reservation overlapping any part of that window sees it.
+ * Buckets are stored sparsely: a missing bucket means nothing is booked.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "space_day_capacities")
+public class SpaceDayCapacity {
+
+    /**
+     * Width of a capacity bucket in minutes.
+     */
+    public static final int BUCKET_MINUTES = 5;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * Compound ID: spaceId:date
+     * Example: "9cb34a37-d514-4103-bae9-b0ed1f7c7d09:2024-02-15"
+     */
+    @Id
+    private String id;
+
+    private UUID spaceId;
+    private LocalDate date;
+
+    /**
+     * Maximum capacity allowed (copied from Space for quick checks).
+     */
+    private Integer maxCapacity;
+
+    /**
+     * Booked capacity per bucket, keyed by the bucket's start minute of the day.
+     * Example: "1080" -> 12 means 12 guests are booked during 18:00-18:05.
+     */
+    @Builder.Default
+    private Map<String, Integer> buckets = new HashMap<>();
+
+    /**
+     * Incremented by every admission and release, in the same update as the buckets.
+     */
+    private Long version;
+
+    /**
+     * When capacity last moved, set together with the version.
+     */
+    private Instant changedAt;
+
+    /**
+     * Generate the compound ID for a space-day.
+     */
+    public static String generateId(UUID spaceId, LocalDate date) {
+        return String.format("%s:%s", spaceId.toString(), date.toString());
+    }
+
+    /**
+     * Keys of all buckets covered by the half-open window [startTime, endTime).
+     * The start is floored and the end is ceiled to the bucket grid, so a window is
+     * never under-counted. An end at or before the start is treated as end of day.
+     */
+    public static List<String> bucketKeys(String startTime, String endTime) {
+        int start = toMinutes(startTime);
+        int end = endTime != null ? toMinutes(endTime) : MINUTES_PER_DAY;
+        if (end <= start) {
+            end = MINUTES_PER_DAY;
+        }
+
+        int first = (start / BUCKET_MINUTES) * BUCKET_MINUTES;
+        List<String> keys = new ArrayList<>((end - first + BUCKET_MINUTES - 1) / BUCKET_MINUTES);
+        for (int minute = first; minute < end; minute += BUCKET_MINUTES) {
+            keys.add(String.valueOf(minute));
+        }
+        return keys;
+    }
+
+    /**
+     * Highest booked capacity across the buckets of a window.
+     */
+    public int getPeakBookedCapacity(String startTime, String endTime) {
+        if (buckets == null || buckets.isEmpty()) {
+            return 0;
+        }
+        int peak = 0;
+        for (String key : bucketKeys(startTime, endTime)) {
+            Integer booked = buckets.get(key);
+            if (booked != null && booked > peak) {
+                peak = booked;
+            }
+        }
+        return peak;
+    }
+
+    private static int toMinutes(String time) {
+        LocalTime localTime = LocalTime.parse(time);
+        return localTime.getHour() * 60 + localTime.getMinute();
+    }
+}
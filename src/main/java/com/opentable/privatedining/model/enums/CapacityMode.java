@@ -0,0 +1,22 @@
+package com.opentable.privatedining.model.enums;
+
+/**
+ * Strategy used by SlotCapacityService to admit bookings against slot_capacities.
+ */
+public enum CapacityMode {
+    /**
+     * Upsert the slot document, then run a guarded findAndModify (two round trips).
+     */
+    SLOT_UPSERT,
+
+    /**
+     * Guarded upsert with $inc in a single findAndModify (one round trip in steady state).
+     */
+    SLOT_SINGLE_ROUND_TRIP,
+
+    /**
+     * Per space-day bucket counters in space_day_capacities, so bookings that overlap
+     * without sharing a start time are counted against each other (one round trip).
+     */
+    INTERVAL_BUCKETS
+}
@@ -0,0 +1,16 @@
+package com.opentable.privatedining.model.enums;
+
+/**
+ * Row format of a streamed occupancy export.
+ */
+public enum ExportFormat {
+    /**
+     * Comma-separated values with a header row.
+     */
+    CSV,
+
+    /**
+     * Newline-delimited JSON, one object per row.
+     */
+    NDJSON
+}
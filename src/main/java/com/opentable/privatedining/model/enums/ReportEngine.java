@@ -0,0 +1,23 @@
+package com.opentable.privatedining.model.enums;
+
+/**
+ * Source ReportingService aggregates occupancy reports from.
+ */
+public enum ReportEngine {
+    /**
+     * Load every reservation of the range and group it in the JVM.
+     */
+    IN_MEMORY,
+
+    /**
+     * Group in Mongo with one $facet pipeline; only day-space and day-hour totals are
+     * transferred.
+     */
+    AGGREGATION,
+
+    /**
+     * Read the pre-aggregated occupancy_rollups rows of the range (one per space and
+     * start hour with bookings per day).
+     */
+    ROLLUP
+}
@@ -2,6 +2,7 @@ package com.opentable.privatedining.repository;
 
 import com.opentable.privatedining.model.Reservation;
 import com.opentable.privatedining.model.enums.ReservationStatus;
+import lombok.Data;
 import org.bson.types.ObjectId;
 import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -9,6 +10,8 @@ import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -188,6 +191,150 @@ public interface ReservationRepository extends MongoRepository<Reservation, Obje
         }
     }
 
+    /**
+     * Aggregate a restaurant's occupancy over a date range in a single round trip.
+     * The day-space and day-hour facets run the group stages of aggregateSpaceOccupancy
+     * and aggregateHourlyOccupancy over one shared $match; daily totals are their day-space
+     * sums. Returns exactly one document.
+     */
+    @Aggregation(pipeline = {
+            "{ $match: { " +
+            "    'restaurantId': ?0, " +
+            "    'reservationDate': { $gte: ?1, $lte: ?2 }, " +
+            "    'status': { $in: ['CONFIRMED', 'CANCELLED'] } " +
+            "  } " +
+            "}",
+            "{ $facet: { " +
+            "    daySpace: [ " +
+            "      { $match: { 'status': 'CONFIRMED' } }, " +
+            "      { $group: { " +
+            "          _id: { date: '$reservationDate', spaceId: '$spaceId' }, " +
+            "          totalReservations: { $sum: 1 }, " +
+            "          totalGuests: { $sum: '$partySize' } } } " +
+            "    ], " +
+            "    dayHour: [ " +
+            "      { $match: { 'status': 'CONFIRMED' } }, " +
+            "      { $group: { " +
+            "          _id: { date: '$reservationDate', hour: { $substr: ['$startTime', 0, 2] } }, " +
+            "          totalReservations: { $sum: 1 }, " +
+            "          totalGuests: { $sum: '$partySize' } } } " +
+            "    ], " +
+            "    cancelled: [ " +
+            "      { $match: { 'status': 'CANCELLED' } }, " +
+            "      { $group: { _id: '$reservationDate', total: { $sum: 1 } } } " +
+            "    ] " +
+            "  } " +
+            "}"
+    })
+    List<OccupancyFacets> aggregateOccupancyFacets(
+            ObjectId restaurantId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Aggregation result for the occupancy facets.
+     */
+    @Data
+    class OccupancyFacets {
+        private List<DaySpaceRow> daySpace = new ArrayList<>();
+        private List<DayHourRow> dayHour = new ArrayList<>();
+        private List<CountRow> cancelled = new ArrayList<>();
+
+        @Data
+        public static class DaySpaceRow {
+            private DaySpaceKey id;
+            private long totalReservations;
+            private long totalGuests;
+        }
+
+        @Data
+        public static class DaySpaceKey {
+            private LocalDate date;
+            private UUID spaceId;
+        }
+
+        @Data
+        public static class DayHourRow {
+            private DayHourKey id;
+            private long totalReservations;
+            private long totalGuests;
+        }
+
+        @Data
+        public static class DayHourKey {
+            private LocalDate date;
+            private String hour;
+        }
+
+        @Data
+        public static class CountRow {
+            private LocalDate id;
+            private long total;
+        }
+    }
+
+    /**
+     * Count a restaurant's cancelled reservations per day within a date range.
+     */
+    @Aggregation(pipeline = {
+            "{ $match: { " +
+            "    'restaurantId': ?0, " +
+            "    'reservationDate': { $gte: ?1, $lte: ?2 }, " +
+            "    'status': 'CANCELLED' " +
+            "} }",
+            "{ $group: { _id: '$reservationDate', total: { $sum: 1 } } }"
+    })
+    List<OccupancyFacets.CountRow> countCancelledPerDay(
+            ObjectId restaurantId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * {@link #aggregateOccupancyFacets} for a single space. Matches on spaceId first so the
+     * space-date-status index narrows the scan to that space's reservations.
+     */
+    @Aggregation(pipeline = {
+            "{ $match: { " +
+            "    'spaceId': ?0, " +
+            "    'reservationDate': { $gte: ?1, $lte: ?2 }, " +
+            "    'status': { $in: ['CONFIRMED', 'CANCELLED'] } " +
+            "  } " +
+            "}",
+            "{ $facet: { " +
+            "    daySpace: [ " +
+            "      { $match: { 'status': 'CONFIRMED' } }, " +
+            "      { $group: { " +
+            "          _id: { date: '$reservationDate', spaceId: '$spaceId' }, " +
+            "          totalReservations: { $sum: 1 }, " +
+            "          totalGuests: { $sum: '$partySize' } } } " +
+            "    ], " +
+            "    dayHour: [ " +
+            "      { $match: { 'status': 'CONFIRMED' } }, " +
+            "      { $group: { " +
+            "          _id: { date: '$reservationDate', hour: { $substr: ['$startTime', 0, 2] } }, " +
+            "          totalReservations: { $sum: 1 }, " +
+            "          totalGuests: { $sum: '$partySize' } } } " +
+            "    ], " +
+            "    cancelled: [ " +
+            "      { $match: { 'status': 'CANCELLED' } }, " +
+            "      { $group: { _id: '$reservationDate', total: { $sum: 1 } } } " +
+            "    ] " +
+            "  } " +
+            "}"
+    })
+    List<OccupancyFacets> aggregateSpaceOccupancyFacets(
+            UUID spaceId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Count a space's cancelled reservations per day within a date range.
+     */
+    @Aggregation(pipeline = {
+            "{ $match: { " +
+            "    'spaceId': ?0, " +
+            "    'reservationDate': { $gte: ?1, $lte: ?2 }, " +
+            "    'status': 'CANCELLED' " +
+            "} }",
+            "{ $group: { _id: '$reservationDate', total: { $sum: 1 } } }"
+    })
+    List<OccupancyFacets.CountRow> countSpaceCancelledPerDay(
+            UUID spaceId, LocalDate startDate, LocalDate endDate);
+
     /**
      * Count reservations by status within date range.
      */
@@ -199,4 +346,11 @@ public interface ReservationRepository extends MongoRepository<Reservation, Obje
      */
     List<Reservation> findBySpaceIdAndReservationDateBetweenAndStatus(
             UUID spaceId, LocalDate startDate, LocalDate endDate, ReservationStatus status);
+
+    /**
+     * Find reservations for several spaces on a specific date with status.
+     * Used to evaluate many spaces with a single query.
+     */
+    List<Reservation> findBySpaceIdInAndReservationDateAndStatus(
+            Collection<UUID> spaceIds, LocalDate date, ReservationStatus status);
 }
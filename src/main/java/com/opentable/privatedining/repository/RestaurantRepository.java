@@ -5,6 +5,13 @@ import org.bson.types.ObjectId;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface RestaurantRepository extends MongoRepository<Restaurant, ObjectId> {
+
+    /**
+     * Find all active restaurants in a city.
+     */
+    List<Restaurant> findByCityAndIsActiveTrue(String city);
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -47,4 +48,10 @@ public interface SpaceRepository extends MongoRepository<Space, UUID> {
      */
     @Query("{ 'restaurantId': ?0, 'minCapacity': { $lte: ?1 }, 'maxCapacity': { $gte: ?1 }, 'isActive': true }")
     List<Space> findByRestaurantIdAndCapacityRange(String restaurantId, int partySize);
+
+    /**
+     * Find spaces of several restaurants with capacity range.
+     */
+    @Query("{ 'restaurantId': { $in: ?0 }, 'minCapacity': { $lte: ?1 }, 'maxCapacity': { $gte: ?1 }, 'isActive': true }")
+    List<Space> findByRestaurantIdInAndCapacityRange(Collection<String> restaurantIds, int partySize);
 }
@@ -0,0 +1,234 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.dto.response.AvailabilityResponse;
+import com.opentable.privatedining.dto.response.AvailabilitySearchResponse;
+import com.opentable.privatedining.dto.response.SpaceSlotMatch;
+import com.opentable.privatedining.exception.RestaurantNotFoundException;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.Restaurant;
+import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.enums.ReservationStatus;
+import com.opentable.privatedining.repository.ReservationRepository;
+import com.opentable.privatedining.util.BookedInterval;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Searches every candidate space of a restaurant or a city for slots that can seat a party.
+ *
+ * ALGORITHM: Batched Load, Parallel Evaluation under a Deadline
+ * -------------------------------------------------------------
+ * 1. Candidates: active spaces whose capacity range fits the party (one query; for a city,
+ *    one query for its restaurants and one for their spaces with restaurantId $in).
+ * 2. Load the date's confirmed reservations of all candidates with one spaceId $in query,
+ *    bucketed by space.
+ * 3. Evaluate each space's slots on a bounded pool, within what is left of the latency budget.
+ *    Spaces not evaluated by the deadline are dropped and the response is marked partial.
+ * 4. Keep slots with room for the party (and, with a preferred time, starting within the
+ *    window around it), rank them and return at most the result cap.
+ *
+ * Ranking: closest to the preferred time, then tightest fit (fewest empty seats in the
+ * space), then earliest start.
+ */
+@Service
+public class AvailabilitySearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilitySearchService.class);
+
+    private final SpaceService spaceService;
+    private final RestaurantService restaurantService;
+    private final ReservationRepository reservationRepository;
+    private final AvailabilityService availabilityService;
+    private final long budgetMs;
+    private final int maxResults;
+    private final ExecutorService evaluator;
+
+    public AvailabilitySearchService(SpaceService spaceService,
+                                     RestaurantService restaurantService,
+                                     ReservationRepository reservationRepository,
+                                     AvailabilityService availabilityService,
+                                     @Value("${app.availability.search.parallelism:4}") int parallelism,
+                                     @Value("${app.availability.search.budget-ms:300}") long budgetMs,
+                                     @Value("${app.availability.search.max-results:50}") int maxResults) {
+        this.spaceService = spaceService;
+        this.restaurantService = restaurantService;
+        this.reservationRepository = reservationRepository;
+        this.availabilityService = availabilityService;
+        this.budgetMs = budgetMs;
+        this.maxResults = maxResults;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.evaluator = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "availability-search-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        evaluator.shutdownNow();
+    }
+
+    /**
+     * Search a restaurant's or a city's spaces for slots that fit a party.
+     * Exactly one of restaurantId and city must be given.
+     *
+     * @param restaurantId Restaurant to search, or null
+     * @param city City to search, or null
+     * @param date The date
+     * @param partySize Guests to seat
+     * @param time Preferred start time (HH:mm), or null for any time
+     * @param windowMinutes How far from the preferred time a slot may start
+     * @param limit Maximum results (capped by app.availability.search.max-results)
+     * @return Ranked matching slots
+     */
+    public AvailabilitySearchResponse search(String restaurantId, String city, LocalDate date, int partySize,
+                                             String time, int windowMinutes, int limit) {
+        if ((restaurantId == null) == (city == null)) {
+            throw new IllegalArgumentException("Exactly one of restaurantId or city is required");
+        }
+        if (partySize < 1) {
+            throw new IllegalArgumentException("partySize must be at least 1");
+        }
+        LocalTime preferred;
+        try {
+            preferred = time != null ? LocalTime.parse(time) : null;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("time must be in HH:mm format");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+
+        // 1. Candidate spaces and their restaurants
+        Map<String, Restaurant> restaurants = new HashMap<>();
+        List<Space> candidates;
+        if (restaurantId != null) {
+            ObjectId id = new ObjectId(restaurantId);
+            restaurants.put(restaurantId, restaurantService.getRestaurantById(id)
+                    .orElseThrow(() -> new RestaurantNotFoundException(id)));
+            candidates = spaceService.findSpacesForPartySize(restaurantId, partySize);
+        } else {
+            restaurantService.getActiveRestaurantsByCity(city)
+                    .forEach(restaurant -> restaurants.put(restaurant.getId().toHexString(), restaurant));
+            candidates = spaceService.findSpacesForPartySize(restaurants.keySet(), partySize);
+        }
+
+        // 2. One reservation query for all candidates
+        Map<UUID, List<BookedInterval>> intervalsBySpace = new HashMap<>();
+        if (!candidates.isEmpty()) {
+            List<UUID> spaceIds = candidates.stream().map(Space::getId).toList();
+            for (Reservation reservation : reservationRepository.findBySpaceIdInAndReservationDateAndStatus(
+                    spaceIds, date, ReservationStatus.CONFIRMED)) {
+                BookedInterval interval = BookedInterval.of(reservation);
+                if (interval != null) {
+                    intervalsBySpace.computeIfAbsent(reservation.getSpaceId(), id -> new ArrayList<>()).add(interval);
+                }
+            }
+        }
+
+        // 3. Evaluate spaces in parallel within the remaining budget
+        List<Callable<List<SpaceSlotMatch>>> tasks = candidates.stream()
+                .<Callable<List<SpaceSlotMatch>>>map(space -> () -> evaluate(space,
+                        restaurants.get(space.getRestaurantId()), date,
+                        intervalsBySpace.getOrDefault(space.getId(), List.of()),
+                        partySize, preferred, windowMinutes))
+                .toList();
+        List<SpaceSlotMatch> matches = new ArrayList<>();
+        int evaluated = 0;
+        if (!tasks.isEmpty()) {
+            try {
+                long remainingNanos = Math.max(0, deadline - System.nanoTime());
+                for (Future<List<SpaceSlotMatch>> future : evaluator.invokeAll(tasks, remainingNanos, TimeUnit.NANOSECONDS)) {
+                    try {
+                        matches.addAll(future.get());
+                        evaluated++;
+                    } catch (CancellationException e) {
+                        // Not finished within the budget
+                    } catch (ExecutionException e) {
+                        logger.warn("Availability search failed for a space: {}", e.getCause().getMessage());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // 4. Rank and cap
+        Comparator<SpaceSlotMatch> ranking = Comparator
+                .comparingInt((SpaceSlotMatch match) -> distanceMinutes(match, preferred))
+                .thenComparingInt(match -> match.getMaxCapacity() - partySize)
+                .thenComparing(SpaceSlotMatch::getStartTime)
+                .thenComparing(SpaceSlotMatch::getSpaceName, Comparator.nullsLast(Comparator.naturalOrder()));
+        List<SpaceSlotMatch> results = matches.stream()
+                .sorted(ranking)
+                .limit(Math.max(0, Math.min(limit, maxResults)))
+                .toList();
+
+        if (evaluated < candidates.size()) {
+            logger.info("Availability search hit its {} ms budget: {} of {} spaces evaluated",
+                    budgetMs, evaluated, candidates.size());
+        }
+
+        return AvailabilitySearchResponse.builder()
+                .date(date)
+                .partySize(partySize)
+                .time(time)
+                .spacesConsidered(candidates.size())
+                .spacesEvaluated(evaluated)
+                .partial(evaluated < candidates.size())
+                .results(results)
+                .build();
+    }
+
+    private List<SpaceSlotMatch> evaluate(Space space, Restaurant restaurant, LocalDate date,
+                                          List<BookedInterval> intervals, int partySize,
+                                          LocalTime preferred, int windowMinutes) {
+        AvailabilityResponse availability =
+                availabilityService.buildAvailabilityFromIntervals(space, restaurant, date, intervals);
+        return availability.getTimeSlots().stream()
+                .filter(slot -> slot.getAvailableCapacity() >= partySize)
+                .filter(slot -> preferred == null
+                        || Math.abs(minutesBetween(preferred, LocalTime.parse(slot.getStartTime()))) <= windowMinutes)
+                .map(slot -> SpaceSlotMatch.builder()
+                        .restaurantId(space.getRestaurantId())
+                        .restaurantName(restaurant != null ? restaurant.getName() : null)
+                        .spaceId(space.getId())
+                        .spaceName(space.getName())
+                        .maxCapacity(space.getMaxCapacity())
+                        .startTime(slot.getStartTime())
+                        .endTime(slot.getEndTime())
+                        .availableCapacity(slot.getAvailableCapacity())
+                        .status(slot.getStatus())
+                        .build())
+                .toList();
+    }
+
+    private static int distanceMinutes(SpaceSlotMatch match, LocalTime preferred) {
+        return preferred == null ? 0 : Math.abs(minutesBetween(preferred, LocalTime.parse(match.getStartTime())));
+    }
+
+    private static int minutesBetween(LocalTime from, LocalTime to) {
+        return to.toSecondOfDay() / 60 - from.toSecondOfDay() / 60;
+    }
+}
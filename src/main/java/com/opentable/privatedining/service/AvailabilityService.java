@@ -1,25 +1,37 @@
 package com.opentable.privatedining.service;
 
+import com.opentable.privatedining.dto.response.AvailabilityCalendarResponse;
 import com.opentable.privatedining.dto.response.AvailabilityResponse;
+import com.opentable.privatedining.dto.response.CalendarDayAvailability;
 import com.opentable.privatedining.dto.response.TimeSlotResponse;
+import com.opentable.privatedining.exception.InvalidDateRangeException;
 import com.opentable.privatedining.exception.SpaceNotFoundException;
 import com.opentable.privatedining.model.OperatingHours;
 import com.opentable.privatedining.model.Reservation;
 import com.opentable.privatedining.model.Restaurant;
 import com.opentable.privatedining.model.Space;
 import com.opentable.privatedining.model.enums.ReservationStatus;
+import com.opentable.privatedining.model.enums.SlotStatus;
 import com.opentable.privatedining.repository.ReservationRepository;
 import com.opentable.privatedining.repository.SpaceRepository;
 import com.opentable.privatedining.repository.TotalPartySizeResult;
+import com.opentable.privatedining.util.BookedInterval;
 import com.opentable.privatedining.util.TimeSlotGenerator;
 import org.bson.types.ObjectId;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.zip.CRC32;
 
 /**
  * Service for checking availability and capacity.
@@ -31,19 +43,33 @@ public class AvailabilityService {
 
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
+    /**
+     * Longest range served by {@link #getAvailabilityCalendar}.
+     */
+    public static final int MAX_CALENDAR_DAYS = 62;
+
     private final SpaceRepository spaceRepository;
     private final ReservationRepository reservationRepository;
     private final RestaurantService restaurantService;
     private final TimeSlotGenerator timeSlotGenerator;
+    private final CatalogCache catalogCache;
+    private final AvailabilitySnapshotService snapshotService;
+    private final AvailabilityVersionService versionService;
 
     public AvailabilityService(SpaceRepository spaceRepository,
                                ReservationRepository reservationRepository,
                                RestaurantService restaurantService,
-                               TimeSlotGenerator timeSlotGenerator) {
+                               TimeSlotGenerator timeSlotGenerator,
+                               CatalogCache catalogCache,
+                               AvailabilitySnapshotService snapshotService,
+                               AvailabilityVersionService versionService) {
         this.spaceRepository = spaceRepository;
         this.reservationRepository = reservationRepository;
         this.restaurantService = restaurantService;
         this.timeSlotGenerator = timeSlotGenerator;
+        this.catalogCache = catalogCache;
+        this.snapshotService = snapshotService;
+        this.versionService = versionService;
     }
 
     /**
@@ -57,8 +83,7 @@ public class AvailabilityService {
      * @return Available capacity (max capacity - currently booked)
      */
     public int getAvailableCapacity(UUID spaceId, LocalDate date, String startTime, String endTime) {
-        Space space = spaceRepository.findActiveById(spaceId)
-                .orElseThrow(() -> new SpaceNotFoundException(spaceId));
+        Space space = findActiveSpace(spaceId);
 
         int bookedCapacity = getBookedCapacity(spaceId, date, startTime, endTime);
         return space.getMaxCapacity() - bookedCapacity;
@@ -87,20 +112,196 @@ public class AvailabilityService {
     /**
      * Get full availability response for a space on a specific date.
      * Includes all time slots with their capacity information.
+     * Bookings come from the space-day snapshot when snapshots are enabled, otherwise from
+     * the day's confirmed reservations.
      *
      * @param spaceId The space ID
      * @param date The date to check
      * @return Availability response with all time slots
      */
     public AvailabilityResponse getAvailability(UUID spaceId, LocalDate date) {
-        Space space = spaceRepository.findActiveById(spaceId)
-                .orElseThrow(() -> new SpaceNotFoundException(spaceId));
+        Space space = findActiveSpace(spaceId);
 
         // Get restaurant for operating hours
         Restaurant restaurant = restaurantService.getRestaurantById(
                         new ObjectId(space.getRestaurantId()))
                 .orElse(null);
 
+        if (snapshotService.isEnabled()) {
+            return buildAvailabilityFromIntervals(space, restaurant, date,
+                    snapshotService.getBookedIntervals(spaceId, date));
+        }
+
+        // Get existing confirmed reservations for the date
+        List<Reservation> existingReservations =
+                reservationRepository.findBySpaceIdAndReservationDateAndStatus(
+                        spaceId, date, ReservationStatus.CONFIRMED);
+
+        return buildAvailability(space, restaurant, date, existingReservations);
+    }
+
+    /**
+     * Whether availability responses carry a version tag (app.availability.etag.enabled).
+     */
+    public boolean isVersionTagEnabled() {
+        return versionService.isEnabled();
+    }
+
+    /**
+     * Get a tag that changes whenever {@link #getAvailability} would return different data,
+     * without loading reservations.
+     *
+     * The tag combines the space-day's availability version (one read by _id, see
+     * {@link AvailabilityVersionService}) with a fingerprint of the cached space and opening
+     * hours the slots are generated from.
+     *
+     * The version is bumped after every reservation or snapshot write of the day, so reading
+     * the tag before {@link #getAvailability} never tags a response with a version newer
+     * than the data it reflects.
+     *
+     * @param spaceId The space ID
+     * @param date The date
+     * @return The version tag
+     */
+    public String getAvailabilityVersionTag(UUID spaceId, LocalDate date) {
+        Space space = findActiveSpace(spaceId);
+        long version = versionService.getVersion(spaceId, date);
+
+        Restaurant restaurant = restaurantService.getRestaurantById(
+                        new ObjectId(space.getRestaurantId()))
+                .orElse(null);
+        OperatingHours hours = restaurant != null
+                ? restaurant.getOperatingHoursForDay(date.getDayOfWeek().getValue() % 7)
+                : null;
+
+        CRC32 catalog = new CRC32();
+        catalog.update(String.join("|",
+                String.valueOf(space.getName()),
+                String.valueOf(space.getMaxCapacity()),
+                String.valueOf(space.getSlotDurationMinutes()),
+                String.valueOf(space.getBufferMinutes()),
+                hours != null ? hours.getOpenTime() + "-" + hours.getCloseTime() + ":" + hours.getIsClosed() : "none")
+                .getBytes(StandardCharsets.UTF_8));
+
+        return version + "." + Long.toHexString(catalog.getValue());
+    }
+
+    /**
+     * Get a per-day availability summary for a space over a date range.
+     *
+     * The space and restaurant are loaded once and the range's confirmed reservations are
+     * fetched with a single query, then grouped by date in one pass. Each day's slots are
+     * generated from its own reservations exactly as {@link #getAvailability} would.
+     *
+     * @param spaceId The space ID
+     * @param startDate First day (inclusive)
+     * @param endDate Last day (inclusive)
+     * @param includeSlots Whether to include every day's time slots
+     * @return Availability calendar with one entry per day
+     */
+    public AvailabilityCalendarResponse getAvailabilityCalendar(UUID spaceId, LocalDate startDate,
+                                                                LocalDate endDate, boolean includeSlots) {
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidDateRangeException(startDate, endDate);
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_CALENDAR_DAYS) {
+            throw new InvalidDateRangeException(String.format(
+                    "Invalid date range: at most %d days can be requested at once.", MAX_CALENDAR_DAYS));
+        }
+
+        Space space = findActiveSpace(spaceId);
+        Restaurant restaurant = restaurantService.getRestaurantById(
+                        new ObjectId(space.getRestaurantId()))
+                .orElse(null);
+
+        // One range query, bucketed by day
+        Map<LocalDate, List<BookedInterval>> intervalsByDate = new HashMap<>();
+        for (Reservation reservation : reservationRepository.findBySpaceIdAndReservationDateBetweenAndStatus(
+                spaceId, startDate, endDate, ReservationStatus.CONFIRMED)) {
+            BookedInterval interval = BookedInterval.of(reservation);
+            if (interval != null) {
+                intervalsByDate.computeIfAbsent(reservation.getReservationDate(), date -> new ArrayList<>())
+                        .add(interval);
+            }
+        }
+
+        List<CalendarDayAvailability> days = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            AvailabilityResponse day = buildAvailabilityFromIntervals(space, restaurant, date,
+                    intervalsByDate.getOrDefault(date, List.of()));
+            days.add(summarizeDay(day, includeSlots));
+        }
+
+        return AvailabilityCalendarResponse.builder()
+                .spaceId(space.getId())
+                .spaceName(space.getName())
+                .maxCapacity(space.getMaxCapacity())
+                .startDate(startDate)
+                .endDate(endDate)
+                .days(days)
+                .build();
+    }
+
+    /**
+     * Reduce a day's availability to its calendar summary.
+     */
+    private CalendarDayAvailability summarizeDay(AvailabilityResponse day, boolean includeSlots) {
+        List<TimeSlotResponse> slots = day.getTimeSlots();
+        int availableSlots = 0;
+        int maxAvailableCapacity = 0;
+        SlotStatus best = SlotStatus.FULL;
+        for (TimeSlotResponse slot : slots) {
+            if (slot.getStatus() != SlotStatus.FULL) {
+                availableSlots++;
+            }
+            maxAvailableCapacity = Math.max(maxAvailableCapacity, slot.getAvailableCapacity());
+            if (slot.getStatus().ordinal() < best.ordinal()) {
+                best = slot.getStatus();
+            }
+        }
+
+        return CalendarDayAvailability.builder()
+                .date(day.getDate())
+                .isOpen(day.getIsOpen())
+                .operatingHours(day.getOperatingHours())
+                .status(best)
+                .totalSlots(slots.size())
+                .availableSlots(availableSlots)
+                .maxAvailableCapacity(maxAvailableCapacity)
+                .timeSlots(includeSlots ? slots : null)
+                .build();
+    }
+
+    /**
+     * Assemble the availability response from already loaded data.
+     * Shared by the blocking and reactive read paths, so both produce identical slots.
+     *
+     * @param space The space
+     * @param restaurant The owning restaurant, or null if it no longer exists (treated as closed)
+     * @param date The date to check
+     * @param existingReservations Confirmed reservations for the space on that date
+     * @return Availability response with all time slots
+     */
+    public AvailabilityResponse buildAvailability(Space space, Restaurant restaurant, LocalDate date,
+                                                  List<Reservation> existingReservations) {
+        List<BookedInterval> bookedIntervals = existingReservations.stream()
+                .map(BookedInterval::of)
+                .filter(Objects::nonNull)
+                .toList();
+        return buildAvailabilityFromIntervals(space, restaurant, date, bookedIntervals);
+    }
+
+    /**
+     * Assemble the availability response from booked intervals.
+     *
+     * @param space The space
+     * @param restaurant The owning restaurant, or null if it no longer exists (treated as closed)
+     * @param date The date to check
+     * @param bookedIntervals Booked windows for the space on that date
+     * @return Availability response with all time slots
+     */
+    public AvailabilityResponse buildAvailabilityFromIntervals(Space space, Restaurant restaurant, LocalDate date,
+                                                               List<BookedInterval> bookedIntervals) {
         // Get operating hours for the day
         OperatingHours operatingHours = null;
         boolean isOpen = false;
@@ -116,17 +317,12 @@ public class AvailabilityService {
             }
         }
 
-        // Get existing confirmed reservations for the date
-        List<Reservation> existingReservations =
-                reservationRepository.findBySpaceIdAndReservationDateAndStatus(
-                        spaceId, date, ReservationStatus.CONFIRMED);
-
         // Generate time slots with availability
-        List<TimeSlotResponse> timeSlots = timeSlotGenerator.generateTimeSlots(
-                operatingHours, space, existingReservations);
+        List<TimeSlotResponse> timeSlots = timeSlotGenerator.generateTimeSlotsForIntervals(
+                operatingHours, space, bookedIntervals);
 
         return AvailabilityResponse.builder()
-                .spaceId(spaceId)
+                .spaceId(space.getId())
                 .spaceName(space.getName())
                 .maxCapacity(space.getMaxCapacity())
                 .date(date)
@@ -166,6 +362,15 @@ public class AvailabilityService {
         return reservationRepository.findOverlappingReservations(spaceId, date, startTime, endTime);
     }
 
+    /**
+     * Look up an active space through the catalog cache.
+     */
+    private Space findActiveSpace(UUID spaceId) {
+        return catalogCache.getSpace(spaceId, spaceRepository::findActiveById)
+                .filter(space -> Boolean.TRUE.equals(space.getIsActive()))
+                .orElseThrow(() -> new SpaceNotFoundException(spaceId));
+    }
+
     /**
      * Calculate end time based on space slot duration.
      *
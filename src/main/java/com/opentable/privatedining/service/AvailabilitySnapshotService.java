@@ -0,0 +1,373 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.model.AvailabilitySnapshot;
+import com.opentable.privatedining.model.AvailabilitySnapshot.BookedWindow;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.enums.ReservationStatus;
+import com.opentable.privatedining.service.AvailabilityVersionService.SpaceDay;
+import com.opentable.privatedining.util.BookedInterval;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maintains {@link AvailabilitySnapshot} documents so an availability read is a single
+ * key lookup.
+ *
+ * ALGORITHM: Idempotent Booking Set with Create-Before-Read Builds
+ * ----------------------------------------------------------------
+ * Book:      upsert $set bookings.<reservationId> = {window, partySize}.
+ * Release:   upsert $addToSet released <reservationId> (cancel / delete).
+ * Read:      snapshot by _id if it is complete; otherwise build it:
+ *              1. upsert the (possibly empty) document, so every later book/release lands on it
+ *              2. read the day's confirmed reservations
+ *              3. $set bookings.<id> for each of them and mark the document complete
+ * Reconcile: periodically compare the space-days touched since the last run with their
+ *            reservations and rewrite the snapshots that differ.
+ *
+ * A reservation counts once it is booked and until it is released, and both updates only
+ * add to a set, so applying one twice or in any order against a build gives the same
+ * result. In particular, a build and the increment of a reservation it already read can
+ * no longer count that reservation twice. Reservations are persisted before they are
+ * booked into the snapshot, and a booking persisted after a build's read is applied to the
+ * document that build created in step 1, so none is lost either.
+ *
+ * Drift only remains when an update fails. The snapshot is then deleted, so the next read
+ * rebuilds it; if even that fails, reconciliation repairs it. Reconciliation only visits
+ * the space-days this node touched since its last run (one indexed reservation query
+ * each) and rewrites a snapshot only if its revision is unchanged since it was read, so it
+ * never overwrites an update it did not see. Every correction bumps the space-day's
+ * availability version.
+ *
+ * Disabled by default: reservations stay the source of availability until the snapshots
+ * are switched on with app.availability.snapshots.enabled.
+ */
+@Service
+public class AvailabilitySnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilitySnapshotService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final AvailabilityVersionService versionService;
+    private final boolean enabled;
+    private final long reconcileIntervalMs;
+    private final Counter driftCounter;
+    private final Counter rebuildCounter;
+
+    /**
+     * Space-days changed through this node since the last reconciliation.
+     */
+    private final Set<SpaceDay> touched = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService reconciler;
+
+    public AvailabilitySnapshotService(MongoTemplate mongoTemplate,
+                                       AvailabilityVersionService versionService,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.availability.snapshots.enabled:false}") boolean enabled,
+                                       @Value("${app.availability.snapshots.reconcile-interval-ms:300000}") long reconcileIntervalMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.versionService = versionService;
+        this.enabled = enabled;
+        this.reconcileIntervalMs = reconcileIntervalMs;
+        this.driftCounter = Counter.builder("availability.snapshot.drift")
+                .description("Snapshots corrected by reconciliation")
+                .register(meterRegistry);
+        this.rebuildCounter = Counter.builder("availability.snapshot.rebuilds")
+                .description("Snapshots built from reservations on a read miss")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || reconcileIntervalMs <= 0) {
+            return;
+        }
+        reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "availability-snapshot-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(this::reconcileQuietly,
+                reconcileIntervalMs, reconcileIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Booked intervals of a space-day, building the snapshot on first access.
+     */
+    public List<BookedInterval> getBookedIntervals(UUID spaceId, LocalDate date) {
+        AvailabilitySnapshot snapshot = mongoTemplate.findById(
+                AvailabilitySnapshot.generateId(spaceId, date), AvailabilitySnapshot.class);
+        if (snapshot == null || !snapshot.isComplete()) {
+            snapshot = build(spaceId, date);
+        }
+        return toBookedIntervals(snapshot);
+    }
+
+    /**
+     * Apply a newly persisted confirmed reservation.
+     */
+    public void recordBooked(Reservation reservation) {
+        apply(reservation, booked(reservation));
+    }
+
+    /**
+     * Apply newly persisted confirmed reservations in one bulk write.
+     */
+    public void recordBooked(List<Reservation> reservations) {
+        if (!enabled || reservations.isEmpty()) {
+            return;
+        }
+        reservations.forEach(this::touch);
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AvailabilitySnapshot.class);
+        reservations.forEach(reservation -> bulk.upsert(byId(reservation), booked(reservation)));
+        try {
+            bulk.execute();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to apply {} bookings to availability snapshots: {}", reservations.size(), e.getMessage());
+            reservations.forEach(this::evict);
+        }
+    }
+
+    /**
+     * Apply a confirmed reservation that was cancelled or deleted.
+     */
+    public void recordReleased(Reservation reservation) {
+        apply(reservation, released(reservation));
+    }
+
+    /**
+     * Rewrite the snapshots of the space-days touched since the last run whose bookings
+     * differ from the reservations.
+     *
+     * @return number of snapshots corrected
+     */
+    public int reconcile() {
+        int corrected = 0;
+        for (SpaceDay day : touched) {
+            if (!touched.remove(day)) {
+                continue;
+            }
+            try {
+                if (reconcile(day)) {
+                    corrected++;
+                }
+            } catch (RuntimeException e) {
+                touched.add(day);
+                throw e;
+            }
+        }
+        return corrected;
+    }
+
+    private boolean reconcile(SpaceDay day) {
+        AvailabilitySnapshot snapshot = mongoTemplate.findById(
+                AvailabilitySnapshot.generateId(day.spaceId(), day.date()), AvailabilitySnapshot.class);
+        if (snapshot == null || !snapshot.isComplete()) {
+            // Nothing is served from it; the next read builds it from reservations
+            return false;
+        }
+
+        // Read after the snapshot, so any change in between bumps the revision
+        Map<String, BookedWindow> wanted = new HashMap<>();
+        findConfirmed(day.spaceId(), day.date()).forEach(reservation -> {
+            if (countable(reservation)) {
+                wanted.put(reservation.getId().toHexString(), window(reservation));
+            }
+        });
+        if (snapshot.activeBookings().equals(wanted)) {
+            return false;
+        }
+
+        boolean rewritten = mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(snapshot.getId()).and("revision").is(snapshot.getRevision())),
+                new Update().set("bookings", wanted).inc("revision", 1).set("rebuiltAt", LocalDateTime.now()),
+                AvailabilitySnapshot.class).getModifiedCount() > 0;
+        if (!rewritten) {
+            // Changed concurrently; look again next run
+            touched.add(day);
+            return false;
+        }
+        driftCounter.increment();
+        versionService.bump(day.spaceId(), day.date());
+        logger.warn("Corrected drifted availability snapshot {}", snapshot.getId());
+        return true;
+    }
+
+    private AvailabilitySnapshot build(UUID spaceId, LocalDate date) {
+        String id = AvailabilitySnapshot.generateId(spaceId, date);
+        Query byId = new Query(Criteria.where("_id").is(id));
+        if (enabled) {
+            touch(new SpaceDay(spaceId, date));
+            try {
+                // 1. Create the document first, so bookings persisted after the read below land on it
+                mongoTemplate.upsert(byId, created(spaceId, date), AvailabilitySnapshot.class);
+            } catch (DuplicateKeyException e) {
+                // Created concurrently by another request or an increment
+                logger.debug("Availability snapshot {} was created concurrently", id);
+            }
+        }
+
+        // 2. Read the day's reservations
+        Map<String, BookedWindow> bookings = new HashMap<>();
+        for (Reservation reservation : findConfirmed(spaceId, date)) {
+            if (countable(reservation)) {
+                bookings.put(reservation.getId().toHexString(), window(reservation));
+            }
+        }
+        AvailabilitySnapshot snapshot = AvailabilitySnapshot.builder()
+                .id(id)
+                .spaceId(spaceId)
+                .date(date)
+                .bookings(bookings)
+                .complete(true)
+                .rebuiltAt(LocalDateTime.now())
+                .build();
+        if (!enabled) {
+            return snapshot;
+        }
+
+        // 3. Merge them in; the result also carries every booking and release applied meanwhile
+        Update merge = new Update().set("complete", true).set("rebuiltAt", snapshot.getRebuiltAt()).inc("revision", 1);
+        bookings.forEach((reservationId, window) -> merge.set("bookings." + reservationId, window));
+        AvailabilitySnapshot merged = mongoTemplate.findAndModify(byId, merge,
+                FindAndModifyOptions.options().returnNew(true), AvailabilitySnapshot.class);
+        if (merged == null) {
+            // Evicted after a failed update; serve this read from the reservations alone
+            return snapshot;
+        }
+        rebuildCounter.increment();
+        return merged;
+    }
+
+    private List<Reservation> findConfirmed(UUID spaceId, LocalDate date) {
+        return mongoTemplate.find(new Query(Criteria.where("spaceId").is(spaceId)
+                .and("reservationDate").is(date)
+                .and("status").is(ReservationStatus.CONFIRMED)), Reservation.class);
+    }
+
+    private void apply(Reservation reservation, Update update) {
+        if (!enabled) {
+            return;
+        }
+        touch(reservation);
+        try {
+            mongoTemplate.upsert(byId(reservation), update, AvailabilitySnapshot.class);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to update availability snapshot for reservation {}: {}",
+                    reservation.getId(), e.getMessage());
+            evict(reservation);
+        }
+    }
+
+    private void evict(Reservation reservation) {
+        try {
+            mongoTemplate.remove(byId(reservation), AvailabilitySnapshot.class);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to evict availability snapshot; reconciliation will repair it: {}", e.getMessage());
+        }
+    }
+
+    private void touch(Reservation reservation) {
+        touch(new SpaceDay(reservation.getSpaceId(), reservation.getReservationDate()));
+    }
+
+    private void touch(SpaceDay day) {
+        touched.add(day);
+    }
+
+    private void reconcileQuietly() {
+        try {
+            int corrected = reconcile();
+            if (corrected > 0) {
+                logger.info("Availability snapshot reconciliation corrected {} snapshots", corrected);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Availability snapshot reconciliation failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private static Query byId(Reservation reservation) {
+        return new Query(Criteria.where("_id").is(
+                AvailabilitySnapshot.generateId(reservation.getSpaceId(), reservation.getReservationDate())));
+    }
+
+    private static Update created(UUID spaceId, LocalDate date) {
+        return new Update()
+                .setOnInsert("spaceId", spaceId)
+                .setOnInsert("date", date)
+                .setOnInsert("complete", false);
+    }
+
+    private static Update booked(Reservation reservation) {
+        return created(reservation.getSpaceId(), reservation.getReservationDate())
+                .set("bookings." + reservation.getId().toHexString(), window(reservation))
+                .inc("revision", 1);
+    }
+
+    private static Update released(Reservation reservation) {
+        return created(reservation.getSpaceId(), reservation.getReservationDate())
+                .addToSet("released", reservation.getId().toHexString())
+                .inc("revision", 1);
+    }
+
+    private static boolean countable(Reservation reservation) {
+        return reservation.getStartTime() != null && reservation.getEndTime() != null;
+    }
+
+    private static BookedWindow window(Reservation reservation) {
+        return new BookedWindow(AvailabilitySnapshot.intervalKey(reservation.getStartTime(), reservation.getEndTime()),
+                Objects.requireNonNullElse(reservation.getPartySize(), 0));
+    }
+
+    private static List<BookedInterval> toBookedIntervals(AvailabilitySnapshot snapshot) {
+        List<BookedInterval> intervals = new ArrayList<>();
+        snapshot.tallies().forEach((key, tally) -> {
+            int separator = key.indexOf('-');
+            intervals.add(new BookedInterval(
+                    LocalTime.parse(key.substring(0, separator)),
+                    LocalTime.parse(key.substring(separator + 1)),
+                    tally.getPartySize(),
+                    tally.getReservations()));
+        });
+        return intervals;
+    }
+}
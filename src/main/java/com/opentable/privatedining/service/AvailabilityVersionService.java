@@ -0,0 +1,138 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.model.AvailabilityDayVersion;
+import com.opentable.privatedining.model.Reservation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Maintains the per space-day {@link AvailabilityDayVersion} that availability ETags are
+ * built from.
+ *
+ * ALGORITHM: Bump After Write, Read Before Read
+ * ---------------------------------------------
+ * Every write that can change a space-day's availability (a reservation booked, cancelled
+ * or deleted, a snapshot corrected, a capacity counter rewritten) upserts the day's
+ * version with $inc once the write itself has been applied. A conditional GET reads the
+ * version before it reads the availability data. So whenever a response is tagged with
+ * version v, every write behind v was already visible to that response: a tag can only
+ * be older than its data (one extra 200), never newer (a 304 over stale data).
+ *
+ * Versions are compared for equality only, so no clock is involved. A failed bump leaves
+ * the previous tag in place until the day's next change; it is logged as an error.
+ *
+ * With app.availability.etag.enabled=false nothing is bumped or read and availability is
+ * served without an ETag. Days written while disabled keep their old version, so clear
+ * the availability_day_versions collection when turning the flag back on.
+ */
+@Service
+public class AvailabilityVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityVersionService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    public AvailabilityVersionService(MongoTemplate mongoTemplate,
+                                      @Value("${app.availability.etag.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether availability is tagged with versions (and versions are maintained).
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Current version of a space-day, 0 if it never changed.
+     */
+    public long getVersion(UUID spaceId, LocalDate date) {
+        if (!enabled) {
+            return 0;
+        }
+        Query query = new Query(Criteria.where("_id").is(AvailabilityDayVersion.generateId(spaceId, date)));
+        query.fields().include("version");
+        AvailabilityDayVersion day = mongoTemplate.findOne(query, AvailabilityDayVersion.class);
+        return day != null && day.getVersion() != null ? day.getVersion() : 0;
+    }
+
+    /**
+     * Bump a space-day after a write to its availability has been applied.
+     */
+    public void bump(UUID spaceId, LocalDate date) {
+        if (!enabled) {
+            return;
+        }
+        SpaceDay day = new SpaceDay(spaceId, date);
+        try {
+            mongoTemplate.upsert(byId(day), increment(day), AvailabilityDayVersion.class);
+        } catch (RuntimeException e) {
+            logger.error("Failed to bump availability version of {}, its ETag may be stale: {}",
+                    day, e.getMessage());
+        }
+    }
+
+    /**
+     * Bump the space-days of newly written reservations, once per day, in one bulk write.
+     */
+    public void bumpReservations(Collection<Reservation> reservations) {
+        if (!enabled) {
+            return;
+        }
+        Set<SpaceDay> days = new LinkedHashSet<>();
+        reservations.forEach(reservation ->
+                days.add(new SpaceDay(reservation.getSpaceId(), reservation.getReservationDate())));
+        bump(days);
+    }
+
+    /**
+     * Bump several space-days in one bulk write.
+     */
+    public void bump(Collection<SpaceDay> days) {
+        if (!enabled || days.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                AvailabilityDayVersion.class);
+        days.forEach(day -> bulk.upsert(byId(day), increment(day)));
+        try {
+            bulk.execute();
+        } catch (RuntimeException e) {
+            logger.error("Failed to bump availability versions of {} space-days, their ETags may be stale: {}",
+                    days.size(), e.getMessage());
+        }
+    }
+
+    private static Query byId(SpaceDay day) {
+        return new Query(Criteria.where("_id").is(AvailabilityDayVersion.generateId(day.spaceId(), day.date())));
+    }
+
+    private static Update increment(SpaceDay day) {
+        return new Update()
+                .inc("version", 1)
+                .setOnInsert("spaceId", day.spaceId())
+                .setOnInsert("date", day.date());
+    }
+
+    /**
+     * A space on a date.
+     */
+    public record SpaceDay(UUID spaceId, LocalDate date) {
+    }
+}
@@ -0,0 +1,356 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.dto.request.BatchReservationRequest;
+import com.opentable.privatedining.dto.request.CreateReservationRequest;
+import com.opentable.privatedining.dto.response.BatchReservationItemResult;
+import com.opentable.privatedining.dto.response.BatchReservationResponse;
+import com.opentable.privatedining.exception.AdvanceBookingLimitException;
+import com.opentable.privatedining.exception.InvalidDateRangeException;
+import com.opentable.privatedining.exception.InvalidPartySizeException;
+import com.opentable.privatedining.exception.InvalidTimeSlotException;
+import com.opentable.privatedining.exception.OutsideOperatingHoursException;
+import com.opentable.privatedining.exception.ReservationException;
+import com.opentable.privatedining.exception.RestaurantNotFoundException;
+import com.opentable.privatedining.exception.SpaceNotFoundException;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.Restaurant;
+import com.opentable.privatedining.model.SlotCapacity;
+import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.enums.ReservationStatus;
+import com.opentable.privatedining.service.SlotCapacityService.CapacityClaim;
+import com.opentable.privatedining.validation.ReservationValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Service for creating many reservations in one request.
+ *
+ * ALGORITHM: Validate, Group, Admit in Bulk, Insert in Bulk, Compensate
+ * ---------------------------------------------------------------------
+ * 1. Validate every item on its own. Spaces and restaurants are loaded once per id
+ *    and shared by all items of the batch, so validation is in-memory after the first
+ *    lookup. Invalid items are rejected without touching capacity.
+ * 2. Group the valid items by slot (spaceId, date, startTime), keeping request order
+ *    within a slot, so earlier items of a slot are admitted first.
+ * 3. Admit capacity for all items with one ordered bulkWrite of guarded upserts, applied
+ *    in that order (see {@link SlotCapacityService#tryReserveCapacityBatch}).
+ * 4. Insert all admitted reservations with one unordered bulk insert.
+ * 5. Compensate: any admitted item whose insert failed has its capacity released. If
+ *    the insert fails without per-item results (e.g. a socket timeout), the assigned ids
+ *    are read back to tell which reservations were written. A release that fails is
+ *    logged and the item is still reported as rejected; the other items are unaffected.
+ *
+ * Round trips for n valid items: 1 (capacity) + 1 (insert) in the common case, instead
+ * of 3n for n calls of {@link ReservationService#createReservation}.
+ *
+ * The batch is not atomic: each item succeeds or fails on its own, and the response
+ * reports the outcome of every item in request order. Infrastructure failures are not
+ * item outcomes: they fail the whole request, after any admitted capacity is released.
+ */
+@Service
+public class BatchReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchReservationService.class);
+
+    private final ReservationService reservationService;
+    private final SpaceService spaceService;
+    private final RestaurantService restaurantService;
+    private final AvailabilityService availabilityService;
+    private final ReservationValidator reservationValidator;
+    private final SlotCapacityService slotCapacityService;
+    private final AvailabilitySnapshotService snapshotService;
+    private final AvailabilityVersionService versionService;
+    private final OccupancyRollupService rollupService;
+    private final ReportCache reportCache;
+    private final MongoTemplate mongoTemplate;
+    private final Validator validator;
+
+    public BatchReservationService(ReservationService reservationService,
+                                   SpaceService spaceService,
+                                   RestaurantService restaurantService,
+                                   AvailabilityService availabilityService,
+                                   ReservationValidator reservationValidator,
+                                   SlotCapacityService slotCapacityService,
+                                   AvailabilitySnapshotService snapshotService,
+                                   AvailabilityVersionService versionService,
+                                   OccupancyRollupService rollupService,
+                                   ReportCache reportCache,
+                                   MongoTemplate mongoTemplate,
+                                   Validator validator) {
+        this.reservationService = reservationService;
+        this.spaceService = spaceService;
+        this.restaurantService = restaurantService;
+        this.availabilityService = availabilityService;
+        this.reservationValidator = reservationValidator;
+        this.slotCapacityService = slotCapacityService;
+        this.snapshotService = snapshotService;
+        this.versionService = versionService;
+        this.rollupService = rollupService;
+        this.reportCache = reportCache;
+        this.mongoTemplate = mongoTemplate;
+        this.validator = validator;
+    }
+
+    /**
+     * Create all reservations of a batch, reporting the outcome of each item.
+     */
+    public BatchReservationResponse createReservations(BatchReservationRequest request) {
+        List<CreateReservationRequest> items = request.getReservations();
+        BatchReservationItemResult[] results = new BatchReservationItemResult[items.size()];
+
+        // 1. Validate each item against shared space/restaurant lookups
+        Map<UUID, Optional<Space>> spaces = new HashMap<>();
+        Map<String, Optional<Restaurant>> restaurants = new HashMap<>();
+        List<PreparedItem> prepared = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                prepared.add(prepare(i, items.get(i), spaces, restaurants));
+            } catch (RuntimeException e) {
+                String errorCode = errorCodeFor(e);
+                if (errorCode == null) {
+                    // Not a problem with the item; nothing has been admitted yet
+                    throw e;
+                }
+                results[i] = rejected(i, errorCode, e.getMessage());
+            }
+        }
+
+        // 2. Group by slot, keeping request order inside each slot
+        List<PreparedItem> ordered = prepared.stream()
+                .collect(Collectors.groupingBy(PreparedItem::slotId, LinkedHashMap::new, Collectors.toList()))
+                .values().stream()
+                .flatMap(List::stream)
+                .toList();
+
+        // 3. Admit capacity for all valid items in one bulk write
+        boolean[] admitted = slotCapacityService.tryReserveCapacityBatch(
+                ordered.stream().map(PreparedItem::claim).toList());
+
+        List<PreparedItem> toInsert = new ArrayList<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            PreparedItem item = ordered.get(i);
+            if (admitted[i]) {
+                toInsert.add(item);
+            } else {
+                results[item.index()] = rejected(item.index(), "CAPACITY_EXCEEDED", String.format(
+                        "Insufficient capacity. Space '%s' cannot fit a party of %d on %s at %s.",
+                        item.space().getName(), item.request().getPartySize(),
+                        item.request().getReservationDate(), item.request().getStartTime()));
+            }
+        }
+
+        // 4. Insert all admitted reservations in one bulk write, 5. compensate failures
+        Set<Integer> failedInserts = insertAll(toInsert);
+        List<Reservation> inserted = new ArrayList<>();
+        for (int i = 0; i < toInsert.size(); i++) {
+            PreparedItem item = toInsert.get(i);
+            if (failedInserts.contains(i)) {
+                CapacityClaim claim = item.claim();
+                String message = "Failed to save reservation; capacity has been released";
+                try {
+                    slotCapacityService.releaseCapacity(claim.space().getId(), claim.date(),
+                            claim.startTime(), claim.endTime(), claim.partySize());
+                } catch (RuntimeException e) {
+                    logger.error("Failed to release capacity of batch item {} after its insert failed",
+                            item.index(), e);
+                    message = "Failed to save reservation";
+                }
+                results[item.index()] = rejected(item.index(), "RESERVATION_ERROR", message);
+            } else {
+                inserted.add(item.reservation());
+                results[item.index()] = BatchReservationItemResult.builder()
+                        .index(item.index())
+                        .status(BatchReservationItemResult.CREATED)
+                        .reservation(reservationService.toResponse(
+                                item.reservation(), item.space(), item.restaurant()))
+                        .build();
+            }
+        }
+
+        snapshotService.recordBooked(inserted);
+        versionService.bumpReservations(inserted);
+        rollupService.recordBooked(inserted);
+        for (Reservation reservation : inserted) {
+            reportCache.invalidate(reservation.getRestaurantId(), reservation.getSpaceId(),
+                    reservation.getReservationDate());
+        }
+
+        int created = toInsert.size() - failedInserts.size();
+        logger.info("Batch reservation: {} requested, {} created, {} rejected",
+                items.size(), created, items.size() - created);
+
+        return BatchReservationResponse.builder()
+                .requested(items.size())
+                .created(created)
+                .rejected(items.size() - created)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    private PreparedItem prepare(int index, CreateReservationRequest request,
+                                 Map<UUID, Optional<Space>> spaces,
+                                 Map<String, Optional<Restaurant>> restaurants) {
+        if (request == null) {
+            throw new ReservationException("Reservation item is required", "VALIDATION_ERROR");
+        }
+        Set<ConstraintViolation<CreateReservationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new ReservationException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")), "VALIDATION_ERROR");
+        }
+
+        Space space = spaces.computeIfAbsent(request.getSpaceId(), spaceService::getActiveSpaceById)
+                .orElseThrow(() -> new SpaceNotFoundException(request.getSpaceId()));
+        Restaurant restaurant = restaurants.computeIfAbsent(space.getRestaurantId(),
+                        id -> restaurantService.getRestaurantById(new ObjectId(id)))
+                .orElseThrow(() -> new RestaurantNotFoundException(new ObjectId(space.getRestaurantId())));
+
+        String endTime = availabilityService.calculateEndTime(space, request.getStartTime());
+        reservationValidator.validateReservationRequest(request, restaurant, space, LocalTime.parse(endTime));
+
+        Reservation reservation = Reservation.builder()
+                .id(new ObjectId())
+                .restaurantId(new ObjectId(space.getRestaurantId()))
+                .spaceId(request.getSpaceId())
+                .reservationDate(request.getReservationDate())
+                .startTime(request.getStartTime())
+                .endTime(endTime)
+                .partySize(request.getPartySize())
+                .customerName(request.getCustomerName())
+                .customerEmail(request.getCustomerEmail())
+                .customerPhone(request.getCustomerPhone())
+                .specialRequests(request.getSpecialRequests())
+                .status(ReservationStatus.CONFIRMED)
+                .version(0L)
+                .build();
+
+        CapacityClaim claim = new CapacityClaim(space, request.getReservationDate(),
+                request.getStartTime(), endTime, request.getPartySize());
+        return new PreparedItem(index, request, space, restaurant, reservation, claim);
+    }
+
+    /**
+     * Insert reservations with one unordered bulk write.
+     * Ids and versions are assigned up front, so the entities are complete without a read back.
+     *
+     * @return positions (in the given list) of the reservations that failed to insert
+     */
+    private Set<Integer> insertAll(List<PreparedItem> items) {
+        Set<Integer> failed = new HashSet<>();
+        if (items.isEmpty()) {
+            return failed;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Reservation.class)
+                    .insert(items.stream().map(PreparedItem::reservation).toList())
+                    .execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> failed.add(error.getIndex()));
+            logger.error("Failed to insert {} of {} batch reservations", failed.size(), items.size(), e);
+        } catch (RuntimeException e) {
+            failed.addAll(notInserted(items));
+            logger.error("Bulk insert of {} batch reservations failed, {} not written",
+                    items.size(), failed.size(), e);
+        }
+        return failed;
+    }
+
+    /**
+     * Positions of the reservations that are not in the collection, found by their assigned ids.
+     * If even that read fails, all are treated as not written, as a single booking does.
+     */
+    private Set<Integer> notInserted(List<PreparedItem> items) {
+        Set<ObjectId> written;
+        try {
+            Query query = new Query(Criteria.where("_id")
+                    .in(items.stream().map(item -> item.reservation().getId()).toList()));
+            query.fields().include("_id");
+            written = mongoTemplate.find(query, Reservation.class).stream()
+                    .map(Reservation::getId)
+                    .collect(Collectors.toSet());
+        } catch (RuntimeException e) {
+            logger.error("Could not read back batch reservations after a failed insert", e);
+            written = Set.of();
+        }
+        Set<Integer> missing = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (!written.contains(items.get(i).reservation().getId())) {
+                missing.add(i);
+            }
+        }
+        return missing;
+    }
+
+    private static BatchReservationItemResult rejected(int index, String errorCode, String message) {
+        return BatchReservationItemResult.builder()
+                .index(index)
+                .status(BatchReservationItemResult.REJECTED)
+                .errorCode(errorCode)
+                .message(message)
+                .build();
+    }
+
+    /**
+     * Error codes match those returned by GlobalExceptionHandler for single reservations.
+     *
+     * @return null for failures that are not about the item (e.g. the database is
+     *         unreachable), which fail the whole request instead
+     */
+    private static String errorCodeFor(RuntimeException e) {
+        if (e instanceof SpaceNotFoundException) {
+            return "SPACE_NOT_FOUND";
+        } else if (e instanceof RestaurantNotFoundException) {
+            return "RESTAURANT_NOT_FOUND";
+        } else if (e instanceof InvalidPartySizeException) {
+            return "INVALID_PARTY_SIZE";
+        } else if (e instanceof OutsideOperatingHoursException) {
+            return "OUTSIDE_OPERATING_HOURS";
+        } else if (e instanceof InvalidTimeSlotException) {
+            return "INVALID_TIME_SLOT";
+        } else if (e instanceof AdvanceBookingLimitException) {
+            return "ADVANCE_BOOKING_LIMIT_EXCEEDED";
+        } else if (e instanceof InvalidDateRangeException) {
+            return "INVALID_DATE_RANGE";
+        } else if (e instanceof ReservationException reservationException) {
+            return reservationException.getErrorCode();
+        } else if (e instanceof IllegalArgumentException) {
+            return "INVALID_ARGUMENT";
+        }
+        return null;
+    }
+
+    /**
+     * A validated batch item ready for capacity admission.
+     */
+    private record PreparedItem(int index, CreateReservationRequest request, Space space,
+                                Restaurant restaurant, Reservation reservation, CapacityClaim claim) {
+
+        String slotId() {
+            return SlotCapacity.generateId(space.getId(), claim.date(), claim.startTime());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.opentable.privatedining.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.opentable.privatedining.model.Restaurant;
+import com.opentable.privatedining.model.Space;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process near-cache for {@link Restaurant} and {@link Space} lookups.
+ *
+ * ALGORITHM: Read-Through Cache with Write Invalidation
+ * -----------------------------------------------------
+ * Catalog entities are read on every availability check and booking but change only a
+ * few times a day, so lookups go through a size-bounded cache with a TTL:
+ *   get(id) -> cached entity, or load from Mongo and cache it if present
+ *   write   -> invalidate(id) after the write reaches Mongo
+ *
+ * - Absent entities are never cached, so a newly created entity is visible immediately.
+ * - Spaces are cached regardless of their active flag; active lookups filter the cached
+ *   entity, so one entry serves both "any" and "active only" reads.
+ * - Writes through {@link RestaurantService} and {@link SpaceService} invalidate locally.
+ *   Writes on other nodes are picked up by {@link CatalogChangeStreamListener} when it is
+ *   enabled, and otherwise within the TTL.
+ * - Cached entities are shared instances and must not be mutated by callers.
+ *
+ * Hit, miss and eviction counts are published as the Micrometer "cache.*" meters with
+ * cache=catalog.restaurants / catalog.spaces.
+ */
+@Component
+public class CatalogCache {
+
+    private final boolean enabled;
+    private final Cache<ObjectId, Restaurant> restaurants;
+    private final Cache<UUID, Space> spaces;
+
+    public CatalogCache(MeterRegistry meterRegistry,
+                        @Value("${app.catalog-cache.enabled:true}") boolean enabled,
+                        @Value("${app.catalog-cache.max-size:10000}") long maxSize,
+                        @Value("${app.catalog-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.restaurants = newCache(maxSize, ttlSeconds);
+        this.spaces = newCache(maxSize, ttlSeconds);
+        CaffeineCacheMetrics.monitor(meterRegistry, restaurants, "catalog.restaurants");
+        CaffeineCacheMetrics.monitor(meterRegistry, spaces, "catalog.spaces");
+    }
+
+    /**
+     * Get a restaurant, loading it on a miss.
+     */
+    public Optional<Restaurant> getRestaurant(ObjectId id, Function<ObjectId, Optional<Restaurant>> loader) {
+        if (!enabled || id == null) {
+            return loader.apply(id);
+        }
+        return Optional.ofNullable(restaurants.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Get a space, loading it on a miss.
+     */
+    public Optional<Space> getSpace(UUID id, Function<UUID, Optional<Space>> loader) {
+        if (!enabled || id == null) {
+            return loader.apply(id);
+        }
+        return Optional.ofNullable(spaces.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public void invalidateRestaurant(ObjectId id) {
+        if (id != null) {
+            restaurants.invalidate(id);
+        }
+    }
+
+    public void invalidateSpace(UUID id) {
+        if (id != null) {
+            spaces.invalidate(id);
+        }
+    }
+
+    /**
+     * Drop every cached entity, e.g. after missing change events.
+     */
+    public void invalidateAll() {
+        restaurants.invalidateAll();
+        spaces.invalidateAll();
+    }
+
+    private static <K, V> Cache<K, V> newCache(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.opentable.privatedining.service;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.opentable.privatedining.config.MongoConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Optional cross-node invalidation for {@link CatalogCache}.
+ *
+ * Watches the restaurants and spaces collections with a Mongo change stream and evicts
+ * the changed document's ID from the local cache, so writes made on other nodes become
+ * visible without waiting for the cache TTL. Change streams require a replica set, so
+ * this is off by default.
+ *
+ * Each collection is watched by its own daemon thread. If a stream fails, events may have
+ * been missed, so the whole cache is dropped before the stream is reopened.
+ */
+@Component
+public class CatalogChangeStreamListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogChangeStreamListener.class);
+
+    private static final String RESTAURANTS = "restaurants";
+    private static final String SPACES = "spaces";
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogCache catalogCache;
+    private final boolean enabled;
+    private final long retryDelayMs;
+    private final MongoConfig.BinaryToUuidConverter uuidConverter = new MongoConfig.BinaryToUuidConverter();
+
+    private final List<Thread> watchers = new ArrayList<>();
+    private volatile boolean running;
+
+    public CatalogChangeStreamListener(MongoTemplate mongoTemplate,
+                                       CatalogCache catalogCache,
+                                       @Value("${app.catalog-cache.change-stream.enabled:false}") boolean enabled,
+                                       @Value("${app.catalog-cache.change-stream.retry-delay-ms:1000}") long retryDelayMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.catalogCache = catalogCache;
+        this.enabled = enabled;
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        watchers.add(startWatcher(RESTAURANTS, id -> {
+            if (id.isObjectId()) {
+                catalogCache.invalidateRestaurant(id.asObjectId().getValue());
+            } else {
+                catalogCache.invalidateAll();
+            }
+        }));
+        watchers.add(startWatcher(SPACES, id -> {
+            if (id.isBinary()) {
+                catalogCache.invalidateSpace(uuidConverter.convert(
+                        new Binary(id.asBinary().getType(), id.asBinary().getData())));
+            } else {
+                catalogCache.invalidateAll();
+            }
+        }));
+        logger.info("Catalog cache change stream invalidation enabled");
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        watchers.forEach(Thread::interrupt);
+    }
+
+    private Thread startWatcher(String collection, Consumer<BsonValue> invalidate) {
+        Thread thread = new Thread(() -> watch(collection, invalidate), "catalog-watch-" + collection);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private void watch(String collection, Consumer<BsonValue> invalidate) {
+        BsonDocument resumeToken = null;
+        while (running) {
+            var stream = mongoTemplate.getCollection(collection).watch().fullDocument(FullDocument.DEFAULT);
+            if (resumeToken != null) {
+                stream = stream.resumeAfter(resumeToken);
+            }
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change == null) {
+                        continue;
+                    }
+                    resumeToken = change.getResumeToken();
+                    BsonDocument key = change.getDocumentKey();
+                    if (key != null && key.containsKey("_id")) {
+                        invalidate.accept(key.get("_id"));
+                    } else {
+                        // drop / rename / invalidate events carry no document key
+                        catalogCache.invalidateAll();
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Catalog change stream on {} failed, dropping cache and reconnecting: {}",
+                        collection, e.getMessage());
+                catalogCache.invalidateAll();
+                resumeToken = null;
+                try {
+                    TimeUnit.MILLISECONDS.sleep(retryDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.dto.response.CursorPageResponse;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cursor (keyset) pagination over a collection sorted by an indexed field and _id.
+ *
+ * ALGORITHM: Keyset Seek on a (field, _id) Index
+ * ----------------------------------------------
+ * Offset paging (skip n, limit k) walks and discards n index entries, and a Page also
+ * runs a count() per request, so page 10,000 costs 10,000 pages. Keyset paging instead
+ * resumes right after the last item returned, whose sort value and _id the cursor carries:
+ *
+ *   ascending:  field > v  OR  (field = v AND _id > id)
+ *   descending: field < v  OR  (field = v AND _id < id)
+ *
+ * sorted by (field, _id) and limited to size + 1 (the extra item only tells whether a next
+ * page exists). With a compound { field: 1, _id: 1 } index this is one index seek plus
+ * size + 1 entries, whatever the depth. _id breaks ties, so items sharing a sort value are
+ * neither skipped nor repeated.
+ *
+ * Only sort keys registered by the caller are accepted, each backed by such an index (see
+ * MongoIndexConfig); any other key would fall back to an in-memory sort. The cursor is
+ * opaque to clients: base64url of "field:direction:id[:value]", the value absent when the
+ * last item had none. Mongo sorts missing values first, so they are handled on both sides
+ * of the seek.
+ *
+ * The total is only counted when asked for.
+ */
+@Component
+public class KeysetPager {
+
+    static final int MAX_PAGE_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    public KeysetPager(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Fetch the page after the cursor, or the first page when the cursor is null or blank.
+     *
+     * @param sorts Supported sort keys of the collection, by request name
+     * @param sortBy Requested sort key; must match the cursor's when both are given
+     * @param direction Requested direction; must match the cursor's when both are given
+     */
+    public <T> CursorPageResponse<T> page(Class<T> type,
+                                          Map<String, KeysetSort<T>> sorts,
+                                          String sortBy,
+                                          Sort.Direction direction,
+                                          String cursor,
+                                          int size,
+                                          boolean includeTotal) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        KeysetSort<T> sort = sorts.get(sortBy);
+        if (sort == null) {
+            throw new IllegalArgumentException("Cursor pagination supports sortBy " + sorts.keySet()
+                    + ", got: " + sortBy);
+        }
+
+        Query query = new Query()
+                .with(Sort.by(direction, sort.field()).and(Sort.by(direction, "_id")))
+                .limit(size + 1);
+        if (cursor != null && !cursor.isBlank()) {
+            Position position = Position.decode(cursor);
+            if (!position.sortBy().equals(sortBy) || position.direction() != direction) {
+                throw new IllegalArgumentException("Cursor was issued for sortBy=" + position.sortBy()
+                        + " and sortDir=" + position.direction() + "; repeat them or drop the cursor");
+            }
+            query.addCriteria(after(sort.field(), direction, parseValue(sort, position), position.id()));
+        }
+
+        List<T> items = mongoTemplate.find(query, type);
+        boolean hasNext = items.size() > size;
+        List<T> content = hasNext ? items.subList(0, size) : items;
+        String nextCursor = null;
+        if (hasNext) {
+            T last = content.get(content.size() - 1);
+            Object value = sort.value().apply(last);
+            nextCursor = new Position(sortBy, direction, sort.id().apply(last),
+                    value != null ? value.toString() : null).encode();
+        }
+
+        return CursorPageResponse.<T>builder()
+                .content(List.copyOf(content))
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .totalElements(includeTotal ? mongoTemplate.count(new Query(), type) : null)
+                .build();
+    }
+
+    /**
+     * The cursor's sort value in the field's type; a value the parser rejects (e.g. an
+     * unparseable date) is a malformed cursor, not a server error.
+     */
+    private static <T> Object parseValue(KeysetSort<T> sort, Position position) {
+        if (position.value() == null) {
+            return null;
+        }
+        try {
+            return sort.parser().apply(position.value());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Items strictly after (value, id) in the sort order.
+     */
+    private static Criteria after(String field, Sort.Direction direction, Object value, ObjectId id) {
+        boolean ascending = direction.isAscending();
+        if (value == null) {
+            // Missing values sort first: ascending, every present value comes after them
+            Criteria sameValue = Criteria.where(field).is(null).and("_id").gt(id);
+            return ascending
+                    ? new Criteria().orOperator(sameValue, Criteria.where(field).ne(null))
+                    : Criteria.where(field).is(null).and("_id").lt(id);
+        }
+        Criteria beyondValue = ascending ? Criteria.where(field).gt(value) : Criteria.where(field).lt(value);
+        Criteria sameValue = ascending
+                ? Criteria.where(field).is(value).and("_id").gt(id)
+                : Criteria.where(field).is(value).and("_id").lt(id);
+        return ascending
+                ? new Criteria().orOperator(beyondValue, sameValue)
+                : new Criteria().orOperator(beyondValue, sameValue, Criteria.where(field).is(null));
+    }
+
+    /**
+     * A sort key accepted for cursor pagination.
+     *
+     * @param field Document field, with a compound { field, _id } index
+     * @param value Sort value of an item, written to the cursor with toString()
+     * @param id _id of an item
+     * @param parser Reads a cursor value back into the field's type
+     */
+    public record KeysetSort<T>(String field,
+                                Function<T, Object> value,
+                                Function<T, ObjectId> id,
+                                Function<String, Object> parser) {
+    }
+
+    /**
+     * Sort key, direction and last item of a page, as carried by the cursor.
+     */
+    record Position(String sortBy, Sort.Direction direction, ObjectId id, String value) {
+
+        String encode() {
+            String raw = sortBy + ":" + direction + ":" + id.toHexString() + (value != null ? ":" + value : "");
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Position decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split(":", 4);
+                if (parts.length < 3) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new Position(parts[0], Sort.Direction.valueOf(parts[1]), new ObjectId(parts[2]),
+                        parts.length == 4 ? parts[3] : null);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.opentable.privatedining.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.opentable.privatedining.exception.InvalidDateRangeException;
+import com.opentable.privatedining.exception.RestaurantNotFoundException;
+import com.opentable.privatedining.model.OccupancyRollup;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.Restaurant;
+import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.enums.ExportFormat;
+import com.opentable.privatedining.model.enums.ReportEngine;
+import com.opentable.privatedining.model.enums.ReservationStatus;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Streams occupancy of one or more restaurants over long date ranges as CSV or NDJSON rows.
+ *
+ * ALGORITHM: Sorted Cursor with Per-Day Flush
+ * -------------------------------------------
+ * For each restaurant, a Mongo cursor walks the range's reservations (or occupancy
+ * rollups) in reservationDate order, fetching batch-size documents at a time. Only the
+ * current day is accumulated, in one counter pair per active space; when the cursor moves
+ * to a later date, the finished day is written out as:
+ *
+ *   DAY   row: all spaces' reservations, guests, cancellations and utilization
+ *   SPACE row: one per active space
+ *
+ * and its counters are reset. Days without bookings are written as zero rows, so every
+ * restaurant has one DAY row per date of the range.
+ *
+ * Memory is O(batch size + spaces of one restaurant) regardless of the range or the number
+ * of restaurants: no reservation, day or restaurant outlives its rows. A 5-year export of
+ * 100 restaurants is 182,500 days, streamed row by row to the response.
+ *
+ * Utilization is guests / capacity * 100 rounded half up to one decimal, the occupancy
+ * report's formula for restaurants without operating hours.
+ */
+@Service
+public class OccupancyExportService {
+
+    static final String[] CSV_HEADER = {"type", "restaurantId", "date", "spaceId", "spaceName",
+            "reservations", "guests", "cancelled", "capacity", "utilizationPercentage"};
+
+    private final MongoTemplate mongoTemplate;
+    private final RestaurantService restaurantService;
+    private final SpaceService spaceService;
+    private final OccupancyRollupService rollupService;
+    private final int batchSize;
+    private final int maxRestaurants;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public OccupancyExportService(MongoTemplate mongoTemplate,
+                                  RestaurantService restaurantService,
+                                  SpaceService spaceService,
+                                  OccupancyRollupService rollupService,
+                                  @Value("${app.reporting.export.batch-size:1000}") int batchSize,
+                                  @Value("${app.reporting.export.max-restaurants:100}") int maxRestaurants) {
+        this.mongoTemplate = mongoTemplate;
+        this.restaurantService = restaurantService;
+        this.spaceService = spaceService;
+        this.rollupService = rollupService;
+        this.batchSize = batchSize;
+        this.maxRestaurants = maxRestaurants;
+    }
+
+    /**
+     * Validate an export before any byte is written, so a bad request still gets an error
+     * response instead of a truncated stream.
+     *
+     * @return the restaurants to export, in request order
+     */
+    public List<Restaurant> prepareExport(List<String> restaurantIds,
+                                          LocalDate startDate,
+                                          LocalDate endDate,
+                                          ReportEngine engine) {
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidDateRangeException(startDate, endDate);
+        }
+        if (restaurantIds.isEmpty() || restaurantIds.size() > maxRestaurants) {
+            throw new IllegalArgumentException(
+                    "An export covers between 1 and " + maxRestaurants + " restaurants");
+        }
+        if (engine == ReportEngine.AGGREGATION) {
+            throw new IllegalArgumentException("Exports read reservations (IN_MEMORY) or rollups (ROLLUP)");
+        }
+        if (engine == ReportEngine.ROLLUP && !rollupService.isEnabled()) {
+            throw new IllegalArgumentException("Occupancy rollups are disabled; use the IN_MEMORY engine");
+        }
+
+        List<Restaurant> restaurants = new ArrayList<>(restaurantIds.size());
+        for (String restaurantId : restaurantIds) {
+            ObjectId id = new ObjectId(restaurantId);
+            restaurants.add(restaurantService.getRestaurantById(id)
+                    .orElseThrow(() -> new RestaurantNotFoundException(id)));
+        }
+        return restaurants;
+    }
+
+    /**
+     * Write the occupancy rows of the restaurants' date range to the output stream.
+     * The stream is flushed after each restaurant but not closed.
+     */
+    public void export(List<Restaurant> restaurants,
+                       LocalDate startDate,
+                       LocalDate endDate,
+                       ExportFormat format,
+                       ReportEngine engine,
+                       OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rows = format == ExportFormat.NDJSON ? new JsonRowWriter(writer) : new CsvRowWriter(writer);
+        rows.start();
+        for (Restaurant restaurant : restaurants) {
+            List<Space> spaces = spaceService.getActiveSpacesByRestaurantId(restaurant.getId().toHexString());
+            try (Stream<ExportEntry> entries = openCursor(restaurant.getId(), startDate, endDate, engine)) {
+                exportRestaurant(restaurant, spaces, startDate, endDate, entries.iterator(), rows);
+            }
+            rows.flush();
+        }
+    }
+
+    private Stream<ExportEntry> openCursor(ObjectId restaurantId,
+                                           LocalDate startDate,
+                                           LocalDate endDate,
+                                           ReportEngine engine) {
+        if (engine == ReportEngine.ROLLUP) {
+            Query query = new Query(Criteria.where("restaurantId").is(restaurantId)
+                    .and("date").gte(startDate).lte(endDate))
+                    .with(Sort.by("date"))
+                    .cursorBatchSize(batchSize);
+            query.fields().include("date", "spaceId", "reservations", "guests", "cancelled");
+            return mongoTemplate.stream(query, OccupancyRollup.class)
+                    .map(rollup -> new ExportEntry(rollup.getDate(), rollup.getSpaceId(),
+                            rollup.getReservations(), rollup.getGuests(), rollup.getCancelled()));
+        }
+
+        Query query = new Query(Criteria.where("restaurantId").is(restaurantId)
+                .and("reservationDate").gte(startDate).lte(endDate)
+                .and("status").in(ReservationStatus.CONFIRMED, ReservationStatus.CANCELLED))
+                .with(Sort.by("reservationDate"))
+                .cursorBatchSize(batchSize);
+        query.fields().include("reservationDate", "spaceId", "partySize", "status");
+        return mongoTemplate.stream(query, Reservation.class)
+                .map(reservation -> reservation.getStatus() == ReservationStatus.CANCELLED
+                        ? new ExportEntry(reservation.getReservationDate(), reservation.getSpaceId(), 0, 0, 1)
+                        : new ExportEntry(reservation.getReservationDate(), reservation.getSpaceId(),
+                                1, Objects.requireNonNullElse(reservation.getPartySize(), 0), 0));
+    }
+
+    private void exportRestaurant(Restaurant restaurant,
+                                  List<Space> spaces,
+                                  LocalDate startDate,
+                                  LocalDate endDate,
+                                  Iterator<ExportEntry> entries,
+                                  RowWriter rows) throws IOException {
+        DayCounters day = new DayCounters(restaurant.getId().toHexString(), spaces);
+        LocalDate current = startDate;
+        while (entries.hasNext()) {
+            ExportEntry entry = entries.next();
+            while (current.isBefore(entry.date())) {
+                day.writeTo(current, rows);
+                current = current.plusDays(1);
+            }
+            day.add(entry);
+        }
+        for (; !current.isAfter(endDate); current = current.plusDays(1)) {
+            day.writeTo(current, rows);
+        }
+    }
+
+    /**
+     * One cursor document reduced to what the rows need.
+     */
+    private record ExportEntry(LocalDate date, UUID spaceId, long reservations, long guests, long cancelled) {
+    }
+
+    /**
+     * Counters of the day being accumulated, reset after each write.
+     */
+    private static final class DayCounters {
+        private final String restaurantId;
+        private final List<Space> spaces;
+        private final Map<UUID, Integer> spaceIndex;
+        private final int totalCapacity;
+        private final long[] spaceReservations;
+        private final long[] spaceGuests;
+        private final long[] spaceCancelled;
+        private long reservations;
+        private long guests;
+        private long cancelled;
+
+        DayCounters(String restaurantId, List<Space> spaces) {
+            this.restaurantId = restaurantId;
+            this.spaces = spaces;
+            this.spaceIndex = new HashMap<>(spaces.size() * 2);
+            int capacity = 0;
+            for (int i = 0; i < spaces.size(); i++) {
+                spaceIndex.put(spaces.get(i).getId(), i);
+                capacity += spaces.get(i).getMaxCapacity();
+            }
+            this.totalCapacity = capacity;
+            this.spaceReservations = new long[spaces.size()];
+            this.spaceGuests = new long[spaces.size()];
+            this.spaceCancelled = new long[spaces.size()];
+        }
+
+        void add(ExportEntry entry) {
+            reservations += entry.reservations();
+            guests += entry.guests();
+            cancelled += entry.cancelled();
+            Integer space = spaceIndex.get(entry.spaceId());
+            if (space != null) {
+                spaceReservations[space] += entry.reservations();
+                spaceGuests[space] += entry.guests();
+                spaceCancelled[space] += entry.cancelled();
+            }
+        }
+
+        void writeTo(LocalDate date, RowWriter rows) throws IOException {
+            rows.row("DAY", restaurantId, date, null, reservations, guests, cancelled, totalCapacity);
+            for (int i = 0; i < spaces.size(); i++) {
+                rows.row("SPACE", restaurantId, date, spaces.get(i),
+                        spaceReservations[i], spaceGuests[i], spaceCancelled[i], spaces.get(i).getMaxCapacity());
+            }
+            reservations = 0;
+            guests = 0;
+            cancelled = 0;
+            Arrays.fill(spaceReservations, 0);
+            Arrays.fill(spaceGuests, 0);
+            Arrays.fill(spaceCancelled, 0);
+        }
+    }
+
+    private abstract static class RowWriter {
+        protected final Writer writer;
+
+        RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        void start() throws IOException {
+        }
+
+        abstract void row(String type, String restaurantId, LocalDate date, Space space,
+                          long reservations, long guests, long cancelled, int capacity) throws IOException;
+
+        void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class CsvRowWriter extends RowWriter {
+
+        CsvRowWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void start() throws IOException {
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write('\n');
+        }
+
+        @Override
+        void row(String type, String restaurantId, LocalDate date, Space space,
+                 long reservations, long guests, long cancelled, int capacity) throws IOException {
+            writer.write(type);
+            writer.write(',');
+            writer.write(restaurantId);
+            writer.write(',');
+            writer.write(date.toString());
+            writer.write(',');
+            if (space != null) {
+                writer.write(space.getId().toString());
+                writer.write(',');
+                writeEscaped(space.getName());
+            } else {
+                writer.write(',');
+            }
+            writer.write(',');
+            writer.write(Long.toString(reservations));
+            writer.write(',');
+            writer.write(Long.toString(guests));
+            writer.write(',');
+            writer.write(Long.toString(cancelled));
+            writer.write(',');
+            writer.write(Integer.toString(capacity));
+            writer.write(',');
+            writer.write(utilization(guests, capacity).toPlainString());
+            writer.write('\n');
+        }
+
+        private void writeEscaped(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private final class JsonRowWriter extends RowWriter {
+        private final JsonGenerator generator;
+
+        JsonRowWriter(Writer writer) throws IOException {
+            super(writer);
+            this.generator = jsonFactory.createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void row(String type, String restaurantId, LocalDate date, Space space,
+                 long reservations, long guests, long cancelled, int capacity) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("type", type);
+            generator.writeStringField("restaurantId", restaurantId);
+            generator.writeStringField("date", date.toString());
+            if (space != null) {
+                generator.writeStringField("spaceId", space.getId().toString());
+                generator.writeStringField("spaceName", space.getName());
+            }
+            generator.writeNumberField("reservations", reservations);
+            generator.writeNumberField("guests", guests);
+            generator.writeNumberField("cancelled", cancelled);
+            generator.writeNumberField("capacity", capacity);
+            generator.writeNumberField("utilizationPercentage", utilization(guests, capacity));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void flush() throws IOException {
+            generator.flush();
+            super.flush();
+        }
+    }
+
+    private static BigDecimal utilization(long guests, int capacity) {
+        return capacity > 0
+                ? BigDecimal.valueOf((2 * guests * 1000 + capacity) / (2L * capacity), 1)
+                : BigDecimal.ZERO;
+    }
+}
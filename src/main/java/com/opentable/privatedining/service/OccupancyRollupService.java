@@ -0,0 +1,244 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.model.OccupancyRollup;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.enums.ReservationStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Maintains {@link OccupancyRollup} rows so occupancy reports read O(days x spaces x hours)
+ * small rows instead of every reservation of the range.
+ *
+ * ALGORITHM: Incremental Counters with Range Rebuild
+ * --------------------------------------------------
+ * Book:    upsert the reservation's day-space-hour row with $inc (+1 reservation, +party guests).
+ * Cancel:  $inc (-1 reservation, -party guests, +1 cancelled).
+ * Delete:  $inc (-1 reservation, -party guests) of a confirmed reservation,
+ *          or (-1 cancelled) of a cancelled one.
+ * Rebuild: re-aggregate the reservations of a restaurant's date range and replace its rows.
+ *
+ * Unlike availability snapshots, rows are upserted by every increment: a report has no
+ * cheap way to build a missing row on read, and $inc on a missing row starts from zero.
+ * Reservations are persisted before their increment is applied, so a failed increment
+ * only ever under-counts; it is logged and counted, and the affected range is repaired by
+ * a rebuild. Rows of reservations booked before rollups were enabled are backfilled the
+ * same way. A rebuild is not atomic with concurrent bookings of the range, so run it
+ * for past or quiet ranges.
+ */
+@Service
+public class OccupancyRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyRollupService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Counter failureCounter;
+
+    public OccupancyRollupService(MongoTemplate mongoTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.reporting.rollups.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.failureCounter = Counter.builder("reporting.rollup.failures")
+                .description("Occupancy rollup increments that failed and need a rebuild")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Apply a newly persisted confirmed reservation.
+     */
+    public void recordBooked(Reservation reservation) {
+        apply(reservation, new Update()
+                .inc("reservations", 1)
+                .inc("guests", partySize(reservation)));
+    }
+
+    /**
+     * Apply newly persisted confirmed reservations in one bulk write.
+     */
+    public void recordBooked(List<Reservation> reservations) {
+        if (!enabled || reservations.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OccupancyRollup.class);
+        reservations.forEach(reservation -> bulk.upsert(byId(reservation), withKeys(reservation, new Update()
+                .inc("reservations", 1)
+                .inc("guests", partySize(reservation)))));
+        try {
+            bulk.execute();
+        } catch (RuntimeException e) {
+            failureCounter.increment(reservations.size());
+            logger.warn("Failed to apply {} bookings to occupancy rollups, rebuild the range: {}",
+                    reservations.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Apply a confirmed reservation that was cancelled.
+     */
+    public void recordCancelled(Reservation reservation) {
+        apply(reservation, new Update()
+                .inc("reservations", -1)
+                .inc("guests", -partySize(reservation))
+                .inc("cancelled", 1));
+    }
+
+    /**
+     * Apply a reservation that was deleted; confirmed and cancelled ones count differently.
+     */
+    public void recordDeleted(Reservation reservation) {
+        if (reservation.getStatus() == ReservationStatus.CONFIRMED) {
+            apply(reservation, new Update()
+                    .inc("reservations", -1)
+                    .inc("guests", -partySize(reservation)));
+        } else if (reservation.getStatus() == ReservationStatus.CANCELLED) {
+            apply(reservation, new Update().inc("cancelled", -1));
+        }
+    }
+
+    /**
+     * Rollup rows of a restaurant's date range.
+     */
+    public List<OccupancyRollup> findRollups(ObjectId restaurantId, LocalDate startDate, LocalDate endDate) {
+        return mongoTemplate.find(byRange(restaurantId, startDate, endDate), OccupancyRollup.class);
+    }
+
+    /**
+     * Rollup rows of one of a restaurant's spaces over a date range.
+     */
+    public List<OccupancyRollup> findRollups(ObjectId restaurantId, UUID spaceId,
+                                             LocalDate startDate, LocalDate endDate) {
+        return mongoTemplate.find(byRange(restaurantId, startDate, endDate)
+                .addCriteria(Criteria.where("spaceId").is(spaceId)), OccupancyRollup.class);
+    }
+
+    /**
+     * Replace the rollup rows of a restaurant's date range with totals re-aggregated from
+     * its reservations.
+     *
+     * @return number of rows written
+     */
+    public int rebuild(ObjectId restaurantId, LocalDate startDate, LocalDate endDate) {
+        TypedAggregation<Reservation> aggregation = Aggregation.newAggregation(Reservation.class,
+                Aggregation.match(Criteria.where("restaurantId").is(restaurantId)
+                        .and("reservationDate").gte(startDate).lte(endDate)
+                        .and("status").in(ReservationStatus.CONFIRMED, ReservationStatus.CANCELLED)),
+                Aggregation.project("spaceId", "reservationDate", "status", "partySize")
+                        .and(StringOperators.valueOf("startTime").substring(0, 2)).as("hour"),
+                Aggregation.group("spaceId", "reservationDate", "hour", "status")
+                        .sum("partySize").as("guests")
+                        .count().as("reservations"));
+
+        Map<String, OccupancyRollup> rows = new LinkedHashMap<>();
+        for (HourTotal total : mongoTemplate.aggregate(aggregation, HourTotal.class).getMappedResults()) {
+            HourKey key = total.getId();
+            int hour = Integer.parseInt(key.getHour());
+            OccupancyRollup row = rows.computeIfAbsent(
+                    OccupancyRollup.generateId(restaurantId, key.getReservationDate(), key.getSpaceId(), hour),
+                    id -> OccupancyRollup.builder()
+                            .id(id)
+                            .restaurantId(restaurantId)
+                            .date(key.getReservationDate())
+                            .spaceId(key.getSpaceId())
+                            .hour(hour)
+                            .build());
+            if (key.getStatus() == ReservationStatus.CONFIRMED) {
+                row.setReservations(row.getReservations() + total.getReservations());
+                row.setGuests(row.getGuests() + total.getGuests());
+            } else {
+                row.setCancelled(row.getCancelled() + total.getReservations());
+            }
+        }
+
+        mongoTemplate.remove(byRange(restaurantId, startDate, endDate), OccupancyRollup.class);
+        if (!rows.isEmpty()) {
+            mongoTemplate.insert(rows.values(), OccupancyRollup.class);
+        }
+        logger.info("Rebuilt {} occupancy rollups for restaurant {} from {} to {}",
+                rows.size(), restaurantId, startDate, endDate);
+        return rows.size();
+    }
+
+    private void apply(Reservation reservation, Update update) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            mongoTemplate.upsert(byId(reservation), withKeys(reservation, update), OccupancyRollup.class);
+        } catch (RuntimeException e) {
+            failureCounter.increment();
+            logger.warn("Failed to update occupancy rollup for reservation {}, rebuild its day: {}",
+                    reservation.getId(), e.getMessage());
+        }
+    }
+
+    private static Query byId(Reservation reservation) {
+        return new Query(Criteria.where("_id").is(OccupancyRollup.generateId(
+                reservation.getRestaurantId(), reservation.getReservationDate(), reservation.getSpaceId(),
+                OccupancyRollup.hourOf(reservation.getStartTime()))));
+    }
+
+    private static Query byRange(ObjectId restaurantId, LocalDate startDate, LocalDate endDate) {
+        return new Query(Criteria.where("restaurantId").is(restaurantId)
+                .and("date").gte(startDate).lte(endDate));
+    }
+
+    private static Update withKeys(Reservation reservation, Update update) {
+        return update
+                .setOnInsert("restaurantId", reservation.getRestaurantId())
+                .setOnInsert("date", reservation.getReservationDate())
+                .setOnInsert("spaceId", reservation.getSpaceId())
+                .setOnInsert("hour", OccupancyRollup.hourOf(reservation.getStartTime()));
+    }
+
+    private static int partySize(Reservation reservation) {
+        return Objects.requireNonNullElse(reservation.getPartySize(), 0);
+    }
+
+    /**
+     * Aggregation result for reservation totals per space, day, start hour and status.
+     */
+    @Data
+    public static class HourTotal {
+        private HourKey id;
+        private long guests;
+        private long reservations;
+    }
+
+    /**
+     * Group key of {@link HourTotal}.
+     */
+    @Data
+    public static class HourKey {
+        private UUID spaceId;
+        private LocalDate reservationDate;
+        private String hour;
+        private ReservationStatus status;
+    }
+}
@@ -0,0 +1,233 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.dto.request.OccupancyReportRequest;
+import com.opentable.privatedining.dto.response.OccupancyReportResponse;
+import com.opentable.privatedining.dto.response.OccupancySummary;
+import com.opentable.privatedining.dto.response.PortfolioReportResponse;
+import com.opentable.privatedining.dto.response.PortfolioRestaurantOccupancy;
+import com.opentable.privatedining.exception.InvalidDateRangeException;
+import com.opentable.privatedining.model.enums.ReportEngine;
+import com.opentable.privatedining.model.enums.ReportGranularity;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds occupancy reports of many restaurants at once and merges them into a portfolio view.
+ *
+ * ALGORITHM: Sliding-Window Fan-Out on a Bounded Pool
+ * ---------------------------------------------------
+ * 1. Validate the request once (date range, restaurant count).
+ * 2. Submit one {@link ReportingService#generateOccupancyReport} task per restaurant, keeping
+ *    at most `parallelism` of this request's tasks in flight: the next restaurant is only
+ *    submitted when one completes. The pool itself has `parallelism` threads shared by all
+ *    portfolio requests, so concurrent report queries against Mongo never exceed it, and a
+ *    request queues at most its window instead of every restaurant.
+ * 3. Stop waiting at the timeout; unfinished restaurants are cancelled and reported as failed.
+ * 4. Merge the per-restaurant summaries: counts are summed, average party size and
+ *    cancellation rate recomputed from the sums, and average utilization is the mean of the
+ *    restaurants' average utilizations.
+ *
+ * A restaurant whose report fails (not found, timed out, query error) gets a row with the
+ * error and is left out of the combined summary; the other restaurants are still reported.
+ */
+@Service
+public class PortfolioReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioReportService.class);
+
+    private final ReportingService reportingService;
+    private final int parallelism;
+    private final int maxRestaurants;
+    private final long timeoutMs;
+    private final ExecutorService pool;
+
+    public PortfolioReportService(ReportingService reportingService,
+                                  @Value("${app.reporting.portfolio.parallelism:8}") int parallelism,
+                                  @Value("${app.reporting.portfolio.max-restaurants:500}") int maxRestaurants,
+                                  @Value("${app.reporting.portfolio.timeout-ms:60000}") long timeoutMs) {
+        this.reportingService = reportingService;
+        this.parallelism = parallelism;
+        this.maxRestaurants = maxRestaurants;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-report-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Generate the occupancy summaries of several restaurants and their combined summary.
+     *
+     * @param restaurantIds Restaurants to report, in the order of the response rows
+     * @param engine Report engine used for every restaurant, or null for the default
+     */
+    public PortfolioReportResponse generatePortfolioReport(List<String> restaurantIds,
+                                                           LocalDate startDate,
+                                                           LocalDate endDate,
+                                                           ReportEngine engine) {
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidDateRangeException(startDate, endDate);
+        }
+        List<String> ids = restaurantIds.stream().distinct().toList();
+        if (ids.isEmpty() || ids.size() > maxRestaurants) {
+            throw new IllegalArgumentException(
+                    "A portfolio report covers between 1 and " + maxRestaurants + " restaurants");
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        CompletionService<OccupancyReportResponse> completion = new ExecutorCompletionService<>(pool);
+        Map<Future<OccupancyReportResponse>, Integer> inFlight = new HashMap<>();
+        PortfolioRestaurantOccupancy[] rows = new PortfolioRestaurantOccupancy[ids.size()];
+        int next = 0;
+        int done = 0;
+
+        try {
+            while (done < ids.size()) {
+                while (next < ids.size() && inFlight.size() < parallelism) {
+                    OccupancyReportRequest request = OccupancyReportRequest.builder()
+                            .restaurantId(ids.get(next))
+                            .startDate(startDate)
+                            .endDate(endDate)
+                            .granularity(ReportGranularity.DAILY)
+                            .engine(engine)
+                            .build();
+                    inFlight.put(completion.submit(() -> reportingService.generateOccupancyReport(request)), next);
+                    next++;
+                }
+
+                Future<OccupancyReportResponse> future =
+                        completion.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (future == null) {
+                    break;
+                }
+                int index = inFlight.remove(future);
+                rows[index] = toRow(ids.get(index), future);
+                done++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (done < ids.size()) {
+            logger.warn("Portfolio report stopped after {} ms: {} of {} restaurants reported",
+                    timeoutMs, done, ids.size());
+            inFlight.keySet().forEach(future -> future.cancel(true));
+            for (int i = 0; i < rows.length; i++) {
+                if (rows[i] == null) {
+                    rows[i] = failedRow(ids.get(i), "Timed out");
+                }
+            }
+        }
+
+        List<PortfolioRestaurantOccupancy> restaurants = List.of(rows);
+        List<OccupancySummary> summaries = new ArrayList<>(restaurants.size());
+        for (PortfolioRestaurantOccupancy row : restaurants) {
+            if (row.getSummary() != null) {
+                summaries.add(row.getSummary());
+            }
+        }
+
+        return PortfolioReportResponse.builder()
+                .period(OccupancyReportResponse.ReportPeriod.builder()
+                        .startDate(startDate)
+                        .endDate(endDate)
+                        .build())
+                .restaurantsRequested(ids.size())
+                .restaurantsReported(summaries.size())
+                .summary(combine(summaries))
+                .restaurants(restaurants)
+                .build();
+    }
+
+    private PortfolioRestaurantOccupancy toRow(String restaurantId, Future<OccupancyReportResponse> future)
+            throws InterruptedException {
+        try {
+            OccupancyReportResponse report = future.get();
+            return PortfolioRestaurantOccupancy.builder()
+                    .restaurantId(restaurantId)
+                    .restaurantName(report.getRestaurantName())
+                    .summary(report.getSummary())
+                    .busiestDay(report.getInsights() != null ? report.getInsights().getBusiestDay() : null)
+                    .busiestDayAverageUtilization(report.getInsights() != null
+                            ? report.getInsights().getBusiestDayAverageUtilization() : null)
+                    .build();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // Some failures (NPEs, several driver exceptions) carry no message; the row must still say it failed
+            String error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+            logger.warn("Portfolio report failed for restaurant {}: {}", restaurantId, error);
+            return failedRow(restaurantId, error);
+        }
+    }
+
+    private static PortfolioRestaurantOccupancy failedRow(String restaurantId, String error) {
+        return PortfolioRestaurantOccupancy.builder()
+                .restaurantId(restaurantId)
+                .error(error)
+                .build();
+    }
+
+    /**
+     * Merge restaurant summaries into the portfolio summary.
+     */
+    static OccupancySummary combine(List<OccupancySummary> summaries) {
+        long reservations = 0;
+        long guests = 0;
+        long cancelled = 0;
+        long operatingSlots = 0;
+        long bookedSlots = 0;
+        BigDecimal utilization = BigDecimal.ZERO;
+        for (OccupancySummary summary : summaries) {
+            reservations += summary.getTotalReservations();
+            guests += summary.getTotalGuests();
+            cancelled += summary.getCancelledReservations();
+            operatingSlots += summary.getTotalOperatingSlots();
+            bookedSlots += summary.getTotalBookedSlots();
+            utilization = utilization.add(summary.getAverageUtilizationPercentage());
+        }
+
+        return OccupancySummary.builder()
+                .totalReservations(reservations)
+                .totalGuests(guests)
+                .averagePartySize(reservations > 0
+                        ? BigDecimal.valueOf((double) guests / reservations).setScale(2, RoundingMode.HALF_UP)
+                        : BigDecimal.ZERO)
+                .averageUtilizationPercentage(summaries.isEmpty()
+                        ? BigDecimal.ZERO
+                        : utilization.divide(BigDecimal.valueOf(summaries.size()), 1, RoundingMode.HALF_UP))
+                .totalOperatingSlots(operatingSlots)
+                .totalBookedSlots(bookedSlots)
+                .cancelledReservations(cancelled)
+                .cancellationRate((reservations + cancelled) > 0
+                        ? BigDecimal.valueOf(cancelled * 100.0 / (reservations + cancelled))
+                            .setScale(1, RoundingMode.HALF_UP)
+                        : BigDecimal.ZERO)
+                .build();
+    }
+}
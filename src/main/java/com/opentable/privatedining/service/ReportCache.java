@@ -0,0 +1,239 @@
+package com.opentable.privatedining.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.opentable.privatedining.dto.response.OccupancyReportResponse;
+import com.opentable.privatedining.model.OperatingHours;
+import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.enums.ReportEngine;
+import com.opentable.privatedining.model.enums.ReportGranularity;
+import com.opentable.privatedining.util.OccupancyGrid.DayFragment;
+import com.opentable.privatedining.util.SlotSupply;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-process cache of occupancy reports and of the per-day counters they are
+ * built from.
+ *
+ * ALGORITHM: Range Cache over Immutable Day Fragments
+ * ---------------------------------------------------
+ * Dashboards ask for the same few ranges (last 7/30/90 days) over and over:
+ *   reports:   (restaurantId, startDate, endDate, granularity, spaceId, engine) -> finished report
+ *   fragments: (restaurantId, spaceId, date, engine) -> that day's {@link DayFragment}, for
+ *              closed days only; spaceId is null for whole-restaurant fragments
+ *
+ * The engine is part of both keys: ROLLUP can differ from the reservation-based engines
+ * (see {@link OccupancyRollupService}), so each engine's results are cached separately.
+ *
+ * A report miss reuses the fragments of every closed day (before today) of its range and
+ * only loads the other days from Mongo; the closed days it loaded become fragments. So a
+ * rolling "last 30 days" recomputes one or two days, not thirty.
+ *
+ * Invalidation: every booking, cancellation and deletion calls invalidate(restaurant, space,
+ * date), which drops that day's whole-restaurant and space fragments and the restaurant's
+ * cached reports whose range contains the date, unless they are scoped to another space;
+ * other reports of the restaurant stay cached. Restaurant and space edits (hours, capacity,
+ * active flag, spaces added or removed) call invalidateRestaurant, which drops all of the
+ * restaurant's reports and fragments.
+ *
+ * - Loads that raced with an invalidation are not cached: callers read the restaurant's
+ *   version(restaurantId) before loading and pass it to put, which skips the entry if the
+ *   restaurant was invalidated since. Changes at other restaurants do not affect it.
+ * - Writes on other nodes are not seen; reports expire after ttl-seconds and fragments
+ *   after fragment-ttl-seconds.
+ * - Cached reports are shared instances and must not be mutated by callers.
+ *
+ * Weekday {@link SlotSupply} templates are cached too, keyed by the operating hours and
+ * the spaces' capacity and slot duration they were computed from, so a change to any of
+ * them simply misses and no invalidation is needed.
+ *
+ * Hit, miss and eviction counts are published as the Micrometer "cache.*" meters with
+ * cache=reporting.reports / reporting.fragments.
+ */
+@Component
+public class ReportCache {
+
+    private final boolean enabled;
+    private final Cache<ReportKey, OccupancyReportResponse> reports;
+    private final Cache<DayKey, DayFragment> fragments;
+    private final Cache<SupplyKey, SlotSupply> supplies;
+
+    /**
+     * Invalidation counters per restaurant, plus one bumped by {@link #invalidateAll}.
+     * Both only grow, so their sum changes whenever either does.
+     */
+    private final Map<ObjectId, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    public ReportCache(MeterRegistry meterRegistry,
+                       @Value("${app.reporting.cache.enabled:true}") boolean enabled,
+                       @Value("${app.reporting.cache.max-reports:1000}") long maxReports,
+                       @Value("${app.reporting.cache.ttl-seconds:300}") long ttlSeconds,
+                       @Value("${app.reporting.cache.max-fragments:200000}") long maxFragments,
+                       @Value("${app.reporting.cache.fragment-ttl-seconds:86400}") long fragmentTtlSeconds) {
+        this.enabled = enabled;
+        this.reports = Caffeine.newBuilder()
+                .maximumSize(maxReports)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.fragments = Caffeine.newBuilder()
+                .maximumSize(maxFragments)
+                .expireAfterWrite(Duration.ofSeconds(fragmentTtlSeconds))
+                .recordStats()
+                .build();
+        this.supplies = Caffeine.newBuilder()
+                .maximumSize(maxReports)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, reports, "reporting.reports");
+        CaffeineCacheMetrics.monitor(meterRegistry, fragments, "reporting.fragments");
+        CaffeineCacheMetrics.monitor(meterRegistry, supplies, "reporting.slot-supplies");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Invalidation counter of a restaurant to read before loading, for {@link #putReport}
+     * and {@link #putFragment}.
+     */
+    public long version(ObjectId restaurantId) {
+        return epoch.get() + versionOf(restaurantId).get();
+    }
+
+    public Optional<OccupancyReportResponse> getReport(ReportKey key) {
+        return enabled ? Optional.ofNullable(reports.getIfPresent(key)) : Optional.empty();
+    }
+
+    public void putReport(ReportKey key, OccupancyReportResponse report, long loadedAt) {
+        if (enabled && version(new ObjectId(key.restaurantId())) == loadedAt) {
+            reports.put(key, report);
+        }
+    }
+
+    /**
+     * @param spaceId Space of a space-scoped report, or null for the whole restaurant
+     */
+    public Optional<DayFragment> getFragment(ObjectId restaurantId, UUID spaceId, LocalDate date,
+                                             ReportEngine engine) {
+        return enabled
+                ? Optional.ofNullable(fragments.getIfPresent(new DayKey(restaurantId, spaceId, date, engine)))
+                : Optional.empty();
+    }
+
+    public void putFragment(ObjectId restaurantId, UUID spaceId, LocalDate date, ReportEngine engine,
+                            DayFragment fragment, long loadedAt) {
+        if (enabled && version(restaurantId) == loadedAt) {
+            fragments.put(new DayKey(restaurantId, spaceId, date, engine), fragment);
+        }
+    }
+
+    /**
+     * Weekday slot supply of the spaces under the operating hours, computed on a miss.
+     */
+    public SlotSupply getSlotSupply(List<OperatingHours> operatingHours, List<Space> spaces) {
+        if (!enabled) {
+            return SlotSupply.of(operatingHours, spaces);
+        }
+        SupplyKey key = new SupplyKey(
+                operatingHours == null ? List.of() : operatingHours.stream()
+                        .map(hours -> new HoursKey(hours.getDayOfWeek(), hours.getOpenTime(),
+                                hours.getCloseTime(), hours.getIsClosed()))
+                        .toList(),
+                spaces.stream()
+                        .map(space -> new SpaceKey(space.getId(), space.getMaxCapacity(),
+                                space.getSlotDurationMinutes()))
+                        .toList());
+        return supplies.get(key, ignored -> SlotSupply.of(operatingHours, spaces));
+    }
+
+    /**
+     * Drop what a reservation change on a space's date makes stale.
+     */
+    public void invalidate(ObjectId restaurantId, UUID spaceId, LocalDate date) {
+        if (!enabled || restaurantId == null || date == null) {
+            return;
+        }
+        versionOf(restaurantId).incrementAndGet();
+        String id = restaurantId.toHexString();
+        if (spaceId != null) {
+            for (ReportEngine engine : ReportEngine.values()) {
+                fragments.invalidate(new DayKey(restaurantId, null, date, engine));
+                fragments.invalidate(new DayKey(restaurantId, spaceId, date, engine));
+            }
+        } else {
+            fragments.asMap().keySet().removeIf(key -> key.restaurantId().equals(restaurantId)
+                    && key.date().equals(date));
+        }
+        reports.asMap().keySet().removeIf(key -> key.restaurantId().equals(id) && key.contains(date)
+                && (spaceId == null || key.spaceId() == null || key.spaceId().equals(spaceId)));
+    }
+
+    /**
+     * Drop every report and fragment of a restaurant, after its spaces or hours changed.
+     */
+    public void invalidateRestaurant(ObjectId restaurantId) {
+        if (!enabled || restaurantId == null) {
+            return;
+        }
+        versionOf(restaurantId).incrementAndGet();
+        String id = restaurantId.toHexString();
+        fragments.asMap().keySet().removeIf(key -> key.restaurantId().equals(restaurantId));
+        reports.asMap().keySet().removeIf(key -> key.restaurantId().equals(id));
+    }
+
+    /**
+     * Drop every cached report and fragment.
+     */
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        reports.invalidateAll();
+        fragments.invalidateAll();
+    }
+
+    private AtomicLong versionOf(ObjectId restaurantId) {
+        return versions.computeIfAbsent(restaurantId, id -> new AtomicLong());
+    }
+
+    /**
+     * What makes two occupancy report requests equal.
+     */
+    public record ReportKey(String restaurantId,
+                            LocalDate startDate,
+                            LocalDate endDate,
+                            ReportGranularity granularity,
+                            UUID spaceId,
+                            ReportEngine engine) {
+
+        boolean contains(LocalDate date) {
+            return !date.isBefore(startDate) && !date.isAfter(endDate);
+        }
+    }
+
+    private record DayKey(ObjectId restaurantId, UUID spaceId, LocalDate date, ReportEngine engine) {
+    }
+
+    private record SupplyKey(List<HoursKey> operatingHours, List<SpaceKey> spaces) {
+    }
+
+    private record HoursKey(Integer dayOfWeek, String openTime, String closeTime, Boolean isClosed) {
+    }
+
+    private record SpaceKey(UUID spaceId, Integer maxCapacity, Integer slotDurationMinutes) {
+    }
+}
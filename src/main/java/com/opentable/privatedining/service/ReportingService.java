@@ -4,12 +4,16 @@ import com.opentable.privatedining.dto.request.OccupancyReportRequest;
 import com.opentable.privatedining.dto.response.*;
 import com.opentable.privatedining.exception.InvalidDateRangeException;
 import com.opentable.privatedining.exception.RestaurantNotFoundException;
+import com.opentable.privatedining.exception.SpaceNotFoundException;
 import com.opentable.privatedining.model.Reservation;
 import com.opentable.privatedining.model.Restaurant;
 import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.enums.ReportEngine;
 import com.opentable.privatedining.model.enums.ReportGranularity;
 import com.opentable.privatedining.model.enums.ReservationStatus;
 import com.opentable.privatedining.repository.ReservationRepository;
+import com.opentable.privatedining.util.OccupancyGrid;
+import com.opentable.privatedining.util.SlotSupply;
 import org.bson.types.ObjectId;
 import org.springframework.stereotype.Service;
 
@@ -18,24 +22,55 @@ import java.math.RoundingMode;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service for generating occupancy and analytics reports.
+ *
+ * Reports are built from an {@link OccupancyGrid}, filled by the requested
+ * {@link ReportEngine}: IN_MEMORY groups the range's reservations in the JVM, AGGREGATION
+ * groups them in Mongo with one $facet pipeline, and ROLLUP reads the pre-aggregated rows
+ * maintained by {@link OccupancyRollupService}.
+ *
+ * A request with a spaceId is scoped to that space: every engine reads only its bookings
+ * (IN_MEMORY and AGGREGATION through the space-date-status index) and capacity is the
+ * space's own, so a single-room report costs one room's data, not the restaurant's.
+ *
+ * Utilization is booked over available seat-minutes, the supply coming from the
+ * restaurant's operating hours and each space's slot duration (see {@link SlotSupply}).
+ * Restaurants without operating hours keep the guests / capacity approximation.
  */
 @Service
 public class ReportingService {
 
+    private static final String[] HOUR_LABELS = new String[OccupancyGrid.HOURS];
+
+    /**
+     * Slots per day assumed for restaurants without operating hours.
+     */
+    private static final int UNCONFIGURED_SLOTS_PER_DAY = 12;
+
+    static {
+        for (int hour = 0; hour < OccupancyGrid.HOURS; hour++) {
+            HOUR_LABELS[hour] = String.format("%02d:00", hour);
+        }
+    }
+
     private final ReservationRepository reservationRepository;
     private final RestaurantService restaurantService;
     private final SpaceService spaceService;
+    private final OccupancyRollupService rollupService;
+    private final ReportCache reportCache;
 
     public ReportingService(ReservationRepository reservationRepository,
                             RestaurantService restaurantService,
-                            SpaceService spaceService) {
+                            SpaceService spaceService,
+                            OccupancyRollupService rollupService,
+                            ReportCache reportCache) {
         this.reservationRepository = reservationRepository;
         this.restaurantService = restaurantService;
         this.spaceService = spaceService;
+        this.rollupService = rollupService;
+        this.reportCache = reportCache;
     }
 
     /**
@@ -47,272 +82,358 @@ public class ReportingService {
             throw new InvalidDateRangeException(request.getStartDate(), request.getEndDate());
         }
 
+        ReportEngine engine = Objects.requireNonNullElse(request.getEngine(), ReportEngine.IN_MEMORY);
+        if (engine == ReportEngine.ROLLUP && !rollupService.isEnabled()) {
+            throw new IllegalArgumentException("Occupancy rollups are disabled; use the IN_MEMORY engine");
+        }
+
+        ReportCache.ReportKey cacheKey = new ReportCache.ReportKey(request.getRestaurantId(),
+                request.getStartDate(), request.getEndDate(), request.getGranularity(), request.getSpaceId(), engine);
+        Optional<OccupancyReportResponse> cached = reportCache.getReport(cacheKey);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
         ObjectId restaurantId = new ObjectId(request.getRestaurantId());
+        long cacheVersion = reportCache.version(restaurantId);
 
         // Get restaurant
         Restaurant restaurant = restaurantService.getRestaurantById(restaurantId)
                 .orElseThrow(() -> new RestaurantNotFoundException(restaurantId));
 
-        // Get spaces for capacity calculation
+        // Get spaces for capacity calculation, narrowed to the requested space
         List<Space> spaces = spaceService.getActiveSpacesByRestaurantId(request.getRestaurantId());
-        int totalMaxCapacity = spaces.stream()
-                .mapToInt(Space::getMaxCapacity)
-                .sum();
+        UUID spaceId = request.getSpaceId();
+        if (spaceId != null) {
+            spaces = spaces.stream().filter(space -> spaceId.equals(space.getId())).toList();
+            if (spaces.isEmpty()) {
+                throw new SpaceNotFoundException(restaurantId, spaceId);
+            }
+        }
+
+        // Load the period's occupancy into dense per-day counters
+        List<UUID> spaceIds = spaces.stream().map(Space::getId).toList();
+        OccupancyGrid grid = new OccupancyGrid(request.getStartDate(), request.getEndDate(), spaceIds);
+        if (reportCache.isEnabled()) {
+            loadWithFragments(engine, restaurantId, spaceId, spaceIds, grid, cacheVersion);
+        } else {
+            loadOccupancy(engine, restaurantId, spaceId, request.getStartDate(), request.getEndDate(), grid);
+        }
+
+        SlotSupply supply = reportCache.getSlotSupply(restaurant.getOperatingHours(), spaces);
+        OccupancyReportResponse report = assembleReport(request, restaurant, spaces, supply, grid);
+        reportCache.putReport(cacheKey, report, cacheVersion);
+        return report;
+    }
+
+    /**
+     * Rebuild the occupancy rollups of a restaurant's date range from its reservations.
+     *
+     * @return number of rollup rows written
+     */
+    public int rebuildOccupancyRollups(String restaurantId, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new InvalidDateRangeException(startDate, endDate);
+        }
+        if (!rollupService.isEnabled()) {
+            throw new IllegalArgumentException("Occupancy rollups are disabled");
+        }
+
+        ObjectId id = new ObjectId(restaurantId);
+        restaurantService.getRestaurantById(id)
+                .orElseThrow(() -> new RestaurantNotFoundException(id));
+        return rollupService.rebuild(id, startDate, endDate);
+    }
+
+    /**
+     * Fill the grid from cached fragments of closed days, loading only the other days.
+     *
+     * Days before today whose fragment is cached (and covers the active spaces) are copied
+     * in; every maximal run of remaining days is loaded with the engine in one query, and
+     * the closed days of those runs are cached as fragments for later ranges.
+     */
+    private void loadWithFragments(ReportEngine engine, ObjectId restaurantId, UUID spaceId,
+                                   List<UUID> spaceIds, OccupancyGrid grid, long cacheVersion) {
+        LocalDate today = LocalDate.now();
+        boolean[] loaded = new boolean[grid.days()];
+        int runStart = -1;
+        for (int day = 0; day < grid.days(); day++) {
+            LocalDate date = grid.date(day);
+            Optional<OccupancyGrid.DayFragment> fragment = date.isBefore(today)
+                    ? reportCache.getFragment(restaurantId, spaceId, date, engine).filter(f -> f.covers(spaceIds))
+                    : Optional.empty();
+            if (fragment.isPresent()) {
+                grid.addFragment(day, fragment.get());
+                if (runStart >= 0) {
+                    loadOccupancy(engine, restaurantId, spaceId, grid.date(runStart), grid.date(day - 1), grid);
+                    runStart = -1;
+                }
+            } else {
+                loaded[day] = true;
+                if (runStart < 0) {
+                    runStart = day;
+                }
+            }
+        }
+        if (runStart >= 0) {
+            loadOccupancy(engine, restaurantId, spaceId, grid.date(runStart), grid.date(grid.days() - 1), grid);
+        }
+
+        for (int day = 0; day < grid.days() && grid.date(day).isBefore(today); day++) {
+            if (loaded[day]) {
+                reportCache.putFragment(restaurantId, spaceId, grid.date(day), engine, grid.fragment(day),
+                        cacheVersion);
+            }
+        }
+    }
+
+    /**
+     * Load the occupancy of a restaurant's date range with the given engine.
+     *
+     * @param spaceId Space to load, or null for every space of the restaurant
+     */
+    private void loadOccupancy(ReportEngine engine, ObjectId restaurantId, UUID spaceId,
+                               LocalDate startDate, LocalDate endDate, OccupancyGrid grid) {
+        if (spaceId != null) {
+            loadSpaceOccupancy(engine, restaurantId, spaceId, startDate, endDate, grid);
+            return;
+        }
+        if (engine == ReportEngine.ROLLUP) {
+            grid.addRollups(rollupService.findRollups(restaurantId, startDate, endDate));
+            return;
+        }
+        if (engine == ReportEngine.AGGREGATION) {
+            reservationRepository.aggregateOccupancyFacets(restaurantId, startDate, endDate).stream()
+                    .findFirst()
+                    .ifPresent(grid::addFacets);
+            return;
+        }
 
-        // Get reservations for the period
         List<Reservation> confirmedReservations = reservationRepository
                 .findByRestaurantIdAndReservationDateBetweenAndStatus(
-                        restaurantId, request.getStartDate(), request.getEndDate(),
-                        ReservationStatus.CONFIRMED);
-
-        long cancelledCount = reservationRepository.countByRestaurantIdAndReservationDateBetweenAndStatus(
-                restaurantId, request.getStartDate(), request.getEndDate(),
-                ReservationStatus.CANCELLED);
+                        restaurantId, startDate, endDate, ReservationStatus.CONFIRMED);
 
-        // Build daily breakdown
-        List<DailyOccupancy> dailyBreakdown = buildDailyBreakdown(
-                confirmedReservations, spaces, request.getStartDate(), request.getEndDate(),
-                request.getGranularity() == ReportGranularity.HOURLY);
+        grid.addReservations(confirmedReservations)
+                .addCancelled(reservationRepository.countCancelledPerDay(restaurantId, startDate, endDate));
+    }
 
-        // Calculate summary
-        OccupancySummary summary = calculateSummary(
-                confirmedReservations, cancelledCount, totalMaxCapacity, dailyBreakdown);
+    /**
+     * Load the occupancy of a single space's date range with the given engine.
+     */
+    private void loadSpaceOccupancy(ReportEngine engine, ObjectId restaurantId, UUID spaceId,
+                                    LocalDate startDate, LocalDate endDate, OccupancyGrid grid) {
+        if (engine == ReportEngine.ROLLUP) {
+            grid.addRollups(rollupService.findRollups(restaurantId, spaceId, startDate, endDate));
+            return;
+        }
+        if (engine == ReportEngine.AGGREGATION) {
+            reservationRepository.aggregateSpaceOccupancyFacets(spaceId, startDate, endDate).stream()
+                    .findFirst()
+                    .ifPresent(grid::addFacets);
+            return;
+        }
 
-        // Generate insights
-        OccupancyInsights insights = generateInsights(dailyBreakdown, confirmedReservations);
+        List<Reservation> confirmedReservations = reservationRepository
+                .findBySpaceIdAndReservationDateBetweenAndStatus(
+                        spaceId, startDate, endDate, ReservationStatus.CONFIRMED);
 
-        return OccupancyReportResponse.builder()
-                .restaurantId(request.getRestaurantId())
-                .restaurantName(restaurant.getName())
-                .period(OccupancyReportResponse.ReportPeriod.builder()
-                        .startDate(request.getStartDate())
-                        .endDate(request.getEndDate())
-                        .build())
-                .summary(summary)
-                .dailyBreakdown(dailyBreakdown)
-                .insights(insights)
-                .build();
+        grid.addReservations(confirmedReservations)
+                .addCancelled(reservationRepository.countSpaceCancelledPerDay(spaceId, startDate, endDate));
     }
 
     /**
-     * Build daily occupancy breakdown.
+     * Build the report from a filled occupancy grid.
      *
-     * ALGORITHM: Multi-Dimensional Aggregation with Time-Series Analysis
-     * -------------------------------------------------------------------
-     * This method performs hierarchical data aggregation to generate occupancy analytics:
+     * ALGORITHM: Multi-Dimensional Aggregation over Dense Accumulators
+     * ----------------------------------------------------------------
+     * The engine has already folded every booking into the per-day space and hour
+     * counters of an {@link OccupancyGrid}; this method only reads them back:
      *
-     * Complexity: O(d * (r + s + h)) where:
+     * Complexity: O(d * (s + 24)) where:
      *   d = number of days in date range
-     *   r = number of reservations
-     *   s = number of spaces
-     *   h = number of unique hours (if hourly breakdown enabled)
+     *   s = number of active spaces
+     * independent of the number of reservations.
      *
      * Processing Steps:
-     * 1. Group reservations by date using stream collectors (O(r))
-     * 2. For each day in range (O(d)):
-     *    a. Calculate daily metrics: total reservations, total guests
-     *    b. Compute utilization percentage against total capacity
-     *    c. Identify peak hour by grouping reservations by hour and finding max
-     *    d. Build space-level breakdown (O(s) per day)
-     *    e. Optionally build hourly breakdown (O(h) per day)
+     * 1. For each day in range (O(d)):
+     *    a. Sum the day's 24 hour counters: total reservations, total guests, peak hour
+     *    b. Compute utilization: booked seat-minutes (one multiply-add over the space
+     *       counters) over the weekday's available seat-minutes
+     *    c. Build space-level breakdown from the day's space counters (O(s))
+     *    d. Optionally build hourly breakdown from the non-empty hour counters
+     *    e. Add the day to the period, day-of-week and hour-of-day sums
+     * 2. Summary and insights are read from those sums; no reservation is visited again.
      *
-     * Utilization Calculation Formula:
-     *   utilizationPercentage = (totalGuests / totalCapacity) * 100
+     * Utilization Calculation Formula (restaurant with operating hours):
+     *   bookedSeatMinutes    = sum over spaces of guests * slotDuration
+     *   availableSeatMinutes = sum over spaces of maxCapacity * slots(weekday) * slotDuration
+     *   utilizationPercentage = (bookedSeatMinutes / availableSeatMinutes) * 100
      *
      * Example:
-     *   Date Range: 2024-02-15 to 2024-02-17 (3 days)
-     *   Total Capacity: 50 guests (across all spaces)
-     *   Day 1: 30 guests booked → 60% utilization
-     *   Day 2: 45 guests booked → 90% utilization
-     *   Day 3: 15 guests booked → 30% utilization
+     *   Operating Hours: 18:00 - 22:00 every day
+     *   Spaces: 20 seats with 60-minute slots (4 slots), 30 seats with 120-minute slots (2 slots)
+     *   Available: 20 * 4 * 60 + 30 * 2 * 120 = 12,000 seat-minutes
+     *   Day 1: 30 guests in the first space, 15 in the second
+     *          → 30 * 60 + 15 * 120 = 3,600 seat-minutes → 30% utilization
      *
-     * Peak Hour Detection:
-     *   Group reservations by hour (e.g., "18:00", "19:00")
-     *   Sum party sizes per hour
-     *   Find hour with maximum guests
+     * Closed days (no supply) are listed at 0% but left out of the period and weekday
+     * averages. Without operating hours, every day counts and utilization is
+     * (totalGuests / totalCapacity) * 100. Hourly figures stay guests starting in the
+     * hour / total capacity: the seats taken at that hour.
      *
-     * Why This Approach:
-     * - Stream-based grouping enables efficient date/hour partitioning
-     * - Iterating through date range ensures all days are represented (even with zero bookings)
-     * - Hierarchical breakdown (daily → space → hourly) provides multi-level insights
-     * - BigDecimal precision for financial-grade percentage calculations
+     * Percentages are carried as integer tenths of a percent, rounded half up, and only
+     * turned into BigDecimal when the response DTOs are built. Ties (peak hour, busiest
+     * day) resolve to the earliest hour or day of the week.
      */
-    private List<DailyOccupancy> buildDailyBreakdown(List<Reservation> reservations,
-                                                      List<Space> spaces,
-                                                      LocalDate startDate,
-                                                      LocalDate endDate,
-                                                      boolean includeHourly) {
-        // Group reservations by date
-        Map<LocalDate, List<Reservation>> byDate = reservations.stream()
-                .collect(Collectors.groupingBy(Reservation::getReservationDate));
-
-        // Calculate total capacity per space for percentage calculations
-        Map<UUID, Integer> spaceCapacities = spaces.stream()
-                .collect(Collectors.toMap(Space::getId, Space::getMaxCapacity));
-        int totalCapacity = spaceCapacities.values().stream().mapToInt(Integer::intValue).sum();
-
-        List<DailyOccupancy> dailyList = new ArrayList<>();
-
-        // Iterate through each day in the range
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            List<Reservation> dayReservations = byDate.getOrDefault(date, Collections.emptyList());
-
-            long totalReservations = dayReservations.size();
-            long totalGuests = dayReservations.stream()
-                    .mapToInt(Reservation::getPartySize)
-                    .sum();
-
-            BigDecimal utilizationPercentage = totalCapacity > 0
-                    ? BigDecimal.valueOf(totalGuests * 100.0 / totalCapacity)
-                        .setScale(1, RoundingMode.HALF_UP)
-                    : BigDecimal.ZERO;
-
-            // Find peak hour
-            Map<String, Long> hourlyGuests = dayReservations.stream()
-                    .collect(Collectors.groupingBy(
-                            r -> r.getStartTime().substring(0, 2) + ":00",
-                            Collectors.summingLong(Reservation::getPartySize)));
-
-            String peakHour = hourlyGuests.entrySet().stream()
-                    .max(Map.Entry.comparingByValue())
-                    .map(Map.Entry::getKey)
-                    .orElse(null);
-
-            BigDecimal peakHourUtilization = BigDecimal.ZERO;
-            if (peakHour != null && totalCapacity > 0) {
-                long peakGuests = hourlyGuests.get(peakHour);
-                peakHourUtilization = BigDecimal.valueOf(peakGuests * 100.0 / totalCapacity)
-                        .setScale(1, RoundingMode.HALF_UP);
+    OccupancyReportResponse assembleReport(OccupancyReportRequest request,
+                                           Restaurant restaurant,
+                                           List<Space> spaces,
+                                           SlotSupply supply,
+                                           OccupancyGrid grid) {
+        boolean includeHourly = request.getGranularity() == ReportGranularity.HOURLY;
+        int totalCapacity = spaces.stream().mapToInt(Space::getMaxCapacity).sum();
+
+        long totalReservations = 0;
+        long totalGuests = 0;
+        long utilizationTenthsSum = 0;
+        int openDays = 0;
+        long operatingSlots = 0;
+        long[] dayOfWeekTenths = new long[7];
+        int[] dayOfWeekDays = new int[7];
+        long[] hourGuests = new long[OccupancyGrid.HOURS];
+        boolean[] hourBooked = new boolean[OccupancyGrid.HOURS];
+
+        List<DailyOccupancy> dailyBreakdown = new ArrayList<>(grid.days());
+        for (int day = 0; day < grid.days(); day++) {
+            LocalDate date = grid.date(day);
+
+            long dayReservations = 0;
+            long dayGuests = 0;
+            int peakHour = -1;
+            long peakGuests = 0;
+            List<HourlyOccupancy> hourlyBreakdown = includeHourly ? new ArrayList<>() : null;
+            for (int hour = 0; hour < OccupancyGrid.HOURS; hour++) {
+                long reservations = grid.hourReservations(day, hour);
+                if (reservations == 0) {
+                    continue;
+                }
+                long guests = grid.hourGuests(day, hour);
+                dayReservations += reservations;
+                dayGuests += guests;
+                hourGuests[hour] += guests;
+                hourBooked[hour] = true;
+                if (peakHour < 0 || guests > peakGuests) {
+                    peakHour = hour;
+                    peakGuests = guests;
+                }
+                if (includeHourly) {
+                    hourlyBreakdown.add(HourlyOccupancy.builder()
+                            .hour(hourLabel(hour))
+                            .reservations(reservations)
+                            .guests(guests)
+                            .utilizationPercentage(percentage(tenths(guests, totalCapacity), totalCapacity))
+                            .build());
+                }
             }
 
-            // Build space breakdown
-            List<SpaceOccupancy> spaceBreakdown = buildSpaceBreakdown(dayReservations, spaces);
-
-            // Build hourly breakdown if requested
-            List<HourlyOccupancy> hourlyBreakdown = null;
-            if (includeHourly) {
-                hourlyBreakdown = buildHourlyBreakdown(dayReservations, totalCapacity);
+            long utilizationTenths;
+            boolean open;
+            if (supply.isConfigured()) {
+                long available = supply.availableSeatMinutes(date.getDayOfWeek());
+                utilizationTenths = tenths(supply.bookedSeatMinutes(grid, day), available);
+                open = available > 0;
+                operatingSlots += supply.operatingSlots(date.getDayOfWeek());
+            } else {
+                utilizationTenths = tenths(dayGuests, totalCapacity);
+                open = true;
+                operatingSlots += UNCONFIGURED_SLOTS_PER_DAY;
+            }
+            totalReservations += dayReservations;
+            totalGuests += dayGuests;
+            if (open) {
+                utilizationTenthsSum += utilizationTenths;
+                openDays++;
+                int dayOfWeek = date.getDayOfWeek().getValue() - 1;
+                dayOfWeekTenths[dayOfWeek] += utilizationTenths;
+                dayOfWeekDays[dayOfWeek]++;
             }
 
-            DailyOccupancy daily = DailyOccupancy.builder()
+            dailyBreakdown.add(DailyOccupancy.builder()
                     .date(date)
                     .dayOfWeek(date.getDayOfWeek())
-                    .totalReservations(totalReservations)
-                    .totalGuests(totalGuests)
-                    .utilizationPercentage(utilizationPercentage)
-                    .peakHour(peakHour)
-                    .peakHourUtilization(peakHourUtilization)
-                    .spaceBreakdown(spaceBreakdown)
+                    .totalReservations(dayReservations)
+                    .totalGuests(dayGuests)
+                    .utilizationPercentage(percentage(utilizationTenths, totalCapacity))
+                    .peakHour(peakHour >= 0 ? hourLabel(peakHour) : null)
+                    .peakHourUtilization(peakHour >= 0
+                            ? percentage(tenths(peakGuests, totalCapacity), totalCapacity)
+                            : BigDecimal.ZERO)
+                    .spaceBreakdown(buildSpaceBreakdown(grid, day, spaces, supply))
                     .hourlyBreakdown(hourlyBreakdown)
-                    .build();
-
-            dailyList.add(daily);
+                    .build());
         }
 
-        return dailyList;
-    }
+        OccupancySummary summary = buildSummary(totalReservations, totalGuests, grid.cancelled(),
+                utilizationTenthsSum, openDays, operatingSlots);
+        OccupancyInsights insights = buildInsights(dayOfWeekTenths, dayOfWeekDays, hourGuests, hourBooked);
 
-    /**
-     * Build space-level occupancy breakdown for a day.
-     */
-    private List<SpaceOccupancy> buildSpaceBreakdown(List<Reservation> dayReservations,
-                                                      List<Space> spaces) {
-        Map<UUID, List<Reservation>> bySpace = dayReservations.stream()
-                .collect(Collectors.groupingBy(Reservation::getSpaceId));
-
-        return spaces.stream()
-                .map(space -> {
-                    List<Reservation> spaceReservations = bySpace.getOrDefault(
-                            space.getId(), Collections.emptyList());
-
-                    long reservationCount = spaceReservations.size();
-                    long guestCount = spaceReservations.stream()
-                            .mapToInt(Reservation::getPartySize)
-                            .sum();
-
-                    BigDecimal utilization = space.getMaxCapacity() > 0
-                            ? BigDecimal.valueOf(guestCount * 100.0 / space.getMaxCapacity())
-                                .setScale(1, RoundingMode.HALF_UP)
-                            : BigDecimal.ZERO;
-
-                    return SpaceOccupancy.builder()
-                            .spaceId(space.getId())
-                            .spaceName(space.getName())
-                            .maxCapacity(space.getMaxCapacity())
-                            .reservations(reservationCount)
-                            .guests(guestCount)
-                            .utilizationPercentage(utilization)
-                            .build();
-                })
-                .collect(Collectors.toList());
+        return OccupancyReportResponse.builder()
+                .restaurantId(request.getRestaurantId())
+                .restaurantName(restaurant.getName())
+                .period(OccupancyReportResponse.ReportPeriod.builder()
+                        .startDate(request.getStartDate())
+                        .endDate(request.getEndDate())
+                        .build())
+                .summary(summary)
+                .dailyBreakdown(dailyBreakdown)
+                .insights(insights)
+                .build();
     }
 
     /**
-     * Build hourly occupancy breakdown for a day.
+     * Build space-level occupancy breakdown for a day.
      */
-    private List<HourlyOccupancy> buildHourlyBreakdown(List<Reservation> dayReservations,
-                                                        int totalCapacity) {
-        Map<String, List<Reservation>> byHour = dayReservations.stream()
-                .collect(Collectors.groupingBy(r -> r.getStartTime().substring(0, 2) + ":00"));
-
-        return byHour.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .map(entry -> {
-                    String hour = entry.getKey();
-                    List<Reservation> hourReservations = entry.getValue();
-
-                    long reservationCount = hourReservations.size();
-                    long guestCount = hourReservations.stream()
-                            .mapToInt(Reservation::getPartySize)
-                            .sum();
-
-                    BigDecimal utilization = totalCapacity > 0
-                            ? BigDecimal.valueOf(guestCount * 100.0 / totalCapacity)
-                                .setScale(1, RoundingMode.HALF_UP)
-                            : BigDecimal.ZERO;
-
-                    return HourlyOccupancy.builder()
-                            .hour(hour)
-                            .reservations(reservationCount)
-                            .guests(guestCount)
-                            .utilizationPercentage(utilization)
-                            .build();
-                })
-                .collect(Collectors.toList());
+    private List<SpaceOccupancy> buildSpaceBreakdown(OccupancyGrid grid, int day, List<Space> spaces,
+                                                     SlotSupply supply) {
+        DayOfWeek dayOfWeek = grid.date(day).getDayOfWeek();
+        List<SpaceOccupancy> breakdown = new ArrayList<>(spaces.size());
+        for (int index = 0; index < spaces.size(); index++) {
+            Space space = spaces.get(index);
+            long guests = grid.spaceGuests(day, index);
+            long utilizationTenths = supply.isConfigured()
+                    ? tenths(guests * supply.slotMinutes(index), supply.availableSeatMinutes(dayOfWeek, index))
+                    : tenths(guests, space.getMaxCapacity());
+            breakdown.add(SpaceOccupancy.builder()
+                    .spaceId(space.getId())
+                    .spaceName(space.getName())
+                    .maxCapacity(space.getMaxCapacity())
+                    .reservations((long) grid.spaceReservations(day, index))
+                    .guests(guests)
+                    .utilizationPercentage(percentage(utilizationTenths, space.getMaxCapacity()))
+                    .build());
+        }
+        return breakdown;
     }
 
     /**
      * Calculate summary statistics.
      */
-    private OccupancySummary calculateSummary(List<Reservation> reservations,
-                                               long cancelledCount,
-                                               int totalCapacity,
-                                               List<DailyOccupancy> dailyBreakdown) {
-        long totalReservations = reservations.size();
-        long totalGuests = reservations.stream()
-                .mapToInt(Reservation::getPartySize)
-                .sum();
-
+    private OccupancySummary buildSummary(long totalReservations,
+                                          long totalGuests,
+                                          long cancelledCount,
+                                          long utilizationTenthsSum,
+                                          int openDays,
+                                          long totalOperatingSlots) {
         BigDecimal avgPartySize = totalReservations > 0
                 ? BigDecimal.valueOf((double) totalGuests / totalReservations)
                     .setScale(2, RoundingMode.HALF_UP)
                 : BigDecimal.ZERO;
 
-        BigDecimal avgUtilization = dailyBreakdown.isEmpty()
+        BigDecimal avgUtilization = openDays == 0
                 ? BigDecimal.ZERO
-                : dailyBreakdown.stream()
-                    .map(DailyOccupancy::getUtilizationPercentage)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add)
-                    .divide(BigDecimal.valueOf(dailyBreakdown.size()), 1, RoundingMode.HALF_UP);
-
-        long totalOperatingSlots = dailyBreakdown.size() * 12L; // Approximate slots per day
-        long totalBookedSlots = dailyBreakdown.stream()
-                .mapToLong(DailyOccupancy::getTotalReservations)
-                .sum();
+                : BigDecimal.valueOf(divideHalfUp(utilizationTenthsSum, openDays), 1);
 
         BigDecimal cancellationRate = (totalReservations + cancelledCount) > 0
-                ? BigDecimal.valueOf(cancelledCount * 100.0 / (totalReservations + cancelledCount))
-                    .setScale(1, RoundingMode.HALF_UP)
+                ? BigDecimal.valueOf(tenths(cancelledCount, totalReservations + cancelledCount), 1)
                 : BigDecimal.ZERO;
 
         return OccupancySummary.builder()
@@ -321,7 +442,7 @@ public class ReportingService {
                 .averagePartySize(avgPartySize)
                 .averageUtilizationPercentage(avgUtilization)
                 .totalOperatingSlots(totalOperatingSlots)
-                .totalBookedSlots(totalBookedSlots)
+                .totalBookedSlots(totalReservations)
                 .cancelledReservations(cancelledCount)
                 .cancellationRate(cancellationRate)
                 .build();
@@ -330,70 +451,86 @@ public class ReportingService {
     /**
      * Generate insights and recommendations.
      */
-    private OccupancyInsights generateInsights(List<DailyOccupancy> dailyBreakdown,
-                                                List<Reservation> reservations) {
-        // Group by day of week
-        Map<DayOfWeek, List<DailyOccupancy>> byDayOfWeek = dailyBreakdown.stream()
-                .collect(Collectors.groupingBy(DailyOccupancy::getDayOfWeek));
-
-        // Find busiest and slowest days
-        Map.Entry<DayOfWeek, BigDecimal> busiestDay = byDayOfWeek.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        e -> e.getValue().stream()
-                                .map(DailyOccupancy::getUtilizationPercentage)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                                .divide(BigDecimal.valueOf(e.getValue().size()), 1, RoundingMode.HALF_UP)))
-                .entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .orElse(null);
-
-        Map.Entry<DayOfWeek, BigDecimal> slowestDay = byDayOfWeek.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        e -> e.getValue().stream()
-                                .map(DailyOccupancy::getUtilizationPercentage)
-                                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                                .divide(BigDecimal.valueOf(e.getValue().size()), 1, RoundingMode.HALF_UP)))
-                .entrySet().stream()
-                .min(Map.Entry.comparingByValue())
-                .orElse(null);
-
-        // Group by hour
-        Map<String, Long> hourlyGuests = reservations.stream()
-                .collect(Collectors.groupingBy(
-                        r -> r.getStartTime().substring(0, 2) + ":00",
-                        Collectors.summingLong(Reservation::getPartySize)));
-
-        String busiestHour = hourlyGuests.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(null);
-
-        String slowestHour = hourlyGuests.entrySet().stream()
-                .min(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(null);
+    private OccupancyInsights buildInsights(long[] dayOfWeekTenths,
+                                            int[] dayOfWeekDays,
+                                            long[] hourGuests,
+                                            boolean[] hourBooked) {
+        // Busiest and slowest days by average daily utilization
+        int busiest = -1;
+        int slowest = -1;
+        long[] averageTenths = new long[7];
+        for (int dayOfWeek = 0; dayOfWeek < 7; dayOfWeek++) {
+            if (dayOfWeekDays[dayOfWeek] == 0) {
+                continue;
+            }
+            averageTenths[dayOfWeek] = divideHalfUp(dayOfWeekTenths[dayOfWeek], dayOfWeekDays[dayOfWeek]);
+            if (busiest < 0 || averageTenths[dayOfWeek] > averageTenths[busiest]) {
+                busiest = dayOfWeek;
+            }
+            if (slowest < 0 || averageTenths[dayOfWeek] < averageTenths[slowest]) {
+                slowest = dayOfWeek;
+            }
+        }
+        Map.Entry<DayOfWeek, BigDecimal> busiestDay = busiest < 0 ? null
+                : Map.entry(DayOfWeek.of(busiest + 1), BigDecimal.valueOf(averageTenths[busiest], 1));
+        Map.Entry<DayOfWeek, BigDecimal> slowestDay = slowest < 0 ? null
+                : Map.entry(DayOfWeek.of(slowest + 1), BigDecimal.valueOf(averageTenths[slowest], 1));
+
+        // Busiest and slowest start hours by guests over the period
+        int busiestHour = -1;
+        int slowestHour = -1;
+        for (int hour = 0; hour < OccupancyGrid.HOURS; hour++) {
+            if (!hourBooked[hour]) {
+                continue;
+            }
+            if (busiestHour < 0 || hourGuests[hour] > hourGuests[busiestHour]) {
+                busiestHour = hour;
+            }
+            if (slowestHour < 0 || hourGuests[hour] < hourGuests[slowestHour]) {
+                slowestHour = hour;
+            }
+        }
+        String busiestHourLabel = busiestHour >= 0 ? hourLabel(busiestHour) : null;
+        String slowestHourLabel = slowestHour >= 0 ? hourLabel(slowestHour) : null;
 
         // Generate recommendations
         List<String> recommendations = generateRecommendations(
-                busiestDay, slowestDay, busiestHour, slowestHour);
+                busiestDay, slowestDay, busiestHourLabel, slowestHourLabel);
 
         return OccupancyInsights.builder()
                 .busiestDay(busiestDay != null ? busiestDay.getKey() : null)
                 .busiestDayAverageUtilization(busiestDay != null ? busiestDay.getValue() : null)
                 .slowestDay(slowestDay != null ? slowestDay.getKey() : null)
                 .slowestDayAverageUtilization(slowestDay != null ? slowestDay.getValue() : null)
-                .busiestHour(busiestHour)
-                .busiestHourAverageUtilization(busiestHour != null
-                        ? BigDecimal.valueOf(hourlyGuests.get(busiestHour)) : null)
-                .slowestHour(slowestHour)
-                .slowestHourAverageUtilization(slowestHour != null
-                        ? BigDecimal.valueOf(hourlyGuests.get(slowestHour)) : null)
+                .busiestHour(busiestHourLabel)
+                .busiestHourAverageUtilization(busiestHour >= 0
+                        ? BigDecimal.valueOf(hourGuests[busiestHour]) : null)
+                .slowestHour(slowestHourLabel)
+                .slowestHourAverageUtilization(slowestHour >= 0
+                        ? BigDecimal.valueOf(hourGuests[slowestHour]) : null)
                 .recommendations(recommendations)
                 .build();
     }
 
+    /**
+     * part / whole as a percentage in tenths, rounded half up (e.g. 1 of 3 -> 333 = 33.3%).
+     */
+    private static long tenths(long part, long whole) {
+        return whole > 0 ? divideHalfUp(part * 1000, whole) : 0;
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        return (2 * dividend + divisor) / (2 * divisor);
+    }
+
+    private static BigDecimal percentage(long tenths, int capacity) {
+        return capacity > 0 ? BigDecimal.valueOf(tenths, 1) : BigDecimal.ZERO;
+    }
+
+    private static String hourLabel(int hour) {
+        return HOUR_LABELS[hour];
+    }
+
     /**
      * Generate recommendations based on the data.
      */
@@ -0,0 +1,203 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.exception.ReservationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Retry policy for operations that can fail with an optimistic locking conflict.
+ *
+ * ALGORITHM: Decorrelated Jitter Backoff with Request and Node Budgets
+ * --------------------------------------------------------------------
+ * Delay before retry n:
+ *   delay(n) = min(maxDelay, random(baseDelay, delay(n-1) * 3)),  delay(0) = baseDelay
+ * Randomising every delay spreads out retries of requests that conflicted at the same
+ * moment, so they do not collide again in lockstep (which a fixed 100/200 ms backoff does).
+ *
+ * Budgets:
+ * - Per request: a retry is only attempted if its delay still fits in the request's
+ *   time budget, so a single booking never waits longer than request-budget-ms in total.
+ * - Per node: retries spend tokens from a shared bucket that is refilled by successful
+ *   first attempts (retry-ratio tokens each, capped at node-budget). When conflicts
+ *   dominate, the bucket empties and requests fail fast instead of piling up retries.
+ *
+ * Waiting uses Thread.sleep, which sleeps at least the full jittered delay. The wait
+ * holds the request thread either way (a virtual thread unmounts while sleeping, a
+ * platform thread does not); the request budget is what bounds it.
+ */
+@Component
+public class ReservationRetryPolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationRetryPolicy.class);
+
+    /**
+     * Node budget tokens are stored in thousandths so fractional refills add up exactly.
+     */
+    private static final long MILLI_TOKENS = 1000;
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final long requestBudgetMs;
+    private final long nodeBudgetMilliTokens;
+    private final long refillMilliTokens;
+
+    private final AtomicLong nodeMilliTokens;
+    private final Sleeper sleeper;
+    private final LongSupplier clock;
+
+    private final Counter retryCounter;
+    private final Counter recoveredCounter;
+    private final Counter exhaustedCounter;
+    private final Counter budgetDeniedCounter;
+
+    @Autowired
+    public ReservationRetryPolicy(MeterRegistry meterRegistry,
+                                  @Value("${app.reservation.retry.max-attempts:3}") int maxAttempts,
+                                  @Value("${app.reservation.retry.base-delay-ms:5}") long baseDelayMs,
+                                  @Value("${app.reservation.retry.max-delay-ms:50}") long maxDelayMs,
+                                  @Value("${app.reservation.retry.request-budget-ms:100}") long requestBudgetMs,
+                                  @Value("${app.reservation.retry.node-budget:50}") int nodeBudget,
+                                  @Value("${app.reservation.retry.retry-ratio:0.1}") double retryRatio) {
+        this(meterRegistry, maxAttempts, baseDelayMs, maxDelayMs, requestBudgetMs, nodeBudget, retryRatio,
+                ReservationRetryPolicy::park, System::nanoTime);
+    }
+
+    ReservationRetryPolicy(MeterRegistry meterRegistry, int maxAttempts, long baseDelayMs, long maxDelayMs,
+                           long requestBudgetMs, int nodeBudget, double retryRatio,
+                           Sleeper sleeper, LongSupplier clock) {
+        if (maxAttempts < 1 || baseDelayMs < 0 || maxDelayMs < baseDelayMs) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid retry configuration: attempts=%d, base=%d ms, max=%d ms",
+                    maxAttempts, baseDelayMs, maxDelayMs));
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.requestBudgetMs = requestBudgetMs;
+        this.nodeBudgetMilliTokens = nodeBudget * MILLI_TOKENS;
+        this.refillMilliTokens = Math.round(retryRatio * MILLI_TOKENS);
+        this.nodeMilliTokens = new AtomicLong(nodeBudgetMilliTokens);
+        this.sleeper = sleeper;
+        this.clock = clock;
+
+        this.retryCounter = Counter.builder("reservation.retry.attempts")
+                .description("Retries after an optimistic locking conflict")
+                .register(meterRegistry);
+        this.recoveredCounter = retryOutcome(meterRegistry, "recovered");
+        this.exhaustedCounter = retryOutcome(meterRegistry, "exhausted");
+        this.budgetDeniedCounter = retryOutcome(meterRegistry, "budget_denied");
+    }
+
+    /**
+     * Run an action, retrying optimistic locking conflicts within the configured budgets.
+     *
+     * @param action The action to run
+     * @param onGiveUp Builds the exception to throw when retries stop, given the attempts made
+     * @return The action's result
+     */
+    public <T> T execute(Supplier<T> action, IntFunction<RuntimeException> onGiveUp) {
+        long deadline = clock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(requestBudgetMs);
+        long previousDelayMs = baseDelayMs;
+        int attempts = 0;
+
+        while (true) {
+            try {
+                T result = action.get();
+                if (attempts == 0) {
+                    refillNodeBudget();
+                } else {
+                    recoveredCounter.increment();
+                }
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                attempts++;
+                if (attempts >= maxAttempts) {
+                    exhaustedCounter.increment();
+                    logger.warn("Optimistic locking failure, giving up after {} attempts", attempts);
+                    throw onGiveUp.apply(attempts);
+                }
+
+                long delayMs = nextDelay(previousDelayMs);
+                long remainingNanos = deadline - clock.getAsLong();
+                if (TimeUnit.MILLISECONDS.toNanos(delayMs) > remainingNanos || !tryAcquireNodeBudget()) {
+                    budgetDeniedCounter.increment();
+                    logger.warn("Optimistic locking failure, retry budget exhausted after {} attempts", attempts);
+                    throw onGiveUp.apply(attempts);
+                }
+
+                retryCounter.increment();
+                logger.debug("Optimistic locking failure, retrying in {} ms (attempt {}/{})",
+                        delayMs, attempts + 1, maxAttempts);
+                sleeper.sleep(delayMs);
+                previousDelayMs = delayMs;
+            }
+        }
+    }
+
+    /**
+     * Decorrelated jitter: random(base, previous * 3), capped at maxDelay.
+     */
+    long nextDelay(long previousDelayMs) {
+        long upper = Math.min(maxDelayMs, Math.max(baseDelayMs, previousDelayMs * 3));
+        if (upper <= baseDelayMs) {
+            return baseDelayMs;
+        }
+        return ThreadLocalRandom.current().nextLong(baseDelayMs, upper + 1);
+    }
+
+    private boolean tryAcquireNodeBudget() {
+        while (true) {
+            long current = nodeMilliTokens.get();
+            if (current < MILLI_TOKENS) {
+                return false;
+            }
+            if (nodeMilliTokens.compareAndSet(current, current - MILLI_TOKENS)) {
+                return true;
+            }
+        }
+    }
+
+    private void refillNodeBudget() {
+        if (nodeMilliTokens.get() < nodeBudgetMilliTokens) {
+            nodeMilliTokens.getAndUpdate(current -> Math.min(nodeBudgetMilliTokens, current + refillMilliTokens));
+        }
+    }
+
+    private static Counter retryOutcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("reservation.retry.outcomes")
+                .description("Requests that hit an optimistic locking conflict, by final outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static void park(long delayMs) {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReservationException("Reservation creation interrupted");
+        }
+    }
+
+    /**
+     * Waits between attempts; replaced in tests to avoid real delays.
+     */
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long delayMs);
+    }
+}
@@ -3,6 +3,7 @@ package com.opentable.privatedining.service;
 import com.opentable.privatedining.dto.request.CancellationRequest;
 import com.opentable.privatedining.dto.request.CreateReservationRequest;
 import com.opentable.privatedining.dto.response.CancellationResponse;
+import com.opentable.privatedining.dto.response.CursorPageResponse;
 import com.opentable.privatedining.dto.response.ReservationResponse;
 import com.opentable.privatedining.exception.*;
 import com.opentable.privatedining.model.Reservation;
@@ -11,12 +12,14 @@ import com.opentable.privatedining.model.Space;
 import com.opentable.privatedining.model.enums.ReservationStatus;
 import com.opentable.privatedining.repository.ReservationRepository;
 import com.opentable.privatedining.validation.ReservationValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,8 +27,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Service for reservation management with atomic capacity control for concurrency.
@@ -35,8 +40,13 @@ import java.util.UUID;
 public class ReservationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReservationService.class);
-    private static final int MAX_RETRY_ATTEMPTS = 3;
-    private static final long RETRY_DELAY_MS = 100;
+
+    /**
+     * Sort keys for cursor pagination, each backed by a { key: 1, _id: 1 } index.
+     */
+    private static final Map<String, KeysetPager.KeysetSort<Reservation>> CURSOR_SORTS = Map.of(
+            "reservationDate", new KeysetPager.KeysetSort<>("reservationDate",
+                    Reservation::getReservationDate, Reservation::getId, LocalDate::parse));
 
     private final ReservationRepository reservationRepository;
     private final RestaurantService restaurantService;
@@ -44,19 +54,48 @@ public class ReservationService {
     private final AvailabilityService availabilityService;
     private final ReservationValidator reservationValidator;
     private final SlotCapacityService slotCapacityService;
+    private final ReservationRetryPolicy retryPolicy;
+    private final AvailabilitySnapshotService snapshotService;
+    private final AvailabilityVersionService versionService;
+    private final OccupancyRollupService rollupService;
+    private final ReportCache reportCache;
+    private final KeysetPager keysetPager;
+    private final Timer loadTimer;
+    private final Timer validateTimer;
+    private final Timer admitTimer;
+    private final Timer persistTimer;
+    private final Timer respondTimer;
 
     public ReservationService(ReservationRepository reservationRepository,
                               RestaurantService restaurantService,
                               SpaceService spaceService,
                               AvailabilityService availabilityService,
                               ReservationValidator reservationValidator,
-                              SlotCapacityService slotCapacityService) {
+                              SlotCapacityService slotCapacityService,
+                              ReservationRetryPolicy retryPolicy,
+                              AvailabilitySnapshotService snapshotService,
+                              AvailabilityVersionService versionService,
+                              OccupancyRollupService rollupService,
+                              ReportCache reportCache,
+                              KeysetPager keysetPager,
+                              MeterRegistry meterRegistry) {
         this.reservationRepository = reservationRepository;
         this.restaurantService = restaurantService;
         this.spaceService = spaceService;
         this.availabilityService = availabilityService;
         this.reservationValidator = reservationValidator;
         this.slotCapacityService = slotCapacityService;
+        this.retryPolicy = retryPolicy;
+        this.snapshotService = snapshotService;
+        this.versionService = versionService;
+        this.rollupService = rollupService;
+        this.reportCache = reportCache;
+        this.keysetPager = keysetPager;
+        this.loadTimer = stageTimer(meterRegistry, "load");
+        this.validateTimer = stageTimer(meterRegistry, "validate");
+        this.admitTimer = stageTimer(meterRegistry, "admit");
+        this.persistTimer = stageTimer(meterRegistry, "persist");
+        this.respondTimer = stageTimer(meterRegistry, "respond");
     }
 
     /**
@@ -73,6 +112,14 @@ public class ReservationService {
         return reservationRepository.findAll(pageable);
     }
 
+    /**
+     * Get reservations a page at a time by cursor, without skip or count (see KeysetPager).
+     */
+    public CursorPageResponse<Reservation> getReservationsByCursor(String cursor, int size, String sortBy,
+                                                                   Sort.Direction direction, boolean includeTotal) {
+        return keysetPager.page(Reservation.class, CURSOR_SORTS, sortBy, direction, cursor, size, includeTotal);
+    }
+
     /**
      * Get reservation by ID.
      */
@@ -91,66 +138,80 @@ public class ReservationService {
     /**
      * Create a new reservation with retry logic for optimistic locking.
      * Implements flexible capacity model (concurrent bookings allowed if sum ≤ max capacity).
+     * Conflicts are retried with jittered backoff within the budgets of {@link ReservationRetryPolicy}.
      */
-    @Transactional
     public Reservation createReservation(CreateReservationRequest request) {
-        int attempts = 0;
-        OptimisticLockingFailureException lastException = null;
+        return book(request).reservation();
+    }
 
-        while (attempts < MAX_RETRY_ATTEMPTS) {
-            try {
-                return doCreateReservation(request);
-            } catch (OptimisticLockingFailureException e) {
-                lastException = e;
-                attempts++;
-                logger.warn("Optimistic locking failure on reservation creation, attempt {}/{}",
-                        attempts, MAX_RETRY_ATTEMPTS);
-
-                if (attempts < MAX_RETRY_ATTEMPTS) {
-                    try {
-                        Thread.sleep(RETRY_DELAY_MS * attempts); // Exponential backoff
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new ReservationException("Reservation creation interrupted", ie);
-                    }
-                }
-            }
-        }
+    /**
+     * Create a new reservation and map it to a response using the space and restaurant
+     * already loaded for validation, so the response needs no further catalog reads.
+     */
+    public ReservationResponse createReservationAndRespond(CreateReservationRequest request) {
+        Booking booking = book(request);
+        return stage(respondTimer, () -> toResponse(booking.reservation(), booking.space(), booking.restaurant()));
+    }
 
-        logger.error("Failed to create reservation after {} attempts", MAX_RETRY_ATTEMPTS);
-        throw new ConcurrentModificationException("Reservation", request.getSpaceId().toString(), MAX_RETRY_ATTEMPTS);
+    /**
+     * Run the booking pipeline.
+     *
+     * ALGORITHM: Staged Booking Pipeline
+     * ----------------------------------
+     *   load     -> space, then restaurant (its key comes from the space)
+     *   validate -> end time, operating hours, slot alignment, party size (no I/O)
+     *   admit    -> atomic capacity reservation              ┐ retried on
+     *   persist  -> insert reservation, release on failure   ┘ optimistic-lock conflicts
+     *   respond  -> map using the entities from "load" (createReservationAndRespond only)
+     *
+     * The restaurant lookup depends on the space, so the two catalog reads cannot run
+     * concurrently; instead each is issued exactly once per booking. Catalog data does
+     * not change between retry attempts, so only admit and persist are retried, and the
+     * loaded entities are carried through to response mapping instead of being re-read.
+     * Each stage is timed as "reservation.create.stage" tagged with its name.
+     */
+    private Booking book(CreateReservationRequest request) {
+        // 1. Load space and restaurant
+        Booking loaded = stage(loadTimer, () -> {
+            Space space = spaceService.getActiveSpaceByIdOrThrow(request.getSpaceId());
+            Restaurant restaurant = restaurantService.getRestaurantById(
+                            new ObjectId(space.getRestaurantId()))
+                    .orElseThrow(() -> new RestaurantNotFoundException(
+                            new ObjectId(space.getRestaurantId())));
+            return new Booking(space, restaurant, null);
+        });
+
+        // 2. Calculate end time and run validations (operating hours, time slot alignment, party size)
+        String endTime = stage(validateTimer, () -> {
+            String calculated = availabilityService.calculateEndTime(loaded.space(), request.getStartTime());
+            reservationValidator.validateReservationRequest(
+                    request, loaded.restaurant(), loaded.space(), LocalTime.parse(calculated));
+            return calculated;
+        });
+
+        // 3-4. Admit and persist (single attempt per retry)
+        Reservation reservation = retryPolicy.execute(
+                () -> doCreateReservation(request, loaded.space(), endTime),
+                attempts -> new ConcurrentModificationException(
+                        "Reservation", request.getSpaceId().toString(), attempts));
+
+        return new Booking(loaded.space(), loaded.restaurant(), reservation);
     }
 
     /**
      * Internal method to create reservation (single attempt).
      * Uses atomic capacity reservation to prevent overbooking under concurrent load.
      */
-    private Reservation doCreateReservation(CreateReservationRequest request) {
-        // 1. Get space
-        Space space = spaceService.getActiveSpaceByIdOrThrow(request.getSpaceId());
-
-        // 2. Get restaurant
-        Restaurant restaurant = restaurantService.getRestaurantById(
-                        new ObjectId(space.getRestaurantId()))
-                .orElseThrow(() -> new RestaurantNotFoundException(
-                        new ObjectId(space.getRestaurantId())));
-
-        // 3. Calculate end time
-        String endTime = availabilityService.calculateEndTime(space, request.getStartTime());
-        LocalTime endTimeLocal = LocalTime.parse(endTime);
-
-        // 4. Run validations (operating hours, time slot alignment, party size)
-        reservationValidator.validateReservationRequest(request, restaurant, space, endTimeLocal);
-
-        // 5. ATOMIC capacity reservation using findAndModify
+    private Reservation doCreateReservation(CreateReservationRequest request, Space space, String endTime) {
+        // ATOMIC capacity reservation using findAndModify
         // This is the critical section that prevents race conditions
-        boolean capacityReserved = slotCapacityService.tryReserveCapacity(
+        boolean capacityReserved = stage(admitTimer, () -> slotCapacityService.tryReserveCapacity(
                 space,
                 request.getReservationDate(),
                 request.getStartTime(),
                 endTime,
                 request.getPartySize()
-        );
+        ));
 
         if (!capacityReserved) {
             // Get current availability for error message
@@ -158,6 +219,7 @@ public class ReservationService {
                     request.getSpaceId(),
                     request.getReservationDate(),
                     request.getStartTime(),
+                    endTime,
                     space.getMaxCapacity()
             );
             throw new CapacityExceededException(
@@ -168,36 +230,43 @@ public class ReservationService {
             );
         }
 
-        // 6. Create and save reservation
+        // Create and save reservation
         // If this fails, we need to release the capacity
-        Reservation reservation;
-        try {
-            reservation = Reservation.builder()
-                    .restaurantId(new ObjectId(space.getRestaurantId()))
-                    .spaceId(request.getSpaceId())
-                    .reservationDate(request.getReservationDate())
-                    .startTime(request.getStartTime())
-                    .endTime(endTime)
-                    .partySize(request.getPartySize())
-                    .customerName(request.getCustomerName())
-                    .customerEmail(request.getCustomerEmail())
-                    .customerPhone(request.getCustomerPhone())
-                    .specialRequests(request.getSpecialRequests())
-                    .status(ReservationStatus.CONFIRMED)
-                    .build();
-
-            reservation = reservationRepository.save(reservation);
-        } catch (Exception e) {
-            // Release the reserved capacity on failure
-            logger.error("Failed to save reservation, releasing capacity", e);
-            slotCapacityService.releaseCapacity(
-                    request.getSpaceId(),
-                    request.getReservationDate(),
-                    request.getStartTime(),
-                    request.getPartySize()
-            );
-            throw e;
-        }
+        Reservation reservation = stage(persistTimer, () -> {
+            try {
+                Reservation created = Reservation.builder()
+                        .restaurantId(new ObjectId(space.getRestaurantId()))
+                        .spaceId(request.getSpaceId())
+                        .reservationDate(request.getReservationDate())
+                        .startTime(request.getStartTime())
+                        .endTime(endTime)
+                        .partySize(request.getPartySize())
+                        .customerName(request.getCustomerName())
+                        .customerEmail(request.getCustomerEmail())
+                        .customerPhone(request.getCustomerPhone())
+                        .specialRequests(request.getSpecialRequests())
+                        .status(ReservationStatus.CONFIRMED)
+                        .build();
+
+                return reservationRepository.save(created);
+            } catch (RuntimeException e) {
+                // Release the reserved capacity on failure
+                logger.error("Failed to save reservation, releasing capacity", e);
+                slotCapacityService.releaseCapacity(
+                        request.getSpaceId(),
+                        request.getReservationDate(),
+                        request.getStartTime(),
+                        endTime,
+                        request.getPartySize()
+                );
+                throw e;
+            }
+        });
+        snapshotService.recordBooked(reservation);
+        versionService.bump(reservation.getSpaceId(), reservation.getReservationDate());
+        rollupService.recordBooked(reservation);
+        reportCache.invalidate(reservation.getRestaurantId(), reservation.getSpaceId(),
+                reservation.getReservationDate());
 
         logger.info("Created reservation {} for {} guests at space {} on {}",
                 reservation.getId(), reservation.getPartySize(), reservation.getSpaceId(),
@@ -206,6 +275,22 @@ public class ReservationService {
         return reservation;
     }
 
+    private static <T> T stage(Timer timer, Supplier<T> body) {
+        return timer.record(body);
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("reservation.create.stage")
+                .description("Time spent in each stage of the booking pipeline")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    /**
+     * State carried between booking stages.
+     */
+    private record Booking(Space space, Restaurant restaurant, Reservation reservation) {}
+
     /**
      * Cancel a reservation.
      * Releases the reserved capacity back to the slot.
@@ -223,6 +308,7 @@ public class ReservationService {
                 reservation.getSpaceId(),
                 reservation.getReservationDate(),
                 reservation.getStartTime(),
+                reservation.getEndTime(),
                 reservation.getPartySize()
         );
 
@@ -231,6 +317,11 @@ public class ReservationService {
         reservation.setCancelledAt(LocalDateTime.now());
 
         reservationRepository.save(reservation);
+        snapshotService.recordReleased(reservation);
+        versionService.bump(reservation.getSpaceId(), reservation.getReservationDate());
+        rollupService.recordCancelled(reservation);
+        reportCache.invalidate(reservation.getRestaurantId(), reservation.getSpaceId(),
+                reservation.getReservationDate());
 
         logger.info("Cancelled reservation {} and released {} capacity",
                 reservationId, reservation.getPartySize());
@@ -259,6 +350,7 @@ public class ReservationService {
                         reservation.getSpaceId(),
                         reservation.getReservationDate(),
                         reservation.getStartTime(),
+                        reservation.getEndTime(),
                         reservation.getPartySize()
                 );
                 logger.info("Released {} capacity on delete for reservation {}",
@@ -266,6 +358,13 @@ public class ReservationService {
             }
 
             reservationRepository.deleteById(id);
+            if (reservation.getStatus() == ReservationStatus.CONFIRMED) {
+                snapshotService.recordReleased(reservation);
+                versionService.bump(reservation.getSpaceId(), reservation.getReservationDate());
+            }
+            rollupService.recordDeleted(reservation);
+            reportCache.invalidate(reservation.getRestaurantId(), reservation.getSpaceId(),
+                    reservation.getReservationDate());
             return true;
         }
         return false;
@@ -327,6 +426,14 @@ public class ReservationService {
         Space space = spaceService.getSpaceById(reservation.getSpaceId()).orElse(null);
         Restaurant restaurant = restaurantService.getRestaurantById(reservation.getRestaurantId()).orElse(null);
 
+        return toResponse(reservation, space, restaurant);
+    }
+
+    /**
+     * Convert Reservation entity to ReservationResponse DTO using an already loaded
+     * space and restaurant (either may be null).
+     */
+    public ReservationResponse toResponse(Reservation reservation, Space space, Restaurant restaurant) {
         return ReservationResponse.builder()
                 .id(reservation.getId().toHexString())
                 .spaceId(reservation.getSpaceId())
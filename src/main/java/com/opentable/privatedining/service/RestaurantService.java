@@ -1,5 +1,6 @@
 package com.opentable.privatedining.service;
 
+import com.opentable.privatedining.dto.response.CursorPageResponse;
 import com.opentable.privatedining.model.Restaurant;
 import com.opentable.privatedining.model.Space;
 import com.opentable.privatedining.repository.RestaurantRepository;
@@ -7,26 +8,45 @@ import com.opentable.privatedining.repository.SpaceRepository;
 import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Service for Restaurant management.
  * Spaces are now stored in a separate collection and managed via SpaceRepository.
+ * Lookups by ID go through {@link CatalogCache}; every write invalidates the cached entry
+ * and the restaurant's cached occupancy reports ({@link ReportCache}).
  */
 @Service
 public class RestaurantService {
 
+    /**
+     * Sort keys for cursor pagination, each backed by a { key: 1, _id: 1 } index.
+     */
+    private static final Map<String, KeysetPager.KeysetSort<Restaurant>> CURSOR_SORTS = Map.of(
+            "name", new KeysetPager.KeysetSort<>("name", Restaurant::getName, Restaurant::getId, name -> name));
+
     private final RestaurantRepository restaurantRepository;
     private final SpaceRepository spaceRepository;
+    private final CatalogCache catalogCache;
+    private final ReportCache reportCache;
+    private final KeysetPager keysetPager;
 
     public RestaurantService(RestaurantRepository restaurantRepository,
-                             SpaceRepository spaceRepository) {
+                             SpaceRepository spaceRepository,
+                             CatalogCache catalogCache,
+                             ReportCache reportCache,
+                             KeysetPager keysetPager) {
         this.restaurantRepository = restaurantRepository;
         this.spaceRepository = spaceRepository;
+        this.catalogCache = catalogCache;
+        this.reportCache = reportCache;
+        this.keysetPager = keysetPager;
     }
 
     public List<Restaurant> getAllRestaurants() {
@@ -40,19 +60,36 @@ public class RestaurantService {
         return restaurantRepository.findAll(pageable);
     }
 
+    /**
+     * Get restaurants a page at a time by cursor, without skip or count (see KeysetPager).
+     */
+    public CursorPageResponse<Restaurant> getRestaurantsByCursor(String cursor, int size, String sortBy,
+                                                                 Sort.Direction direction, boolean includeTotal) {
+        return keysetPager.page(Restaurant.class, CURSOR_SORTS, sortBy, direction, cursor, size, includeTotal);
+    }
+
     public Optional<Restaurant> getRestaurantById(ObjectId id) {
-        return restaurantRepository.findById(id);
+        return catalogCache.getRestaurant(id, restaurantRepository::findById);
+    }
+
+    public List<Restaurant> getActiveRestaurantsByCity(String city) {
+        return restaurantRepository.findByCityAndIsActiveTrue(city);
     }
 
     public Restaurant createRestaurant(Restaurant restaurant) {
-        return restaurantRepository.save(restaurant);
+        Restaurant saved = restaurantRepository.save(restaurant);
+        catalogCache.invalidateRestaurant(saved.getId());
+        return saved;
     }
 
     public Optional<Restaurant> updateRestaurant(ObjectId id, Restaurant restaurant) {
         Optional<Restaurant> existingRestaurant = restaurantRepository.findById(id);
         if (existingRestaurant.isPresent()) {
             restaurant.setId(id);
-            return Optional.of(restaurantRepository.save(restaurant));
+            Restaurant saved = restaurantRepository.save(restaurant);
+            catalogCache.invalidateRestaurant(id);
+            reportCache.invalidateRestaurant(id);
+            return Optional.of(saved);
         }
         return Optional.empty();
     }
@@ -61,6 +98,8 @@ public class RestaurantService {
         Optional<Restaurant> existingRestaurant = restaurantRepository.findById(id);
         if (existingRestaurant.isPresent()) {
             restaurantRepository.deleteById(id);
+            catalogCache.invalidateRestaurant(id);
+            reportCache.invalidateRestaurant(id);
             return true;
         }
         return false;
@@ -77,7 +116,10 @@ public class RestaurantService {
                 space.setId(UUID.randomUUID());
             }
             space.setRestaurantId(restaurantId.toHexString());
-            return Optional.of(spaceRepository.save(space));
+            Space saved = spaceRepository.save(space);
+            catalogCache.invalidateSpace(saved.getId());
+            reportCache.invalidateRestaurant(restaurantId);
+            return Optional.of(saved);
         }
         return Optional.empty();
     }
@@ -91,6 +133,8 @@ public class RestaurantService {
                 spaceId, restaurantId.toHexString());
         if (spaceOpt.isPresent()) {
             spaceRepository.deleteById(spaceId);
+            catalogCache.invalidateSpace(spaceId);
+            reportCache.invalidateRestaurant(restaurantId);
             return true;
         }
         return false;
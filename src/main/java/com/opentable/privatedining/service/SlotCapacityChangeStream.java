@@ -0,0 +1,332 @@
+package com.opentable.privatedining.service;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.opentable.privatedining.dto.response.SlotCapacityChange;
+import com.opentable.privatedining.model.SlotCapacity;
+import com.opentable.privatedining.model.SpaceDayCapacity;
+import com.opentable.privatedining.model.enums.CapacityMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes live slot capacity changes of a space-day to subscribers.
+ *
+ * ALGORITHM: One Change Stream, Coalescing Fan-Out
+ * ------------------------------------------------
+ * A single daemon thread watches the capacity collection with a Mongo change stream, so
+ * every admission and release is seen no matter which node applied it. Each change is
+ * routed by its space-day (the slot _id prefix "spaceId:date") to that day's subscribers;
+ * changes of days nobody watches are dropped without being decoded.
+ *
+ * Every subscriber has its own buffer of pending events keyed by slot start time. Events
+ * carry the slot's current state, so a newer event for a slot replaces the pending one:
+ *
+ *   pending: {18:00 -> booked 8}  + change 18:00 booked 12  ->  {18:00 -> booked 12}
+ *
+ * The buffer is drained only as fast as the subscriber's connection takes events, so a
+ * slow subscriber never blocks the watcher or other subscribers. If more than buffer-slots
+ * distinct slots are pending, the buffer is replaced by a single "resync" event and the
+ * subscriber reloads availability instead.
+ *
+ * In {@link CapacityMode#INTERVAL_BUCKETS} the space-day document is watched instead; it
+ * has no per-slot state, so every change is sent as a resync. Change streams require a
+ * replica set, so streaming is off by default. If the stream fails, changes may have been
+ * missed: every subscriber gets a resync before the stream is reopened.
+ */
+@Component
+public class SlotCapacityChangeStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotCapacityChangeStream.class);
+
+    private static final String SLOT_CAPACITIES = "slot_capacities";
+    private static final String SPACE_DAY_CAPACITIES = "space_day_capacities";
+
+    /**
+     * Length of the ":HH:mm" suffix that turns a space-day key into a slot ID.
+     */
+    private static final int SLOT_TIME_SUFFIX_LENGTH = 6;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int bufferSlots;
+    private final long retryDelayMs;
+    private final boolean intervalMode;
+    private final Counter resyncCounter;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private Thread watcher;
+    private volatile boolean running;
+
+    public SlotCapacityChangeStream(MongoTemplate mongoTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.availability.stream.enabled:false}") boolean enabled,
+                                    @Value("${app.availability.stream.buffer-slots:96}") int bufferSlots,
+                                    @Value("${app.availability.stream.retry-delay-ms:1000}") long retryDelayMs,
+                                    @Value("${app.capacity.mode:SLOT_UPSERT}") CapacityMode capacityMode) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.bufferSlots = bufferSlots;
+        this.retryDelayMs = retryDelayMs;
+        this.intervalMode = capacityMode == CapacityMode.INTERVAL_BUCKETS;
+        this.resyncCounter = Counter.builder("availability.stream.resyncs")
+                .description("Resync events sent to stream subscribers instead of slot changes")
+                .register(meterRegistry);
+        Gauge.builder("availability.stream.subscribers", subscribers,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .description("Open live slot capacity subscriptions")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        String collection = intervalMode ? SPACE_DAY_CAPACITIES : SLOT_CAPACITIES;
+        watcher = new Thread(() -> watch(collection), "capacity-watch-" + collection);
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Live slot capacity stream enabled on {}", collection);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+        subscribers.values().forEach(day -> day.forEach(subscriber -> subscriber.sink.complete()));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Subscribe to the capacity changes of a space-day.
+     * The returned flux never completes on its own; it ends when the subscriber cancels.
+     *
+     * @param spaceId The space ID
+     * @param date The date
+     * @return Slot and resync events for the space-day
+     */
+    public Flux<SlotCapacityChange> subscribe(UUID spaceId, LocalDate date) {
+        String dayKey = SpaceDayCapacity.generateId(spaceId, date);
+        return Flux.create(sink -> {
+            Subscriber subscriber = new Subscriber(spaceId, date, sink);
+            subscribers.computeIfAbsent(dayKey, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            sink.onRequest(requested -> subscriber.drain());
+            sink.onDispose(() -> subscribers.computeIfPresent(dayKey, (key, day) -> {
+                day.remove(subscriber);
+                return day.isEmpty() ? null : day;
+            }));
+        });
+    }
+
+    /**
+     * Route a slot's new state to the subscribers of its space-day.
+     */
+    void publish(SlotCapacity slot) {
+        Set<Subscriber> day = subscribers.get(dayKeyOfSlot(slot.getId()));
+        if (day == null) {
+            return;
+        }
+        SlotCapacityChange change = SlotCapacityChange.of(slot);
+        day.forEach(subscriber -> subscriber.offer(change));
+    }
+
+    /**
+     * Tell the subscribers of a space-day, or of every day when dayKey is null, to reload.
+     */
+    void resync(String dayKey) {
+        if (dayKey == null) {
+            subscribers.values().forEach(day -> day.forEach(Subscriber::resync));
+            return;
+        }
+        Set<Subscriber> day = subscribers.get(dayKey);
+        if (day != null) {
+            day.forEach(Subscriber::resync);
+        }
+    }
+
+    private static String dayKeyOfSlot(String slotId) {
+        return slotId.length() > SLOT_TIME_SUFFIX_LENGTH
+                ? slotId.substring(0, slotId.length() - SLOT_TIME_SUFFIX_LENGTH)
+                : slotId;
+    }
+
+    private void watch(String collection) {
+        boolean slots = SLOT_CAPACITIES.equals(collection);
+        BsonDocument resumeToken = null;
+        while (running) {
+            var stream = mongoTemplate.getCollection(collection)
+                    .watch(List.of(Aggregates.match(
+                            Filters.in("operationType", List.of("insert", "update", "replace")))))
+                    .fullDocument(slots ? FullDocument.UPDATE_LOOKUP : FullDocument.DEFAULT);
+            if (resumeToken != null) {
+                stream = stream.resumeAfter(resumeToken);
+            }
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change == null) {
+                        continue;
+                    }
+                    resumeToken = change.getResumeToken();
+                    BsonDocument key = change.getDocumentKey();
+                    if (key == null || !key.isString("_id")) {
+                        continue;
+                    }
+                    String id = key.getString("_id").getValue();
+                    if (!slots) {
+                        resync(id);
+                    } else if (subscribers.containsKey(dayKeyOfSlot(id))) {
+                        Document document = change.getFullDocument();
+                        if (document != null) {
+                            publish(mongoTemplate.getConverter().read(SlotCapacity.class, document));
+                        } else {
+                            resync(dayKeyOfSlot(id));
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Capacity change stream on {} failed, resyncing subscribers and reconnecting: {}",
+                        collection, e.getMessage());
+                resync(null);
+                resumeToken = null;
+                try {
+                    TimeUnit.MILLISECONDS.sleep(retryDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * One subscription with its coalescing buffer, drained on demand.
+     *
+     * The lock only guards the buffer; events are emitted outside it, so a slow downstream
+     * write never runs while holding a lock (nor pins a virtual thread). The work-in-progress
+     * counter lets one thread at a time drain: a thread that finds a drain running just bumps
+     * the counter, and the draining thread loops once more before it stops.
+     */
+    private final class Subscriber {
+
+        private final UUID spaceId;
+        private final LocalDate date;
+        private final FluxSink<SlotCapacityChange> sink;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, SlotCapacityChange> pending = new LinkedHashMap<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        private boolean resyncPending;
+
+        Subscriber(UUID spaceId, LocalDate date, FluxSink<SlotCapacityChange> sink) {
+            this.spaceId = spaceId;
+            this.date = date;
+            this.sink = sink;
+        }
+
+        void offer(SlotCapacityChange change) {
+            lock.lock();
+            try {
+                if (!resyncPending) {
+                    // Re-inserting moves the slot to the back, so slots are sent in order of their last change
+                    pending.remove(change.getStartTime());
+                    pending.put(change.getStartTime(), change);
+                    if (pending.size() > bufferSlots) {
+                        pending.clear();
+                        resyncPending = true;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            drain();
+        }
+
+        void resync() {
+            lock.lock();
+            try {
+                pending.clear();
+                resyncPending = true;
+            } finally {
+                lock.unlock();
+            }
+            drain();
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!sink.isCancelled() && sink.requestedFromDownstream() > 0) {
+                    SlotCapacityChange next = poll();
+                    if (next == null) {
+                        break;
+                    }
+                    sink.next(next);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * Take the next event to send: a pending resync first, then the oldest slot change.
+         */
+        private SlotCapacityChange poll() {
+            lock.lock();
+            try {
+                if (resyncPending) {
+                    resyncPending = false;
+                    resyncCounter.increment();
+                    return SlotCapacityChange.resync(spaceId, date);
+                }
+                if (pending.isEmpty()) {
+                    return null;
+                }
+                Iterator<SlotCapacityChange> next = pending.values().iterator();
+                SlotCapacityChange change = next.next();
+                next.remove();
+                return change;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.SlotCapacity;
+import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.enums.ReservationStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional in-process capacity ledger that admits bookings without a Mongo round trip.
+ *
+ * ALGORITHM: Space-Striped Ledger with Lock-Free Admission and Write-Behind
+ * --------------------------------------------------------------------------
+ * Spaces are partitioned across nodes by {@code floorMod(spaceId.hashCode(), shardCount)}.
+ * A node only admits bookings for the spaces of its own shard; every other space
+ * falls through to the Mongo path in {@link SlotCapacityService}.
+ *
+ * Within the owned shard, each (spaceId, date, startTime) slot is a primitive counter
+ * updated with a compare-and-set loop:
+ *   current = booked.get()
+ *   if current + partySize > maxCapacity -> reject
+ *   if CAS(current, current + partySize) -> admitted, otherwise re-read and retry
+ * The CAS only succeeds against the value the capacity check was made on, so two
+ * concurrent admissions can never both pass a check against the same remaining room.
+ *
+ * Durability:
+ * - Every change marks the slot dirty; a single flusher thread periodically writes the
+ *   absolute counter value to slot_capacities (last value wins), stamped with a new
+ *   version like any other capacity change.
+ * - On startup the ledger is rebuilt from confirmed reservations rather than from
+ *   slot_capacities, because reservations are the source of truth and write-behind
+ *   may have been cut short by a crash.
+ *
+ * Deployment requirement: booking traffic for a space must be routed to the node that
+ * owns its shard, otherwise two nodes would admit against different counters.
+ */
+@Component
+public class SlotCapacityLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotCapacityLedger.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final AvailabilityVersionService versionService;
+    private final boolean enabled;
+    private final int shardCount;
+    private final int shardIndex;
+    private final long flushIntervalMs;
+
+    /**
+     * Slots striped by space: spaceId -> (date:startTime -> slot).
+     */
+    private final Map<UUID, Map<String, LedgerSlot>> stripes = new ConcurrentHashMap<>();
+    private final Set<LedgerSlot> dirtySlots = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService flusher;
+
+    public SlotCapacityLedger(MongoTemplate mongoTemplate,
+                              AvailabilityVersionService versionService,
+                              @Value("${app.capacity.ledger.enabled:false}") boolean enabled,
+                              @Value("${app.capacity.ledger.shard-count:1}") int shardCount,
+                              @Value("${app.capacity.ledger.shard-index:0}") int shardIndex,
+                              @Value("${app.capacity.ledger.flush-interval-ms:200}") long flushIntervalMs) {
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid ledger shard configuration: index %d of %d", shardIndex, shardCount));
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.versionService = versionService;
+        this.enabled = enabled;
+        this.shardCount = shardCount;
+        this.shardIndex = shardIndex;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        rebuild();
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "slot-ledger-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly,
+                flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Slot capacity ledger enabled for shard {}/{} (flush every {} ms)",
+                shardIndex, shardCount, flushIntervalMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Whether this node admits bookings for the given space.
+     */
+    public boolean owns(UUID spaceId) {
+        return enabled && Math.floorMod(spaceId.hashCode(), shardCount) == shardIndex;
+    }
+
+    /**
+     * Atomically try to admit a party into a slot.
+     *
+     * @return true if the party fits and was added to the slot counter
+     */
+    public boolean tryReserve(Space space, LocalDate date, String startTime,
+                              String endTime, int partySize) {
+        LedgerSlot slot = slotFor(space.getId(), date, startTime, endTime);
+        int maxCapacity = space.getMaxCapacity();
+        slot.maxCapacity = maxCapacity;
+
+        while (true) {
+            int current = slot.booked.get();
+            if (current + partySize > maxCapacity) {
+                logger.debug("Ledger rejected {} for slot {} (booked {}/{})",
+                        partySize, slot.slotId, current, maxCapacity);
+                return false;
+            }
+            if (slot.booked.compareAndSet(current, current + partySize)) {
+                dirtySlots.add(slot);
+                logger.debug("Ledger reserved {} for slot {} (new total: {})",
+                        partySize, slot.slotId, current + partySize);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a party from a slot. The counter never drops below zero.
+     */
+    public void release(UUID spaceId, LocalDate date, String startTime, int partySize) {
+        LedgerSlot slot = findSlot(spaceId, date, startTime);
+        if (slot == null) {
+            return;
+        }
+        while (true) {
+            int current = slot.booked.get();
+            int updated = Math.max(0, current - partySize);
+            if (slot.booked.compareAndSet(current, updated)) {
+                dirtySlots.add(slot);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Current booked capacity of a slot as seen by this node.
+     */
+    public int getBooked(UUID spaceId, LocalDate date, String startTime) {
+        LedgerSlot slot = findSlot(spaceId, date, startTime);
+        return slot != null ? slot.booked.get() : 0;
+    }
+
+    /**
+     * Write every dirty slot to slot_capacities.
+     * A slot is removed from the dirty set before its value is read, so a change racing
+     * with the flush re-marks it and is picked up by the next flush. The availability
+     * versions of the space-days written are bumped afterwards, even when the flush fails
+     * part way.
+     */
+    public void flush() {
+        Set<AvailabilityVersionService.SpaceDay> written = new HashSet<>();
+        try {
+            for (LedgerSlot slot : dirtySlots) {
+                if (!dirtySlots.remove(slot)) {
+                    continue;
+                }
+                try {
+                    writeSlot(slot);
+                } catch (RuntimeException e) {
+                    dirtySlots.add(slot);
+                    throw e;
+                }
+                written.add(new AvailabilityVersionService.SpaceDay(slot.spaceId, slot.date));
+            }
+        } finally {
+            versionService.bump(written);
+        }
+        evictPastSlots();
+    }
+
+    /**
+     * Rebuild the owned shard from confirmed reservations for today onwards.
+     * Replaces all counters, so it is meant for startup and maintenance windows only.
+     */
+    public void rebuild() {
+        TypedAggregation<Reservation> aggregation = Aggregation.newAggregation(Reservation.class,
+                Aggregation.match(Criteria.where("status").is(ReservationStatus.CONFIRMED)
+                        .and("reservationDate").gte(LocalDate.now())),
+                Aggregation.group("spaceId", "reservationDate", "startTime")
+                        .sum("partySize").as("booked")
+                        .first("endTime").as("endTime"));
+
+        List<SlotTotal> totals = mongoTemplate.aggregate(aggregation, SlotTotal.class).getMappedResults();
+
+        stripes.clear();
+        dirtySlots.clear();
+        int loaded = 0;
+        for (SlotTotal total : totals) {
+            SlotKey key = total.getId();
+            if (key == null || key.getSpaceId() == null || !owns(key.getSpaceId())) {
+                continue;
+            }
+            LedgerSlot slot = slotFor(key.getSpaceId(), key.getReservationDate(),
+                    key.getStartTime(), total.getEndTime());
+            slot.booked.set(total.getBooked());
+            loaded++;
+        }
+        logger.info("Rebuilt slot capacity ledger with {} slots from reservations", loaded);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Slot capacity ledger flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private void writeSlot(LedgerSlot slot) {
+        Query query = new Query(Criteria.where("_id").is(slot.slotId));
+        Update update = new Update()
+                .set("spaceId", slot.spaceId)
+                .set("date", slot.date)
+                .set("startTime", slot.startTime)
+                .set("endTime", slot.endTime)
+                .set("bookedCapacity", slot.booked.get())
+                .inc("version", 1)
+                .currentDate("changedAt");
+        if (slot.maxCapacity > 0) {
+            update.set("maxCapacity", slot.maxCapacity);
+        }
+        mongoTemplate.upsert(query, update, SlotCapacity.class);
+    }
+
+    private void evictPastSlots() {
+        LocalDate today = LocalDate.now();
+        stripes.values().forEach(stripe ->
+                stripe.values().removeIf(slot -> slot.date.isBefore(today) && !dirtySlots.contains(slot)));
+    }
+
+    private LedgerSlot slotFor(UUID spaceId, LocalDate date, String startTime, String endTime) {
+        return stripes.computeIfAbsent(spaceId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(slotKey(date, startTime),
+                        key -> new LedgerSlot(spaceId, date, startTime, endTime));
+    }
+
+    private LedgerSlot findSlot(UUID spaceId, LocalDate date, String startTime) {
+        Map<String, LedgerSlot> stripe = stripes.get(spaceId);
+        return stripe != null ? stripe.get(slotKey(date, startTime)) : null;
+    }
+
+    private static String slotKey(LocalDate date, String startTime) {
+        return date + ":" + startTime;
+    }
+
+    /**
+     * In-memory counter for a single slot.
+     */
+    private static final class LedgerSlot {
+        private final String slotId;
+        private final UUID spaceId;
+        private final LocalDate date;
+        private final String startTime;
+        private final String endTime;
+        private final AtomicInteger booked = new AtomicInteger();
+        private volatile int maxCapacity;
+
+        private LedgerSlot(UUID spaceId, LocalDate date, String startTime, String endTime) {
+            this.slotId = SlotCapacity.generateId(spaceId, date, startTime);
+            this.spaceId = spaceId;
+            this.date = date;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+    }
+
+    /**
+     * Aggregation result for booked capacity per slot.
+     */
+    @Data
+    public static class SlotTotal {
+        private SlotKey id;
+        private int booked;
+        private String endTime;
+    }
+
+    /**
+     * Group key of {@link SlotTotal}.
+     */
+    @Data
+    public static class SlotKey {
+        private UUID spaceId;
+        private LocalDate reservationDate;
+        private String startTime;
+    }
+}
@@ -1,11 +1,19 @@
 package com.opentable.privatedining.service;
 
+import com.mongodb.bulk.BulkWriteError;
 import com.opentable.privatedining.model.SlotCapacity;
 import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.SpaceDayCapacity;
+import com.opentable.privatedining.model.enums.CapacityMode;
 import com.opentable.privatedining.repository.SlotCapacityRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
@@ -14,6 +22,10 @@ import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,13 +38,27 @@ public class SlotCapacityService {
 
     private static final Logger logger = LoggerFactory.getLogger(SlotCapacityService.class);
 
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
     private final SlotCapacityRepository slotCapacityRepository;
     private final MongoTemplate mongoTemplate;
+    private final SlotCapacityLedger ledger;
+    private final AvailabilityVersionService versionService;
+    private final MeterRegistry meterRegistry;
+    private final CapacityMode capacityMode;
 
     public SlotCapacityService(SlotCapacityRepository slotCapacityRepository,
-                               MongoTemplate mongoTemplate) {
+                               MongoTemplate mongoTemplate,
+                               SlotCapacityLedger ledger,
+                               AvailabilityVersionService versionService,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.capacity.mode:SLOT_UPSERT}") CapacityMode capacityMode) {
         this.slotCapacityRepository = slotCapacityRepository;
         this.mongoTemplate = mongoTemplate;
+        this.ledger = ledger;
+        this.versionService = versionService;
+        this.meterRegistry = meterRegistry;
+        this.capacityMode = capacityMode;
     }
 
     /**
@@ -56,6 +82,16 @@ public class SlotCapacityService {
      *   Only ONE thread's condition will succeed (whoever arrives first)
      *   Second thread gets null result = booking rejected
      *
+     * When the in-process {@link SlotCapacityLedger} is enabled and owns the space,
+     * admission is a lock-free CAS on the ledger counter instead (no Mongo round trip).
+     * With {@link CapacityMode#SLOT_SINGLE_ROUND_TRIP} the slot upsert and the guarded
+     * increment are merged, see {@link #reserveInSingleRoundTrip}. With
+     * {@link CapacityMode#INTERVAL_BUCKETS} capacity is tracked per time bucket of the
+     * space-day instead of per start time, see {@link #reserveIntervalBuckets}.
+     *
+     * Every admission attempt records its Mongo round trips in the
+     * "capacity.reservation.round.trips" distribution summary (tags: mode, outcome).
+     *
      * @param space The space
      * @param date The reservation date
      * @param startTime The start time
@@ -65,9 +101,23 @@ public class SlotCapacityService {
      */
     public boolean tryReserveCapacity(Space space, LocalDate date, String startTime,
                                        String endTime, int partySize) {
+        if (capacityMode == CapacityMode.INTERVAL_BUCKETS) {
+            return reserveIntervalBuckets(space, date, startTime, endTime, partySize);
+        }
+
+        if (ledger.owns(space.getId())) {
+            boolean reserved = ledger.tryReserve(space, date, startTime, endTime, partySize);
+            recordRoundTrips("ledger", 0, reserved);
+            return reserved;
+        }
+
         String slotId = SlotCapacity.generateId(space.getId(), date, startTime);
         int maxCapacity = space.getMaxCapacity();
 
+        if (capacityMode == CapacityMode.SLOT_SINGLE_ROUND_TRIP) {
+            return reserveInSingleRoundTrip(slotId, space, date, startTime, endTime, partySize);
+        }
+
         // First, ensure the slot capacity document exists (idempotent upsert)
         ensureSlotExists(slotId, space.getId(), date, startTime, endTime, maxCapacity);
 
@@ -77,7 +127,7 @@ public class SlotCapacityService {
         Query query = new Query(Criteria.where("_id").is(slotId)
                 .and("bookedCapacity").lte(maxCapacity - partySize));  // Only update if room available
 
-        Update update = new Update().inc("bookedCapacity", partySize);
+        Update update = slotIncrement(partySize);
 
         // MongoDB findAndModify guarantees atomicity: if condition fails, returns null
         SlotCapacity result = mongoTemplate.findAndModify(
@@ -87,6 +137,7 @@ public class SlotCapacityService {
                 SlotCapacity.class
         );
 
+        recordRoundTrips(capacityMode, 2, result != null);
         if (result != null) {
             logger.debug("Reserved {} capacity for slot {} (new total: {})",
                     partySize, slotId, result.getBookedCapacity());
@@ -98,6 +149,367 @@ public class SlotCapacityService {
         }
     }
 
+    /**
+     * Admit a booking with one findAndModify that both creates and increments the slot.
+     *
+     * ALGORITHM: Guarded Upsert with Duplicate-Key Fallback
+     * -----------------------------------------------------
+     * Query:  { _id: slotId, bookedCapacity: { $lte: maxCapacity - partySize } }
+     * Update: { $inc: { bookedCapacity: partySize }, $setOnInsert: { slot metadata } }
+     * Upsert: true
+     *
+     * Outcomes:
+     * 1. Slot exists and has room  -> matched and incremented (1 round trip)
+     * 2. Slot does not exist yet   -> inserted with bookedCapacity = partySize (1 round trip)
+     * 3. Slot exists but is full   -> the guard does not match, so the upsert tries to
+     *    insert a second document with the same _id and fails with a duplicate key.
+     *    The same guarded increment is retried without upsert (2 round trips).
+     *
+     * Case 3 also covers two first bookings racing to insert the slot: the loser falls
+     * back to the guarded increment against the winner's document, so the capacity
+     * check is never skipped. Steady-state admissions therefore take exactly one trip.
+     */
+    private boolean reserveInSingleRoundTrip(String slotId, Space space, LocalDate date,
+                                             String startTime, String endTime, int partySize) {
+        int maxCapacity = space.getMaxCapacity();
+        if (partySize > maxCapacity) {
+            recordRoundTrips(capacityMode, 0, false);
+            return false;
+        }
+
+        Query query = guardedSlotQuery(slotId, maxCapacity, partySize);
+        Update upsert = slotUpsert(space, date, startTime, endTime, partySize);
+
+        try {
+            SlotCapacity result = mongoTemplate.findAndModify(
+                    query,
+                    upsert,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    SlotCapacity.class
+            );
+            recordRoundTrips(capacityMode, 1, true);
+            logger.debug("Reserved {} capacity for slot {} in one round trip (new total: {})",
+                    partySize, slotId, result != null ? result.getBookedCapacity() : partySize);
+            return true;
+        } catch (DuplicateKeyException e) {
+            SlotCapacity result = mongoTemplate.findAndModify(
+                    query,
+                    slotIncrement(partySize),
+                    FindAndModifyOptions.options().returnNew(true),
+                    SlotCapacity.class
+            );
+            recordRoundTrips(capacityMode, 2, result != null);
+            if (result == null) {
+                logger.debug("Failed to reserve {} capacity for slot {} - insufficient capacity",
+                        partySize, slotId);
+            }
+            return result != null;
+        }
+    }
+
+    /**
+     * Admit a booking against every time bucket its window covers, in one update.
+     *
+     * ALGORITHM: Bucketed Interval Admission
+     * --------------------------------------
+     * The space-day is divided into {@link SpaceDayCapacity#BUCKET_MINUTES}-minute buckets.
+     * A booking for [start, end) covers k = ceil((end - start) / bucket) buckets, and is
+     * admitted only if none of them would exceed capacity:
+     *
+     * Query:  { _id: spaceId:date, buckets.b1: { $not: { $gt: max - party } }, ..., buckets.bk: ... }
+     * Update: { $inc: { buckets.b1: party, ..., buckets.bk: party }, $setOnInsert: { metadata } }
+     * Upsert: true
+     *
+     * $not/$gt also matches buckets that do not exist yet (nothing booked). The guard and
+     * the increments are applied to one document atomically, so two overlapping bookings
+     * can never both pass against the same remaining room, whatever their start times.
+     * Cost is O(k) per booking with k = 18 for a 90-minute window, and one round trip;
+     * a full day falls back exactly like {@link #reserveInSingleRoundTrip}.
+     */
+    private boolean reserveIntervalBuckets(Space space, LocalDate date, String startTime,
+                                           String endTime, int partySize) {
+        int maxCapacity = space.getMaxCapacity();
+        if (partySize > maxCapacity) {
+            recordRoundTrips(capacityMode, 0, false);
+            return false;
+        }
+
+        String dayId = SpaceDayCapacity.generateId(space.getId(), date);
+        List<String> bucketKeys = SpaceDayCapacity.bucketKeys(startTime, endTime);
+
+        Query query = guardedBucketQuery(dayId, bucketKeys, maxCapacity, partySize);
+        Update upsert = bucketUpsert(space, date, bucketKeys, partySize);
+
+        try {
+            mongoTemplate.upsert(query, upsert, SpaceDayCapacity.class);
+            recordRoundTrips(capacityMode, 1, true);
+            logger.debug("Reserved {} capacity for {} {}-{} across {} buckets",
+                    partySize, dayId, startTime, endTime, bucketKeys.size());
+            return true;
+        } catch (DuplicateKeyException e) {
+            boolean reserved = mongoTemplate.updateFirst(
+                    query, bucketIncrement(bucketKeys, partySize), SpaceDayCapacity.class)
+                    .getModifiedCount() > 0;
+            recordRoundTrips(capacityMode, 2, reserved);
+            if (!reserved) {
+                logger.debug("Failed to reserve {} capacity for {} {}-{} - insufficient capacity",
+                        partySize, dayId, startTime, endTime);
+            }
+            return reserved;
+        }
+    }
+
+    private void releaseIntervalBuckets(UUID spaceId, LocalDate date, String startTime,
+                                        String endTime, int partySize) {
+        String dayId = SpaceDayCapacity.generateId(spaceId, date);
+        List<String> bucketKeys = SpaceDayCapacity.bucketKeys(startTime, endTime);
+
+        Query query = new Query(Criteria.where("_id").is(dayId));
+        bucketKeys.forEach(key -> query.fields().include("buckets." + key));
+
+        SpaceDayCapacity result = mongoTemplate.findAndModify(
+                query,
+                bucketIncrement(bucketKeys, -partySize),
+                FindAndModifyOptions.options().returnNew(true),
+                SpaceDayCapacity.class
+        );
+
+        if (result == null || result.getBuckets() == null) {
+            return;
+        }
+        logger.debug("Released {} capacity for {} {}-{}", partySize, dayId, startTime, endTime);
+
+        // Ensure no bucket goes negative (safety check)
+        Update fixUpdate = new Update();
+        for (Map.Entry<String, Integer> bucket : result.getBuckets().entrySet()) {
+            if (bucket.getValue() != null && bucket.getValue() < 0) {
+                fixUpdate.max("buckets." + bucket.getKey(), 0);
+            }
+        }
+        if (!fixUpdate.getUpdateObject().isEmpty()) {
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(dayId)), fixUpdate,
+                    SpaceDayCapacity.class);
+            logger.warn("Fixed negative bucket capacity for {}", dayId);
+        }
+    }
+
+    private int getIntervalBookedCapacity(UUID spaceId, LocalDate date, String startTime, String endTime) {
+        SpaceDayCapacity day = mongoTemplate.findById(
+                SpaceDayCapacity.generateId(spaceId, date), SpaceDayCapacity.class);
+        return day != null ? day.getPeakBookedCapacity(startTime, endTime) : 0;
+    }
+
+    /**
+     * Admit a batch of bookings with ordered bulkWrites, in claim order.
+     *
+     * ALGORITHM: Ordered Bulk Guarded Upserts
+     * ---------------------------------------
+     * Every claim becomes the same guarded upsert used for single bookings
+     * ({@link #reserveInSingleRoundTrip} or {@link #reserveIntervalBuckets}). The
+     * batch is sent as one ordered bulkWrite, so the server applies the operations in
+     * claim order and claims on the same slot are checked against each other in that
+     * order. An ordered bulkWrite stops at the first write error; that claim is resolved
+     * on its own and the rest of the batch is sent again from the next claim.
+     *
+     * Per-claim outcome:
+     * - No write error    -> matched or inserted, so admitted
+     * - Duplicate key     -> guard failed against an existing document; retried on its
+     *                        own with the guarded increment (no upsert)
+     * - Any other error   -> not admitted
+     *
+     * Round trips: 1 when no claim collides, plus 2 per colliding claim.
+     *
+     * Claims for spaces owned by the in-process ledger are admitted there instead.
+     * The batch always uses the guarded upsert, also in {@link CapacityMode#SLOT_UPSERT}.
+     *
+     * If the batch fails without per-operation results (e.g. a socket timeout), every
+     * claim known to be admitted is released and the exception is rethrown. Operations
+     * whose outcome is unknown are not released, as for a single booking whose upsert
+     * times out.
+     *
+     * @param claims Claims in the order they should be admitted
+     * @return admitted flag per claim, index-aligned with claims
+     */
+    public boolean[] tryReserveCapacityBatch(List<CapacityClaim> claims) {
+        boolean[] admitted = new boolean[claims.size()];
+        boolean intervalMode = capacityMode == CapacityMode.INTERVAL_BUCKETS;
+        Class<?> entityClass = intervalMode ? SpaceDayCapacity.class : SlotCapacity.class;
+
+        List<Integer> bulkClaims = new ArrayList<>();
+        List<Query> guards = new ArrayList<>();
+        List<Update> upserts = new ArrayList<>();
+        List<Update> increments = new ArrayList<>();
+
+        for (int i = 0; i < claims.size(); i++) {
+            CapacityClaim claim = claims.get(i);
+            Space space = claim.space();
+            int maxCapacity = space.getMaxCapacity();
+
+            if (!intervalMode && ledger.owns(space.getId())) {
+                admitted[i] = ledger.tryReserve(space, claim.date(), claim.startTime(),
+                        claim.endTime(), claim.partySize());
+                continue;
+            }
+            if (claim.partySize() > maxCapacity) {
+                continue;
+            }
+
+            Query query;
+            Update upsert;
+            Update increment;
+            if (intervalMode) {
+                List<String> bucketKeys = SpaceDayCapacity.bucketKeys(claim.startTime(), claim.endTime());
+                query = guardedBucketQuery(SpaceDayCapacity.generateId(space.getId(), claim.date()),
+                        bucketKeys, maxCapacity, claim.partySize());
+                upsert = bucketUpsert(space, claim.date(), bucketKeys, claim.partySize());
+                increment = bucketIncrement(bucketKeys, claim.partySize());
+            } else {
+                query = guardedSlotQuery(SlotCapacity.generateId(space.getId(), claim.date(), claim.startTime()),
+                        maxCapacity, claim.partySize());
+                upsert = slotUpsert(space, claim.date(), claim.startTime(), claim.endTime(), claim.partySize());
+                increment = slotIncrement(claim.partySize());
+            }
+
+            bulkClaims.add(i);
+            guards.add(query);
+            upserts.add(upsert);
+            increments.add(increment);
+        }
+
+        int bulkWrites = 0;
+        try {
+            int next = 0;
+            while (next < bulkClaims.size()) {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, entityClass);
+                for (int op = next; op < bulkClaims.size(); op++) {
+                    bulk.upsert(guards.get(op), upserts.get(op));
+                }
+                bulkWrites++;
+
+                // Operations before the first error were applied, the ones after it were not
+                int failed = bulkClaims.size();
+                int errorCode = 0;
+                try {
+                    bulk.execute();
+                } catch (BulkOperationException e) {
+                    BulkWriteError error = e.getErrors().stream()
+                            .min(Comparator.comparingInt(BulkWriteError::getIndex))
+                            .orElseThrow(() -> e);
+                    failed = next + error.getIndex();
+                    errorCode = error.getCode();
+                }
+                for (int op = next; op < failed; op++) {
+                    admitted[bulkClaims.get(op)] = true;
+                }
+                if (failed < bulkClaims.size()) {
+                    int claimIndex = bulkClaims.get(failed);
+                    if (errorCode == DUPLICATE_KEY_ERROR) {
+                        admitted[claimIndex] = mongoTemplate.updateFirst(
+                                guards.get(failed), increments.get(failed), entityClass).getModifiedCount() > 0;
+                    } else {
+                        logger.warn("Batch capacity claim {} failed with error code {}", claimIndex, errorCode);
+                    }
+                }
+                next = failed + 1;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Batch capacity admission failed, releasing {} admitted claims",
+                    countAdmitted(admitted), e);
+            releaseAdmitted(claims, admitted);
+            throw e;
+        }
+
+        logger.debug("Batch admitted {} of {} capacity claims ({} bulk operations in {} bulk writes)",
+                countAdmitted(admitted), claims.size(), bulkClaims.size(), bulkWrites);
+        return admitted;
+    }
+
+    private void releaseAdmitted(List<CapacityClaim> claims, boolean[] admitted) {
+        for (int i = 0; i < claims.size(); i++) {
+            if (admitted[i]) {
+                CapacityClaim claim = claims.get(i);
+                try {
+                    releaseCapacity(claim.space().getId(), claim.date(), claim.startTime(),
+                            claim.endTime(), claim.partySize());
+                } catch (RuntimeException e) {
+                    logger.error("Failed to release batch capacity claim {}", i, e);
+                }
+            }
+        }
+    }
+
+    private static int countAdmitted(boolean[] admitted) {
+        int count = 0;
+        for (boolean value : admitted) {
+            if (value) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Query guardedSlotQuery(String slotId, int maxCapacity, int partySize) {
+        return new Query(Criteria.where("_id").is(slotId)
+                .and("bookedCapacity").lte(maxCapacity - partySize));
+    }
+
+    private static Update slotUpsert(Space space, LocalDate date, String startTime,
+                                     String endTime, int partySize) {
+        return slotIncrement(partySize)
+                .setOnInsert("spaceId", space.getId())
+                .setOnInsert("date", date)
+                .setOnInsert("startTime", startTime)
+                .setOnInsert("endTime", endTime)
+                .setOnInsert("maxCapacity", space.getMaxCapacity());
+    }
+
+    private static Query guardedBucketQuery(String dayId, List<String> bucketKeys,
+                                            int maxCapacity, int partySize) {
+        Criteria criteria = Criteria.where("_id").is(dayId);
+        for (String key : bucketKeys) {
+            criteria.and("buckets." + key).not().gt(maxCapacity - partySize);
+        }
+        return new Query(criteria);
+    }
+
+    private static Update bucketUpsert(Space space, LocalDate date, List<String> bucketKeys, int partySize) {
+        return bucketIncrement(bucketKeys, partySize)
+                .setOnInsert("spaceId", space.getId())
+                .setOnInsert("date", date)
+                .setOnInsert("maxCapacity", space.getMaxCapacity());
+    }
+
+    private static Update bucketIncrement(List<String> bucketKeys, int delta) {
+        Update update = new Update();
+        bucketKeys.forEach(key -> update.inc("buckets." + key, delta));
+        return stamped(update);
+    }
+
+    private static Update slotIncrement(int delta) {
+        return stamped(new Update().inc("bookedCapacity", delta));
+    }
+
+    /**
+     * Bump the document's version and change time in the same update that moves its capacity,
+     * so change stream subscribers see every admission, release and rewrite as a new version.
+     */
+    private static Update stamped(Update update) {
+        return update.inc("version", 1).currentDate("changedAt");
+    }
+
+    private void recordRoundTrips(CapacityMode mode, int roundTrips, boolean admitted) {
+        recordRoundTrips(mode.name().toLowerCase(), roundTrips, admitted);
+    }
+
+    private void recordRoundTrips(String mode, int roundTrips, boolean admitted) {
+        DistributionSummary.builder("capacity.reservation.round.trips")
+                .description("Mongo round trips taken to admit or reject a booking")
+                .tag("mode", mode)
+                .tag("outcome", admitted ? "admitted" : "rejected")
+                .register(meterRegistry)
+                .record(roundTrips);
+    }
+
     /**
      * Release capacity when a reservation is cancelled.
      *
@@ -107,10 +519,38 @@ public class SlotCapacityService {
      * @param partySize The party size to release
      */
     public void releaseCapacity(UUID spaceId, LocalDate date, String startTime, int partySize) {
+        releaseCapacity(spaceId, date, startTime, null, partySize);
+    }
+
+    /**
+     * Release capacity when a reservation is cancelled.
+     * The end time is required in {@link CapacityMode#INTERVAL_BUCKETS} mode.
+     *
+     * @param spaceId The space ID
+     * @param date The reservation date
+     * @param startTime The start time
+     * @param endTime The end time
+     * @param partySize The party size to release
+     */
+    public void releaseCapacity(UUID spaceId, LocalDate date, String startTime,
+                                String endTime, int partySize) {
+        if (capacityMode == CapacityMode.INTERVAL_BUCKETS) {
+            if (endTime == null) {
+                throw new IllegalArgumentException("End time is required to release interval capacity");
+            }
+            releaseIntervalBuckets(spaceId, date, startTime, endTime, partySize);
+            return;
+        }
+
+        if (ledger.owns(spaceId)) {
+            ledger.release(spaceId, date, startTime, partySize);
+            return;
+        }
+
         String slotId = SlotCapacity.generateId(spaceId, date, startTime);
 
         Query query = new Query(Criteria.where("_id").is(slotId));
-        Update update = new Update().inc("bookedCapacity", -partySize);
+        Update update = slotIncrement(-partySize);
 
         SlotCapacity result = mongoTemplate.findAndModify(
                 query,
@@ -143,6 +583,24 @@ public class SlotCapacityService {
      * @return Available capacity
      */
     public int getAvailableCapacity(UUID spaceId, LocalDate date, String startTime, int maxCapacity) {
+        return getAvailableCapacity(spaceId, date, startTime, null, maxCapacity);
+    }
+
+    /**
+     * Get current available capacity for a time window.
+     * In {@link CapacityMode#INTERVAL_BUCKETS} mode this is the room left in the
+     * fullest bucket of the window; otherwise the window is identified by its start time.
+     */
+    public int getAvailableCapacity(UUID spaceId, LocalDate date, String startTime,
+                                    String endTime, int maxCapacity) {
+        if (capacityMode == CapacityMode.INTERVAL_BUCKETS) {
+            return maxCapacity - getIntervalBookedCapacity(spaceId, date, startTime, endTime);
+        }
+
+        if (ledger.owns(spaceId)) {
+            return maxCapacity - ledger.getBooked(spaceId, date, startTime);
+        }
+
         String slotId = SlotCapacity.generateId(spaceId, date, startTime);
         Optional<SlotCapacity> slot = slotCapacityRepository.findById(slotId);
 
@@ -156,6 +614,21 @@ public class SlotCapacityService {
      * Get current booked capacity for a slot.
      */
     public int getBookedCapacity(UUID spaceId, LocalDate date, String startTime) {
+        return getBookedCapacity(spaceId, date, startTime, null);
+    }
+
+    /**
+     * Get current booked capacity for a time window.
+     */
+    public int getBookedCapacity(UUID spaceId, LocalDate date, String startTime, String endTime) {
+        if (capacityMode == CapacityMode.INTERVAL_BUCKETS) {
+            return getIntervalBookedCapacity(spaceId, date, startTime, endTime);
+        }
+
+        if (ledger.owns(spaceId)) {
+            return ledger.getBooked(spaceId, date, startTime);
+        }
+
         String slotId = SlotCapacity.generateId(spaceId, date, startTime);
         Optional<SlotCapacity> slot = slotCapacityRepository.findById(slotId);
         return slot.map(SlotCapacity::getBookedCapacity).orElse(0);
@@ -183,6 +656,8 @@ public class SlotCapacityService {
     /**
      * Sync slot capacity from existing reservations.
      * Useful for recalculating capacity after data changes.
+     * The rewrite is stamped like any other capacity change, and the space-day's
+     * availability version is bumped once it has been applied.
      */
     public void syncSlotCapacity(UUID spaceId, LocalDate date, String startTime,
                                   String endTime, int totalBooked, int maxCapacity) {
@@ -198,7 +673,15 @@ public class SlotCapacityService {
                 .set("maxCapacity", maxCapacity)
                 .set("bookedCapacity", totalBooked);
 
-        mongoTemplate.upsert(query, update, SlotCapacity.class);
+        mongoTemplate.upsert(query, stamped(update), SlotCapacity.class);
+        versionService.bump(spaceId, date);
         logger.debug("Synced slot capacity {} with booked={}", slotId, totalBooked);
     }
+
+    /**
+     * Capacity requested by one booking of a batch.
+     */
+    public record CapacityClaim(Space space, LocalDate date, String startTime,
+                                String endTime, int partySize) {
+    }
 }
@@ -3,8 +3,10 @@ package com.opentable.privatedining.service;
 import com.opentable.privatedining.exception.SpaceNotFoundException;
 import com.opentable.privatedining.model.Space;
 import com.opentable.privatedining.repository.SpaceRepository;
+import org.bson.types.ObjectId;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,14 +14,20 @@ import java.util.UUID;
 /**
  * Service for Space management.
  * Spaces are stored in their own collection (not embedded in Restaurant).
+ * Lookups by ID go through {@link CatalogCache}; every write invalidates the cached entry
+ * and the restaurant's cached occupancy reports ({@link ReportCache}).
  */
 @Service
 public class SpaceService {
 
     private final SpaceRepository spaceRepository;
+    private final CatalogCache catalogCache;
+    private final ReportCache reportCache;
 
-    public SpaceService(SpaceRepository spaceRepository) {
+    public SpaceService(SpaceRepository spaceRepository, CatalogCache catalogCache, ReportCache reportCache) {
         this.spaceRepository = spaceRepository;
+        this.catalogCache = catalogCache;
+        this.reportCache = reportCache;
     }
 
     /**
@@ -33,21 +41,22 @@ public class SpaceService {
      * Get space by ID.
      */
     public Optional<Space> getSpaceById(UUID id) {
-        return spaceRepository.findById(id);
+        return catalogCache.getSpace(id, spaceRepository::findById);
     }
 
     /**
      * Get active space by ID.
      */
     public Optional<Space> getActiveSpaceById(UUID id) {
-        return spaceRepository.findActiveById(id);
+        return catalogCache.getSpace(id, spaceRepository::findActiveById)
+                .filter(space -> Boolean.TRUE.equals(space.getIsActive()));
     }
 
     /**
      * Get space by ID, throw exception if not found.
      */
     public Space getSpaceByIdOrThrow(UUID id) {
-        return spaceRepository.findById(id)
+        return getSpaceById(id)
                 .orElseThrow(() -> new SpaceNotFoundException(id));
     }
 
@@ -55,7 +64,7 @@ public class SpaceService {
      * Get active space by ID, throw exception if not found.
      */
     public Space getActiveSpaceByIdOrThrow(UUID id) {
-        return spaceRepository.findActiveById(id)
+        return getActiveSpaceById(id)
                 .orElseThrow(() -> new SpaceNotFoundException(id));
     }
 
@@ -80,6 +89,16 @@ public class SpaceService {
         return spaceRepository.findByRestaurantIdAndCapacityRange(restaurantId, partySize);
     }
 
+    /**
+     * Find spaces of several restaurants suitable for a party size, in one query.
+     */
+    public List<Space> findSpacesForPartySize(Collection<String> restaurantIds, int partySize) {
+        if (restaurantIds.isEmpty()) {
+            return List.of();
+        }
+        return spaceRepository.findByRestaurantIdInAndCapacityRange(restaurantIds, partySize);
+    }
+
     /**
      * Create a new space.
      */
@@ -87,7 +106,10 @@ public class SpaceService {
         if (space.getId() == null) {
             space.setId(UUID.randomUUID());
         }
-        return spaceRepository.save(space);
+        Space saved = spaceRepository.save(space);
+        catalogCache.invalidateSpace(saved.getId());
+        invalidateReports(saved.getRestaurantId());
+        return saved;
     }
 
     /**
@@ -101,7 +123,11 @@ public class SpaceService {
                     if (spaceUpdate.getRestaurantId() == null) {
                         spaceUpdate.setRestaurantId(existing.getRestaurantId());
                     }
-                    return spaceRepository.save(spaceUpdate);
+                    Space saved = spaceRepository.save(spaceUpdate);
+                    catalogCache.invalidateSpace(id);
+                    invalidateReports(existing.getRestaurantId());
+                    invalidateReports(saved.getRestaurantId());
+                    return saved;
                 });
     }
 
@@ -112,7 +138,10 @@ public class SpaceService {
         return spaceRepository.findById(id)
                 .map(space -> {
                     space.setIsActive(false);
-                    return spaceRepository.save(space);
+                    Space saved = spaceRepository.save(space);
+                    catalogCache.invalidateSpace(id);
+                    invalidateReports(saved.getRestaurantId());
+                    return saved;
                 });
     }
 
@@ -120,8 +149,11 @@ public class SpaceService {
      * Delete a space permanently.
      */
     public boolean deleteSpace(UUID id) {
-        if (spaceRepository.existsById(id)) {
+        Optional<Space> existing = spaceRepository.findById(id);
+        if (existing.isPresent()) {
             spaceRepository.deleteById(id);
+            catalogCache.invalidateSpace(id);
+            invalidateReports(existing.get().getRestaurantId());
             return true;
         }
         return false;
@@ -133,4 +165,13 @@ public class SpaceService {
     public boolean isSpaceActive(UUID id) {
         return spaceRepository.existsByIdAndIsActiveTrue(id);
     }
+
+    /**
+     * Cached occupancy reports of the space's restaurant used its old capacity and flags.
+     */
+    private void invalidateReports(String restaurantId) {
+        if (restaurantId != null && ObjectId.isValid(restaurantId)) {
+            reportCache.invalidateRestaurant(new ObjectId(restaurantId));
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package com.opentable.privatedining.util;
+
+import com.opentable.privatedining.model.Reservation;
+
+import java.time.LocalTime;
+
+/**
+ * A booked time window with the guests and reservations it carries.
+ * One reservation is one interval; a materialized snapshot folds all reservations with
+ * the same window into a single interval.
+ *
+ * @param start Window start
+ * @param end Window end
+ * @param partySize Total guests booked in the window
+ * @param reservations Number of reservations folded into the window
+ */
+public record BookedInterval(LocalTime start, LocalTime end, int partySize, int reservations) {
+
+    /**
+     * Interval of a single reservation, or null if its times are missing.
+     */
+    public static BookedInterval of(Reservation reservation) {
+        LocalTime start = reservation.getStartTimeAsLocalTime();
+        LocalTime end = reservation.getEndTimeAsLocalTime();
+        if (start == null || end == null) {
+            return null;
+        }
+        int partySize = reservation.getPartySize() != null ? reservation.getPartySize() : 0;
+        return new BookedInterval(start, end, partySize, 1);
+    }
+}
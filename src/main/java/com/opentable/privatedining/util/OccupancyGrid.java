@@ -0,0 +1,273 @@
+package com.opentable.privatedining.util;
+
+import com.opentable.privatedining.model.OccupancyRollup;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.repository.ReservationRepository.OccupancyFacets;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dense occupancy counters of a restaurant's date range, filled by a report engine.
+ *
+ * ALGORITHM: Dense Marginal Accumulators
+ * --------------------------------------
+ * Every figure of the occupancy report is a sum over one of two projections of the
+ * confirmed reservations: per day and space (space breakdown) and per day and start hour
+ * (daily totals, peak hour, hourly breakdown, busiest hour). Both are kept as flat int
+ * arrays indexed by position instead of keyed maps:
+ *
+ *   day index   = date - startDate                      (0 .. days-1)
+ *   space index = position of the space in the report   (0 .. spaces-1)
+ *   hour        = start hour                            (0 .. 23)
+ *
+ *   spaceReservations[day * spaces + space]    hourReservations[day * 24 + hour]
+ *
+ * A reservation is folded in with two array increments per counter, without boxing,
+ * hashing or allocating a key. A full day-space-hour cube is never read by the report,
+ * so only its two marginals are stored: a year of 5 spaces is 2 x (365 x 5 + 365 x 24)
+ * ints instead of 365 x 5 x 24.
+ *
+ * Bookings of spaces outside the report's space list (e.g. deactivated spaces) count
+ * towards the day and hour totals but have no space column, matching the report's
+ * space breakdown which lists active spaces only.
+ *
+ * A day's counters can be copied out as an immutable {@link DayFragment} and copied into
+ * another grid, so days that can no longer change are cached once and reused by any
+ * range that covers them.
+ */
+public final class OccupancyGrid {
+
+    public static final int HOURS = 24;
+
+    private final LocalDate startDate;
+    private final long startEpochDay;
+    private final int days;
+    private final int spaces;
+    private final Map<UUID, Integer> spaceIndex;
+
+    private final int[] spaceReservations;
+    private final int[] spaceGuests;
+    private final int[] hourReservations;
+    private final int[] hourGuests;
+    private final int[] dayCancelled;
+    private final List<UUID> spaceIds;
+
+    public OccupancyGrid(LocalDate startDate, LocalDate endDate, List<UUID> spaceIds) {
+        this.startDate = startDate;
+        this.startEpochDay = startDate.toEpochDay();
+        this.days = Math.toIntExact(endDate.toEpochDay() - startEpochDay + 1);
+        this.spaces = spaceIds.size();
+        this.spaceIds = List.copyOf(spaceIds);
+        this.spaceIndex = new HashMap<>(spaces * 2);
+        for (int i = 0; i < spaces; i++) {
+            spaceIndex.put(spaceIds.get(i), i);
+        }
+        this.spaceReservations = new int[days * spaces];
+        this.spaceGuests = new int[days * spaces];
+        this.hourReservations = new int[days * HOURS];
+        this.hourGuests = new int[days * HOURS];
+        this.dayCancelled = new int[days];
+    }
+
+    /**
+     * Fold in confirmed reservations, one pass.
+     */
+    public OccupancyGrid addReservations(List<Reservation> confirmed) {
+        for (Reservation reservation : confirmed) {
+            int day = dayIndex(reservation.getReservationDate());
+            if (day < 0) {
+                continue;
+            }
+            int guests = reservation.getPartySize();
+            addSpace(day, reservation.getSpaceId(), 1, guests);
+            addHour(day, hourOf(reservation.getStartTime()), 1, guests);
+        }
+        return this;
+    }
+
+    /**
+     * Fold in day-space-hour rollup rows, including their cancellations.
+     */
+    public OccupancyGrid addRollups(List<OccupancyRollup> rollups) {
+        for (OccupancyRollup rollup : rollups) {
+            int day = dayIndex(rollup.getDate());
+            if (day < 0) {
+                continue;
+            }
+            dayCancelled[day] += Math.toIntExact(rollup.getCancelled());
+            if (rollup.getReservations() == 0 && rollup.getGuests() == 0) {
+                continue;
+            }
+            int reservations = Math.toIntExact(rollup.getReservations());
+            int guests = Math.toIntExact(rollup.getGuests());
+            addSpace(day, rollup.getSpaceId(), reservations, guests);
+            addHour(day, rollup.getHour(), reservations, guests);
+        }
+        return this;
+    }
+
+    /**
+     * Fold in the already grouped totals of the occupancy $facet pipeline.
+     */
+    public OccupancyGrid addFacets(OccupancyFacets facets) {
+        for (OccupancyFacets.DaySpaceRow row : facets.getDaySpace()) {
+            int day = dayIndex(row.getId().getDate());
+            if (day >= 0) {
+                addSpace(day, row.getId().getSpaceId(),
+                        Math.toIntExact(row.getTotalReservations()), Math.toIntExact(row.getTotalGuests()));
+            }
+        }
+        for (OccupancyFacets.DayHourRow row : facets.getDayHour()) {
+            int day = dayIndex(row.getId().getDate());
+            if (day >= 0) {
+                addHour(day, hourOf(row.getId().getHour()),
+                        Math.toIntExact(row.getTotalReservations()), Math.toIntExact(row.getTotalGuests()));
+            }
+        }
+        return addCancelled(facets.getCancelled());
+    }
+
+    /**
+     * Fold in per-day cancellation counts.
+     */
+    public OccupancyGrid addCancelled(List<OccupancyFacets.CountRow> perDay) {
+        for (OccupancyFacets.CountRow row : perDay) {
+            int day = row.getId() != null ? dayIndex(row.getId()) : -1;
+            if (day >= 0) {
+                dayCancelled[day] += Math.toIntExact(row.getTotal());
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Copy a cached day into this grid. The fragment must cover every space of the grid
+     * (see {@link DayFragment#covers}); columns of other spaces are ignored.
+     */
+    public OccupancyGrid addFragment(int day, DayFragment fragment) {
+        for (int i = 0; i < fragment.spaceIds().size(); i++) {
+            Integer space = spaceIndex.get(fragment.spaceIds().get(i));
+            if (space != null) {
+                spaceReservations[day * spaces + space] += fragment.spaceReservations()[i];
+                spaceGuests[day * spaces + space] += fragment.spaceGuests()[i];
+            }
+        }
+        for (int hour = 0; hour < HOURS; hour++) {
+            hourReservations[day * HOURS + hour] += fragment.hourReservations()[hour];
+            hourGuests[day * HOURS + hour] += fragment.hourGuests()[hour];
+        }
+        dayCancelled[day] += fragment.cancelled();
+        return this;
+    }
+
+    /**
+     * Copy of one day's counters.
+     */
+    public DayFragment fragment(int day) {
+        return new DayFragment(spaceIds,
+                Arrays.copyOfRange(spaceReservations, day * spaces, (day + 1) * spaces),
+                Arrays.copyOfRange(spaceGuests, day * spaces, (day + 1) * spaces),
+                Arrays.copyOfRange(hourReservations, day * HOURS, (day + 1) * HOURS),
+                Arrays.copyOfRange(hourGuests, day * HOURS, (day + 1) * HOURS),
+                dayCancelled[day]);
+    }
+
+    public int days() {
+        return days;
+    }
+
+    public LocalDate date(int day) {
+        return startDate.plusDays(day);
+    }
+
+    public long cancelled() {
+        long total = 0;
+        for (int count : dayCancelled) {
+            total += count;
+        }
+        return total;
+    }
+
+    public int cancelled(int day) {
+        return dayCancelled[day];
+    }
+
+    public int spaceReservations(int day, int space) {
+        return spaceReservations[day * spaces + space];
+    }
+
+    public int spaceGuests(int day, int space) {
+        return spaceGuests[day * spaces + space];
+    }
+
+    /**
+     * Sum of the day's space guests weighted per space, e.g. by slot minutes: one
+     * multiply-add over the day's contiguous space columns.
+     */
+    long seatMinutes(int day, int[] minutesPerGuest) {
+        int base = day * spaces;
+        long total = 0;
+        for (int space = 0; space < spaces; space++) {
+            total += (long) spaceGuests[base + space] * minutesPerGuest[space];
+        }
+        return total;
+    }
+
+    public int hourReservations(int day, int hour) {
+        return hourReservations[day * HOURS + hour];
+    }
+
+    public int hourGuests(int day, int hour) {
+        return hourGuests[day * HOURS + hour];
+    }
+
+    private void addSpace(int day, UUID spaceId, int reservations, int guests) {
+        Integer space = spaceIndex.get(spaceId);
+        if (space != null) {
+            spaceReservations[day * spaces + space] += reservations;
+            spaceGuests[day * spaces + space] += guests;
+        }
+    }
+
+    private void addHour(int day, int hour, int reservations, int guests) {
+        hourReservations[day * HOURS + hour] += reservations;
+        hourGuests[day * HOURS + hour] += guests;
+    }
+
+    public int dayIndex(LocalDate date) {
+        long day = date.toEpochDay() - startEpochDay;
+        return day >= 0 && day < days ? (int) day : -1;
+    }
+
+    /**
+     * Hour of an "HH" or "HH:mm" string, without substring allocation.
+     */
+    private static int hourOf(String time) {
+        return (time.charAt(0) - '0') * 10 + (time.charAt(1) - '0');
+    }
+
+    /**
+     * One day's counters, detached from any grid. Space columns are in spaceIds order;
+     * arrays are never modified after construction.
+     */
+    public record DayFragment(List<UUID> spaceIds,
+                              int[] spaceReservations,
+                              int[] spaceGuests,
+                              int[] hourReservations,
+                              int[] hourGuests,
+                              int cancelled) {
+
+        /**
+         * Whether the fragment has a column for each of the given spaces, i.e. was built
+         * for the same or a larger active space list.
+         */
+        public boolean covers(List<UUID> reportSpaceIds) {
+            return spaceIds.containsAll(reportSpaceIds);
+        }
+    }
+}
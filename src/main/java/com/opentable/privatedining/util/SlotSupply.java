@@ -0,0 +1,141 @@
+package com.opentable.privatedining.util;
+
+import com.opentable.privatedining.model.OperatingHours;
+import com.opentable.privatedining.model.Space;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Bookable seat supply of a restaurant's spaces for each day of the week.
+ *
+ * ALGORITHM: Weekday Supply Template
+ * ----------------------------------
+ * A space offers the slots the availability endpoints generate: back-to-back slots of
+ * slotDurationMinutes from opening time, each ending by closing time. A reservation
+ * fills one slot, so for a weekday w and space s:
+ *
+ *   slots[w][s]                = floor((close[w] - open[w]) / slotDuration[s])
+ *   availableSeatMinutes[w][s] = maxCapacity[s] * slots[w][s] * slotDuration[s]
+ *   bookedSeatMinutes(day, s)  = guests(day, s) * slotDuration[s]
+ *
+ * Supply only depends on the weekday, so it is computed once for the 7 weekdays and
+ * read for every date of a report; a day's booked seat-minutes is then one multiply-add
+ * pass over the grid's space guests (see {@link OccupancyGrid#seatMinutes}).
+ *
+ * Weekdays without hours, or marked closed, have no supply. A restaurant without any
+ * operating hours is not configured, and reports fall back to guests / capacity.
+ */
+public final class SlotSupply {
+
+    private static final int DAYS_OF_WEEK = 7;
+
+    private final boolean configured;
+    private final int spaces;
+    private final int[] slotMinutes;
+    private final int[] capacities;
+    private final int[] spaceSlots;
+    private final long[] availableSeatMinutes;
+    private final int[] operatingSlots;
+
+    private SlotSupply(boolean configured, int spaces) {
+        this.configured = configured;
+        this.spaces = spaces;
+        this.slotMinutes = new int[spaces];
+        this.capacities = new int[spaces];
+        this.spaceSlots = new int[DAYS_OF_WEEK * spaces];
+        this.availableSeatMinutes = new long[DAYS_OF_WEEK];
+        this.operatingSlots = new int[DAYS_OF_WEEK];
+    }
+
+    /**
+     * Template of the spaces, in report order, under the restaurant's operating hours.
+     */
+    public static SlotSupply of(List<OperatingHours> operatingHours, List<Space> spaces) {
+        boolean configured = operatingHours != null && !operatingHours.isEmpty();
+        SlotSupply supply = new SlotSupply(configured, spaces.size());
+        if (!configured) {
+            return supply;
+        }
+
+        for (int space = 0; space < spaces.size(); space++) {
+            Integer duration = spaces.get(space).getSlotDurationMinutes();
+            Integer capacity = spaces.get(space).getMaxCapacity();
+            supply.slotMinutes[space] = duration != null && duration > 0 ? duration : 0;
+            supply.capacities[space] = capacity != null ? capacity : 0;
+        }
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            int weekday = dayOfWeek.ordinal();
+            int openMinutes = openMinutes(operatingHours, dayOfWeek);
+            for (int space = 0; space < spaces.size(); space++) {
+                int duration = supply.slotMinutes[space];
+                int slots = duration > 0 ? openMinutes / duration : 0;
+                supply.spaceSlots[weekday * supply.spaces + space] = slots;
+                supply.operatingSlots[weekday] += slots;
+                supply.availableSeatMinutes[weekday] += supply.availableSeatMinutes(dayOfWeek, space);
+            }
+        }
+        return supply;
+    }
+
+    /**
+     * Minutes from opening to closing time, 0 if closed, not configured or closing before
+     * opening (slots never cross midnight).
+     */
+    private static int openMinutes(List<OperatingHours> operatingHours, DayOfWeek dayOfWeek) {
+        int repoDayOfWeek = dayOfWeek.getValue() % 7; // 0 = Sunday
+        for (OperatingHours hours : operatingHours) {
+            if (hours.getDayOfWeek() == null || hours.getDayOfWeek() != repoDayOfWeek) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(hours.getIsClosed())) {
+                return 0;
+            }
+            LocalTime open = hours.getOpenTimeAsLocalTime();
+            LocalTime close = hours.getCloseTimeAsLocalTime();
+            if (open == null || close == null || !close.isAfter(open)) {
+                return 0;
+            }
+            return (close.toSecondOfDay() - open.toSecondOfDay()) / 60;
+        }
+        return 0;
+    }
+
+    public boolean isConfigured() {
+        return configured;
+    }
+
+    public int slotMinutes(int space) {
+        return slotMinutes[space];
+    }
+
+    /**
+     * Slots offered by all spaces on the weekday.
+     */
+    public int operatingSlots(DayOfWeek dayOfWeek) {
+        return operatingSlots[dayOfWeek.ordinal()];
+    }
+
+    /**
+     * Seat-minutes offered by all spaces on the weekday.
+     */
+    public long availableSeatMinutes(DayOfWeek dayOfWeek) {
+        return availableSeatMinutes[dayOfWeek.ordinal()];
+    }
+
+    /**
+     * Seat-minutes offered by one space on the weekday.
+     */
+    public long availableSeatMinutes(DayOfWeek dayOfWeek, int space) {
+        return (long) capacities[space] * spaceSlots[dayOfWeek.ordinal() * spaces + space] * slotMinutes[space];
+    }
+
+    /**
+     * Seat-minutes booked in all spaces of the grid's day. The grid must have been built
+     * for the same space list.
+     */
+    public long bookedSeatMinutes(OccupancyGrid grid, int day) {
+        return grid.seatMinutes(day, slotMinutes);
+    }
+}
@@ -23,10 +23,12 @@ public class TimeSlotGenerator {
     /**
      * Generate all possible time slots for a space based on operating hours.
      *
-     * ALGORITHM: Time Slot Generation with Interval Overlap Detection
-     * ---------------------------------------------------------------
-     * Complexity: O(n * m) where n = number of slots, m = number of reservations
-     * For each time slot, we check all existing reservations for overlap.
+     * ALGORITHM: Time Slot Generation with Sweep-Line Overlap Totals
+     * --------------------------------------------------------------
+     * Complexity: O(n + m + M) where n = number of slots, m = number of reservations,
+     * M = minutes in a day. Reservations are folded once into minute-of-day prefix sums
+     * (see {@link OverlapIndex}); each slot then reads its booked capacity and
+     * reservation count in O(1).
      *
      * Example:
      *   Operating Hours: 18:00 - 23:00
@@ -46,6 +48,28 @@ public class TimeSlotGenerator {
     public List<TimeSlotResponse> generateTimeSlots(OperatingHours operatingHours,
                                                     Space space,
                                                     List<Reservation> existingReservations) {
+        List<BookedInterval> intervals = new ArrayList<>(existingReservations.size());
+        for (Reservation reservation : existingReservations) {
+            BookedInterval interval = BookedInterval.of(reservation);
+            if (interval != null) {
+                intervals.add(interval);
+            }
+        }
+        return generateTimeSlotsForIntervals(operatingHours, space, intervals);
+    }
+
+    /**
+     * Generate all possible time slots for a space from pre-aggregated booked intervals,
+     * e.g. the intervals of a materialized day snapshot.
+     *
+     * @param operatingHours Operating hours for the day
+     * @param space The space with slot configuration
+     * @param bookedIntervals Booked windows for the day
+     * @return List of time slots with availability information
+     */
+    public List<TimeSlotResponse> generateTimeSlotsForIntervals(OperatingHours operatingHours,
+                                                                Space space,
+                                                                List<BookedInterval> bookedIntervals) {
         List<TimeSlotResponse> slots = new ArrayList<>();
 
         if (operatingHours == null || Boolean.TRUE.equals(operatingHours.getIsClosed())) {
@@ -63,6 +87,7 @@ public class TimeSlotGenerator {
         int bufferMinutes = space.getBufferMinutes() != null ? space.getBufferMinutes() : 0;
         int maxCapacity = space.getMaxCapacity();
 
+        OverlapIndex overlapIndex = new OverlapIndex(bookedIntervals);
         LocalTime currentSlotStart = openTime;
 
         // Generate slots while:
@@ -81,11 +106,11 @@ public class TimeSlotGenerator {
                 break;  // No more valid slots fit within operating hours
             }
 
-            // Calculate booked capacity for this slot (sum of all overlapping reservation party sizes)
-            int bookedCapacity = calculateBookedCapacity(existingReservations,
-                    currentSlotStart, slotEnd);
-            int existingReservationCount = countOverlappingReservations(existingReservations,
-                    currentSlotStart, slotEnd);
+            // Booked capacity (sum of overlapping party sizes) and reservation count for this slot
+            int startMinute = minuteOfDay(currentSlotStart);
+            int endMinute = minuteOfDay(slotEnd);
+            int bookedCapacity = overlapIndex.partySize(startMinute, endMinute);
+            int existingReservationCount = overlapIndex.reservations(startMinute, endMinute);
             int availableCapacity = maxCapacity - bookedCapacity;
 
             // Determine slot status
@@ -109,66 +134,115 @@ public class TimeSlotGenerator {
         return slots;
     }
 
-    /**
-     * Calculate the total booked capacity for a time slot.
-     */
-    private int calculateBookedCapacity(List<Reservation> reservations,
-                                        LocalTime slotStart, LocalTime slotEnd) {
-        return reservations.stream()
-                .filter(r -> isOverlapping(r, slotStart, slotEnd))
-                .mapToInt(r -> r.getPartySize() != null ? r.getPartySize() : 0)
-                .sum();
-    }
-
-    /**
-     * Count the number of overlapping reservations.
-     */
-    private int countOverlappingReservations(List<Reservation> reservations,
-                                             LocalTime slotStart, LocalTime slotEnd) {
-        return (int) reservations.stream()
-                .filter(r -> isOverlapping(r, slotStart, slotEnd))
-                .count();
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
     }
 
     /**
-     * Check if a reservation overlaps with a time slot using interval intersection formula.
+     * Party size and reservation totals of the booked intervals overlapping any slot.
      *
-     * ALGORITHM: Interval Intersection Detection
-     * ------------------------------------------
-     * Formula: resStart < slotEnd AND resEnd > slotStart
+     * ALGORITHM: Sweep-Line Prefix Sums over Minute-of-Day
+     * ----------------------------------------------------
+     * Overlap uses the interval intersection formula: resStart < slotEnd AND resEnd > slotStart.
+     * For a well-formed interval (resStart <= resEnd) and slot (slotStart < slotEnd) the two
+     * ways to miss a slot are mutually exclusive:
+     *   - it ends at or before the slot starts   (resEnd <= slotStart)
+     *   - it starts at or after the slot ends    (resStart >= slotEnd)
+     * so the overlapping total is
+     *   overlapping(slot) = total - endedBy[slotStart] - startedFrom[slotEnd]
+     * where endedBy[m] sums intervals with end <= m (prefix sum over end minutes) and
+     * startedFrom[m] sums intervals with start >= m (suffix sum over start minutes).
      *
-     * Explanation: Two time intervals overlap if they share any moment in time.
-     * The formula works by checking if the reservation starts before the slot ends
-     * AND if the reservation ends after the slot starts.
+     * Touching endpoints do not overlap: (17:00-18:00) ends by 18:00, so it is excluded
+     * from the 18:00-19:30 slot, matching the strict comparison of the formula.
      *
-     * Overlap Cases:
-     * 1. Reservation starts before slot and ends during: (17:30-18:45) overlaps (18:00-19:30)
-     * 2. Reservation starts during slot and ends after: (19:00-20:00) overlaps (18:00-19:30)
-     * 3. Reservation completely contains slot: (17:00-21:00) overlaps (18:00-19:30)
-     * 4. Slot completely contains reservation: (18:00-19:30) overlaps (18:30-19:00)
-     *
-     * Non-Overlap Cases:
-     * 1. Reservation ends before slot starts: (17:00-17:30) does NOT overlap (18:00-19:30)
-     * 2. Reservation starts after slot ends: (20:00-21:00) does NOT overlap (18:00-19:30)
-     * 3. Touching endpoints (same time): (17:00-18:00) does NOT overlap (18:00-19:30)
-     *    because isBefore(18:00, 18:00) = false
-     *
-     * @param reservation The reservation to check
-     * @param slotStart Slot start time
-     * @param slotEnd Slot end time
-     * @return true if reservation overlaps with the slot
+     * Building the sums is one pass over the intervals plus one sweep over the day's
+     * minutes; every slot query is then O(1). Intervals with resStart > resEnd cannot
+     * satisfy the mutual exclusion above, so those (which only come from corrupt data)
+     * are kept aside and checked with the formula directly.
      */
-    private boolean isOverlapping(Reservation reservation, LocalTime slotStart, LocalTime slotEnd) {
-        LocalTime resStart = reservation.getStartTimeAsLocalTime();
-        LocalTime resEnd = reservation.getEndTimeAsLocalTime();
+    static final class OverlapIndex {
+
+        private static final int MINUTES_PER_DAY = 24 * 60;
+
+        private final int totalPartySize;
+        private final int totalReservations;
+        private final int[] partyEndedBy = new int[MINUTES_PER_DAY + 1];
+        private final int[] partyStartedFrom = new int[MINUTES_PER_DAY + 2];
+        private final int[] countEndedBy = new int[MINUTES_PER_DAY + 1];
+        private final int[] countStartedFrom = new int[MINUTES_PER_DAY + 2];
+        private final List<BookedInterval> reversed = new ArrayList<>();
 
-        if (resStart == null || resEnd == null) {
-            return false;
+        OverlapIndex(List<BookedInterval> intervals) {
+            int partySize = 0;
+            int reservations = 0;
+            for (BookedInterval interval : intervals) {
+                int start = minuteOfDay(interval.start());
+                int end = minuteOfDay(interval.end());
+                if (start > end) {
+                    reversed.add(interval);
+                    continue;
+                }
+                partySize += interval.partySize();
+                reservations += interval.reservations();
+                partyEndedBy[end] += interval.partySize();
+                countEndedBy[end] += interval.reservations();
+                partyStartedFrom[start] += interval.partySize();
+                countStartedFrom[start] += interval.reservations();
+            }
+            this.totalPartySize = partySize;
+            this.totalReservations = reservations;
+
+            for (int minute = 1; minute <= MINUTES_PER_DAY; minute++) {
+                partyEndedBy[minute] += partyEndedBy[minute - 1];
+                countEndedBy[minute] += countEndedBy[minute - 1];
+            }
+            for (int minute = MINUTES_PER_DAY; minute >= 0; minute--) {
+                partyStartedFrom[minute] += partyStartedFrom[minute + 1];
+                countStartedFrom[minute] += countStartedFrom[minute + 1];
+            }
         }
 
-        // Classic interval intersection: overlap if reservation starts before slot ends
-        // AND reservation ends after slot starts
-        return resStart.isBefore(slotEnd) && resEnd.isAfter(slotStart);
+        /**
+         * Sum of party sizes of intervals overlapping [startMinute, endMinute).
+         */
+        int partySize(int startMinute, int endMinute) {
+            int overlapping = totalPartySize - partyEndedBy[startMinute] - partyStartedFrom[endMinute];
+            for (BookedInterval interval : reversed) {
+                if (isOverlapping(interval, startMinute, endMinute)) {
+                    overlapping += interval.partySize();
+                }
+            }
+            return overlapping;
+        }
+
+        /**
+         * Number of reservations overlapping [startMinute, endMinute).
+         */
+        int reservations(int startMinute, int endMinute) {
+            int overlapping = totalReservations - countEndedBy[startMinute] - countStartedFrom[endMinute];
+            for (BookedInterval interval : reversed) {
+                if (isOverlapping(interval, startMinute, endMinute)) {
+                    overlapping += interval.reservations();
+                }
+            }
+            return overlapping;
+        }
+
+        /**
+         * Interval intersection formula: resStart < slotEnd AND resEnd > slotStart.
+         *
+         * Overlap Cases:
+         * 1. Reservation starts before slot and ends during: (17:30-18:45) overlaps (18:00-19:30)
+         * 2. Reservation starts during slot and ends after: (19:00-20:00) overlaps (18:00-19:30)
+         * 3. Reservation completely contains slot: (17:00-21:00) overlaps (18:00-19:30)
+         * 4. Slot completely contains reservation: (18:00-19:30) overlaps (18:30-19:00)
+         *
+         * Touching endpoints (same time): (17:00-18:00) does NOT overlap (18:00-19:30).
+         */
+        private static boolean isOverlapping(BookedInterval interval, int slotStart, int slotEnd) {
+            return minuteOfDay(interval.start()) < slotEnd && minuteOfDay(interval.end()) > slotStart;
+        }
     }
 
     /**
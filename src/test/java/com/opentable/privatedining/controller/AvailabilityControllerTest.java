@@ -0,0 +1,269 @@
+package com.opentable.privatedining.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.opentable.privatedining.dto.response.AvailabilityResponse;
+import com.opentable.privatedining.dto.response.CompactAvailabilityResponse;
+import com.opentable.privatedining.dto.response.SlotCapacityChange;
+import com.opentable.privatedining.dto.response.TimeSlotResponse;
+import com.opentable.privatedining.exception.GlobalExceptionHandler;
+import com.opentable.privatedining.model.enums.SlotStatus;
+import com.opentable.privatedining.service.AvailabilitySearchService;
+import com.opentable.privatedining.service.AvailabilityService;
+import com.opentable.privatedining.service.ReactiveAvailabilityService;
+import com.opentable.privatedining.service.SlotCapacityChangeStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AvailabilityController Tests")
+class AvailabilityControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private AvailabilityService availabilityService;
+
+    @Mock
+    private ReactiveAvailabilityService reactiveAvailabilityService;
+
+    @Mock
+    private AvailabilitySearchService availabilitySearchService;
+
+    @Mock
+    private SlotCapacityChangeStream slotCapacityChangeStream;
+
+    @InjectMocks
+    private AvailabilityController availabilityController;
+
+    private UUID spaceId;
+    private LocalDate testDate;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(availabilityController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        spaceId = UUID.randomUUID();
+        testDate = LocalDate.now().plusDays(7);
+        lenient().when(availabilityService.isVersionTagEnabled()).thenReturn(true);
+        lenient().when(availabilityService.getAvailabilityVersionTag(spaceId, testDate)).thenReturn("6.1a2b");
+        lenient().when(availabilityService.getAvailability(spaceId, testDate)).thenReturn(AvailabilityResponse.builder()
+                .spaceId(spaceId)
+                .spaceName("Garden Room")
+                .maxCapacity(20)
+                .date(testDate)
+                .isOpen(true)
+                .operatingHours("18:00 - 22:00")
+                .timeSlots(List.of(
+                        slot("18:00", "19:00", 12, 8, SlotStatus.AVAILABLE),
+                        slot("19:00", "20:00", 0, 20, SlotStatus.FULL)))
+                .build());
+    }
+
+    private TimeSlotResponse slot(String start, String end, int available, int booked, SlotStatus status) {
+        return TimeSlotResponse.builder()
+                .startTime(start)
+                .endTime(end)
+                .availableCapacity(available)
+                .bookedCapacity(booked)
+                .status(status)
+                .existingReservations(1)
+                .build();
+    }
+
+    private String availabilityUrl() {
+        return "/api/v1/availability/spaces/" + spaceId + "?date=" + testDate;
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/availability/spaces/{spaceId} content negotiation")
+    class ContentNegotiationTests {
+
+        @Test
+        @DisplayName("Should return the full JSON representation by default")
+        void shouldReturnFullJsonByDefault() throws Exception {
+            mockMvc.perform(get(availabilityUrl()).accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.timeSlots[0].startTime").value("18:00"))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        }
+
+        @Test
+        @DisplayName("Should return the full JSON representation for wildcard Accept")
+        void shouldReturnFullJsonForWildcard() throws Exception {
+            mockMvc.perform(get(availabilityUrl()).accept(MediaType.ALL))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.timeSlots").isArray());
+        }
+
+        @Test
+        @DisplayName("Should pack slots into triples for the compact media type")
+        void shouldReturnCompactJson() throws Exception {
+            mockMvc.perform(get(availabilityUrl()).accept(CompactAvailabilityResponse.MEDIA_TYPE_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(CompactAvailabilityResponse.MEDIA_TYPE_JSON))
+                    .andExpect(jsonPath("$.slotMinutes").value(60))
+                    .andExpect(jsonPath("$.slots.length()").value(6))
+                    .andExpect(jsonPath("$.slots[0]").value(1080))
+                    .andExpect(jsonPath("$.slots[4]").value(0))
+                    .andExpect(jsonPath("$.timeSlots").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("Should serve the compact representation as CBOR")
+        void shouldReturnCbor() throws Exception {
+            MvcResult result = mockMvc.perform(get(availabilityUrl()).accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                    .andReturn();
+
+            JsonNode body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+            assertEquals(20, body.get("maxCapacity").asInt());
+            assertEquals(1140, body.get("slots").get(3).asInt());
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer 304 when If-None-Match matches the current ETag")
+    void shouldReturnNotModifiedForMatchingEtag() throws Exception {
+        String etag = mockMvc.perform(get(availabilityUrl()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(availabilityUrl()).accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Nested
+    @DisplayName("Version ETags")
+    class VersionEtagTests {
+
+        @Test
+        @DisplayName("Should answer 304 from the version tag without computing availability")
+        void shouldReturnNotModifiedFromVersion() throws Exception {
+            when(availabilityService.getAvailabilityVersionTag(spaceId, testDate)).thenReturn("7.1a2b");
+
+            String etag = mockMvc.perform(get(availabilityUrl()).accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"7.1a2b-full\""))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get(availabilityUrl()).accept(MediaType.APPLICATION_JSON)
+                            .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(content().string(""));
+
+            verify(availabilityService, times(1)).getAvailability(spaceId, testDate);
+        }
+
+        @Test
+        @DisplayName("Should give every representation its own strong ETag")
+        void shouldTagEachRepresentation() throws Exception {
+            when(availabilityService.getAvailabilityVersionTag(spaceId, testDate)).thenReturn("7.1a2b");
+
+            mockMvc.perform(get(availabilityUrl()).accept(CompactAvailabilityResponse.MEDIA_TYPE_JSON))
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"7.1a2b-compact\""));
+            mockMvc.perform(get(availabilityUrl()).accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"7.1a2b-cbor\""));
+            mockMvc.perform(get(availabilityUrl()).accept(MediaType.APPLICATION_JSON)
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"7.1a2b-compact\""))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("Should serve a fresh body once the version moves")
+        void shouldServeBodyAfterVersionChange() throws Exception {
+            when(availabilityService.getAvailabilityVersionTag(spaceId, testDate)).thenReturn("8.1a2b");
+
+            mockMvc.perform(get(availabilityUrl()).accept(MediaType.APPLICATION_JSON)
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"7.1a2b-full\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"8.1a2b-full\""))
+                    .andExpect(jsonPath("$.spaceName").value("Garden Room"));
+        }
+
+        @Test
+        @DisplayName("Should send availability without an ETag when version tags are disabled")
+        void shouldSkipTagWhenDisabled() throws Exception {
+            when(availabilityService.isVersionTagEnabled()).thenReturn(false);
+
+            mockMvc.perform(get(availabilityUrl()).accept(MediaType.APPLICATION_JSON)
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"6.1a2b-full\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                    .andExpect(jsonPath("$.spaceName").value("Garden Room"));
+
+            verify(availabilityService, never()).getAvailabilityVersionTag(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/v1/availability/spaces/{spaceId}/stream")
+    class StreamTests {
+
+        private String streamUrl() {
+            return "/api/v1/availability/spaces/" + spaceId + "/stream?date=" + testDate;
+        }
+
+        @Test
+        @DisplayName("Should send slot changes as named server-sent events")
+        void shouldStreamSlotChanges() throws Exception {
+            when(slotCapacityChangeStream.isEnabled()).thenReturn(true);
+            when(slotCapacityChangeStream.subscribe(spaceId, testDate)).thenReturn(Flux.just(
+                    SlotCapacityChange.builder().type(SlotCapacityChange.SLOT).startTime("18:00").bookedCapacity(8).build(),
+                    SlotCapacityChange.resync(spaceId, testDate)));
+
+            MvcResult result = mockMvc.perform(get(streamUrl()).accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            // The stream stays open for heartbeats, so wait for the events instead of completion
+            String body = "";
+            for (int attempt = 0; attempt < 100 && !body.contains("event:resync"); attempt++) {
+                Thread.sleep(50);
+                body = result.getResponse().getContentAsString();
+            }
+            assertTrue(body.contains("event:slot"));
+            assertTrue(body.contains("\"bookedCapacity\":8"));
+            assertTrue(body.contains("event:resync"));
+        }
+
+        @Test
+        @DisplayName("Should answer 503 when streaming is disabled")
+        void shouldRejectWhenDisabled() throws Exception {
+            mockMvc.perform(get(streamUrl()).accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(status().isServiceUnavailable());
+
+            verify(slotCapacityChangeStream, never()).subscribe(any(), any());
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.opentable.privatedining.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.opentable.privatedining.dto.request.BatchReservationRequest;
 import com.opentable.privatedining.dto.request.CancellationRequest;
 import com.opentable.privatedining.dto.request.CreateReservationRequest;
+import com.opentable.privatedining.dto.response.BatchReservationItemResult;
+import com.opentable.privatedining.dto.response.BatchReservationResponse;
 import com.opentable.privatedining.dto.response.CancellationResponse;
 import com.opentable.privatedining.dto.response.ReservationResponse;
 import com.opentable.privatedining.exception.CapacityExceededException;
@@ -12,6 +15,7 @@ import com.opentable.privatedining.exception.ReservationNotFoundException;
 import com.opentable.privatedining.mapper.ReservationMapper;
 import com.opentable.privatedining.model.Reservation;
 import com.opentable.privatedining.model.enums.ReservationStatus;
+import com.opentable.privatedining.service.BatchReservationService;
 import com.opentable.privatedining.service.ReservationService;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,6 +32,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -50,6 +55,9 @@ class ReservationControllerTest {
     @Mock
     private ReservationMapper reservationMapper;
 
+    @Mock
+    private BatchReservationService batchReservationService;
+
     @InjectMocks
     private ReservationController reservationController;
 
@@ -106,6 +114,61 @@ class ReservationControllerTest {
                 .build();
     }
 
+    @Nested
+    @DisplayName("POST /api/v1/reservations/batch - Create Reservations in Batch")
+    class CreateReservationBatchTests {
+
+        @Test
+        @DisplayName("Should return per-item outcomes")
+        void shouldReturnPerItemOutcomes() throws Exception {
+            // Given
+            CreateReservationRequest item = CreateReservationRequest.builder()
+                    .spaceId(spaceId)
+                    .reservationDate(LocalDate.now().plusDays(7))
+                    .startTime("18:00")
+                    .partySize(8)
+                    .customerName("John Smith")
+                    .customerEmail("john@example.com")
+                    .build();
+            BatchReservationRequest request = new BatchReservationRequest(List.of(item, item));
+
+            BatchReservationResponse response = BatchReservationResponse.builder()
+                    .requested(2)
+                    .created(1)
+                    .rejected(1)
+                    .results(List.of(
+                            BatchReservationItemResult.builder().index(0)
+                                    .status(BatchReservationItemResult.CREATED)
+                                    .reservation(createTestResponse()).build(),
+                            BatchReservationItemResult.builder().index(1)
+                                    .status(BatchReservationItemResult.REJECTED)
+                                    .errorCode("CAPACITY_EXCEEDED").build()))
+                    .build();
+            when(batchReservationService.createReservations(any(BatchReservationRequest.class)))
+                    .thenReturn(response);
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/reservations/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.created").value(1))
+                    .andExpect(jsonPath("$.results[0].reservation.spaceName").value("Garden Room"))
+                    .andExpect(jsonPath("$.results[1].errorCode").value("CAPACITY_EXCEEDED"));
+        }
+
+        @Test
+        @DisplayName("Should reject an empty batch")
+        void shouldRejectEmptyBatch() throws Exception {
+            mockMvc.perform(post("/api/v1/reservations/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"reservations\": []}"))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(batchReservationService);
+        }
+    }
+
     @Nested
     @DisplayName("POST /api/v1/reservations - Create Reservation")
     class CreateReservationTests {
@@ -123,12 +186,10 @@ class ReservationControllerTest {
                     .customerEmail("john@example.com")
                     .build();
 
-            Reservation savedReservation = createTestReservation();
             ReservationResponse response = createTestResponse();
 
-            when(reservationService.createReservation(any(CreateReservationRequest.class)))
-                    .thenReturn(savedReservation);
-            when(reservationService.toResponse(savedReservation)).thenReturn(response);
+            when(reservationService.createReservationAndRespond(any(CreateReservationRequest.class)))
+                    .thenReturn(response);
 
             // When & Then
             mockMvc.perform(post("/api/v1/reservations")
@@ -141,7 +202,8 @@ class ReservationControllerTest {
                     .andExpect(jsonPath("$.customerName").value("John Smith"))
                     .andExpect(jsonPath("$.status").value("CONFIRMED"));
 
-            verify(reservationService).createReservation(any(CreateReservationRequest.class));
+            verify(reservationService).createReservationAndRespond(any(CreateReservationRequest.class));
+            verify(reservationService, never()).toResponse(any(Reservation.class));
         }
 
         @Test
@@ -157,7 +219,7 @@ class ReservationControllerTest {
                     .customerEmail("john@example.com")
                     .build();
 
-            when(reservationService.createReservation(any(CreateReservationRequest.class)))
+            when(reservationService.createReservationAndRespond(any(CreateReservationRequest.class)))
                     .thenThrow(new CapacityExceededException("Garden Room", 20, 5, 15));
 
             // When & Then
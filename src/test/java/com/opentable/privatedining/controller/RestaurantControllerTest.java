@@ -3,6 +3,7 @@ package com.opentable.privatedining.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.opentable.privatedining.dto.RestaurantDTO;
 import com.opentable.privatedining.dto.SpaceDTO;
+import com.opentable.privatedining.dto.response.CursorPageResponse;
 import com.opentable.privatedining.mapper.RestaurantMapper;
 import com.opentable.privatedining.mapper.SpaceMapper;
 import com.opentable.privatedining.model.Restaurant;
@@ -16,6 +17,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -96,6 +98,46 @@ class RestaurantControllerTest {
                 .andExpect(jsonPath("$.content[1].name").value("Restaurant 2"));
     }
 
+    @Test
+    void getRestaurantsByCursor_ShouldReturnPageWithNextCursorAndNoTotal() throws Exception {
+        // Given
+        Restaurant restaurant = createTestRestaurant("Restaurant 1", "Address 1", "Italian");
+        RestaurantDTO restaurantDTO = new RestaurantDTO("1", "Restaurant 1", "Address 1", "Italian", 50, Arrays.asList());
+        CursorPageResponse<Restaurant> page = CursorPageResponse.<Restaurant>builder()
+                .content(List.of(restaurant))
+                .size(1)
+                .hasNext(true)
+                .nextCursor("bmV4dA")
+                .build();
+
+        when(restaurantService.getRestaurantsByCursor("Zmlyc3Q", 1, "name", Sort.Direction.DESC, false))
+                .thenReturn(page);
+        when(restaurantMapper.toDTO(restaurant)).thenReturn(restaurantDTO);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/restaurants/cursor")
+                        .param("cursor", "Zmlyc3Q")
+                        .param("size", "1")
+                        .param("sortDir", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Restaurant 1"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("bmV4dA"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getRestaurantsByCursor_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        // Given
+        when(restaurantService.getRestaurantsByCursor(eq("garbage"), eq(20), eq("name"), eq(Sort.Direction.ASC), eq(false)))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/restaurants/cursor").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getRestaurantById_WhenRestaurantExists_ShouldReturnRestaurant() throws Exception {
         // Given
@@ -41,24 +41,24 @@ import static org.junit.jupiter.api.Assertions.*;
 class ConcurrencyIntegrationTest {
 
     @Autowired
-    private ReservationService reservationService;
+    protected ReservationService reservationService;
 
     @Autowired
-    private ReservationRepository reservationRepository;
+    protected ReservationRepository reservationRepository;
 
     @Autowired
-    private RestaurantRepository restaurantRepository;
+    protected RestaurantRepository restaurantRepository;
 
     @Autowired
-    private SpaceRepository spaceRepository;
+    protected SpaceRepository spaceRepository;
 
     @Autowired
-    private SlotCapacityRepository slotCapacityRepository;
+    protected SlotCapacityRepository slotCapacityRepository;
 
-    private Restaurant testRestaurant;
-    private Space testSpace;
-    private ObjectId restaurantId;
-    private UUID spaceId;
+    protected Restaurant testRestaurant;
+    protected Space testSpace;
+    protected ObjectId restaurantId;
+    protected UUID spaceId;
 
     @BeforeEach
     void setUp() {
@@ -0,0 +1,61 @@
+package com.opentable.privatedining.integration;
+
+import com.opentable.privatedining.dto.request.CreateReservationRequest;
+import com.opentable.privatedining.exception.CapacityExceededException;
+import com.opentable.privatedining.service.SpaceService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Re-runs every concurrency scenario with interval bucket capacity accounting, and checks
+ * that reservations overlapping with different start times are counted against each other.
+ */
+@TestPropertySource(properties = "app.capacity.mode=INTERVAL_BUCKETS")
+@DisplayName("Concurrency Integration Tests (interval buckets)")
+class IntervalBucketsConcurrencyIntegrationTest extends ConcurrencyIntegrationTest {
+
+    @Autowired
+    private SpaceService spaceService;
+
+    @Test
+    @DisplayName("Should count overlapping reservations with different start times against each other")
+    void shouldRejectOverlapWithDifferentStartTime() {
+        // Given: 6 guests booked 18:00-19:00 with 60-minute slots
+        LocalDate testDate = LocalDate.now().plusDays(20);
+        reservationService.createReservation(CreateReservationRequest.builder()
+                .spaceId(spaceId)
+                .reservationDate(testDate)
+                .startTime("18:00")
+                .partySize(6)
+                .customerName("Early User")
+                .customerEmail("early@test.com")
+                .build());
+
+        // When: the space switches to 120-minute slots and 17:00-19:00 is requested
+        testSpace.setSlotDurationMinutes(120);
+        spaceService.updateSpace(spaceId, testSpace);
+
+        CreateReservationRequest overlapping = CreateReservationRequest.builder()
+                .spaceId(spaceId)
+                .reservationDate(testDate)
+                .startTime("17:00")
+                .partySize(5)
+                .customerName("Overlap User")
+                .customerEmail("overlap@test.com")
+                .build();
+
+        // Then: 6 + 5 > 9 during 18:00-19:00
+        assertThrows(CapacityExceededException.class,
+                () -> reservationService.createReservation(overlapping));
+
+        // A party that fits alongside the existing booking is still admitted
+        overlapping.setPartySize(3);
+        assertNotNull(reservationService.createReservation(overlapping));
+    }
+}
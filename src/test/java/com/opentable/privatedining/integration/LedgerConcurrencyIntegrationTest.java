@@ -0,0 +1,55 @@
+package com.opentable.privatedining.integration;
+
+import com.opentable.privatedining.dto.request.CreateReservationRequest;
+import com.opentable.privatedining.model.SlotCapacity;
+import com.opentable.privatedining.service.SlotCapacityLedger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Re-runs every concurrency scenario with the in-process slot capacity ledger enabled,
+ * so the no-overbooking guarantees are verified for the ledger admission path as well.
+ */
+@TestPropertySource(properties = "app.capacity.ledger.enabled=true")
+@DisplayName("Concurrency Integration Tests (slot capacity ledger)")
+class LedgerConcurrencyIntegrationTest extends ConcurrencyIntegrationTest {
+
+    @Autowired
+    private SlotCapacityLedger ledger;
+
+    @Test
+    @DisplayName("Should write ledger totals behind to slot_capacities and rebuild them from reservations")
+    void shouldFlushAndRebuildLedger() {
+        LocalDate testDate = LocalDate.now().plusDays(19);
+        String startTime = "18:00";
+
+        for (int i = 0; i < 2; i++) {
+            reservationService.createReservation(CreateReservationRequest.builder()
+                    .spaceId(spaceId)
+                    .reservationDate(testDate)
+                    .startTime(startTime)
+                    .partySize(4)
+                    .customerName("Ledger User " + i)
+                    .customerEmail("ledger_" + i + "@test.com")
+                    .build());
+        }
+
+        ledger.flush();
+
+        SlotCapacity slot = slotCapacityRepository
+                .findById(SlotCapacity.generateId(spaceId, testDate, startTime))
+                .orElseThrow();
+        assertEquals(8, slot.getBookedCapacity());
+        assertEquals(9, slot.getMaxCapacity());
+
+        ledger.rebuild();
+
+        assertEquals(8, ledger.getBooked(spaceId, testDate, startTime));
+    }
+}
@@ -342,4 +342,46 @@ class ReportingIntegrationTest {
                     .andExpect(jsonPath("$.summary.averageUtilizationPercentage").exists());
         }
     }
+
+    @Nested
+    @DisplayName("Report Engine Tests")
+    class ReportEngineTests {
+
+        private String report(LocalDate startDate, LocalDate endDate, String engine) throws Exception {
+            return mockMvc.perform(get("/api/v1/reports/occupancy")
+                            .param("restaurantId", restaurantId.toHexString())
+                            .param("startDate", startDate.toString())
+                            .param("endDate", endDate.toString())
+                            .param("granularity", "HOURLY")
+                            .param("engine", engine))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+        }
+
+        @Test
+        @DisplayName("Should generate identical reports with every engine")
+        void shouldGenerateIdenticalReportsWithEveryEngine() throws Exception {
+            // Given
+            LocalDate startDate = LocalDate.of(2024, 3, 26);
+            LocalDate endDate = startDate.plusDays(2);
+            createTestReservation(startDate, "18:00", 20, spaceId1, ReservationStatus.CONFIRMED);
+            createTestReservation(startDate, "18:30", 12, spaceId2, ReservationStatus.CONFIRMED);
+            createTestReservation(startDate, "19:00", 8, spaceId1, ReservationStatus.CANCELLED);
+            createTestReservation(endDate, "12:00", 15, spaceId1, ReservationStatus.CONFIRMED);
+
+            mockMvc.perform(post("/api/v1/reports/occupancy/rollups/rebuild")
+                            .param("restaurantId", restaurantId.toHexString())
+                            .param("startDate", startDate.toString())
+                            .param("endDate", endDate.toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.rollups").value(4));
+
+            // When
+            String inMemory = report(startDate, endDate, "IN_MEMORY");
+
+            // Then
+            Assertions.assertEquals(inMemory, report(startDate, endDate, "AGGREGATION"));
+            Assertions.assertEquals(inMemory, report(startDate, endDate, "ROLLUP"));
+        }
+    }
 }
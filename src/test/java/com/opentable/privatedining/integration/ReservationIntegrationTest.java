@@ -2,6 +2,7 @@ package com.opentable.privatedining.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.opentable.privatedining.dto.request.BatchReservationRequest;
 import com.opentable.privatedining.dto.request.CancellationRequest;
 import com.opentable.privatedining.dto.request.CreateReservationRequest;
 import com.opentable.privatedining.dto.response.ReservationResponse;
@@ -591,6 +592,64 @@ class ReservationIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Batch Reservation Integration Tests")
+    class BatchTests {
+
+        @Test
+        @DisplayName("Should create a batch with partial success and no overbooking")
+        void shouldCreateBatchWithPartialSuccess() throws Exception {
+            LocalDate testDate = getNextWeekday();
+
+            BatchReservationRequest batchRequest = new BatchReservationRequest(List.of(
+                    batchItem(testDate, "12:00", 30, 0),
+                    batchItem(testDate, "12:00", 15, 1),
+                    batchItem(testDate, "12:00", 10, 2),  // 30 + 15 + 10 > 50
+                    batchItem(testDate, "13:00", 20, 3),
+                    batchItem(testDate, "12:30", 20, 4)   // misaligned start time
+            ));
+
+            mockMvc.perform(post("/api/v1/reservations/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(batchRequest)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.requested").value(5))
+                    .andExpect(jsonPath("$.created").value(3))
+                    .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                    .andExpect(jsonPath("$.results[0].reservation.spaceName").value("Grand Ballroom"))
+                    .andExpect(jsonPath("$.results[1].status").value("CREATED"))
+                    .andExpect(jsonPath("$.results[2].errorCode").value("CAPACITY_EXCEEDED"))
+                    .andExpect(jsonPath("$.results[3].status").value("CREATED"))
+                    .andExpect(jsonPath("$.results[4].errorCode").value("INVALID_TIME_SLOT"));
+
+            int booked = reservationRepository
+                    .findBySpaceIdAndReservationDateAndStatus(spaceId, testDate, ReservationStatus.CONFIRMED)
+                    .stream()
+                    .filter(r -> r.getStartTime().equals("12:00"))
+                    .mapToInt(r -> r.getPartySize())
+                    .sum();
+            assertEquals(45, booked);
+
+            // Batch-created reservations can be cancelled like any other
+            String createdId = reservationRepository.findAll().get(0).getId().toHexString();
+            mockMvc.perform(post("/api/v1/reservations/{id}/cancel", createdId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{}"))
+                    .andExpect(status().isOk());
+        }
+
+        private CreateReservationRequest batchItem(LocalDate date, String startTime, int partySize, int index) {
+            return CreateReservationRequest.builder()
+                    .spaceId(spaceId)
+                    .reservationDate(date)
+                    .startTime(startTime)
+                    .partySize(partySize)
+                    .customerName("Batch Guest " + index)
+                    .customerEmail("batch_" + index + "@test.com")
+                    .build();
+        }
+    }
+
     // Helper methods
     private LocalDate getNextWeekday() {
         LocalDate date = LocalDate.now().plusDays(7);
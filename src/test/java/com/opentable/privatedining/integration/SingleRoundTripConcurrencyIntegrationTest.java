@@ -0,0 +1,13 @@
+package com.opentable.privatedining.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Re-runs every concurrency scenario with the single-round-trip capacity mode,
+ * including the first-booking race on a slot document that does not exist yet.
+ */
+@TestPropertySource(properties = "app.capacity.mode=SLOT_SINGLE_ROUND_TRIP")
+@DisplayName("Concurrency Integration Tests (single round trip)")
+class SingleRoundTripConcurrencyIntegrationTest extends ConcurrencyIntegrationTest {
+}
@@ -0,0 +1,192 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.dto.response.AvailabilityResponse;
+import com.opentable.privatedining.dto.response.AvailabilitySearchResponse;
+import com.opentable.privatedining.dto.response.SpaceSlotMatch;
+import com.opentable.privatedining.dto.response.TimeSlotResponse;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.Restaurant;
+import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.enums.ReservationStatus;
+import com.opentable.privatedining.model.enums.SlotStatus;
+import com.opentable.privatedining.repository.ReservationRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AvailabilitySearchService Tests")
+class AvailabilitySearchServiceTest {
+
+    @Mock
+    private SpaceService spaceService;
+
+    @Mock
+    private RestaurantService restaurantService;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private AvailabilityService availabilityService;
+
+    private AvailabilitySearchService searchService;
+    private Restaurant restaurant;
+    private Space gardenRoom;
+    private Space ballroom;
+    private LocalDate testDate;
+
+    @BeforeEach
+    void setUp() {
+        searchService = new AvailabilitySearchService(spaceService, restaurantService, reservationRepository,
+                availabilityService, 2, 1000, 50);
+        restaurant = Restaurant.builder().id(new ObjectId()).name("Test Restaurant").city("Springfield").build();
+        gardenRoom = space("Garden Room", 16);
+        ballroom = space("Ballroom", 60);
+        testDate = LocalDate.now().plusDays(7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchService.stop();
+    }
+
+    private Space space(String name, int maxCapacity) {
+        return Space.builder()
+                .id(UUID.randomUUID())
+                .restaurantId(restaurant.getId().toHexString())
+                .name(name)
+                .maxCapacity(maxCapacity)
+                .slotDurationMinutes(60)
+                .build();
+    }
+
+    private void givenSlots(Space space, String... startTimesWithCapacity) {
+        List<TimeSlotResponse> slots = new ArrayList<>();
+        for (String entry : startTimesWithCapacity) {
+            String[] parts = entry.split("=");
+            int hour = Integer.parseInt(parts[0].substring(0, 2));
+            slots.add(TimeSlotResponse.builder()
+                    .startTime(parts[0])
+                    .endTime(String.format("%02d:00", hour + 1))
+                    .availableCapacity(Integer.parseInt(parts[1]))
+                    .status(SlotStatus.AVAILABLE)
+                    .build());
+        }
+        when(availabilityService.buildAvailabilityFromIntervals(eq(space), any(), eq(testDate), any()))
+                .thenReturn(AvailabilityResponse.builder().timeSlots(slots).build());
+    }
+
+    @Nested
+    @DisplayName("restaurant search")
+    class RestaurantSearchTests {
+
+        @Test
+        @DisplayName("Should evaluate all candidates from one reservation query and rank by time, then fit")
+        void shouldRankMatches() {
+            when(restaurantService.getRestaurantById(restaurant.getId())).thenReturn(Optional.of(restaurant));
+            when(spaceService.findSpacesForPartySize(restaurant.getId().toHexString(), 14))
+                    .thenReturn(List.of(ballroom, gardenRoom));
+            when(reservationRepository.findBySpaceIdInAndReservationDateAndStatus(
+                    anyCollection(), eq(testDate), eq(ReservationStatus.CONFIRMED)))
+                    .thenReturn(List.of(Reservation.builder().spaceId(gardenRoom.getId())
+                            .startTime("18:00").endTime("19:00").partySize(4).build()));
+            givenSlots(ballroom, "18:00=60", "19:00=60");
+            givenSlots(gardenRoom, "18:00=12", "19:00=16", "20:00=16");
+
+            AvailabilitySearchResponse result = searchService.search(
+                    restaurant.getId().toHexString(), null, testDate, 14, "19:00", 60, 10);
+
+            assertEquals(2, result.getSpacesConsidered());
+            assertEquals(2, result.getSpacesEvaluated());
+            assertFalse(result.getPartial());
+            assertEquals(List.of("Garden Room 19:00", "Ballroom 19:00", "Garden Room 20:00", "Ballroom 18:00"),
+                    result.getResults().stream().map(m -> m.getSpaceName() + " " + m.getStartTime()).toList());
+            assertEquals("Test Restaurant", result.getResults().get(0).getRestaurantName());
+            verify(reservationRepository, times(1)).findBySpaceIdInAndReservationDateAndStatus(
+                    argThat((Collection<UUID> ids) -> ids.size() == 2), eq(testDate), eq(ReservationStatus.CONFIRMED));
+        }
+
+        @Test
+        @DisplayName("Should cap results at the requested limit")
+        void shouldCapResults() {
+            when(restaurantService.getRestaurantById(restaurant.getId())).thenReturn(Optional.of(restaurant));
+            when(spaceService.findSpacesForPartySize(restaurant.getId().toHexString(), 14))
+                    .thenReturn(List.of(ballroom));
+            givenSlots(ballroom, "17:00=60", "18:00=60", "19:00=60");
+
+            AvailabilitySearchResponse result = searchService.search(
+                    restaurant.getId().toHexString(), null, testDate, 14, null, 60, 2);
+
+            assertEquals(List.of("17:00", "18:00"),
+                    result.getResults().stream().map(SpaceSlotMatch::getStartTime).toList());
+        }
+
+        @Test
+        @DisplayName("Should return what was evaluated within the latency budget")
+        void shouldReturnPartialResultsOverBudget() {
+            AvailabilitySearchService tightBudget = new AvailabilitySearchService(spaceService, restaurantService,
+                    reservationRepository, availabilityService, 2, 100, 50);
+            try {
+                when(restaurantService.getRestaurantById(restaurant.getId())).thenReturn(Optional.of(restaurant));
+                when(spaceService.findSpacesForPartySize(restaurant.getId().toHexString(), 14))
+                        .thenReturn(List.of(ballroom, gardenRoom));
+                givenSlots(ballroom, "19:00=60");
+                when(availabilityService.buildAvailabilityFromIntervals(eq(gardenRoom), any(), eq(testDate), any()))
+                        .thenAnswer(invocation -> {
+                            Thread.sleep(2000);
+                            return AvailabilityResponse.builder().timeSlots(List.of()).build();
+                        });
+
+                AvailabilitySearchResponse result = tightBudget.search(
+                        restaurant.getId().toHexString(), null, testDate, 14, null, 60, 10);
+
+                assertTrue(result.getPartial());
+                assertEquals(1, result.getSpacesEvaluated());
+                assertEquals(1, result.getResults().size());
+            } finally {
+                tightBudget.stop();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should search every active restaurant of a city with batched queries")
+    void shouldSearchCity() {
+        when(restaurantService.getActiveRestaurantsByCity("Springfield")).thenReturn(List.of(restaurant));
+        when(spaceService.findSpacesForPartySize(anyCollection(), eq(14))).thenReturn(List.of(gardenRoom));
+        givenSlots(gardenRoom, "19:00=16");
+
+        AvailabilitySearchResponse result = searchService.search(null, "Springfield", testDate, 14, null, 60, 10);
+
+        assertEquals(1, result.getResults().size());
+        verify(spaceService).findSpacesForPartySize(
+                argThat((Collection<String> ids) -> ids.contains(restaurant.getId().toHexString())), eq(14));
+    }
+
+    @Test
+    @DisplayName("Should require exactly one of restaurantId and city")
+    void shouldRejectAmbiguousScope() {
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search(null, null, testDate, 14, null, 60, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search(restaurant.getId().toHexString(), "Springfield", testDate, 14, null, 60, 10));
+    }
+}
@@ -1,7 +1,10 @@
 package com.opentable.privatedining.service;
 
+import com.opentable.privatedining.dto.response.AvailabilityCalendarResponse;
 import com.opentable.privatedining.dto.response.AvailabilityResponse;
+import com.opentable.privatedining.dto.response.CalendarDayAvailability;
 import com.opentable.privatedining.dto.response.TimeSlotResponse;
+import com.opentable.privatedining.exception.InvalidDateRangeException;
 import com.opentable.privatedining.exception.SpaceNotFoundException;
 import com.opentable.privatedining.model.OperatingHours;
 import com.opentable.privatedining.model.Reservation;
@@ -12,7 +15,9 @@ import com.opentable.privatedining.model.enums.SlotStatus;
 import com.opentable.privatedining.repository.ReservationRepository;
 import com.opentable.privatedining.repository.SpaceRepository;
 import com.opentable.privatedining.repository.TotalPartySizeResult;
+import com.opentable.privatedining.util.BookedInterval;
 import com.opentable.privatedining.util.TimeSlotGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,9 +26,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -50,6 +57,15 @@ class AvailabilityServiceTest {
     @Mock
     private TimeSlotGenerator timeSlotGenerator;
 
+    @Mock
+    private AvailabilitySnapshotService snapshotService;
+
+    @Mock
+    private AvailabilityVersionService versionService;
+
+    @Spy
+    private CatalogCache catalogCache = new CatalogCache(new SimpleMeterRegistry(), true, 100, 60);
+
     @InjectMocks
     private AvailabilityService availabilityService;
 
@@ -313,7 +329,7 @@ class AvailabilityServiceTest {
             when(reservationRepository.findBySpaceIdAndReservationDateAndStatus(
                     eq(spaceId), any(), eq(ReservationStatus.CONFIRMED)))
                     .thenReturn(Collections.emptyList());
-            when(timeSlotGenerator.generateTimeSlots(any(), eq(testSpace), any()))
+            when(timeSlotGenerator.generateTimeSlotsForIntervals(any(), eq(testSpace), any()))
                     .thenReturn(mockTimeSlots);
 
             // When
@@ -341,7 +357,7 @@ class AvailabilityServiceTest {
             when(reservationRepository.findBySpaceIdAndReservationDateAndStatus(
                     eq(spaceId), any(), eq(ReservationStatus.CONFIRMED)))
                     .thenReturn(Collections.emptyList());
-            when(timeSlotGenerator.generateTimeSlots(any(), eq(testSpace), any()))
+            when(timeSlotGenerator.generateTimeSlotsForIntervals(any(), eq(testSpace), any()))
                     .thenReturn(Collections.emptyList());
 
             // When
@@ -353,6 +369,29 @@ class AvailabilityServiceTest {
             assertEquals("Closed", result.getOperatingHours());
         }
 
+        @Test
+        @DisplayName("Should read booked intervals from the snapshot when enabled")
+        void shouldUseSnapshotWhenEnabled() {
+            // Given
+            List<BookedInterval> booked = List.of(
+                    new BookedInterval(LocalTime.of(18, 0), LocalTime.of(19, 0), 12, 2));
+
+            when(spaceRepository.findActiveById(spaceId)).thenReturn(Optional.of(testSpace));
+            when(restaurantService.getRestaurantById(any(ObjectId.class)))
+                    .thenReturn(Optional.of(testRestaurant));
+            when(snapshotService.isEnabled()).thenReturn(true);
+            when(snapshotService.getBookedIntervals(spaceId, testDate)).thenReturn(booked);
+            when(timeSlotGenerator.generateTimeSlotsForIntervals(any(), eq(testSpace), eq(booked)))
+                    .thenReturn(Collections.emptyList());
+
+            // When
+            AvailabilityResponse result = availabilityService.getAvailability(spaceId, testDate);
+
+            // Then
+            assertNotNull(result);
+            verify(reservationRepository, never()).findBySpaceIdAndReservationDateAndStatus(any(), any(), any());
+        }
+
         @Test
         @DisplayName("Should throw exception when space not found")
         void shouldThrowExceptionWhenSpaceNotFound() {
@@ -367,6 +406,133 @@ class AvailabilityServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("getAvailabilityVersionTag tests")
+    class GetAvailabilityVersionTagTests {
+
+        @Test
+        @DisplayName("Should derive the tag from the day version without loading reservations")
+        void shouldTagFromDayVersion() {
+            when(spaceRepository.findActiveById(spaceId)).thenReturn(Optional.of(testSpace));
+            when(restaurantService.getRestaurantById(restaurantId)).thenReturn(Optional.of(testRestaurant));
+            when(versionService.getVersion(spaceId, testDate)).thenReturn(7L);
+
+            String tag = availabilityService.getAvailabilityVersionTag(spaceId, testDate);
+
+            assertTrue(tag.startsWith("7."));
+            verifyNoInteractions(reservationRepository, snapshotService, timeSlotGenerator);
+        }
+
+        @Test
+        @DisplayName("Should change the tag when the version or the space changes")
+        void shouldChangeTagWithVersionAndCatalog() {
+            when(spaceRepository.findActiveById(spaceId)).thenReturn(Optional.of(testSpace));
+            when(restaurantService.getRestaurantById(restaurantId)).thenReturn(Optional.of(testRestaurant));
+            when(versionService.getVersion(spaceId, testDate)).thenReturn(7L, 8L, 8L);
+
+            String first = availabilityService.getAvailabilityVersionTag(spaceId, testDate);
+            String bumped = availabilityService.getAvailabilityVersionTag(spaceId, testDate);
+            testSpace.setMaxCapacity(30);
+            String resized = availabilityService.getAvailabilityVersionTag(spaceId, testDate);
+
+            assertNotEquals(first, bumped);
+            assertNotEquals(bumped, resized);
+        }
+
+        @Test
+        @DisplayName("Should tag a day that never changed with version 0")
+        void shouldTagUnchangedDay() {
+            when(spaceRepository.findActiveById(spaceId)).thenReturn(Optional.of(testSpace));
+            when(restaurantService.getRestaurantById(restaurantId)).thenReturn(Optional.of(testRestaurant));
+            when(versionService.getVersion(spaceId, testDate)).thenReturn(0L);
+
+            assertTrue(availabilityService.getAvailabilityVersionTag(spaceId, testDate).startsWith("0."));
+        }
+    }
+
+    @Nested
+    @DisplayName("getAvailabilityCalendar tests")
+    class GetAvailabilityCalendarTests {
+
+        @Test
+        @DisplayName("Should load the range with one query and summarize each day")
+        void shouldSummarizeEachDay() {
+            // Given
+            LocalDate endDate = testDate.plusDays(2);
+            Reservation booked = Reservation.builder()
+                    .spaceId(spaceId)
+                    .reservationDate(testDate)
+                    .startTime("18:00")
+                    .endTime("19:00")
+                    .partySize(8)
+                    .build();
+            List<TimeSlotResponse> slots = List.of(
+                    TimeSlotResponse.builder().startTime("18:00").endTime("19:00")
+                            .availableCapacity(0).status(SlotStatus.FULL).build(),
+                    TimeSlotResponse.builder().startTime("19:00").endTime("20:00")
+                            .availableCapacity(4).status(SlotStatus.LIMITED).build());
+
+            when(spaceRepository.findActiveById(spaceId)).thenReturn(Optional.of(testSpace));
+            when(restaurantService.getRestaurantById(any(ObjectId.class)))
+                    .thenReturn(Optional.of(testRestaurant));
+            when(reservationRepository.findBySpaceIdAndReservationDateBetweenAndStatus(
+                    spaceId, testDate, endDate, ReservationStatus.CONFIRMED))
+                    .thenReturn(List.of(booked));
+            when(timeSlotGenerator.generateTimeSlotsForIntervals(any(), eq(testSpace), any()))
+                    .thenReturn(slots);
+
+            // When
+            AvailabilityCalendarResponse result =
+                    availabilityService.getAvailabilityCalendar(spaceId, testDate, endDate, false);
+
+            // Then
+            assertEquals(3, result.getDays().size());
+            CalendarDayAvailability first = result.getDays().get(0);
+            assertEquals(testDate, first.getDate());
+            assertEquals(SlotStatus.LIMITED, first.getStatus());
+            assertEquals(2, first.getTotalSlots());
+            assertEquals(1, first.getAvailableSlots());
+            assertEquals(4, first.getMaxAvailableCapacity());
+            assertNull(first.getTimeSlots());
+            verify(reservationRepository, times(1)).findBySpaceIdAndReservationDateBetweenAndStatus(
+                    any(), any(), any(), any());
+            verify(restaurantService, times(1)).getRestaurantById(any(ObjectId.class));
+            verify(timeSlotGenerator).generateTimeSlotsForIntervals(any(), eq(testSpace),
+                    eq(List.of(BookedInterval.of(booked))));
+            verify(timeSlotGenerator, times(2)).generateTimeSlotsForIntervals(any(), eq(testSpace), eq(List.of()));
+        }
+
+        @Test
+        @DisplayName("Should include time slots when requested")
+        void shouldIncludeSlotsWhenRequested() {
+            // Given
+            when(spaceRepository.findActiveById(spaceId)).thenReturn(Optional.of(testSpace));
+            when(restaurantService.getRestaurantById(any(ObjectId.class)))
+                    .thenReturn(Optional.of(testRestaurant));
+            when(timeSlotGenerator.generateTimeSlotsForIntervals(any(), eq(testSpace), any()))
+                    .thenReturn(List.of(TimeSlotResponse.builder().startTime("18:00").endTime("19:00")
+                            .availableCapacity(20).status(SlotStatus.AVAILABLE).build()));
+
+            // When
+            AvailabilityCalendarResponse result =
+                    availabilityService.getAvailabilityCalendar(spaceId, testDate, testDate, true);
+
+            // Then
+            assertEquals(1, result.getDays().get(0).getTimeSlots().size());
+        }
+
+        @Test
+        @DisplayName("Should reject reversed and oversized ranges")
+        void shouldRejectInvalidRanges() {
+            assertThrows(InvalidDateRangeException.class,
+                    () -> availabilityService.getAvailabilityCalendar(spaceId, testDate, testDate.minusDays(1), false));
+            assertThrows(InvalidDateRangeException.class,
+                    () -> availabilityService.getAvailabilityCalendar(spaceId, testDate,
+                            testDate.plusDays(AvailabilityService.MAX_CALENDAR_DAYS), false));
+            verifyNoInteractions(reservationRepository);
+        }
+    }
+
     @Nested
     @DisplayName("getOverlappingReservations tests")
     class GetOverlappingReservationsTests {
@@ -0,0 +1,317 @@
+package com.opentable.privatedining.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.opentable.privatedining.model.AvailabilitySnapshot;
+import com.opentable.privatedining.model.AvailabilitySnapshot.BookedWindow;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.util.BookedInterval;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AvailabilitySnapshotService Tests")
+class AvailabilitySnapshotServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private AvailabilityVersionService versionService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilitySnapshotService snapshotService;
+    private UUID spaceId;
+    private LocalDate testDate;
+    private String snapshotId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        snapshotService = new AvailabilitySnapshotService(mongoTemplate, versionService, meterRegistry, true, 0);
+        spaceId = UUID.randomUUID();
+        testDate = LocalDate.now().plusDays(7);
+        snapshotId = AvailabilitySnapshot.generateId(spaceId, testDate);
+    }
+
+    private Reservation reservation(String startTime, String endTime, int partySize) {
+        return Reservation.builder()
+                .id(new ObjectId())
+                .spaceId(spaceId)
+                .reservationDate(testDate)
+                .startTime(startTime)
+                .endTime(endTime)
+                .partySize(partySize)
+                .build();
+    }
+
+    private AvailabilitySnapshot snapshot(long revision, Reservation... reservations) {
+        Map<String, BookedWindow> bookings = new HashMap<>();
+        for (Reservation reservation : reservations) {
+            bookings.put(reservation.getId().toHexString(), new BookedWindow(
+                    AvailabilitySnapshot.intervalKey(reservation.getStartTime(), reservation.getEndTime()),
+                    reservation.getPartySize()));
+        }
+        return AvailabilitySnapshot.builder()
+                .id(snapshotId)
+                .spaceId(spaceId)
+                .date(testDate)
+                .bookings(bookings)
+                .complete(true)
+                .revision(revision)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("getBookedIntervals")
+    class GetBookedIntervalsTests {
+
+        @Test
+        @DisplayName("Should serve a complete snapshot, skipping released reservations")
+        void shouldReadExistingSnapshot() {
+            Reservation first = reservation("18:00", "19:00", 8);
+            Reservation second = reservation("18:00", "19:00", 4);
+            Reservation cancelled = reservation("19:00", "20:00", 6);
+            AvailabilitySnapshot snapshot = snapshot(3, first, second, cancelled);
+            snapshot.getReleased().add(cancelled.getId().toHexString());
+            when(mongoTemplate.findById(snapshotId, AvailabilitySnapshot.class)).thenReturn(snapshot);
+
+            List<BookedInterval> intervals = snapshotService.getBookedIntervals(spaceId, testDate);
+
+            assertEquals(List.of(new BookedInterval(LocalTime.of(18, 0), LocalTime.of(19, 0), 12, 2)), intervals);
+            verify(mongoTemplate, never()).find(any(Query.class), eq(Reservation.class));
+        }
+
+        @Test
+        @DisplayName("Should create the snapshot before reading reservations, then merge them by id")
+        void shouldBuildOnMiss() {
+            Reservation first = reservation("18:00", "19:00", 4);
+            Reservation second = reservation("20:00", "22:00", 8);
+            Reservation concurrent = reservation("18:00", "19:00", 6);
+            when(mongoTemplate.find(any(Query.class), eq(Reservation.class))).thenReturn(List.of(first, second));
+            when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                    eq(AvailabilitySnapshot.class))).thenReturn(snapshot(2, first, second, concurrent));
+
+            List<BookedInterval> intervals = snapshotService.getBookedIntervals(spaceId, testDate);
+
+            // The merged document also carries a booking applied while the build was reading
+            assertEquals(List.of(
+                    new BookedInterval(LocalTime.of(18, 0), LocalTime.of(19, 0), 10, 2),
+                    new BookedInterval(LocalTime.of(20, 0), LocalTime.of(22, 0), 8, 1)), intervals);
+
+            InOrder build = inOrder(mongoTemplate);
+            build.verify(mongoTemplate).upsert(any(Query.class), any(Update.class), eq(AvailabilitySnapshot.class));
+            build.verify(mongoTemplate).find(any(Query.class), eq(Reservation.class));
+            ArgumentCaptor<Update> merge = ArgumentCaptor.forClass(Update.class);
+            build.verify(mongoTemplate).findAndModify(any(Query.class), merge.capture(),
+                    any(FindAndModifyOptions.class), eq(AvailabilitySnapshot.class));
+
+            Document set = (Document) merge.getValue().getUpdateObject().get("$set");
+            assertTrue(set.containsKey("bookings." + first.getId().toHexString()));
+            assertTrue(set.containsKey("bookings." + second.getId().toHexString()));
+            assertEquals(true, set.get("complete"));
+            assertEquals(1.0, meterRegistry.get("availability.snapshot.rebuilds").counter().count());
+        }
+
+        @Test
+        @DisplayName("Should rebuild a snapshot that only holds increments")
+        void shouldBuildIncompleteSnapshot() {
+            AvailabilitySnapshot incomplete = snapshot(1, reservation("18:00", "19:00", 4));
+            incomplete.setComplete(false);
+            when(mongoTemplate.findById(snapshotId, AvailabilitySnapshot.class)).thenReturn(incomplete);
+            when(mongoTemplate.find(any(Query.class), eq(Reservation.class))).thenReturn(List.of());
+
+            snapshotService.getBookedIntervals(spaceId, testDate);
+
+            verify(mongoTemplate).find(any(Query.class), eq(Reservation.class));
+        }
+
+        @Test
+        @DisplayName("Should serve the reservations read when the snapshot was evicted mid-build")
+        void shouldServeReadWhenEvicted() {
+            when(mongoTemplate.find(any(Query.class), eq(Reservation.class)))
+                    .thenReturn(List.of(reservation("18:00", "19:00", 4)));
+
+            List<BookedInterval> intervals = snapshotService.getBookedIntervals(spaceId, testDate);
+
+            assertEquals(List.of(new BookedInterval(LocalTime.of(18, 0), LocalTime.of(19, 0), 4, 1)), intervals);
+            assertEquals(0.0, meterRegistry.get("availability.snapshot.rebuilds").counter().count());
+        }
+    }
+
+    @Nested
+    @DisplayName("incremental maintenance")
+    class IncrementalTests {
+
+        @Test
+        @DisplayName("Should set the booking by reservation id, so applying it twice counts once")
+        void shouldSetBookingById() {
+            Reservation reservation = reservation("18:00", "19:00", 4);
+
+            snapshotService.recordBooked(reservation);
+
+            ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+            verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(AvailabilitySnapshot.class));
+            Document set = (Document) update.getValue().getUpdateObject().get("$set");
+            assertEquals(new BookedWindow("18:00-19:00", 4), set.get("bookings." + reservation.getId().toHexString()));
+            assertEquals(new Document("revision", 1), update.getValue().getUpdateObject().get("$inc"));
+        }
+
+        @Test
+        @DisplayName("Should record a release by reservation id")
+        void shouldRecordRelease() {
+            Reservation reservation = reservation("18:00", "19:00", 4);
+
+            snapshotService.recordReleased(reservation);
+
+            ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+            verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(AvailabilitySnapshot.class));
+            assertEquals(new Document("released", reservation.getId().toHexString()),
+                    update.getValue().getUpdateObject().get("$addToSet"));
+        }
+
+        @Test
+        @DisplayName("Should evict the snapshot when an update fails")
+        void shouldEvictOnFailure() {
+            when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(AvailabilitySnapshot.class)))
+                    .thenThrow(new DataAccessResourceFailureException("timeout"));
+
+            assertDoesNotThrow(() -> snapshotService.recordBooked(reservation("18:00", "19:00", 4)));
+
+            verify(mongoTemplate).remove(any(Query.class), eq(AvailabilitySnapshot.class));
+        }
+
+        @Test
+        @DisplayName("Should not touch Mongo when disabled")
+        void shouldSkipWhenDisabled() {
+            AvailabilitySnapshotService disabled =
+                    new AvailabilitySnapshotService(mongoTemplate, versionService, new SimpleMeterRegistry(), false, 0);
+
+            disabled.recordBooked(reservation("18:00", "19:00", 4));
+            disabled.recordReleased(reservation("18:00", "19:00", 4));
+
+            assertEquals(0, disabled.reconcile());
+            verifyNoInteractions(mongoTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("reconcile")
+    class ReconcileTests {
+
+        @Test
+        @DisplayName("Should only visit space-days touched since the last run")
+        void shouldSkipUntouchedDays() {
+            assertEquals(0, snapshotService.reconcile());
+
+            verifyNoInteractions(mongoTemplate);
+        }
+
+        @Test
+        @DisplayName("Should leave matching snapshots alone")
+        void shouldSkipMatchingSnapshots() {
+            Reservation reservation = reservation("18:00", "19:00", 10);
+            snapshotService.recordBooked(reservation);
+            when(mongoTemplate.findById(snapshotId, AvailabilitySnapshot.class)).thenReturn(snapshot(5, reservation));
+            when(mongoTemplate.find(any(Query.class), eq(Reservation.class))).thenReturn(List.of(reservation));
+
+            assertEquals(0, snapshotService.reconcile());
+
+            verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(AvailabilitySnapshot.class));
+            verifyNoInteractions(versionService);
+        }
+
+        @Test
+        @DisplayName("Should rewrite drifted snapshots guarded by their revision and bump the day's version")
+        void shouldRewriteDriftedSnapshots() {
+            Reservation reservation = reservation("18:00", "19:00", 10);
+            Reservation missing = reservation("20:00", "21:00", 2);
+            snapshotService.recordBooked(reservation);
+            when(mongoTemplate.findById(snapshotId, AvailabilitySnapshot.class)).thenReturn(snapshot(5, reservation));
+            when(mongoTemplate.find(any(Query.class), eq(Reservation.class))).thenReturn(List.of(reservation, missing));
+            when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(AvailabilitySnapshot.class)))
+                    .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+            assertEquals(1, snapshotService.reconcile());
+
+            ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+            verify(mongoTemplate).updateFirst(query.capture(), any(Update.class), eq(AvailabilitySnapshot.class));
+            assertEquals(5L, query.getValue().getQueryObject().get("revision"));
+            assertEquals(1.0, meterRegistry.get("availability.snapshot.drift").counter().count());
+            verify(versionService).bump(spaceId, testDate);
+
+            // The day is done until it is touched again
+            assertEquals(0, snapshotService.reconcile());
+            verify(mongoTemplate, times(1)).findById(snapshotId, AvailabilitySnapshot.class);
+        }
+
+        @Test
+        @DisplayName("Should retry a rewrite that lost to a concurrent update on the next run")
+        void shouldRetryConcurrentlyChangedSnapshots() {
+            Reservation reservation = reservation("18:00", "19:00", 6);
+            snapshotService.recordReleased(reservation);
+            when(mongoTemplate.findById(snapshotId, AvailabilitySnapshot.class)).thenReturn(snapshot(5, reservation));
+            when(mongoTemplate.find(any(Query.class), eq(Reservation.class))).thenReturn(List.of());
+            when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(AvailabilitySnapshot.class)))
+                    .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+            assertEquals(0, snapshotService.reconcile());
+            assertEquals(0.0, meterRegistry.get("availability.snapshot.drift").counter().count());
+            verifyNoInteractions(versionService);
+
+            snapshotService.reconcile();
+            verify(mongoTemplate, times(2)).findById(snapshotId, AvailabilitySnapshot.class);
+        }
+
+        @Test
+        @DisplayName("Should leave incomplete snapshots to the next read")
+        void shouldSkipIncompleteSnapshots() {
+            snapshotService.recordBooked(reservation("18:00", "19:00", 4));
+            AvailabilitySnapshot incomplete = snapshot(1);
+            incomplete.setComplete(false);
+            when(mongoTemplate.findById(snapshotId, AvailabilitySnapshot.class)).thenReturn(incomplete);
+
+            assertEquals(0, snapshotService.reconcile());
+
+            verify(mongoTemplate, never()).find(any(Query.class), eq(Reservation.class));
+        }
+    }
+
+    @Test
+    @DisplayName("Should count a reservation once however often it is booked, and not after release")
+    void shouldFoldBookingsBySet() {
+        Reservation reservation = reservation("18:00", "19:00", 4);
+        AvailabilitySnapshot snapshot = snapshot(1, reservation, reservation);
+
+        assertEquals(Map.of("18:00-19:00", new AvailabilitySnapshot.IntervalTally(4, 1)), snapshot.tallies());
+
+        snapshot.setReleased(Set.of(reservation.getId().toHexString()));
+        assertTrue(snapshot.tallies().isEmpty());
+    }
+}
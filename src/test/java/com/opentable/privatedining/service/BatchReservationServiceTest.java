@@ -0,0 +1,287 @@
+package com.opentable.privatedining.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.opentable.privatedining.dto.request.BatchReservationRequest;
+import com.opentable.privatedining.dto.request.CreateReservationRequest;
+import com.opentable.privatedining.dto.response.BatchReservationItemResult;
+import com.opentable.privatedining.dto.response.BatchReservationResponse;
+import com.opentable.privatedining.dto.response.ReservationResponse;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.Restaurant;
+import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.validation.ReservationValidator;
+import jakarta.validation.Validation;
+import org.bson.BsonDocument;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BatchReservationService Tests")
+class BatchReservationServiceTest {
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Mock
+    private SpaceService spaceService;
+
+    @Mock
+    private RestaurantService restaurantService;
+
+    @Mock
+    private AvailabilityService availabilityService;
+
+    @Mock
+    private ReservationValidator reservationValidator;
+
+    @Mock
+    private SlotCapacityService slotCapacityService;
+
+    @Mock
+    private AvailabilitySnapshotService snapshotService;
+
+    @Mock
+    private AvailabilityVersionService versionService;
+
+    @Mock
+    private OccupancyRollupService rollupService;
+
+    @Mock
+    private ReportCache reportCache;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private BatchReservationService batchReservationService;
+
+    private Space testSpace;
+    private Restaurant testRestaurant;
+    private UUID spaceId;
+
+    @BeforeEach
+    void setUp() {
+        batchReservationService = new BatchReservationService(reservationService, spaceService,
+                restaurantService, availabilityService, reservationValidator, slotCapacityService, snapshotService,
+                versionService, rollupService, reportCache, mongoTemplate, Validation.buildDefaultValidatorFactory().getValidator());
+
+        ObjectId restaurantId = new ObjectId();
+        spaceId = UUID.randomUUID();
+        testSpace = Space.builder()
+                .id(spaceId)
+                .restaurantId(restaurantId.toHexString())
+                .name("Garden Room")
+                .maxCapacity(20)
+                .slotDurationMinutes(60)
+                .isActive(true)
+                .build();
+        testRestaurant = Restaurant.builder().id(restaurantId).name("Test Restaurant").build();
+    }
+
+    private CreateReservationRequest item(UUID space, String startTime, int partySize) {
+        return CreateReservationRequest.builder()
+                .spaceId(space)
+                .reservationDate(LocalDate.now().plusDays(7))
+                .startTime(startTime)
+                .partySize(partySize)
+                .customerName("Planner")
+                .customerEmail("planner@example.com")
+                .build();
+    }
+
+    private void givenSpaceAndRestaurant() {
+        when(spaceService.getActiveSpaceById(spaceId)).thenReturn(Optional.of(testSpace));
+        when(restaurantService.getRestaurantById(testRestaurant.getId())).thenReturn(Optional.of(testRestaurant));
+        when(availabilityService.calculateEndTime(eq(testSpace), anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(1).equals("18:00") ? "19:00" : "20:00");
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Reservation.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    @Test
+    @DisplayName("Should report per-item outcomes with partial success")
+    void shouldReportPartialSuccess() {
+        // Given: item 1 is invalid, item 2 is for an unknown space, item 3 does not fit
+        givenSpaceAndRestaurant();
+        UUID unknownSpaceId = UUID.randomUUID();
+        when(spaceService.getActiveSpaceById(unknownSpaceId)).thenReturn(Optional.empty());
+        when(slotCapacityService.tryReserveCapacityBatch(anyList())).thenReturn(new boolean[]{true, false, true});
+        when(reservationService.toResponse(any(Reservation.class), eq(testSpace), eq(testRestaurant)))
+                .thenReturn(new ReservationResponse());
+
+        BatchReservationRequest request = new BatchReservationRequest(List.of(
+                item(spaceId, "18:00", 8),
+                item(spaceId, "18:00", 0),
+                item(unknownSpaceId, "18:00", 4),
+                item(spaceId, "19:00", 6),
+                item(spaceId, "18:00", 30)));
+
+        // When
+        BatchReservationResponse response = batchReservationService.createReservations(request);
+
+        // Then
+        assertEquals(5, response.getRequested());
+        assertEquals(2, response.getCreated());
+        assertEquals(3, response.getRejected());
+
+        List<BatchReservationItemResult> results = response.getResults();
+        assertEquals(BatchReservationItemResult.CREATED, results.get(0).getStatus());
+        assertEquals("VALIDATION_ERROR", results.get(1).getErrorCode());
+        assertEquals("SPACE_NOT_FOUND", results.get(2).getErrorCode());
+        assertEquals(BatchReservationItemResult.CREATED, results.get(3).getStatus());
+        assertEquals("CAPACITY_EXCEEDED", results.get(4).getErrorCode());
+
+        // Space and restaurant are loaded once for the whole batch
+        verify(spaceService, times(1)).getActiveSpaceById(spaceId);
+        verify(restaurantService, times(1)).getRestaurantById(testRestaurant.getId());
+
+        // Same-slot items are grouped ahead of later slots, in request order
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SlotCapacityService.CapacityClaim>> claimsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(slotCapacityService).tryReserveCapacityBatch(claimsCaptor.capture());
+        assertEquals(List.of("18:00", "18:00", "19:00"),
+                claimsCaptor.getValue().stream().map(SlotCapacityService.CapacityClaim::startTime).toList());
+        assertEquals(List.of(8, 30, 6),
+                claimsCaptor.getValue().stream().map(SlotCapacityService.CapacityClaim::partySize).toList());
+
+        // Only admitted reservations are inserted, in one bulk write
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Reservation>> insertCaptor = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations).insert(insertCaptor.capture());
+        assertEquals(2, insertCaptor.getValue().size());
+        assertTrue(insertCaptor.getValue().stream().allMatch(r -> r.getId() != null && r.getVersion() == 0L));
+        verify(bulkOperations, times(1)).execute();
+        verify(versionService).bumpReservations(insertCaptor.getValue());
+    }
+
+    @Test
+    @DisplayName("Should release capacity for reservations that fail to insert")
+    void shouldCompensateFailedInserts() {
+        // Given
+        givenSpaceAndRestaurant();
+        when(slotCapacityService.tryReserveCapacityBatch(anyList())).thenReturn(new boolean[]{true, true});
+        when(reservationService.toResponse(any(Reservation.class), eq(testSpace), eq(testRestaurant)))
+                .thenReturn(new ReservationResponse());
+
+        BulkOperationException insertFailure = mock(BulkOperationException.class);
+        when(insertFailure.getErrors()).thenReturn(List.of(
+                new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1)));
+        when(bulkOperations.execute()).thenThrow(insertFailure);
+
+        BatchReservationRequest request = new BatchReservationRequest(List.of(
+                item(spaceId, "18:00", 8),
+                item(spaceId, "19:00", 6)));
+
+        // When
+        BatchReservationResponse response = batchReservationService.createReservations(request);
+
+        // Then
+        assertEquals(1, response.getCreated());
+        assertEquals(BatchReservationItemResult.CREATED, response.getResults().get(0).getStatus());
+        assertEquals("RESERVATION_ERROR", response.getResults().get(1).getErrorCode());
+        verify(slotCapacityService).releaseCapacity(spaceId, LocalDate.now().plusDays(7), "19:00", "20:00", 6);
+        verify(slotCapacityService, never()).releaseCapacity(any(), any(), eq("18:00"), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should keep compensating and answer per item when a release fails")
+    void shouldContinueWhenReleaseFails() {
+        // Given
+        givenSpaceAndRestaurant();
+        when(slotCapacityService.tryReserveCapacityBatch(anyList())).thenReturn(new boolean[]{true, true, true});
+        when(reservationService.toResponse(any(Reservation.class), eq(testSpace), eq(testRestaurant)))
+                .thenReturn(new ReservationResponse());
+
+        BulkOperationException insertFailure = mock(BulkOperationException.class);
+        when(insertFailure.getErrors()).thenReturn(List.of(
+                new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1),
+                new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 2)));
+        when(bulkOperations.execute()).thenThrow(insertFailure);
+        doThrow(new DataAccessResourceFailureException("socket timeout")).when(slotCapacityService)
+                .releaseCapacity(spaceId, LocalDate.now().plusDays(7), "19:00", "20:00", 6);
+
+        BatchReservationRequest request = new BatchReservationRequest(List.of(
+                item(spaceId, "18:00", 8),
+                item(spaceId, "19:00", 6),
+                item(spaceId, "20:00", 4)));
+
+        // When
+        BatchReservationResponse response = batchReservationService.createReservations(request);
+
+        // Then
+        assertEquals(1, response.getCreated());
+        assertEquals("RESERVATION_ERROR", response.getResults().get(1).getErrorCode());
+        assertEquals("RESERVATION_ERROR", response.getResults().get(2).getErrorCode());
+        verify(slotCapacityService).releaseCapacity(eq(spaceId), any(), eq("20:00"), any(), eq(4));
+    }
+
+    @Test
+    @DisplayName("Should release capacity of unwritten reservations when the insert fails outright")
+    void shouldCompensateAmbiguousInsertFailure() {
+        // Given: the insert times out after writing only the first reservation
+        givenSpaceAndRestaurant();
+        when(slotCapacityService.tryReserveCapacityBatch(anyList())).thenReturn(new boolean[]{true, true});
+        when(reservationService.toResponse(any(Reservation.class), eq(testSpace), eq(testRestaurant)))
+                .thenReturn(new ReservationResponse());
+        List<Reservation> sent = new ArrayList<>();
+        when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            sent.addAll(invocation.getArgument(0));
+            return bulkOperations;
+        });
+        when(bulkOperations.execute()).thenThrow(new DataAccessResourceFailureException("socket timeout"));
+        when(mongoTemplate.find(any(Query.class), eq(Reservation.class)))
+                .thenAnswer(invocation -> List.of(sent.get(0)));
+
+        BatchReservationRequest request = new BatchReservationRequest(List.of(
+                item(spaceId, "18:00", 8),
+                item(spaceId, "19:00", 6)));
+
+        // When
+        BatchReservationResponse response = batchReservationService.createReservations(request);
+
+        // Then
+        assertEquals(1, response.getCreated());
+        assertEquals(BatchReservationItemResult.CREATED, response.getResults().get(0).getStatus());
+        assertEquals("RESERVATION_ERROR", response.getResults().get(1).getErrorCode());
+        verify(slotCapacityService).releaseCapacity(spaceId, LocalDate.now().plusDays(7), "19:00", "20:00", 6);
+        verify(slotCapacityService, never()).releaseCapacity(any(), any(), eq("18:00"), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should fail the request instead of rejecting items when the database is unreachable")
+    void shouldNotReportInfrastructureFailuresPerItem() {
+        // Given
+        when(spaceService.getActiveSpaceById(spaceId))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        BatchReservationRequest request = new BatchReservationRequest(List.of(item(spaceId, "18:00", 8)));
+
+        // When & Then
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> batchReservationService.createReservations(request));
+        verify(slotCapacityService, never()).tryReserveCapacityBatch(anyList());
+    }
+}
@@ -0,0 +1,88 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.model.Restaurant;
+import com.opentable.privatedining.model.Space;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CatalogCache Tests")
+class CatalogCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogCache catalogCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        catalogCache = new CatalogCache(meterRegistry, true, 100, 60);
+        loads = new AtomicInteger();
+    }
+
+    private Optional<Space> loadSpace(UUID id) {
+        loads.incrementAndGet();
+        return Optional.of(Space.builder().id(id).name("Garden Room").maxCapacity(20).build());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the cache and record hits and misses")
+    void shouldCacheLookups() {
+        UUID spaceId = UUID.randomUUID();
+
+        Optional<Space> first = catalogCache.getSpace(spaceId, this::loadSpace);
+        Optional<Space> second = catalogCache.getSpace(spaceId, this::loadSpace);
+
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "catalog.spaces").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "catalog.spaces").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should reload an entity after it is invalidated")
+    void shouldReloadAfterInvalidation() {
+        UUID spaceId = UUID.randomUUID();
+        catalogCache.getSpace(spaceId, this::loadSpace);
+
+        catalogCache.invalidateSpace(spaceId);
+        catalogCache.getSpace(spaceId, this::loadSpace);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should not cache absent entities")
+    void shouldNotCacheAbsentEntities() {
+        ObjectId restaurantId = new ObjectId();
+        Restaurant restaurant = Restaurant.builder().id(restaurantId).name("Test Restaurant").build();
+
+        assertTrue(catalogCache.getRestaurant(restaurantId, id -> Optional.empty()).isEmpty());
+        Optional<Restaurant> created = catalogCache.getRestaurant(restaurantId, id -> Optional.of(restaurant));
+
+        assertEquals(Optional.of(restaurant), created);
+    }
+
+    @Test
+    @DisplayName("Should always call the loader when disabled")
+    void shouldPassThroughWhenDisabled() {
+        CatalogCache disabled = new CatalogCache(new SimpleMeterRegistry(), false, 100, 60);
+        UUID spaceId = UUID.randomUUID();
+
+        disabled.getSpace(spaceId, this::loadSpace);
+        disabled.getSpace(spaceId, this::loadSpace);
+
+        assertEquals(2, loads.get());
+    }
+}
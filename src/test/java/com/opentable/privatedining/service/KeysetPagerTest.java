@@ -0,0 +1,162 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.dto.response.CursorPageResponse;
+import com.opentable.privatedining.model.Reservation;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("KeysetPager Tests")
+class KeysetPagerTest {
+
+    private static final Map<String, KeysetPager.KeysetSort<Reservation>> SORTS = Map.of(
+            "reservationDate", new KeysetPager.KeysetSort<>("reservationDate",
+                    Reservation::getReservationDate, Reservation::getId, LocalDate::parse));
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private KeysetPager keysetPager;
+
+    @BeforeEach
+    void setUp() {
+        keysetPager = new KeysetPager(mongoTemplate);
+    }
+
+    private Reservation reservation(LocalDate date) {
+        return Reservation.builder().id(new ObjectId()).reservationDate(date).build();
+    }
+
+    private Query capturedQuery() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Reservation.class));
+        return query.getValue();
+    }
+
+    @Nested
+    @DisplayName("Paging")
+    class PagingTests {
+
+        @Test
+        @DisplayName("Should fetch one extra item to detect a next page, sorted by the key then _id")
+        void shouldDetectNextPage() {
+            LocalDate date = LocalDate.of(2024, 3, 1);
+            Reservation first = reservation(date);
+            Reservation second = reservation(date);
+            Reservation extra = reservation(date.plusDays(1));
+            when(mongoTemplate.find(any(Query.class), eq(Reservation.class)))
+                    .thenReturn(List.of(first, second, extra));
+
+            CursorPageResponse<Reservation> page = keysetPager.page(Reservation.class, SORTS, "reservationDate",
+                    Sort.Direction.ASC, null, 2, false);
+
+            assertEquals(List.of(first, second), page.getContent());
+            assertTrue(page.isHasNext());
+            assertNotNull(page.getNextCursor());
+            assertNull(page.getTotalElements());
+
+            Query query = capturedQuery();
+            assertEquals(3, query.getLimit());
+            assertEquals(0, query.getSkip());
+            assertEquals(new Document("reservationDate", 1).append("_id", 1), query.getSortObject());
+            assertTrue(query.getQueryObject().isEmpty());
+            verify(mongoTemplate, never()).count(any(Query.class), eq(Reservation.class));
+        }
+
+        @Test
+        @DisplayName("Should resume strictly after the last item of the previous page")
+        void shouldSeekPastCursor() {
+            LocalDate date = LocalDate.of(2024, 3, 1);
+            Reservation last = reservation(date);
+            when(mongoTemplate.find(any(Query.class), eq(Reservation.class)))
+                    .thenReturn(List.of(reservation(date.minusDays(1)), last, reservation(date.minusDays(3))))
+                    .thenReturn(List.of());
+
+            String cursor = keysetPager.page(Reservation.class, SORTS, "reservationDate",
+                    Sort.Direction.DESC, null, 2, false).getNextCursor();
+            keysetPager.page(Reservation.class, SORTS, "reservationDate", Sort.Direction.DESC, cursor, 2, false);
+
+            ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+            verify(mongoTemplate, times(2)).find(queries.capture(), eq(Reservation.class));
+            Document seek = queries.getAllValues().get(1).getQueryObject();
+            assertEquals(List.of(
+                            new Document("reservationDate", new Document("$lt", date)),
+                            new Document("reservationDate", date).append("_id", new Document("$lt", last.getId())),
+                            new Document("reservationDate", null)),
+                    seek.get("$or"));
+        }
+
+        @Test
+        @DisplayName("Should end without a cursor on the last page and count only when asked")
+        void shouldCountOnlyWhenAsked() {
+            when(mongoTemplate.find(any(Query.class), eq(Reservation.class)))
+                    .thenReturn(List.of(reservation(LocalDate.of(2024, 3, 1))));
+            when(mongoTemplate.count(any(Query.class), eq(Reservation.class))).thenReturn(41L);
+
+            CursorPageResponse<Reservation> page = keysetPager.page(Reservation.class, SORTS, "reservationDate",
+                    Sort.Direction.ASC, null, 20, true);
+
+            assertFalse(page.isHasNext());
+            assertNull(page.getNextCursor());
+            assertEquals(41L, page.getTotalElements());
+        }
+    }
+
+    @Nested
+    @DisplayName("Validation")
+    class ValidationTests {
+
+        @Test
+        @DisplayName("Should reject sort keys without a keyset index")
+        void shouldRejectUnsupportedSort() {
+            assertThrows(IllegalArgumentException.class, () -> keysetPager.page(Reservation.class, SORTS,
+                    "customerEmail", Sort.Direction.ASC, null, 20, false));
+        }
+
+        @Test
+        @DisplayName("Should reject page sizes outside 1.." + KeysetPager.MAX_PAGE_SIZE)
+        void shouldRejectPageSize() {
+            assertThrows(IllegalArgumentException.class, () -> keysetPager.page(Reservation.class, SORTS,
+                    "reservationDate", Sort.Direction.ASC, null, 0, false));
+            assertThrows(IllegalArgumentException.class, () -> keysetPager.page(Reservation.class, SORTS,
+                    "reservationDate", Sort.Direction.ASC, null, KeysetPager.MAX_PAGE_SIZE + 1, false));
+        }
+
+        @Test
+        @DisplayName("Should reject malformed cursors and cursors issued for another direction")
+        void shouldRejectForeignCursor() {
+            String descending = new KeysetPager.Position("reservationDate", Sort.Direction.DESC,
+                    new ObjectId(), "2024-03-01").encode();
+            String badValue = new KeysetPager.Position("reservationDate", Sort.Direction.DESC,
+                    new ObjectId(), "garbage").encode();
+
+            assertThrows(IllegalArgumentException.class, () -> keysetPager.page(Reservation.class, SORTS,
+                    "reservationDate", Sort.Direction.ASC, "not-a-cursor", 20, false));
+            assertThrows(IllegalArgumentException.class, () -> keysetPager.page(Reservation.class, SORTS,
+                    "reservationDate", Sort.Direction.ASC, descending, 20, false));
+            assertThrows(IllegalArgumentException.class, () -> keysetPager.page(Reservation.class, SORTS,
+                    "reservationDate", Sort.Direction.DESC, badValue, 20, false));
+            verifyNoInteractions(mongoTemplate);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.opentable.privatedining.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opentable.privatedining.exception.InvalidDateRangeException;
+import com.opentable.privatedining.exception.RestaurantNotFoundException;
+import com.opentable.privatedining.model.OccupancyRollup;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.Restaurant;
+import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.enums.ExportFormat;
+import com.opentable.privatedining.model.enums.ReportEngine;
+import com.opentable.privatedining.model.enums.ReservationStatus;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OccupancyExportService Tests")
+class OccupancyExportServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private RestaurantService restaurantService;
+
+    @Mock
+    private SpaceService spaceService;
+
+    @Mock
+    private OccupancyRollupService rollupService;
+
+    private OccupancyExportService exportService;
+    private Restaurant restaurant;
+    private Space garden;
+    private Space cellar;
+    private LocalDate startDate;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new OccupancyExportService(mongoTemplate, restaurantService, spaceService,
+                rollupService, 1000, 100);
+        restaurant = Restaurant.builder().id(new ObjectId()).name("Test Restaurant").build();
+        garden = Space.builder().id(UUID.randomUUID()).name("Garden Room").maxCapacity(20).build();
+        cellar = Space.builder().id(UUID.randomUUID()).name("Cellar, Private").maxCapacity(10).build();
+        startDate = LocalDate.of(2024, 2, 15);
+        lenient().when(spaceService.getActiveSpacesByRestaurantId(restaurant.getId().toHexString()))
+                .thenReturn(List.of(garden, cellar));
+    }
+
+    private Reservation reservation(Space space, LocalDate date, int partySize, ReservationStatus status) {
+        return Reservation.builder()
+                .spaceId(space.getId())
+                .reservationDate(date)
+                .partySize(partySize)
+                .status(status)
+                .build();
+    }
+
+    private String export(ExportFormat format, ReportEngine engine, LocalDate endDate) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.export(List.of(restaurant), startDate, endDate, format, engine, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Nested
+    @DisplayName("CSV export")
+    class CsvTests {
+
+        @Test
+        @DisplayName("Should write a DAY row and a SPACE row per active space for every date")
+        void shouldWriteDayAndSpaceRows() throws Exception {
+            when(mongoTemplate.stream(any(Query.class), eq(Reservation.class))).thenReturn(Stream.of(
+                    reservation(garden, startDate, 8, ReservationStatus.CONFIRMED),
+                    reservation(cellar, startDate, 5, ReservationStatus.CONFIRMED),
+                    reservation(garden, startDate, 4, ReservationStatus.CANCELLED),
+                    reservation(garden, startDate.plusDays(2), 10, ReservationStatus.CONFIRMED)));
+
+            String[] lines = export(ExportFormat.CSV, ReportEngine.IN_MEMORY, startDate.plusDays(2)).split("\n");
+            String id = restaurant.getId().toHexString();
+
+            assertEquals("type,restaurantId,date,spaceId,spaceName,reservations,guests,cancelled,capacity,"
+                    + "utilizationPercentage", lines[0]);
+            assertEquals(1 + 3 * 3, lines.length);
+            assertEquals("DAY," + id + ",2024-02-15,,,2,13,1,30,43.3", lines[1]);
+            assertEquals("SPACE," + id + ",2024-02-15," + garden.getId() + ",Garden Room,1,8,1,20,40.0", lines[2]);
+            assertEquals("SPACE," + id + ",2024-02-15," + cellar.getId() + ",\"Cellar, Private\",1,5,0,10,50.0",
+                    lines[3]);
+            assertEquals("DAY," + id + ",2024-02-16,,,0,0,0,30,0.0", lines[4]);
+            assertEquals("DAY," + id + ",2024-02-17,,,1,10,0,30,33.3", lines[7]);
+        }
+
+        @Test
+        @DisplayName("Should cursor over the range sorted by date, fetching only the counted fields")
+        void shouldQueryRangeSortedByDate() throws Exception {
+            when(mongoTemplate.stream(any(Query.class), eq(Reservation.class))).thenReturn(Stream.empty());
+
+            export(ExportFormat.CSV, ReportEngine.IN_MEMORY, startDate);
+
+            ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+            verify(mongoTemplate).stream(query.capture(), eq(Reservation.class));
+            assertEquals(1, query.getValue().getSortObject().getInteger("reservationDate"));
+            assertEquals(4, query.getValue().getFieldsObject().size());
+            assertEquals(1000, query.getValue().getMeta().getCursorBatchSize());
+        }
+
+        @Test
+        @DisplayName("Should stream a five-year range without holding it")
+        void shouldStreamLongRange() throws Exception {
+            LocalDate endDate = startDate.plusYears(5).minusDays(1);
+            int days = (int) (endDate.toEpochDay() - startDate.toEpochDay() + 1);
+            when(mongoTemplate.stream(any(Query.class), eq(Reservation.class))).thenReturn(
+                    IntStream.range(0, days * 40)
+                            .mapToObj(i -> reservation(i % 2 == 0 ? garden : cellar,
+                                    startDate.plusDays(i / 40), 2, ReservationStatus.CONFIRMED)));
+
+            LineCountingStream output = new LineCountingStream();
+            exportService.export(List.of(restaurant), startDate, endDate, ExportFormat.CSV,
+                    ReportEngine.IN_MEMORY, output);
+
+            assertEquals(1 + days * 3L, output.lines);
+        }
+    }
+
+    @Nested
+    @DisplayName("NDJSON export")
+    class NdjsonTests {
+
+        @Test
+        @DisplayName("Should write one JSON object per line")
+        void shouldWriteJsonLines() throws Exception {
+            when(mongoTemplate.stream(any(Query.class), eq(Reservation.class))).thenReturn(Stream.of(
+                    reservation(garden, startDate, 8, ReservationStatus.CONFIRMED)));
+
+            String[] lines = export(ExportFormat.NDJSON, ReportEngine.IN_MEMORY, startDate).split("\n");
+
+            assertEquals(3, lines.length);
+            ObjectMapper mapper = new ObjectMapper();
+            JsonNode day = mapper.readTree(lines[0]);
+            assertEquals("DAY", day.get("type").asText());
+            assertEquals("2024-02-15", day.get("date").asText());
+            assertEquals(8, day.get("guests").asLong());
+            assertFalse(day.has("spaceId"));
+            JsonNode space = mapper.readTree(lines[1]);
+            assertEquals(garden.getId().toString(), space.get("spaceId").asText());
+            assertEquals(40.0, space.get("utilizationPercentage").asDouble());
+        }
+    }
+
+    @Nested
+    @DisplayName("Rollup source")
+    class RollupTests {
+
+        @Test
+        @DisplayName("Should sum the hour rows of a day")
+        void shouldSumRollupRows() throws Exception {
+            when(mongoTemplate.stream(any(Query.class), eq(OccupancyRollup.class))).thenReturn(Stream.of(
+                    OccupancyRollup.builder().date(startDate).spaceId(garden.getId()).hour(18)
+                            .reservations(1).guests(8).cancelled(1).build(),
+                    OccupancyRollup.builder().date(startDate).spaceId(garden.getId()).hour(19)
+                            .reservations(2).guests(6).build()));
+
+            String[] lines = export(ExportFormat.CSV, ReportEngine.ROLLUP, startDate).split("\n");
+
+            assertTrue(lines[1].endsWith(",3,14,1,30,46.7"));
+            assertTrue(lines[2].endsWith(",Garden Room,3,14,1,20,70.0"));
+            verify(mongoTemplate, never()).stream(any(Query.class), eq(Reservation.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("prepareExport")
+    class PrepareExportTests {
+
+        @Test
+        @DisplayName("Should resolve restaurants in request order")
+        void shouldResolveRestaurants() {
+            when(restaurantService.getRestaurantById(restaurant.getId())).thenReturn(Optional.of(restaurant));
+
+            List<Restaurant> restaurants = exportService.prepareExport(
+                    List.of(restaurant.getId().toHexString()), startDate, startDate, ReportEngine.IN_MEMORY);
+
+            assertEquals(List.of(restaurant), restaurants);
+        }
+
+        @Test
+        @DisplayName("Should reject an unknown restaurant before streaming")
+        void shouldRejectUnknownRestaurant() {
+            when(restaurantService.getRestaurantById(any())).thenReturn(Optional.empty());
+
+            assertThrows(RestaurantNotFoundException.class, () -> exportService.prepareExport(
+                    List.of(new ObjectId().toHexString()), startDate, startDate, ReportEngine.IN_MEMORY));
+        }
+
+        @Test
+        @DisplayName("Should reject invalid ranges, engines and restaurant counts")
+        void shouldRejectInvalidRequests() {
+            List<String> ids = List.of(restaurant.getId().toHexString());
+
+            assertThrows(InvalidDateRangeException.class, () -> exportService.prepareExport(
+                    ids, startDate, startDate.minusDays(1), ReportEngine.IN_MEMORY));
+            assertThrows(IllegalArgumentException.class, () -> exportService.prepareExport(
+                    ids, startDate, startDate, ReportEngine.AGGREGATION));
+            assertThrows(IllegalArgumentException.class, () -> exportService.prepareExport(
+                    ids, startDate, startDate, ReportEngine.ROLLUP));
+            assertThrows(IllegalArgumentException.class, () -> exportService.prepareExport(
+                    Collections.nCopies(101, ids.get(0)), startDate, startDate, ReportEngine.IN_MEMORY));
+            verifyNoInteractions(restaurantService);
+        }
+    }
+
+    /**
+     * Discards the export, counting its lines.
+     */
+    private static final class LineCountingStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                write(bytes[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.model.OccupancyRollup;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.enums.ReservationStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OccupancyRollupService Tests")
+class OccupancyRollupServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OccupancyRollupService rollupService;
+    private ObjectId restaurantId;
+    private UUID spaceId;
+    private LocalDate testDate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rollupService = new OccupancyRollupService(mongoTemplate, meterRegistry, true);
+        restaurantId = new ObjectId();
+        spaceId = UUID.randomUUID();
+        testDate = LocalDate.now().minusDays(3);
+    }
+
+    private Reservation reservation(String startTime, int partySize, ReservationStatus status) {
+        return Reservation.builder()
+                .id(new ObjectId())
+                .restaurantId(restaurantId)
+                .spaceId(spaceId)
+                .reservationDate(testDate)
+                .startTime(startTime)
+                .endTime("21:00")
+                .partySize(partySize)
+                .status(status)
+                .build();
+    }
+
+    private Update capturedUpsert() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(query.capture(), update.capture(), eq(OccupancyRollup.class));
+        assertEquals(OccupancyRollup.generateId(restaurantId, testDate, spaceId, 18),
+                query.getValue().getQueryObject().get("_id"));
+        return update.getValue();
+    }
+
+    @Nested
+    @DisplayName("incremental maintenance")
+    class IncrementalTests {
+
+        @Test
+        @DisplayName("Should upsert the start hour's row with the booking and its keys")
+        void shouldIncrementOnBooking() {
+            rollupService.recordBooked(reservation("18:30", 6, ReservationStatus.CONFIRMED));
+
+            Update update = capturedUpsert();
+            String inc = update.getUpdateObject().get("$inc").toString();
+            assertTrue(inc.contains("reservations=1"));
+            assertTrue(inc.contains("guests=6"));
+            String setOnInsert = update.getUpdateObject().get("$setOnInsert").toString();
+            assertTrue(setOnInsert.contains("hour=18"));
+            assertTrue(setOnInsert.contains("spaceId=" + spaceId));
+        }
+
+        @Test
+        @DisplayName("Should move a cancelled booking from the confirmed to the cancelled totals")
+        void shouldMoveOnCancel() {
+            rollupService.recordCancelled(reservation("18:00", 6, ReservationStatus.CANCELLED));
+
+            String inc = capturedUpsert().getUpdateObject().get("$inc").toString();
+            assertTrue(inc.contains("reservations=-1"));
+            assertTrue(inc.contains("guests=-6"));
+            assertTrue(inc.contains("cancelled=1"));
+        }
+
+        @Test
+        @DisplayName("Should only decrement the cancelled total when a cancelled booking is deleted")
+        void shouldDecrementCancelledOnDelete() {
+            rollupService.recordDeleted(reservation("18:00", 6, ReservationStatus.CANCELLED));
+
+            String inc = capturedUpsert().getUpdateObject().get("$inc").toString();
+            assertEquals("Document{{cancelled=-1}}", inc);
+        }
+
+        @Test
+        @DisplayName("Should count a failed increment instead of failing the booking")
+        void shouldCountFailures() {
+            when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(OccupancyRollup.class)))
+                    .thenThrow(new DataAccessResourceFailureException("timeout"));
+
+            assertDoesNotThrow(() -> rollupService.recordBooked(reservation("18:00", 6, ReservationStatus.CONFIRMED)));
+
+            assertEquals(1.0, meterRegistry.counter("reporting.rollup.failures").count());
+        }
+
+        @Test
+        @DisplayName("Should not touch Mongo when disabled")
+        void shouldSkipWhenDisabled() {
+            OccupancyRollupService disabled =
+                    new OccupancyRollupService(mongoTemplate, new SimpleMeterRegistry(), false);
+
+            disabled.recordBooked(reservation("18:00", 6, ReservationStatus.CONFIRMED));
+            disabled.recordBooked(List.of(reservation("19:00", 4, ReservationStatus.CONFIRMED)));
+            disabled.recordCancelled(reservation("18:00", 6, ReservationStatus.CANCELLED));
+            disabled.recordDeleted(reservation("18:00", 6, ReservationStatus.CONFIRMED));
+
+            verifyNoInteractions(mongoTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("rebuild")
+    class RebuildTests {
+
+        private OccupancyRollupService.HourTotal total(String hour, ReservationStatus status,
+                                                       long reservations, long guests) {
+            OccupancyRollupService.HourKey key = new OccupancyRollupService.HourKey();
+            key.setSpaceId(spaceId);
+            key.setReservationDate(testDate);
+            key.setHour(hour);
+            key.setStatus(status);
+            OccupancyRollupService.HourTotal total = new OccupancyRollupService.HourTotal();
+            total.setId(key);
+            total.setReservations(reservations);
+            total.setGuests(guests);
+            return total;
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("Should replace the range with confirmed and cancelled totals merged per hour")
+        void shouldReplaceRange() {
+            AggregationResults<OccupancyRollupService.HourTotal> results = mock(AggregationResults.class);
+            when(results.getMappedResults()).thenReturn(List.of(
+                    total("18", ReservationStatus.CONFIRMED, 3, 20),
+                    total("18", ReservationStatus.CANCELLED, 1, 4),
+                    total("20", ReservationStatus.CONFIRMED, 1, 8)));
+            when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(OccupancyRollupService.HourTotal.class)))
+                    .thenReturn(results);
+
+            int rows = rollupService.rebuild(restaurantId, testDate, testDate);
+
+            assertEquals(2, rows);
+            verify(mongoTemplate).remove(any(Query.class), eq(OccupancyRollup.class));
+            ArgumentCaptor<Collection<OccupancyRollup>> inserted = ArgumentCaptor.forClass(Collection.class);
+            verify(mongoTemplate).insert(inserted.capture(), eq(OccupancyRollup.class));
+            List<OccupancyRollup> written = new ArrayList<>(inserted.getValue());
+            OccupancyRollup eighteen = written.get(0);
+            assertEquals(OccupancyRollup.generateId(restaurantId, testDate, spaceId, 18), eighteen.getId());
+            assertEquals(3, eighteen.getReservations());
+            assertEquals(20, eighteen.getGuests());
+            assertEquals(1, eighteen.getCancelled());
+            assertEquals(20, written.get(1).getHour());
+        }
+    }
+}
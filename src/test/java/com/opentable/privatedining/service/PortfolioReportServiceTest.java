@@ -0,0 +1,197 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.dto.request.OccupancyReportRequest;
+import com.opentable.privatedining.dto.response.OccupancyInsights;
+import com.opentable.privatedining.dto.response.OccupancyReportResponse;
+import com.opentable.privatedining.dto.response.OccupancySummary;
+import com.opentable.privatedining.dto.response.PortfolioReportResponse;
+import com.opentable.privatedining.exception.InvalidDateRangeException;
+import com.opentable.privatedining.exception.RestaurantNotFoundException;
+import com.opentable.privatedining.model.enums.ReportEngine;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PortfolioReportService Tests")
+class PortfolioReportServiceTest {
+
+    @Mock
+    private ReportingService reportingService;
+
+    private PortfolioReportService portfolioReportService;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @BeforeEach
+    void setUp() {
+        portfolioReportService = new PortfolioReportService(reportingService, 2, 500, 5000);
+        startDate = LocalDate.of(2024, 2, 1);
+        endDate = LocalDate.of(2024, 2, 29);
+    }
+
+    @AfterEach
+    void tearDown() {
+        portfolioReportService.stop();
+    }
+
+    private OccupancyReportResponse report(OccupancyReportRequest request, long reservations, long guests,
+                                           long cancelled, String utilization) {
+        return OccupancyReportResponse.builder()
+                .restaurantId(request.getRestaurantId())
+                .restaurantName("Restaurant " + request.getRestaurantId())
+                .summary(OccupancySummary.builder()
+                        .totalReservations(reservations)
+                        .totalGuests(guests)
+                        .cancelledReservations(cancelled)
+                        .totalOperatingSlots(348L)
+                        .totalBookedSlots(reservations)
+                        .averageUtilizationPercentage(new BigDecimal(utilization))
+                        .build())
+                .insights(OccupancyInsights.builder()
+                        .busiestDay(DayOfWeek.SATURDAY)
+                        .busiestDayAverageUtilization(new BigDecimal("80.0"))
+                        .build())
+                .build();
+    }
+
+    @Nested
+    @DisplayName("generatePortfolioReport")
+    class GeneratePortfolioReportTests {
+
+        @Test
+        @DisplayName("Should return a row per restaurant in request order and a combined summary")
+        void shouldCombineRestaurants() {
+            String first = new ObjectId().toHexString();
+            String second = new ObjectId().toHexString();
+            when(reportingService.generateOccupancyReport(any())).thenAnswer(invocation -> {
+                OccupancyReportRequest request = invocation.getArgument(0);
+                return request.getRestaurantId().equals(first)
+                        ? report(request, 10, 60, 2, "40.0")
+                        : report(request, 30, 120, 8, "60.0");
+            });
+
+            PortfolioReportResponse response = portfolioReportService.generatePortfolioReport(
+                    List.of(first, second, first), startDate, endDate, ReportEngine.ROLLUP);
+
+            assertEquals(2, response.getRestaurantsRequested());
+            assertEquals(2, response.getRestaurantsReported());
+            assertEquals(first, response.getRestaurants().get(0).getRestaurantId());
+            assertEquals(second, response.getRestaurants().get(1).getRestaurantId());
+            assertEquals(DayOfWeek.SATURDAY, response.getRestaurants().get(0).getBusiestDay());
+
+            OccupancySummary summary = response.getSummary();
+            assertEquals(40L, summary.getTotalReservations());
+            assertEquals(180L, summary.getTotalGuests());
+            assertEquals(new BigDecimal("4.50"), summary.getAveragePartySize());
+            assertEquals(new BigDecimal("50.0"), summary.getAverageUtilizationPercentage());
+            assertEquals(new BigDecimal("20.0"), summary.getCancellationRate());
+            assertEquals(696L, summary.getTotalOperatingSlots());
+            verify(reportingService, times(2)).generateOccupancyReport(argThat(request ->
+                    request.getEngine() == ReportEngine.ROLLUP && request.getStartDate().equals(startDate)));
+        }
+
+        @Test
+        @DisplayName("Should report a failed restaurant as an error row and leave it out of the summary")
+        void shouldIsolateFailures() {
+            String found = new ObjectId().toHexString();
+            ObjectId missing = new ObjectId();
+            ObjectId broken = new ObjectId();
+            when(reportingService.generateOccupancyReport(any())).thenAnswer(invocation -> {
+                OccupancyReportRequest request = invocation.getArgument(0);
+                if (request.getRestaurantId().equals(missing.toHexString())) {
+                    throw new RestaurantNotFoundException(missing);
+                }
+                if (request.getRestaurantId().equals(broken.toHexString())) {
+                    throw new NullPointerException();
+                }
+                return report(request, 10, 60, 0, "40.0");
+            });
+
+            PortfolioReportResponse response = portfolioReportService.generatePortfolioReport(
+                    List.of(missing.toHexString(), broken.toHexString(), found), startDate, endDate, null);
+
+            assertEquals(1, response.getRestaurantsReported());
+            assertNull(response.getRestaurants().get(0).getSummary());
+            assertNotNull(response.getRestaurants().get(0).getError());
+            assertNull(response.getRestaurants().get(1).getSummary());
+            assertEquals("NullPointerException", response.getRestaurants().get(1).getError());
+            assertEquals(10L, response.getSummary().getTotalReservations());
+        }
+
+        @Test
+        @DisplayName("Should keep at most parallelism reports in flight")
+        void shouldBoundConcurrency() {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            when(reportingService.generateOccupancyReport(any())).thenAnswer(invocation -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                running.decrementAndGet();
+                return report(invocation.getArgument(0), 1, 2, 0, "10.0");
+            });
+            List<String> ids = IntStream.range(0, 12).mapToObj(i -> new ObjectId().toHexString()).toList();
+
+            PortfolioReportResponse response = portfolioReportService.generatePortfolioReport(
+                    ids, startDate, endDate, null);
+
+            assertEquals(12, response.getRestaurantsReported());
+            assertTrue(maxRunning.get() <= 2, "max in flight was " + maxRunning.get());
+        }
+
+        @Test
+        @DisplayName("Should return unfinished restaurants as timed out")
+        void shouldTimeOut() {
+            PortfolioReportService slowService = new PortfolioReportService(reportingService, 1, 500, 50);
+            try {
+                when(reportingService.generateOccupancyReport(any())).thenAnswer(invocation -> {
+                    Thread.sleep(5000);
+                    return report(invocation.getArgument(0), 1, 2, 0, "10.0");
+                });
+
+                PortfolioReportResponse response = slowService.generatePortfolioReport(
+                        List.of(new ObjectId().toHexString(), new ObjectId().toHexString()),
+                        startDate, endDate, null);
+
+                assertEquals(0, response.getRestaurantsReported());
+                assertEquals("Timed out", response.getRestaurants().get(1).getError());
+                assertEquals(BigDecimal.ZERO, response.getSummary().getAverageUtilizationPercentage());
+            } finally {
+                slowService.stop();
+            }
+        }
+
+        @Test
+        @DisplayName("Should reject invalid ranges and restaurant counts")
+        void shouldRejectInvalidRequests() {
+            List<String> ids = List.of(new ObjectId().toHexString());
+
+            assertThrows(InvalidDateRangeException.class, () -> portfolioReportService.generatePortfolioReport(
+                    ids, endDate, startDate, null));
+            assertThrows(IllegalArgumentException.class, () -> portfolioReportService.generatePortfolioReport(
+                    List.of(), startDate, endDate, null));
+            List<String> tooMany = IntStream.range(0, 501).mapToObj(i -> new ObjectId().toHexString()).toList();
+            assertThrows(IllegalArgumentException.class, () -> portfolioReportService.generatePortfolioReport(
+                    tooMany, startDate, endDate, null));
+            verifyNoInteractions(reportingService);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.dto.response.AvailabilityResponse;
+import com.opentable.privatedining.exception.SpaceNotFoundException;
+import com.opentable.privatedining.model.OperatingHours;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.Restaurant;
+import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.enums.ReservationStatus;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactiveAvailabilityService Tests")
+class ReactiveAvailabilityServiceTest {
+
+    @Mock
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Mock
+    private AvailabilityService availabilityService;
+
+    private ReactiveAvailabilityService reactiveAvailabilityService;
+
+    private Space testSpace;
+    private Restaurant testRestaurant;
+    private UUID spaceId;
+    private ObjectId restaurantId;
+    private LocalDate testDate;
+
+    @BeforeEach
+    void setUp() {
+        reactiveAvailabilityService = new ReactiveAvailabilityService(reactiveMongoTemplate, availabilityService);
+
+        spaceId = UUID.randomUUID();
+        restaurantId = new ObjectId();
+        testDate = LocalDate.now().plusDays(7);
+
+        testSpace = Space.builder()
+                .id(spaceId)
+                .restaurantId(restaurantId.toHexString())
+                .name("Garden Room")
+                .maxCapacity(20)
+                .isActive(true)
+                .build();
+
+        List<OperatingHours> operatingHours = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            operatingHours.add(OperatingHours.builder()
+                    .dayOfWeek(i)
+                    .openTime("09:00")
+                    .closeTime("22:00")
+                    .isClosed(false)
+                    .build());
+        }
+        testRestaurant = Restaurant.builder()
+                .id(restaurantId)
+                .name("Test Restaurant")
+                .operatingHours(operatingHours)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should query reservations while the space lookup is still pending")
+    void shouldFetchReservationsConcurrentlyWithSpace() {
+        // Given - the space lookup only completes after the reservation query was issued
+        AtomicBoolean reservationsSubscribed = new AtomicBoolean();
+        Reservation reservation = Reservation.builder()
+                .spaceId(spaceId)
+                .reservationDate(testDate)
+                .startTime("18:00")
+                .endTime("19:00")
+                .partySize(4)
+                .status(ReservationStatus.CONFIRMED)
+                .build();
+        AvailabilityResponse expected = AvailabilityResponse.builder().spaceId(spaceId).build();
+
+        when(reactiveMongoTemplate.findOne(any(Query.class), eq(Space.class)))
+                .thenReturn(Mono.delay(Duration.ofMillis(50))
+                        .map(tick -> {
+                            assertTrue(reservationsSubscribed.get(),
+                                    "Reservations should be requested before the space resolves");
+                            return testSpace;
+                        }));
+        when(reactiveMongoTemplate.find(any(Query.class), eq(Reservation.class)))
+                .thenReturn(Flux.just(reservation)
+                        .doOnSubscribe(subscription -> reservationsSubscribed.set(true)));
+        when(reactiveMongoTemplate.findById(restaurantId, Restaurant.class))
+                .thenReturn(Mono.just(testRestaurant));
+        when(availabilityService.buildAvailability(testSpace, testRestaurant, testDate, List.of(reservation)))
+                .thenReturn(expected);
+
+        // When & Then
+        StepVerifier.create(reactiveAvailabilityService.getAvailability(spaceId, testDate))
+                .expectNext(expected)
+                .verifyComplete();
+
+        verify(reactiveMongoTemplate, times(1)).findOne(any(Query.class), eq(Space.class));
+    }
+
+    @Test
+    @DisplayName("Should treat a missing restaurant as closed")
+    void shouldPassNullRestaurantWhenMissing() {
+        // Given
+        AvailabilityResponse expected = AvailabilityResponse.builder().spaceId(spaceId).isOpen(false).build();
+        when(reactiveMongoTemplate.findOne(any(Query.class), eq(Space.class))).thenReturn(Mono.just(testSpace));
+        when(reactiveMongoTemplate.find(any(Query.class), eq(Reservation.class))).thenReturn(Flux.empty());
+        when(reactiveMongoTemplate.findById(restaurantId, Restaurant.class)).thenReturn(Mono.empty());
+        when(availabilityService.buildAvailability(testSpace, null, testDate, List.of())).thenReturn(expected);
+
+        // When & Then
+        StepVerifier.create(reactiveAvailabilityService.getAvailability(spaceId, testDate))
+                .expectNext(expected)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should signal SpaceNotFoundException when space not found")
+    void shouldErrorWhenSpaceNotFound() {
+        // Given
+        when(reactiveMongoTemplate.findOne(any(Query.class), eq(Space.class))).thenReturn(Mono.empty());
+        when(reactiveMongoTemplate.find(any(Query.class), eq(Reservation.class))).thenReturn(Flux.empty());
+
+        // When & Then
+        StepVerifier.create(reactiveAvailabilityService.getAvailability(spaceId, testDate))
+                .expectError(SpaceNotFoundException.class)
+                .verify();
+
+        verify(availabilityService, never()).buildAvailability(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,212 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.dto.response.OccupancyReportResponse;
+import com.opentable.privatedining.model.OperatingHours;
+import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.enums.ReportEngine;
+import com.opentable.privatedining.model.enums.ReportGranularity;
+import com.opentable.privatedining.service.ReportCache.ReportKey;
+import com.opentable.privatedining.util.OccupancyGrid;
+import com.opentable.privatedining.util.OccupancyGrid.DayFragment;
+import com.opentable.privatedining.util.SlotSupply;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReportCache Tests")
+class ReportCacheTest {
+
+    private ReportCache cache;
+    private ObjectId restaurantId;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReportCache(new SimpleMeterRegistry(), true, 100, 300, 1000, 3600);
+        restaurantId = new ObjectId();
+        date = LocalDate.of(2024, 3, 15);
+    }
+
+    private ReportKey key(ObjectId restaurant, LocalDate startDate, LocalDate endDate) {
+        return new ReportKey(restaurant.toHexString(), startDate, endDate, ReportGranularity.DAILY, null,
+                ReportEngine.IN_MEMORY);
+    }
+
+    private ReportKey spaceKey(UUID spaceId, LocalDate startDate, LocalDate endDate) {
+        return new ReportKey(restaurantId.toHexString(), startDate, endDate, ReportGranularity.DAILY, spaceId,
+                ReportEngine.IN_MEMORY);
+    }
+
+    private DayFragment fragment() {
+        return new OccupancyGrid(date, date, List.of(UUID.randomUUID())).fragment(0);
+    }
+
+    @Test
+    @DisplayName("Should evict only the restaurant's reports whose range contains the date")
+    void shouldInvalidateSelectively() {
+        ObjectId otherRestaurant = new ObjectId();
+        ReportKey containing = key(restaurantId, date.minusDays(6), date);
+        ReportKey before = key(restaurantId, date.minusDays(30), date.minusDays(1));
+        ReportKey other = key(otherRestaurant, date.minusDays(6), date);
+        OccupancyReportResponse report = OccupancyReportResponse.builder().build();
+        long version = cache.version(restaurantId);
+        long otherVersion = cache.version(otherRestaurant);
+        cache.putReport(containing, report, version);
+        cache.putReport(before, report, version);
+        cache.putReport(other, report, otherVersion);
+        cache.putFragment(restaurantId, null, date, ReportEngine.IN_MEMORY, fragment(), version);
+        cache.putFragment(otherRestaurant, null, date, ReportEngine.IN_MEMORY, fragment(), otherVersion);
+
+        cache.invalidate(restaurantId, UUID.randomUUID(), date);
+
+        assertTrue(cache.getReport(containing).isEmpty());
+        assertTrue(cache.getFragment(restaurantId, null, date, ReportEngine.IN_MEMORY).isEmpty());
+        assertSame(report, cache.getReport(before).orElseThrow());
+        assertSame(report, cache.getReport(other).orElseThrow());
+        assertTrue(cache.getFragment(otherRestaurant, null, date, ReportEngine.IN_MEMORY).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should keep the reports and fragments of the restaurant's other spaces")
+    void shouldInvalidateOnlyTheBookedSpace() {
+        UUID booked = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        OccupancyReportResponse report = OccupancyReportResponse.builder().build();
+        long version = cache.version(restaurantId);
+        cache.putReport(spaceKey(booked, date, date), report, version);
+        cache.putReport(spaceKey(other, date, date), report, version);
+        cache.putFragment(restaurantId, booked, date, ReportEngine.IN_MEMORY, fragment(), version);
+        cache.putFragment(restaurantId, other, date, ReportEngine.IN_MEMORY, fragment(), version);
+
+        cache.invalidate(restaurantId, booked, date);
+
+        assertTrue(cache.getReport(spaceKey(booked, date, date)).isEmpty());
+        assertTrue(cache.getFragment(restaurantId, booked, date, ReportEngine.IN_MEMORY).isEmpty());
+        assertSame(report, cache.getReport(spaceKey(other, date, date)).orElseThrow());
+        assertTrue(cache.getFragment(restaurantId, other, date, ReportEngine.IN_MEMORY).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should drop every report and fragment of an edited restaurant")
+    void shouldInvalidateRestaurant() {
+        ObjectId otherRestaurant = new ObjectId();
+        UUID spaceId = UUID.randomUUID();
+        ReportKey old = key(restaurantId, date.minusDays(30), date.minusDays(10));
+        ReportKey other = key(otherRestaurant, date.minusDays(30), date.minusDays(10));
+        OccupancyReportResponse report = OccupancyReportResponse.builder().build();
+        long version = cache.version(restaurantId);
+        long otherVersion = cache.version(otherRestaurant);
+        cache.putReport(old, report, version);
+        cache.putReport(spaceKey(spaceId, date, date), report, version);
+        cache.putReport(other, report, otherVersion);
+        cache.putFragment(restaurantId, spaceId, date.minusDays(20), ReportEngine.IN_MEMORY, fragment(), version);
+        cache.putFragment(otherRestaurant, null, date, ReportEngine.IN_MEMORY, fragment(), otherVersion);
+
+        cache.invalidateRestaurant(restaurantId);
+
+        assertTrue(cache.getReport(old).isEmpty());
+        assertTrue(cache.getReport(spaceKey(spaceId, date, date)).isEmpty());
+        assertTrue(cache.getFragment(restaurantId, spaceId, date.minusDays(20), ReportEngine.IN_MEMORY).isEmpty());
+        assertSame(report, cache.getReport(other).orElseThrow());
+        assertTrue(cache.getFragment(otherRestaurant, null, date, ReportEngine.IN_MEMORY).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should not cache a load that raced with an invalidation of the restaurant")
+    void shouldSkipStalePuts() {
+        long loadedAt = cache.version(restaurantId);
+        cache.invalidate(restaurantId, UUID.randomUUID(), date.plusDays(1));
+
+        cache.putReport(key(restaurantId, date, date), OccupancyReportResponse.builder().build(), loadedAt);
+        cache.putFragment(restaurantId, null, date, ReportEngine.IN_MEMORY, fragment(), loadedAt);
+
+        assertTrue(cache.getReport(key(restaurantId, date, date)).isEmpty());
+        assertTrue(cache.getFragment(restaurantId, null, date, ReportEngine.IN_MEMORY).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should cache a load that overlapped changes at other restaurants")
+    void shouldKeepPutsRacingOtherRestaurants() {
+        long loadedAt = cache.version(restaurantId);
+        cache.invalidate(new ObjectId(), UUID.randomUUID(), date);
+        cache.invalidateRestaurant(new ObjectId());
+
+        cache.putReport(key(restaurantId, date, date), OccupancyReportResponse.builder().build(), loadedAt);
+        cache.putFragment(restaurantId, null, date, ReportEngine.IN_MEMORY, fragment(), loadedAt);
+
+        assertTrue(cache.getReport(key(restaurantId, date, date)).isPresent());
+        assertTrue(cache.getFragment(restaurantId, null, date, ReportEngine.IN_MEMORY).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should not cache a load that raced with a full invalidation")
+    void shouldSkipPutsRacingInvalidateAll() {
+        long loadedAt = cache.version(restaurantId);
+        cache.invalidateAll();
+
+        cache.putReport(key(restaurantId, date, date), OccupancyReportResponse.builder().build(), loadedAt);
+
+        assertTrue(cache.getReport(key(restaurantId, date, date)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should cache reports and fragments of each engine separately")
+    void shouldKeyByEngine() {
+        ReportKey inMemory = key(restaurantId, date, date);
+        ReportKey rollup = new ReportKey(restaurantId.toHexString(), date, date, ReportGranularity.DAILY, null,
+                ReportEngine.ROLLUP);
+        OccupancyReportResponse report = OccupancyReportResponse.builder().build();
+        long version = cache.version(restaurantId);
+        cache.putReport(inMemory, report, version);
+        cache.putFragment(restaurantId, null, date, ReportEngine.IN_MEMORY, fragment(), version);
+
+        assertTrue(cache.getReport(rollup).isEmpty());
+        assertTrue(cache.getFragment(restaurantId, null, date, ReportEngine.ROLLUP).isEmpty());
+
+        cache.putFragment(restaurantId, null, date, ReportEngine.ROLLUP, fragment(), version);
+        cache.invalidate(restaurantId, UUID.randomUUID(), date);
+
+        assertTrue(cache.getFragment(restaurantId, null, date, ReportEngine.IN_MEMORY).isEmpty());
+        assertTrue(cache.getFragment(restaurantId, null, date, ReportEngine.ROLLUP).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reuse a slot supply template until hours or spaces change")
+    void shouldCacheSlotSupply() {
+        List<OperatingHours> hours = List.of(OperatingHours.builder()
+                .dayOfWeek(5).openTime("17:00").closeTime("23:00").build());
+        Space space = Space.builder().id(UUID.randomUUID()).maxCapacity(20).build();
+
+        SlotSupply first = cache.getSlotSupply(hours, List.of(space));
+        assertSame(first, cache.getSlotSupply(hours, List.of(space)));
+
+        space.setSlotDurationMinutes(90);
+        SlotSupply changed = cache.getSlotSupply(hours, List.of(space));
+        assertNotSame(first, changed);
+        assertEquals(4, changed.operatingSlots(DayOfWeek.FRIDAY));
+    }
+
+    @Test
+    @DisplayName("Should cache nothing when disabled")
+    void shouldCacheNothingWhenDisabled() {
+        ReportCache disabled = new ReportCache(new SimpleMeterRegistry(), false, 100, 300, 1000, 3600);
+
+        disabled.putReport(key(restaurantId, date, date), OccupancyReportResponse.builder().build(),
+                disabled.version(restaurantId));
+        disabled.putFragment(restaurantId, null, date, ReportEngine.IN_MEMORY, fragment(),
+                disabled.version(restaurantId));
+
+        assertFalse(disabled.isEnabled());
+        assertTrue(disabled.getReport(key(restaurantId, date, date)).isEmpty());
+        assertTrue(disabled.getFragment(restaurantId, null, date, ReportEngine.IN_MEMORY).isEmpty());
+    }
+}
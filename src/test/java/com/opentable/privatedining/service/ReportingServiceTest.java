@@ -4,12 +4,19 @@ import com.opentable.privatedining.dto.request.OccupancyReportRequest;
 import com.opentable.privatedining.dto.response.*;
 import com.opentable.privatedining.exception.InvalidDateRangeException;
 import com.opentable.privatedining.exception.RestaurantNotFoundException;
+import com.opentable.privatedining.exception.SpaceNotFoundException;
+import com.opentable.privatedining.model.OccupancyRollup;
+import com.opentable.privatedining.model.OperatingHours;
 import com.opentable.privatedining.model.Reservation;
 import com.opentable.privatedining.model.Restaurant;
 import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.enums.ReportEngine;
 import com.opentable.privatedining.model.enums.ReportGranularity;
 import com.opentable.privatedining.model.enums.ReservationStatus;
 import com.opentable.privatedining.repository.ReservationRepository;
+import com.opentable.privatedining.repository.ReservationRepository.OccupancyFacets;
+import com.opentable.privatedining.util.SlotSupply;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -39,6 +46,12 @@ class ReportingServiceTest {
     @Mock
     private SpaceService spaceService;
 
+    @Mock
+    private OccupancyRollupService rollupService;
+
+    @Mock
+    private ReportCache reportCache;
+
     @InjectMocks
     private ReportingService reportingService;
 
@@ -72,6 +85,9 @@ class ReportingServiceTest {
                 .name("Wine Cellar")
                 .maxCapacity(30)
                 .build();
+
+        lenient().when(reportCache.getSlotSupply(any(), any()))
+                .thenAnswer(invocation -> SlotSupply.of(invocation.getArgument(0), invocation.getArgument(1)));
     }
 
     private Reservation createReservation(LocalDate date, String startTime, int partySize, UUID spaceId) {
@@ -89,6 +105,13 @@ class ReportingServiceTest {
                 .build();
     }
 
+    private List<OccupancyFacets.CountRow> cancelledOn(LocalDate date, long count) {
+        OccupancyFacets.CountRow row = new OccupancyFacets.CountRow();
+        row.setId(date);
+        row.setTotal(count);
+        return List.of(row);
+    }
+
     private String calculateEndTime(String startTime) {
         int hour = Integer.parseInt(startTime.substring(0, 2));
         return String.format("%02d:00", hour + 1);
@@ -125,9 +148,8 @@ class ReportingServiceTest {
             when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
                     eq(restaurantId), eq(startDate), eq(endDate), eq(ReservationStatus.CONFIRMED)))
                     .thenReturn(reservations);
-            when(reservationRepository.countByRestaurantIdAndReservationDateBetweenAndStatus(
-                    eq(restaurantId), eq(startDate), eq(endDate), eq(ReservationStatus.CANCELLED)))
-                    .thenReturn(2L);
+            when(reservationRepository.countCancelledPerDay(restaurantId, startDate, endDate))
+                    .thenReturn(cancelledOn(startDate, 2));
 
             // When
             OccupancyReportResponse response = reportingService.generateOccupancyReport(request);
@@ -210,9 +232,8 @@ class ReportingServiceTest {
             when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
                     any(), any(), any(), any()))
                     .thenReturn(Collections.emptyList());
-            when(reservationRepository.countByRestaurantIdAndReservationDateBetweenAndStatus(
-                    any(), any(), any(), any()))
-                    .thenReturn(0L);
+            when(reservationRepository.countCancelledPerDay(any(), any(), any()))
+                    .thenReturn(List.of());
 
             // When
             OccupancyReportResponse response = reportingService.generateOccupancyReport(request);
@@ -250,9 +271,8 @@ class ReportingServiceTest {
             when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
                     any(), any(), any(), any()))
                     .thenReturn(reservations);
-            when(reservationRepository.countByRestaurantIdAndReservationDateBetweenAndStatus(
-                    any(), any(), any(), any()))
-                    .thenReturn(0L);
+            when(reservationRepository.countCancelledPerDay(any(), any(), any()))
+                    .thenReturn(List.of());
 
             // When
             OccupancyReportResponse response = reportingService.generateOccupancyReport(request);
@@ -295,9 +315,8 @@ class ReportingServiceTest {
             when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
                     any(), any(), any(), any()))
                     .thenReturn(reservations);
-            when(reservationRepository.countByRestaurantIdAndReservationDateBetweenAndStatus(
-                    any(), any(), any(), any()))
-                    .thenReturn(0L);
+            when(reservationRepository.countCancelledPerDay(any(), any(), any()))
+                    .thenReturn(List.of());
 
             // When
             OccupancyReportResponse response = reportingService.generateOccupancyReport(request);
@@ -340,9 +359,8 @@ class ReportingServiceTest {
             when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
                     any(), any(), any(), any()))
                     .thenReturn(reservations);
-            when(reservationRepository.countByRestaurantIdAndReservationDateBetweenAndStatus(
-                    any(), any(), any(), any()))
-                    .thenReturn(0L);
+            when(reservationRepository.countCancelledPerDay(any(), any(), any()))
+                    .thenReturn(List.of());
 
             // When
             OccupancyReportResponse response = reportingService.generateOccupancyReport(request);
@@ -379,9 +397,8 @@ class ReportingServiceTest {
             when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
                     any(), any(), any(), eq(ReservationStatus.CONFIRMED)))
                     .thenReturn(reservations);
-            when(reservationRepository.countByRestaurantIdAndReservationDateBetweenAndStatus(
-                    any(), any(), any(), eq(ReservationStatus.CANCELLED)))
-                    .thenReturn(1L);
+            when(reservationRepository.countCancelledPerDay(any(), any(), any()))
+                    .thenReturn(cancelledOn(testDate, 1));
 
             // When
             OccupancyReportResponse response = reportingService.generateOccupancyReport(request);
@@ -422,9 +439,8 @@ class ReportingServiceTest {
             when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
                     any(), any(), any(), any()))
                     .thenReturn(reservations);
-            when(reservationRepository.countByRestaurantIdAndReservationDateBetweenAndStatus(
-                    any(), any(), any(), any()))
-                    .thenReturn(0L);
+            when(reservationRepository.countCancelledPerDay(any(), any(), any()))
+                    .thenReturn(List.of());
 
             // When
             OccupancyReportResponse response = reportingService.generateOccupancyReport(request);
@@ -491,9 +507,8 @@ class ReportingServiceTest {
             when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
                     any(), any(), any(), any()))
                     .thenReturn(reservations);
-            when(reservationRepository.countByRestaurantIdAndReservationDateBetweenAndStatus(
-                    any(), any(), any(), any()))
-                    .thenReturn(0L);
+            when(reservationRepository.countCancelledPerDay(any(), any(), any()))
+                    .thenReturn(List.of());
 
             // When
             OccupancyReportResponse response = reportingService.generateOccupancyReport(request);
@@ -530,9 +545,8 @@ class ReportingServiceTest {
             when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
                     any(), any(), any(), any()))
                     .thenReturn(reservations);
-            when(reservationRepository.countByRestaurantIdAndReservationDateBetweenAndStatus(
-                    any(), any(), any(), any()))
-                    .thenReturn(0L);
+            when(reservationRepository.countCancelledPerDay(any(), any(), any()))
+                    .thenReturn(List.of());
 
             // When
             OccupancyReportResponse response = reportingService.generateOccupancyReport(request);
@@ -567,9 +581,8 @@ class ReportingServiceTest {
             when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
                     any(), any(), any(), any()))
                     .thenReturn(reservations);
-            when(reservationRepository.countByRestaurantIdAndReservationDateBetweenAndStatus(
-                    any(), any(), any(), any()))
-                    .thenReturn(0L);
+            when(reservationRepository.countCancelledPerDay(any(), any(), any()))
+                    .thenReturn(List.of());
 
             // When
             OccupancyReportResponse response = reportingService.generateOccupancyReport(request);
@@ -611,9 +624,8 @@ class ReportingServiceTest {
             when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
                     any(), any(), any(), any()))
                     .thenReturn(reservations);
-            when(reservationRepository.countByRestaurantIdAndReservationDateBetweenAndStatus(
-                    any(), any(), any(), any()))
-                    .thenReturn(0L);
+            when(reservationRepository.countCancelledPerDay(any(), any(), any()))
+                    .thenReturn(List.of());
 
             // When
             OccupancyReportResponse response = reportingService.generateOccupancyReport(request);
@@ -644,9 +656,8 @@ class ReportingServiceTest {
             when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
                     any(), any(), any(), any()))
                     .thenReturn(Collections.emptyList());
-            when(reservationRepository.countByRestaurantIdAndReservationDateBetweenAndStatus(
-                    any(), any(), any(), any()))
-                    .thenReturn(0L);
+            when(reservationRepository.countCancelledPerDay(any(), any(), any()))
+                    .thenReturn(List.of());
 
             // When
             OccupancyReportResponse response = reportingService.generateOccupancyReport(request);
@@ -657,4 +668,456 @@ class ReportingServiceTest {
             assertNull(dailyOccupancy.getPeakHour());
         }
     }
+
+    @Nested
+    @DisplayName("Report Engine Tests")
+    class ReportEngineTests {
+
+        private OccupancyRollup rollup(LocalDate date, UUID spaceId, int hour,
+                                       long reservations, long guests, long cancelled) {
+            return OccupancyRollup.builder()
+                    .id(OccupancyRollup.generateId(restaurantId, date, spaceId, hour))
+                    .restaurantId(restaurantId)
+                    .date(date)
+                    .spaceId(spaceId)
+                    .hour(hour)
+                    .reservations(reservations)
+                    .guests(guests)
+                    .cancelled(cancelled)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Should build the same report from rollups as from reservations")
+        void shouldMatchInMemoryReportFromRollups() {
+            // Given
+            LocalDate testDate = LocalDate.of(2024, 1, 15);
+            OccupancyReportRequest.OccupancyReportRequestBuilder request = OccupancyReportRequest.builder()
+                    .restaurantId(restaurantId.toHexString())
+                    .startDate(testDate)
+                    .endDate(testDate.plusDays(1))
+                    .granularity(ReportGranularity.HOURLY);
+
+            when(restaurantService.getRestaurantById(restaurantId))
+                    .thenReturn(Optional.of(testRestaurant));
+            when(spaceService.getActiveSpacesByRestaurantId(restaurantId.toHexString()))
+                    .thenReturn(Arrays.asList(testSpace1, testSpace2));
+            when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
+                    any(), any(), any(), any()))
+                    .thenReturn(Arrays.asList(
+                            createReservation(testDate, "18:00", 15, spaceId1),
+                            createReservation(testDate, "18:30", 10, spaceId2),
+                            createReservation(testDate, "19:00", 8, spaceId1)));
+            when(reservationRepository.countCancelledPerDay(any(), any(), any()))
+                    .thenReturn(cancelledOn(testDate, 1));
+            when(rollupService.isEnabled()).thenReturn(true);
+            when(rollupService.findRollups(restaurantId, testDate, testDate.plusDays(1)))
+                    .thenReturn(List.of(
+                            rollup(testDate, spaceId1, 18, 1, 15, 1),
+                            rollup(testDate, spaceId2, 18, 1, 10, 0),
+                            rollup(testDate, spaceId1, 19, 1, 8, 0),
+                            rollup(testDate.plusDays(1), spaceId2, 20, 0, 0, 0)));
+
+            // When
+            OccupancyReportResponse inMemory = reportingService.generateOccupancyReport(
+                    request.engine(ReportEngine.IN_MEMORY).build());
+            OccupancyReportResponse fromRollups = reportingService.generateOccupancyReport(
+                    request.engine(ReportEngine.ROLLUP).build());
+
+            // Then
+            assertEquals(inMemory, fromRollups);
+            assertEquals(3L, fromRollups.getSummary().getTotalReservations());
+            assertEquals(1L, fromRollups.getSummary().getCancelledReservations());
+            assertEquals("18:00", fromRollups.getDailyBreakdown().get(0).getPeakHour());
+            assertTrue(fromRollups.getDailyBreakdown().get(1).getHourlyBreakdown().isEmpty());
+        }
+
+        private OccupancyFacets.DaySpaceRow daySpace(LocalDate date, UUID spaceId, long reservations, long guests) {
+            OccupancyFacets.DaySpaceKey key = new OccupancyFacets.DaySpaceKey();
+            key.setDate(date);
+            key.setSpaceId(spaceId);
+            OccupancyFacets.DaySpaceRow row = new OccupancyFacets.DaySpaceRow();
+            row.setId(key);
+            row.setTotalReservations(reservations);
+            row.setTotalGuests(guests);
+            return row;
+        }
+
+        private OccupancyFacets.DayHourRow dayHour(LocalDate date, String hour, long reservations, long guests) {
+            OccupancyFacets.DayHourKey key = new OccupancyFacets.DayHourKey();
+            key.setDate(date);
+            key.setHour(hour);
+            OccupancyFacets.DayHourRow row = new OccupancyFacets.DayHourRow();
+            row.setId(key);
+            row.setTotalReservations(reservations);
+            row.setTotalGuests(guests);
+            return row;
+        }
+
+        @Test
+        @DisplayName("Should build the same report from the $facet aggregation as from reservations")
+        void shouldMatchInMemoryReportFromAggregation() {
+            // Given
+            LocalDate testDate = LocalDate.of(2024, 1, 15);
+            OccupancyReportRequest.OccupancyReportRequestBuilder request = OccupancyReportRequest.builder()
+                    .restaurantId(restaurantId.toHexString())
+                    .startDate(testDate)
+                    .endDate(testDate.plusDays(2))
+                    .granularity(ReportGranularity.HOURLY);
+
+            OccupancyFacets facets = new OccupancyFacets();
+            facets.setDaySpace(List.of(
+                    daySpace(testDate, spaceId1, 2, 23),
+                    daySpace(testDate, spaceId2, 1, 10),
+                    daySpace(testDate.plusDays(2), spaceId2, 1, 12)));
+            facets.setDayHour(List.of(
+                    dayHour(testDate, "18", 2, 25),
+                    dayHour(testDate, "19", 1, 8),
+                    dayHour(testDate.plusDays(2), "12", 1, 12)));
+            facets.setCancelled(cancelledOn(testDate, 2));
+
+            when(restaurantService.getRestaurantById(restaurantId))
+                    .thenReturn(Optional.of(testRestaurant));
+            when(spaceService.getActiveSpacesByRestaurantId(restaurantId.toHexString()))
+                    .thenReturn(Arrays.asList(testSpace1, testSpace2));
+            when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
+                    any(), any(), any(), any()))
+                    .thenReturn(Arrays.asList(
+                            createReservation(testDate, "18:00", 15, spaceId1),
+                            createReservation(testDate, "18:30", 10, spaceId2),
+                            createReservation(testDate, "19:00", 8, spaceId1),
+                            createReservation(testDate.plusDays(2), "12:00", 12, spaceId2)));
+            when(reservationRepository.countCancelledPerDay(any(), any(), any()))
+                    .thenReturn(cancelledOn(testDate, 2));
+            when(reservationRepository.aggregateOccupancyFacets(restaurantId, testDate, testDate.plusDays(2)))
+                    .thenReturn(List.of(facets));
+
+            // When
+            OccupancyReportResponse inMemory = reportingService.generateOccupancyReport(
+                    request.engine(ReportEngine.IN_MEMORY).build());
+            OccupancyReportResponse aggregated = reportingService.generateOccupancyReport(
+                    request.engine(ReportEngine.AGGREGATION).build());
+
+            // Then
+            assertEquals(inMemory, aggregated);
+            assertEquals(4L, aggregated.getSummary().getTotalReservations());
+            assertEquals(new BigDecimal("33.3"), aggregated.getSummary().getCancellationRate());
+            assertEquals("12:00", aggregated.getDailyBreakdown().get(2).getPeakHour());
+        }
+
+        @Test
+        @DisplayName("Should report an empty range when the aggregation returns no document")
+        void shouldHandleEmptyAggregation() {
+            // Given
+            LocalDate testDate = LocalDate.of(2024, 1, 15);
+            OccupancyReportRequest request = OccupancyReportRequest.builder()
+                    .restaurantId(restaurantId.toHexString())
+                    .startDate(testDate)
+                    .endDate(testDate)
+                    .engine(ReportEngine.AGGREGATION)
+                    .build();
+
+            when(restaurantService.getRestaurantById(restaurantId))
+                    .thenReturn(Optional.of(testRestaurant));
+            when(spaceService.getActiveSpacesByRestaurantId(restaurantId.toHexString()))
+                    .thenReturn(Arrays.asList(testSpace1, testSpace2));
+            when(reservationRepository.aggregateOccupancyFacets(any(), any(), any())).thenReturn(List.of());
+
+            // When
+            OccupancyReportResponse response = reportingService.generateOccupancyReport(request);
+
+            // Then
+            assertEquals(0L, response.getSummary().getTotalReservations());
+            assertNull(response.getDailyBreakdown().get(0).getPeakHour());
+            verify(reservationRepository, never()).findByRestaurantIdAndReservationDateBetweenAndStatus(
+                    any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should reject the rollup engine when rollups are disabled")
+        void shouldRejectRollupEngineWhenDisabled() {
+            // Given
+            OccupancyReportRequest request = OccupancyReportRequest.builder()
+                    .restaurantId(restaurantId.toHexString())
+                    .startDate(LocalDate.of(2024, 1, 15))
+                    .endDate(LocalDate.of(2024, 1, 16))
+                    .engine(ReportEngine.ROLLUP)
+                    .build();
+
+            when(rollupService.isEnabled()).thenReturn(false);
+
+            // When/Then
+            assertThrows(IllegalArgumentException.class,
+                    () -> reportingService.generateOccupancyReport(request));
+            verifyNoInteractions(reservationRepository);
+        }
+
+        @Test
+        @DisplayName("Should rebuild rollups for an existing restaurant")
+        void shouldRebuildRollups() {
+            // Given
+            LocalDate startDate = LocalDate.of(2024, 1, 1);
+            LocalDate endDate = LocalDate.of(2024, 1, 31);
+
+            when(rollupService.isEnabled()).thenReturn(true);
+            when(restaurantService.getRestaurantById(restaurantId))
+                    .thenReturn(Optional.of(testRestaurant));
+            when(rollupService.rebuild(restaurantId, startDate, endDate)).thenReturn(42);
+
+            // When/Then
+            assertEquals(42, reportingService.rebuildOccupancyRollups(
+                    restaurantId.toHexString(), startDate, endDate));
+        }
+    }
+
+    @Nested
+    @DisplayName("Seat-minute utilization tests")
+    class SlotUtilizationTests {
+
+        // Monday 2024-01-15 open 18:00-22:00, Tuesday not configured (closed)
+        private final LocalDate monday = LocalDate.of(2024, 1, 15);
+        private final LocalDate tuesday = monday.plusDays(1);
+
+        @BeforeEach
+        void setUp() {
+            testRestaurant.setOperatingHours(List.of(OperatingHours.builder()
+                    .dayOfWeek(1)
+                    .openTime("18:00")
+                    .closeTime("22:00")
+                    .build()));
+            testSpace2.setSlotDurationMinutes(120);
+
+            when(restaurantService.getRestaurantById(restaurantId))
+                    .thenReturn(Optional.of(testRestaurant));
+            when(spaceService.getActiveSpacesByRestaurantId(restaurantId.toHexString()))
+                    .thenReturn(Arrays.asList(testSpace1, testSpace2));
+            when(reservationRepository.countCancelledPerDay(any(), any(), any())).thenReturn(List.of());
+        }
+
+        private OccupancyReportResponse generate(List<Reservation> reservations) {
+            when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
+                    any(), any(), any(), any()))
+                    .thenReturn(reservations);
+            return reportingService.generateOccupancyReport(OccupancyReportRequest.builder()
+                    .restaurantId(restaurantId.toHexString())
+                    .startDate(monday)
+                    .endDate(tuesday)
+                    .granularity(ReportGranularity.DAILY)
+                    .build());
+        }
+
+        @Test
+        @DisplayName("Should divide booked by available seat-minutes of the weekday")
+        void shouldComputeSeatMinuteUtilization() {
+            // Available: 20 * 4 * 60 + 30 * 2 * 120 = 12,000 seat-minutes
+            // Booked: 30 * 60 + 15 * 120 = 3,600 seat-minutes
+            OccupancyReportResponse response = generate(List.of(
+                    createReservation(monday, "18:00", 20, spaceId1),
+                    createReservation(monday, "19:00", 10, spaceId1),
+                    createReservation(monday, "18:00", 15, spaceId2)));
+
+            DailyOccupancy day = response.getDailyBreakdown().get(0);
+            assertEquals(new BigDecimal("30.0"), day.getUtilizationPercentage());
+            assertEquals(new BigDecimal("37.5"), day.getSpaceBreakdown().get(0).getUtilizationPercentage());
+            assertEquals(new BigDecimal("25.0"), day.getSpaceBreakdown().get(1).getUtilizationPercentage());
+        }
+
+        @Test
+        @DisplayName("Should count real slots and leave closed days out of the averages")
+        void shouldSkipClosedDays() {
+            OccupancyReportResponse response = generate(List.of(
+                    createReservation(monday, "18:00", 20, spaceId1),
+                    createReservation(monday, "19:00", 10, spaceId1),
+                    createReservation(monday, "18:00", 15, spaceId2)));
+
+            assertEquals(6L, response.getSummary().getTotalOperatingSlots());
+            assertEquals(new BigDecimal("30.0"), response.getSummary().getAverageUtilizationPercentage());
+            assertEquals(BigDecimal.ZERO.setScale(1), response.getDailyBreakdown().get(1).getUtilizationPercentage());
+            assertEquals(DayOfWeek.MONDAY, response.getInsights().getSlowestDay());
+        }
+    }
+
+    @Nested
+    @DisplayName("Space-scoped report tests")
+    class SpaceScopedReportTests {
+
+        private final LocalDate startDate = LocalDate.of(2024, 1, 15);
+        private final LocalDate endDate = LocalDate.of(2024, 1, 16);
+
+        @BeforeEach
+        void setUp() {
+            when(restaurantService.getRestaurantById(restaurantId))
+                    .thenReturn(Optional.of(testRestaurant));
+            when(spaceService.getActiveSpacesByRestaurantId(restaurantId.toHexString()))
+                    .thenReturn(Arrays.asList(testSpace1, testSpace2));
+        }
+
+        private OccupancyReportRequest request(UUID spaceId, ReportEngine engine) {
+            return OccupancyReportRequest.builder()
+                    .restaurantId(restaurantId.toHexString())
+                    .startDate(startDate)
+                    .endDate(endDate)
+                    .granularity(ReportGranularity.DAILY)
+                    .spaceId(spaceId)
+                    .engine(engine)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Should load only the space's reservations and use its capacity")
+        void shouldScopeInMemoryReportToSpace() {
+            when(reservationRepository.findBySpaceIdAndReservationDateBetweenAndStatus(
+                    spaceId2, startDate, endDate, ReservationStatus.CONFIRMED))
+                    .thenReturn(List.of(createReservation(startDate, "18:00", 15, spaceId2)));
+            when(reservationRepository.countSpaceCancelledPerDay(spaceId2, startDate, endDate))
+                    .thenReturn(cancelledOn(startDate, 1));
+
+            OccupancyReportResponse response = reportingService.generateOccupancyReport(
+                    request(spaceId2, null));
+
+            DailyOccupancy firstDay = response.getDailyBreakdown().get(0);
+            assertEquals(1, firstDay.getSpaceBreakdown().size());
+            assertEquals(spaceId2, firstDay.getSpaceBreakdown().get(0).getSpaceId());
+            assertEquals(new BigDecimal("50.0"), firstDay.getUtilizationPercentage());
+            assertEquals(1L, response.getSummary().getCancelledReservations());
+            verify(reservationRepository, never()).findByRestaurantIdAndReservationDateBetweenAndStatus(
+                    any(), any(), any(), any());
+            verify(reservationRepository, never()).countCancelledPerDay(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should run the space-scoped pipeline for the AGGREGATION engine")
+        void shouldScopeAggregationReportToSpace() {
+            OccupancyFacets facets = new OccupancyFacets();
+            when(reservationRepository.aggregateSpaceOccupancyFacets(spaceId1, startDate, endDate))
+                    .thenReturn(List.of(facets));
+
+            OccupancyReportResponse response = reportingService.generateOccupancyReport(
+                    request(spaceId1, ReportEngine.AGGREGATION));
+
+            assertEquals(0L, response.getSummary().getTotalReservations());
+            verify(reservationRepository, never()).aggregateOccupancyFacets(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should read only the space's rollups for the ROLLUP engine")
+        void shouldScopeRollupReportToSpace() {
+            when(rollupService.isEnabled()).thenReturn(true);
+            when(rollupService.findRollups(restaurantId, spaceId1, startDate, endDate))
+                    .thenReturn(List.of(OccupancyRollup.builder()
+                            .date(startDate)
+                            .spaceId(spaceId1)
+                            .hour(19)
+                            .reservations(2)
+                            .guests(10)
+                            .build()));
+
+            OccupancyReportResponse response = reportingService.generateOccupancyReport(
+                    request(spaceId1, ReportEngine.ROLLUP));
+
+            assertEquals(2L, response.getSummary().getTotalReservations());
+            assertEquals(new BigDecimal("50.0"), response.getDailyBreakdown().get(0).getUtilizationPercentage());
+            verify(rollupService, never()).findRollups(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should reject a space that is not an active space of the restaurant")
+        void shouldRejectUnknownSpace() {
+            assertThrows(SpaceNotFoundException.class, () -> reportingService.generateOccupancyReport(
+                    request(UUID.randomUUID(), null)));
+            verifyNoInteractions(reservationRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Report cache tests")
+    class ReportCacheTests {
+
+        private ReportCache cache;
+        private ReportingService cachingService;
+        private LocalDate today;
+
+        @BeforeEach
+        void setUp() {
+            cache = new ReportCache(new SimpleMeterRegistry(), true, 100, 300, 1000, 3600);
+            cachingService = new ReportingService(reservationRepository, restaurantService, spaceService,
+                    rollupService, cache);
+            today = LocalDate.now();
+
+            when(restaurantService.getRestaurantById(restaurantId))
+                    .thenReturn(Optional.of(testRestaurant));
+            when(spaceService.getActiveSpacesByRestaurantId(restaurantId.toHexString()))
+                    .thenReturn(Arrays.asList(testSpace1, testSpace2));
+            when(reservationRepository.findByRestaurantIdAndReservationDateBetweenAndStatus(
+                    any(), any(), any(), eq(ReservationStatus.CONFIRMED)))
+                    .thenAnswer(invocation -> {
+                        LocalDate from = invocation.getArgument(1);
+                        LocalDate to = invocation.getArgument(2);
+                        List<Reservation> reservations = new ArrayList<>();
+                        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                            reservations.add(createReservation(date, "18:00", 10, spaceId1));
+                        }
+                        return reservations;
+                    });
+            when(reservationRepository.countCancelledPerDay(any(), any(), any())).thenReturn(List.of());
+        }
+
+        private OccupancyReportRequest request(LocalDate startDate, LocalDate endDate) {
+            return OccupancyReportRequest.builder()
+                    .restaurantId(restaurantId.toHexString())
+                    .startDate(startDate)
+                    .endDate(endDate)
+                    .granularity(ReportGranularity.DAILY)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Should serve a repeated report from the cache")
+        void shouldServeRepeatedReport() {
+            OccupancyReportResponse first = cachingService.generateOccupancyReport(
+                    request(today.minusDays(7), today));
+            OccupancyReportResponse second = cachingService.generateOccupancyReport(
+                    request(today.minusDays(7), today));
+
+            assertSame(first, second);
+            verify(reservationRepository, times(1)).findByRestaurantIdAndReservationDateBetweenAndStatus(
+                    any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should compose closed days from fragments and load only the open days")
+        void shouldReuseClosedDayFragments() {
+            cachingService.generateOccupancyReport(request(today.minusDays(3), today.plusDays(1)));
+
+            OccupancyReportResponse response = cachingService.generateOccupancyReport(
+                    request(today.minusDays(3), today));
+
+            verify(reservationRepository).findByRestaurantIdAndReservationDateBetweenAndStatus(
+                    restaurantId, today, today, ReservationStatus.CONFIRMED);
+            assertEquals(4L, response.getSummary().getTotalReservations());
+            assertEquals(40L, response.getSummary().getTotalGuests());
+            assertEquals(4, response.getDailyBreakdown().size());
+            assertEquals(10L, response.getDailyBreakdown().get(0).getSpaceBreakdown().get(0).getGuests());
+        }
+
+        @Test
+        @DisplayName("Should reload only the invalidated day and evict only the reports that contain it")
+        void shouldInvalidateSelectively() {
+            OccupancyReportResponse containing = cachingService.generateOccupancyReport(
+                    request(today.minusDays(3), today.minusDays(1)));
+            OccupancyReportResponse other = cachingService.generateOccupancyReport(
+                    request(today.minusDays(10), today.minusDays(5)));
+
+            cache.invalidate(restaurantId, spaceId1, today.minusDays(2));
+
+            assertSame(other, cachingService.generateOccupancyReport(
+                    request(today.minusDays(10), today.minusDays(5))));
+            OccupancyReportResponse reloaded = cachingService.generateOccupancyReport(
+                    request(today.minusDays(3), today.minusDays(1)));
+            assertNotSame(containing, reloaded);
+            assertEquals(containing.getSummary(), reloaded.getSummary());
+            verify(reservationRepository).findByRestaurantIdAndReservationDateBetweenAndStatus(
+                    restaurantId, today.minusDays(2), today.minusDays(2), ReservationStatus.CONFIRMED);
+        }
+    }
 }
@@ -0,0 +1,132 @@
+package com.opentable.privatedining.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReservationRetryPolicy Tests")
+class ReservationRetryPolicyTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<Long> sleeps;
+    private AtomicLong nanoTime;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sleeps = new ArrayList<>();
+        nanoTime = new AtomicLong();
+    }
+
+    private ReservationRetryPolicy policy(int maxAttempts, long requestBudgetMs, int nodeBudget, double retryRatio) {
+        return new ReservationRetryPolicy(meterRegistry, maxAttempts, 5, 50, requestBudgetMs,
+                nodeBudget, retryRatio,
+                delayMs -> {
+                    sleeps.add(delayMs);
+                    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(delayMs));
+                },
+                nanoTime::get);
+    }
+
+    private static Object failTimes(AtomicInteger calls, int failures) {
+        if (calls.incrementAndGet() <= failures) {
+            throw new OptimisticLockingFailureException("Concurrent modification");
+        }
+        return "ok";
+    }
+
+    @Test
+    @DisplayName("Should retry conflicts with jittered delays and record the recovery")
+    void shouldRetryUntilSuccess() {
+        ReservationRetryPolicy policy = policy(3, 1000, 10, 0.1);
+        AtomicInteger calls = new AtomicInteger();
+
+        Object result = policy.execute(() -> failTimes(calls, 2), attempts -> new IllegalStateException());
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, sleeps.size());
+        assertTrue(sleeps.stream().allMatch(delay -> delay >= 5 && delay <= 50));
+        assertEquals(2.0, meterRegistry.get("reservation.retry.attempts").counter().count());
+        assertEquals(1.0, meterRegistry.get("reservation.retry.outcomes")
+                .tag("outcome", "recovered").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should give up after the maximum attempts")
+    void shouldGiveUpAfterMaxAttempts() {
+        ReservationRetryPolicy policy = policy(3, 1000, 10, 0.1);
+        AtomicInteger calls = new AtomicInteger();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> policy.execute(() -> failTimes(calls, 10),
+                        attempts -> new IllegalStateException("attempts=" + attempts)));
+
+        assertEquals("attempts=3", exception.getMessage());
+        assertEquals(3, calls.get());
+        assertEquals(1.0, meterRegistry.get("reservation.retry.outcomes")
+                .tag("outcome", "exhausted").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should stop retrying when the delay no longer fits the request budget")
+    void shouldRespectRequestBudget() {
+        // Budget of 4 ms is below the 5 ms minimum delay
+        ReservationRetryPolicy policy = policy(3, 4, 10, 0.1);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class,
+                () -> policy.execute(() -> failTimes(calls, 10), attempts -> new IllegalStateException()));
+
+        assertEquals(1, calls.get());
+        assertTrue(sleeps.isEmpty());
+        assertEquals(1.0, meterRegistry.get("reservation.retry.outcomes")
+                .tag("outcome", "budget_denied").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should fail fast once the node retry budget is spent and refill it on success")
+    void shouldRespectNodeBudget() {
+        // One retry token, refilled by one token per successful first attempt
+        ReservationRetryPolicy policy = policy(3, 1000, 1, 1.0);
+
+        AtomicInteger first = new AtomicInteger();
+        assertThrows(IllegalStateException.class,
+                () -> policy.execute(() -> failTimes(first, 10), attempts -> new IllegalStateException()));
+        assertEquals(2, first.get());
+
+        AtomicInteger second = new AtomicInteger();
+        assertThrows(IllegalStateException.class,
+                () -> policy.execute(() -> failTimes(second, 10), attempts -> new IllegalStateException()));
+        assertEquals(1, second.get());
+
+        policy.execute(() -> "ok", attempts -> new IllegalStateException());
+
+        AtomicInteger third = new AtomicInteger();
+        assertEquals("ok", policy.execute(() -> failTimes(third, 1), attempts -> new IllegalStateException()));
+    }
+
+    @Test
+    @DisplayName("Should keep decorrelated jitter delays between base and cap")
+    void shouldBoundJitterDelays() {
+        ReservationRetryPolicy policy = policy(3, 1000, 10, 0.1);
+
+        long previous = 5;
+        for (int i = 0; i < 1000; i++) {
+            long delay = policy.nextDelay(previous);
+            assertTrue(delay >= 5 && delay <= Math.min(50, previous * 3),
+                    "delay " + delay + " out of bounds for previous " + previous);
+            previous = delay;
+        }
+    }
+}
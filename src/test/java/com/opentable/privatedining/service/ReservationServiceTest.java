@@ -3,6 +3,7 @@ package com.opentable.privatedining.service;
 import com.opentable.privatedining.dto.request.CancellationRequest;
 import com.opentable.privatedining.dto.request.CreateReservationRequest;
 import com.opentable.privatedining.dto.response.CancellationResponse;
+import com.opentable.privatedining.dto.response.ReservationResponse;
 import com.opentable.privatedining.exception.CapacityExceededException;
 import com.opentable.privatedining.exception.ConcurrentModificationException;
 import com.opentable.privatedining.exception.ReservationException;
@@ -14,6 +15,7 @@ import com.opentable.privatedining.model.Space;
 import com.opentable.privatedining.model.enums.ReservationStatus;
 import com.opentable.privatedining.repository.ReservationRepository;
 import com.opentable.privatedining.validation.ReservationValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,7 +23,9 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.OptimisticLockingFailureException;
 
@@ -58,6 +62,28 @@ class ReservationServiceTest {
     @Mock
     private SlotCapacityService slotCapacityService;
 
+    @Mock
+    private AvailabilitySnapshotService snapshotService;
+
+    @Mock
+    private AvailabilityVersionService versionService;
+
+    @Mock
+    private OccupancyRollupService rollupService;
+
+    @Mock
+    private ReportCache reportCache;
+
+    @Mock
+    private KeysetPager keysetPager;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ReservationRetryPolicy retryPolicy = new ReservationRetryPolicy(
+            new SimpleMeterRegistry(), 3, 5, 50, 100, 50, 0.1, delayMs -> { }, () -> 0L);
+
     @InjectMocks
     private ReservationService reservationService;
 
@@ -162,6 +188,13 @@ class ReservationServiceTest {
             verify(slotCapacityService).tryReserveCapacity(
                     eq(testSpace), any(), eq("18:00"), eq("19:00"), eq(8));
             verify(reservationRepository).save(any(Reservation.class));
+
+            // The availability version moves only once the booking is readable
+            InOrder writes = inOrder(reservationRepository, snapshotService, versionService);
+            writes.verify(reservationRepository).save(any(Reservation.class));
+            writes.verify(snapshotService).recordBooked(expectedReservation);
+            writes.verify(versionService).bump(expectedReservation.getSpaceId(),
+                    expectedReservation.getReservationDate());
         }
 
         @Test
@@ -180,7 +213,7 @@ class ReservationServiceTest {
                     eq(testSpace), any(), eq("18:00"), eq("19:00"), eq(8)))
                     .thenReturn(false);
             when(slotCapacityService.getAvailableCapacity(
-                    eq(spaceId), any(), eq("18:00"), eq(20)))
+                    eq(spaceId), any(), eq("18:00"), eq("19:00"), eq(20)))
                     .thenReturn(5);
 
             // When & Then
@@ -218,7 +251,7 @@ class ReservationServiceTest {
             // When & Then
             assertThrows(RuntimeException.class, () -> reservationService.createReservation(request));
 
-            verify(slotCapacityService).releaseCapacity(eq(spaceId), any(), eq("18:00"), eq(8));
+            verify(slotCapacityService).releaseCapacity(eq(spaceId), any(), eq("18:00"), eq("19:00"), eq(8));
         }
 
         @Test
@@ -272,6 +305,41 @@ class ReservationServiceTest {
             assertNotNull(result);
             verify(slotCapacityService, times(2)).tryReserveCapacity(
                     any(), any(), any(), any(), anyInt());
+            // Catalog data is loaded once, not per attempt
+            verify(spaceService, times(1)).getActiveSpaceByIdOrThrow(spaceId);
+            verify(restaurantService, times(1)).getRestaurantById(any(ObjectId.class));
+        }
+
+        @Test
+        @DisplayName("Should build the response from the loaded space and restaurant without re-reading them")
+        void shouldCreateAndRespondWithTwoCatalogReads() {
+            // Given
+            CreateReservationRequest request = createValidRequest();
+            Reservation expectedReservation = createTestReservation();
+
+            when(spaceService.getActiveSpaceByIdOrThrow(spaceId)).thenReturn(testSpace);
+            when(restaurantService.getRestaurantById(any(ObjectId.class)))
+                    .thenReturn(Optional.of(testRestaurant));
+            when(availabilityService.calculateEndTime(testSpace, "18:00")).thenReturn("19:00");
+            when(slotCapacityService.tryReserveCapacity(
+                    eq(testSpace), any(), eq("18:00"), eq("19:00"), eq(8)))
+                    .thenReturn(true);
+            when(reservationRepository.save(any(Reservation.class))).thenReturn(expectedReservation);
+
+            // When
+            ReservationResponse response = reservationService.createReservationAndRespond(request);
+
+            // Then
+            assertEquals("Garden Room", response.getSpaceName());
+            assertEquals("Test Restaurant", response.getRestaurantName());
+            verify(spaceService, times(1)).getActiveSpaceByIdOrThrow(spaceId);
+            verify(spaceService, never()).getSpaceById(any());
+            verify(restaurantService, times(1)).getRestaurantById(any(ObjectId.class));
+
+            for (String stage : List.of("load", "validate", "admit", "persist", "respond")) {
+                assertEquals(1, meterRegistry.get("reservation.create.stage")
+                        .tag("stage", stage).timer().count(), stage);
+            }
         }
     }
 
@@ -302,11 +370,14 @@ class ReservationServiceTest {
             assertNotNull(result.getCancelledAt());
 
             verify(slotCapacityService).releaseCapacity(
-                    eq(spaceId), any(), eq("18:00"), eq(8));
+                    eq(spaceId), any(), eq("18:00"), eq("19:00"), eq(8));
             verify(reservationRepository).save(argThat(r ->
                     r.getStatus() == ReservationStatus.CANCELLED &&
                     r.getCancellationReason().equals("Change of plans")
             ));
+            verify(rollupService).recordCancelled(argThat(r -> r.getId().equals(reservationId)));
+            verify(reportCache).invalidate(any(), any(), any());
+            verify(versionService).bump(spaceId, reservation.getReservationDate());
         }
 
         @Test
@@ -324,7 +395,7 @@ class ReservationServiceTest {
             assertThrows(ReservationNotFoundException.class,
                     () -> reservationService.cancelReservation(reservationId, cancelRequest));
 
-            verify(slotCapacityService, never()).releaseCapacity(any(), any(), any(), anyInt());
+            verify(slotCapacityService, never()).releaseCapacity(any(), any(), any(), any(), anyInt());
         }
 
         @Test
@@ -347,7 +418,7 @@ class ReservationServiceTest {
             );
 
             assertTrue(exception.getMessage().contains("already cancelled"));
-            verify(slotCapacityService, never()).releaseCapacity(any(), any(), any(), anyInt());
+            verify(slotCapacityService, never()).releaseCapacity(any(), any(), any(), any(), anyInt());
         }
     }
 
@@ -418,8 +489,9 @@ class ReservationServiceTest {
             // Then
             assertTrue(result);
             verify(slotCapacityService).releaseCapacity(
-                    eq(spaceId), any(), eq("18:00"), eq(8));
+                    eq(spaceId), any(), eq("18:00"), eq("19:00"), eq(8));
             verify(reservationRepository).deleteById(reservationId);
+            verify(versionService).bump(spaceId, reservation.getReservationDate());
         }
 
         @Test
@@ -437,8 +509,12 @@ class ReservationServiceTest {
 
             // Then
             assertTrue(result);
-            verify(slotCapacityService, never()).releaseCapacity(any(), any(), any(), anyInt());
+            verify(slotCapacityService, never()).releaseCapacity(any(), any(), any(), any(), anyInt());
             verify(reservationRepository).deleteById(reservationId);
+            verifyNoInteractions(versionService);
+            verify(rollupService).recordDeleted(reservation);
+            verify(reportCache).invalidate(reservation.getRestaurantId(), reservation.getSpaceId(),
+                    reservation.getReservationDate());
         }
 
         @Test
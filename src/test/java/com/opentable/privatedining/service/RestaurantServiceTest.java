@@ -4,11 +4,13 @@ import com.opentable.privatedining.model.Restaurant;
 import com.opentable.privatedining.model.Space;
 import com.opentable.privatedining.repository.RestaurantRepository;
 import com.opentable.privatedining.repository.SpaceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
@@ -29,6 +31,15 @@ class RestaurantServiceTest {
     @Mock
     private SpaceRepository spaceRepository;
 
+    @Spy
+    private CatalogCache catalogCache = new CatalogCache(new SimpleMeterRegistry(), true, 100, 60);
+
+    @Mock
+    private ReportCache reportCache;
+
+    @Mock
+    private KeysetPager keysetPager;
+
     @InjectMocks
     private RestaurantService restaurantService;
 
@@ -150,6 +161,33 @@ class RestaurantServiceTest {
         verify(restaurantRepository).save(updatedRestaurant);
     }
 
+    @Test
+    void updateRestaurant_ShouldInvalidateCachedRestaurant() {
+        // Given
+        ObjectId restaurantId = new ObjectId();
+        Restaurant existingRestaurant = createTestRestaurant("Old Restaurant", "Old Address", "Old Cuisine");
+        existingRestaurant.setId(restaurantId);
+        Restaurant updatedRestaurant = createTestRestaurant("Updated Restaurant", "Updated Address", "Updated Cuisine");
+        updatedRestaurant.setId(restaurantId);
+
+        when(restaurantRepository.findById(restaurantId))
+                .thenReturn(Optional.of(existingRestaurant))
+                .thenReturn(Optional.of(existingRestaurant))
+                .thenReturn(Optional.of(updatedRestaurant));
+        when(restaurantRepository.save(any(Restaurant.class))).thenReturn(updatedRestaurant);
+
+        // When - cached read, update, read again
+        restaurantService.getRestaurantById(restaurantId);
+        assertEquals("Old Restaurant", restaurantService.getRestaurantById(restaurantId).get().getName());
+        restaurantService.updateRestaurant(restaurantId, updatedRestaurant);
+        Optional<Restaurant> result = restaurantService.getRestaurantById(restaurantId);
+
+        // Then - the second read was a cache hit, the read after the update reloads
+        assertEquals("Updated Restaurant", result.get().getName());
+        verify(restaurantRepository, times(3)).findById(restaurantId);
+        verify(reportCache).invalidateRestaurant(restaurantId);
+    }
+
     @Test
     void updateRestaurant_WhenRestaurantNotFound_ShouldReturnEmpty() {
         // Given
@@ -262,6 +300,7 @@ class RestaurantServiceTest {
         assertTrue(result);
         verify(spaceRepository).findByIdAndRestaurantId(spaceId, restaurantId.toHexString());
         verify(spaceRepository).deleteById(spaceId);
+        verify(reportCache).invalidateRestaurant(restaurantId);
     }
 
     @Test
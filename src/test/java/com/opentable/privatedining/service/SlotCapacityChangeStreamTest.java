@@ -0,0 +1,127 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.dto.response.SlotCapacityChange;
+import com.opentable.privatedining.model.SlotCapacity;
+import com.opentable.privatedining.model.SpaceDayCapacity;
+import com.opentable.privatedining.model.enums.CapacityMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SlotCapacityChangeStream Tests")
+class SlotCapacityChangeStreamTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SlotCapacityChangeStream changeStream;
+    private UUID spaceId;
+    private LocalDate testDate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        changeStream = new SlotCapacityChangeStream(mongoTemplate, meterRegistry, false, 2, 10,
+                CapacityMode.SLOT_UPSERT);
+        spaceId = UUID.randomUUID();
+        testDate = LocalDate.now().plusDays(7);
+    }
+
+    private SlotCapacity slot(UUID space, String startTime, int booked, long version) {
+        return SlotCapacity.builder()
+                .id(SlotCapacity.generateId(space, testDate, startTime))
+                .spaceId(space)
+                .date(testDate)
+                .startTime(startTime)
+                .bookedCapacity(booked)
+                .maxCapacity(20)
+                .version(version)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should route changes to the subscribers of their space-day only")
+    void shouldRouteBySpaceDay() {
+        StepVerifier.create(changeStream.subscribe(spaceId, testDate))
+                .then(() -> {
+                    changeStream.publish(slot(UUID.randomUUID(), "18:00", 4, 1));
+                    changeStream.publish(slot(spaceId, "18:00", 8, 2));
+                })
+                .assertNext(change -> {
+                    assertEquals(SlotCapacityChange.SLOT, change.getType());
+                    assertEquals("18:00", change.getStartTime());
+                    assertEquals(8, change.getBookedCapacity());
+                    assertEquals(12, change.getAvailableCapacity());
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should coalesce pending changes of a slot while the subscriber is behind")
+    void shouldCoalescePendingChanges() {
+        StepVerifier.create(changeStream.subscribe(spaceId, testDate), 0)
+                .then(() -> {
+                    changeStream.publish(slot(spaceId, "18:00", 4, 1));
+                    changeStream.publish(slot(spaceId, "19:00", 6, 1));
+                    changeStream.publish(slot(spaceId, "18:00", 10, 2));
+                })
+                .thenRequest(10)
+                .assertNext(change -> assertEquals("19:00", change.getStartTime()))
+                .assertNext(change -> {
+                    assertEquals("18:00", change.getStartTime());
+                    assertEquals(10, change.getBookedCapacity());
+                })
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should replace an overflowing buffer with a single resync")
+    void shouldResyncOnOverflow() {
+        StepVerifier.create(changeStream.subscribe(spaceId, testDate), 0)
+                .then(() -> {
+                    changeStream.publish(slot(spaceId, "17:00", 1, 1));
+                    changeStream.publish(slot(spaceId, "18:00", 1, 1));
+                    changeStream.publish(slot(spaceId, "19:00", 1, 1));
+                    changeStream.publish(slot(spaceId, "20:00", 1, 1));
+                })
+                .thenRequest(10)
+                .assertNext(change -> {
+                    assertEquals(SlotCapacityChange.RESYNC, change.getType());
+                    assertEquals(spaceId, change.getSpaceId());
+                })
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(1.0, meterRegistry.counter("availability.stream.resyncs").count());
+    }
+
+    @Test
+    @DisplayName("Should drop the subscription when the subscriber cancels")
+    void shouldUnsubscribeOnCancel() {
+        StepVerifier.create(changeStream.subscribe(spaceId, testDate))
+                .then(() -> assertEquals(1.0, meterRegistry.get("availability.stream.subscribers").gauge().value()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(0.0, meterRegistry.get("availability.stream.subscribers").gauge().value());
+        changeStream.resync(SpaceDayCapacity.generateId(spaceId, testDate));
+    }
+}
@@ -0,0 +1,169 @@
+package com.opentable.privatedining.service;
+
+import com.opentable.privatedining.model.SlotCapacity;
+import com.opentable.privatedining.model.Space;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SlotCapacityLedgerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private AvailabilityVersionService versionService;
+
+    private SlotCapacityLedger ledger;
+    private Space testSpace;
+    private LocalDate testDate;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new SlotCapacityLedger(mongoTemplate, versionService, true, 1, 0, 200);
+        testSpace = Space.builder()
+                .id(UUID.randomUUID())
+                .name("Ledger Room")
+                .maxCapacity(9)
+                .slotDurationMinutes(60)
+                .build();
+        testDate = LocalDate.now().plusDays(7);
+    }
+
+    @Nested
+    @DisplayName("tryReserve")
+    class TryReserveTests {
+
+        @Test
+        @DisplayName("Should admit parties until capacity is reached")
+        void shouldAdmitUntilFull() {
+            assertTrue(ledger.tryReserve(testSpace, testDate, "18:00", "19:00", 5));
+            assertTrue(ledger.tryReserve(testSpace, testDate, "18:00", "19:00", 4));
+            assertFalse(ledger.tryReserve(testSpace, testDate, "18:00", "19:00", 1));
+            assertEquals(9, ledger.getBooked(testSpace.getId(), testDate, "18:00"));
+        }
+
+        @Test
+        @DisplayName("Should never overbook under concurrent admission")
+        void shouldNeverOverbookConcurrently() throws Exception {
+            int threads = 16;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch startLatch = new CountDownLatch(1);
+            CountDownLatch completionLatch = new CountDownLatch(threads);
+            AtomicInteger admitted = new AtomicInteger();
+
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    try {
+                        startLatch.await();
+                        if (ledger.tryReserve(testSpace, testDate, "18:00", "19:00", 3)) {
+                            admitted.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        completionLatch.countDown();
+                    }
+                });
+            }
+
+            startLatch.countDown();
+            assertTrue(completionLatch.await(10, TimeUnit.SECONDS));
+            executor.shutdown();
+
+            assertEquals(3, admitted.get());
+            assertEquals(9, ledger.getBooked(testSpace.getId(), testDate, "18:00"));
+        }
+    }
+
+    @Nested
+    @DisplayName("release")
+    class ReleaseTests {
+
+        @Test
+        @DisplayName("Should free capacity and never drop below zero")
+        void shouldReleaseWithFloorAtZero() {
+            ledger.tryReserve(testSpace, testDate, "18:00", "19:00", 4);
+
+            ledger.release(testSpace.getId(), testDate, "18:00", 6);
+
+            assertEquals(0, ledger.getBooked(testSpace.getId(), testDate, "18:00"));
+        }
+    }
+
+    @Nested
+    @DisplayName("flush")
+    class FlushTests {
+
+        @Test
+        @DisplayName("Should stamp written slots and bump the availability version of their days")
+        void shouldStampAndBumpWrittenDays() {
+            ledger.tryReserve(testSpace, testDate, "18:00", "19:00", 4);
+            ledger.tryReserve(testSpace, testDate, "20:00", "21:00", 2);
+
+            ledger.flush();
+
+            ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+            verify(mongoTemplate, times(2)).upsert(any(Query.class), updateCaptor.capture(), eq(SlotCapacity.class));
+            assertTrue(updateCaptor.getAllValues().stream().allMatch(update -> update.modifies("version")));
+            verify(versionService).bump(Set.of(new AvailabilityVersionService.SpaceDay(testSpace.getId(), testDate)));
+        }
+    }
+
+    @Nested
+    @DisplayName("owns")
+    class OwnsTests {
+
+        @Test
+        @DisplayName("Should not own any space when disabled")
+        void shouldNotOwnWhenDisabled() {
+            SlotCapacityLedger disabled = new SlotCapacityLedger(mongoTemplate, versionService, false, 1, 0, 200);
+
+            assertFalse(disabled.owns(testSpace.getId()));
+        }
+
+        @Test
+        @DisplayName("Should assign every space to exactly one shard")
+        void shouldAssignSpaceToOneShard() {
+            int owners = 0;
+            for (int shard = 0; shard < 4; shard++) {
+                if (new SlotCapacityLedger(mongoTemplate, versionService, true, 4, shard, 200).owns(testSpace.getId())) {
+                    owners++;
+                }
+            }
+
+            assertEquals(1, owners);
+        }
+
+        @Test
+        @DisplayName("Should reject an invalid shard configuration")
+        void shouldRejectInvalidShardConfiguration() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new SlotCapacityLedger(mongoTemplate, versionService, true, 2, 2, 200));
+        }
+    }
+}
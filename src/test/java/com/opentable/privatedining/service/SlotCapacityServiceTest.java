@@ -2,21 +2,35 @@ package com.opentable.privatedining.service;
 
 import com.opentable.privatedining.model.SlotCapacity;
 import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.SpaceDayCapacity;
+import com.opentable.privatedining.model.enums.CapacityMode;
 import com.opentable.privatedining.repository.SlotCapacityRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonDocument;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -34,7 +48,11 @@ class SlotCapacityServiceTest {
     @Mock
     private MongoTemplate mongoTemplate;
 
+    @Mock
+    private AvailabilityVersionService versionService;
+
     private SlotCapacityService slotCapacityService;
+    private SimpleMeterRegistry meterRegistry;
 
     private Space testSpace;
     private UUID spaceId;
@@ -44,7 +62,8 @@ class SlotCapacityServiceTest {
 
     @BeforeEach
     void setUp() {
-        slotCapacityService = new SlotCapacityService(slotCapacityRepository, mongoTemplate);
+        meterRegistry = new SimpleMeterRegistry();
+        slotCapacityService = createService(CapacityMode.SLOT_UPSERT);
 
         spaceId = UUID.randomUUID();
         testDate = LocalDate.now().plusDays(7);
@@ -59,6 +78,18 @@ class SlotCapacityServiceTest {
                 .build();
     }
 
+    private SlotCapacityService createService(CapacityMode mode) {
+        SlotCapacityLedger disabledLedger = new SlotCapacityLedger(mongoTemplate, versionService, false, 1, 0, 200);
+        return new SlotCapacityService(slotCapacityRepository, mongoTemplate, disabledLedger,
+                versionService, meterRegistry, mode);
+    }
+
+    private DistributionSummary roundTrips(CapacityMode mode, String outcome) {
+        return meterRegistry.find("capacity.reservation.round.trips")
+                .tags("mode", mode.name().toLowerCase(), "outcome", outcome)
+                .summary();
+    }
+
     @Nested
     @DisplayName("tryReserveCapacity tests")
     class TryReserveCapacityTests {
@@ -168,6 +199,281 @@ class SlotCapacityServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Single round trip mode tests")
+    class SingleRoundTripTests {
+
+        private SlotCapacityService singleTripService;
+
+        @BeforeEach
+        void setUp() {
+            singleTripService = createService(CapacityMode.SLOT_SINGLE_ROUND_TRIP);
+        }
+
+        @Test
+        @DisplayName("Should admit with one guarded upsert and no separate slot creation")
+        void shouldAdmitInOneRoundTrip() {
+            // Given
+            when(mongoTemplate.findAndModify(
+                    any(Query.class),
+                    any(Update.class),
+                    any(FindAndModifyOptions.class),
+                    eq(SlotCapacity.class)))
+                    .thenReturn(SlotCapacity.builder().bookedCapacity(5).maxCapacity(20).build());
+
+            // When
+            boolean result = singleTripService.tryReserveCapacity(
+                    testSpace, testDate, startTime, endTime, 5);
+
+            // Then
+            assertTrue(result);
+            ArgumentCaptor<FindAndModifyOptions> optionsCaptor = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+            verify(mongoTemplate, times(1)).findAndModify(
+                    any(Query.class), any(Update.class), optionsCaptor.capture(), eq(SlotCapacity.class));
+            assertTrue(optionsCaptor.getValue().isUpsert());
+            verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(SlotCapacity.class));
+
+            DistributionSummary summary = roundTrips(CapacityMode.SLOT_SINGLE_ROUND_TRIP, "admitted");
+            assertNotNull(summary);
+            assertEquals(1, summary.count());
+            assertEquals(1.0, summary.max());
+        }
+
+        @Test
+        @DisplayName("Should fall back to guarded increment when the slot is full")
+        void shouldFallBackOnDuplicateKey() {
+            // Given - guard fails on the existing slot, so the upsert collides on _id
+            when(mongoTemplate.findAndModify(
+                    any(Query.class),
+                    any(Update.class),
+                    any(FindAndModifyOptions.class),
+                    eq(SlotCapacity.class)))
+                    .thenThrow(new DuplicateKeyException("E11000 duplicate key"))
+                    .thenReturn(null);
+
+            // When
+            boolean result = singleTripService.tryReserveCapacity(
+                    testSpace, testDate, startTime, endTime, 5);
+
+            // Then
+            assertFalse(result);
+            verify(mongoTemplate, times(2)).findAndModify(
+                    any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(SlotCapacity.class));
+
+            DistributionSummary summary = roundTrips(CapacityMode.SLOT_SINGLE_ROUND_TRIP, "rejected");
+            assertNotNull(summary);
+            assertEquals(2.0, summary.max());
+        }
+
+        @Test
+        @DisplayName("Should reject a party larger than the space without a round trip")
+        void shouldRejectOversizedPartyWithoutRoundTrip() {
+            // When
+            boolean result = singleTripService.tryReserveCapacity(
+                    testSpace, testDate, startTime, endTime, 25);
+
+            // Then
+            assertFalse(result);
+            verifyNoInteractions(mongoTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("Interval bucket mode tests")
+    class IntervalBucketTests {
+
+        private SlotCapacityService intervalService;
+
+        @BeforeEach
+        void setUp() {
+            intervalService = createService(CapacityMode.INTERVAL_BUCKETS);
+        }
+
+        @Test
+        @DisplayName("Should guard and increment every bucket covered by the window in one upsert")
+        void shouldGuardEveryCoveredBucket() {
+            // When
+            boolean result = intervalService.tryReserveCapacity(
+                    testSpace, testDate, startTime, endTime, 5);
+
+            // Then - 18:00-19:00 covers the twelve 5-minute buckets 1080..1135
+            assertTrue(result);
+            ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+            ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+            verify(mongoTemplate).upsert(queryCaptor.capture(), updateCaptor.capture(), eq(SpaceDayCapacity.class));
+
+            assertEquals(SpaceDayCapacity.generateId(spaceId, testDate),
+                    queryCaptor.getValue().getQueryObject().get("_id"));
+            assertTrue(queryCaptor.getValue().getQueryObject().containsKey("buckets.1080"));
+            assertTrue(queryCaptor.getValue().getQueryObject().containsKey("buckets.1135"));
+            assertFalse(queryCaptor.getValue().getQueryObject().containsKey("buckets.1140"));
+            assertTrue(updateCaptor.getValue().modifies("buckets.1135"));
+            verify(mongoTemplate, never()).findAndModify(
+                    any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(SlotCapacity.class));
+        }
+
+        @Test
+        @DisplayName("Should reject when an overlapping bucket is full")
+        void shouldRejectWhenBucketFull() {
+            // Given - the day document exists but a covered bucket has no room
+            when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(SpaceDayCapacity.class)))
+                    .thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+            when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(SpaceDayCapacity.class)))
+                    .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+            // When
+            boolean result = intervalService.tryReserveCapacity(
+                    testSpace, testDate, startTime, endTime, 5);
+
+            // Then
+            assertFalse(result);
+        }
+
+        @Test
+        @DisplayName("Should report the fullest bucket of the window as booked")
+        void shouldReportPeakBucket() {
+            // Given
+            SpaceDayCapacity day = SpaceDayCapacity.builder()
+                    .id(SpaceDayCapacity.generateId(spaceId, testDate))
+                    .maxCapacity(20)
+                    .buckets(Map.of("1080", 3, "1110", 7, "1140", 15))
+                    .build();
+            when(mongoTemplate.findById(SpaceDayCapacity.generateId(spaceId, testDate), SpaceDayCapacity.class))
+                    .thenReturn(day);
+
+            // When
+            int booked = intervalService.getBookedCapacity(spaceId, testDate, startTime, endTime);
+            int available = intervalService.getAvailableCapacity(spaceId, testDate, startTime, endTime, 20);
+
+            // Then - the 19:00 bucket is outside the 18:00-19:00 window
+            assertEquals(7, booked);
+            assertEquals(13, available);
+        }
+
+        @Test
+        @DisplayName("Should require an end time to release interval capacity")
+        void shouldRequireEndTimeForRelease() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> intervalService.releaseCapacity(spaceId, testDate, startTime, 5));
+        }
+
+        @Test
+        @DisplayName("Should decrement every covered bucket on release")
+        void shouldDecrementCoveredBuckets() {
+            // Given
+            when(mongoTemplate.findAndModify(
+                    any(Query.class),
+                    any(Update.class),
+                    any(FindAndModifyOptions.class),
+                    eq(SpaceDayCapacity.class)))
+                    .thenReturn(SpaceDayCapacity.builder().buckets(Map.of("1080", 0, "1085", -2)).build());
+
+            // When
+            intervalService.releaseCapacity(spaceId, testDate, startTime, endTime, 5);
+
+            // Then - the negative bucket is floored at zero
+            ArgumentCaptor<Update> fixCaptor = ArgumentCaptor.forClass(Update.class);
+            verify(mongoTemplate).updateFirst(any(Query.class), fixCaptor.capture(), eq(SpaceDayCapacity.class));
+            assertTrue(fixCaptor.getValue().modifies("buckets.1085"));
+            assertFalse(fixCaptor.getValue().modifies("buckets.1080"));
+        }
+    }
+
+    @Nested
+    @DisplayName("tryReserveCapacityBatch tests")
+    class TryReserveCapacityBatchTests {
+
+        @Test
+        @DisplayName("Should admit claims in one bulk write and retry duplicate keys on their own")
+        void shouldAdmitBatchWithDuplicateKeyFallback() {
+            // Given - claim 1 collides with a full slot, claim 2 is larger than the space
+            BulkOperations bulkOperations = mock(BulkOperations.class);
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, SlotCapacity.class))
+                    .thenReturn(bulkOperations);
+            BulkOperationException bulkFailure = mock(BulkOperationException.class);
+            when(bulkFailure.getErrors()).thenReturn(List.of(
+                    new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1)));
+            when(bulkOperations.execute()).thenThrow(bulkFailure);
+            when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(SlotCapacity.class)))
+                    .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+            List<SlotCapacityService.CapacityClaim> claims = List.of(
+                    new SlotCapacityService.CapacityClaim(testSpace, testDate, startTime, endTime, 5),
+                    new SlotCapacityService.CapacityClaim(testSpace, testDate, "19:00", "20:00", 5),
+                    new SlotCapacityService.CapacityClaim(testSpace, testDate, startTime, endTime, 25));
+
+            // When
+            boolean[] admitted = slotCapacityService.tryReserveCapacityBatch(claims);
+
+            // Then
+            assertArrayEquals(new boolean[]{true, false, false}, admitted);
+            verify(bulkOperations, times(2)).upsert(any(Query.class), any(Update.class));
+            verify(bulkOperations, times(1)).execute();
+            verify(mongoTemplate, times(1)).updateFirst(any(Query.class), any(Update.class), eq(SlotCapacity.class));
+        }
+
+        @Test
+        @DisplayName("Should resolve a colliding claim before sending the claims after it")
+        void shouldAdmitInClaimOrder() {
+            // Given - claim 0 collides with an existing slot and stops the ordered bulk write
+            BulkOperations bulkOperations = mock(BulkOperations.class);
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, SlotCapacity.class))
+                    .thenReturn(bulkOperations);
+            BulkOperationException bulkFailure = mock(BulkOperationException.class);
+            when(bulkFailure.getErrors()).thenReturn(List.of(
+                    new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0)));
+            when(bulkOperations.execute()).thenThrow(bulkFailure).thenReturn(null);
+            when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(SlotCapacity.class)))
+                    .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+            List<SlotCapacityService.CapacityClaim> claims = List.of(
+                    new SlotCapacityService.CapacityClaim(testSpace, testDate, startTime, endTime, 5),
+                    new SlotCapacityService.CapacityClaim(testSpace, testDate, startTime, endTime, 5),
+                    new SlotCapacityService.CapacityClaim(testSpace, testDate, "19:00", "20:00", 5));
+
+            // When
+            boolean[] admitted = slotCapacityService.tryReserveCapacityBatch(claims);
+
+            // Then - the retry of claim 0 runs before claims 1 and 2 are sent again
+            assertArrayEquals(new boolean[]{true, true, true}, admitted);
+            InOrder inOrder = inOrder(bulkOperations, mongoTemplate);
+            inOrder.verify(bulkOperations).execute();
+            inOrder.verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(SlotCapacity.class));
+            inOrder.verify(bulkOperations).execute();
+            verify(bulkOperations, times(5)).upsert(any(Query.class), any(Update.class));
+        }
+
+        @Test
+        @DisplayName("Should release admitted claims and rethrow when the batch fails midway")
+        void shouldReleaseAdmittedClaimsOnFailure() {
+            // Given - both claims hit existing slots; the second retry loses the connection
+            BulkOperations bulkOperations = mock(BulkOperations.class);
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, SlotCapacity.class))
+                    .thenReturn(bulkOperations);
+            BulkOperationException bulkFailure = mock(BulkOperationException.class);
+            when(bulkFailure.getErrors()).thenReturn(List.of(
+                    new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0),
+                    new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1)));
+            when(bulkOperations.execute()).thenThrow(bulkFailure);
+            when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(SlotCapacity.class)))
+                    .thenReturn(UpdateResult.acknowledged(1, 1L, null))
+                    .thenThrow(new DataAccessResourceFailureException("socket timeout"));
+
+            List<SlotCapacityService.CapacityClaim> claims = List.of(
+                    new SlotCapacityService.CapacityClaim(testSpace, testDate, startTime, endTime, 5),
+                    new SlotCapacityService.CapacityClaim(testSpace, testDate, "19:00", "20:00", 5));
+
+            // When & Then
+            assertThrows(DataAccessResourceFailureException.class,
+                    () -> slotCapacityService.tryReserveCapacityBatch(claims));
+            ArgumentCaptor<Query> released = ArgumentCaptor.forClass(Query.class);
+            verify(mongoTemplate, times(1)).findAndModify(released.capture(), any(Update.class),
+                    any(FindAndModifyOptions.class), eq(SlotCapacity.class));
+            assertEquals(SlotCapacity.generateId(spaceId, testDate, startTime),
+                    released.getValue().getQueryObject().get("_id"));
+        }
+    }
+
     @Nested
     @DisplayName("releaseCapacity tests")
     class ReleaseCapacityTests {
@@ -369,7 +675,31 @@ class SlotCapacityServiceTest {
                     spaceId, testDate, startTime, endTime, totalBooked, maxCapacity);
 
             // Then
-            verify(mongoTemplate).upsert(any(Query.class), any(Update.class), eq(SlotCapacity.class));
+            ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+            verify(mongoTemplate).upsert(any(Query.class), updateCaptor.capture(), eq(SlotCapacity.class));
+            assertTrue(updateCaptor.getValue().modifies("version"));
+            verify(versionService).bump(spaceId, testDate);
+        }
+    }
+
+    @Nested
+    @DisplayName("Version stamping tests")
+    class VersionStampingTests {
+
+        @Test
+        @DisplayName("Should bump version and change time in the admitting update")
+        void shouldStampAdmittingUpdate() {
+            when(mongoTemplate.findAndModify(
+                    any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(SlotCapacity.class)))
+                    .thenReturn(SlotCapacity.builder().bookedCapacity(5).maxCapacity(20).build());
+
+            slotCapacityService.tryReserveCapacity(testSpace, testDate, startTime, endTime, 5);
+
+            ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+            verify(mongoTemplate).findAndModify(
+                    any(Query.class), updateCaptor.capture(), any(FindAndModifyOptions.class), eq(SlotCapacity.class));
+            assertTrue(updateCaptor.getValue().modifies("version"));
+            assertTrue(updateCaptor.getValue().modifies("changedAt"));
         }
     }
 
@@ -392,6 +722,13 @@ class SlotCapacityServiceTest {
             assertEquals("9cb34a37-d514-4103-bae9-b0ed1f7c7d09:2024-02-15:17:00", id);
         }
 
+        @Test
+        @DisplayName("Should cover a window with floored start and ceiled end buckets")
+        void shouldComputeBucketKeys() {
+            assertEquals(List.of("1080", "1085", "1090"), SpaceDayCapacity.bucketKeys("18:02", "18:11"));
+            assertEquals(12, SpaceDayCapacity.bucketKeys("18:00", "19:00").size());
+        }
+
         @Test
         @DisplayName("Should calculate available capacity correctly")
         void shouldCalculateAvailableCapacity() {
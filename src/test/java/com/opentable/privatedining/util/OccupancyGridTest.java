@@ -0,0 +1,100 @@
+package com.opentable.privatedining.util;
+
+import com.opentable.privatedining.model.OccupancyRollup;
+import com.opentable.privatedining.model.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OccupancyGrid Tests")
+class OccupancyGridTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 2, 15);
+
+    private UUID garden;
+    private UUID cellar;
+    private OccupancyGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        garden = UUID.randomUUID();
+        cellar = UUID.randomUUID();
+        grid = new OccupancyGrid(START, START.plusDays(2), List.of(garden, cellar));
+    }
+
+    private Reservation reservation(UUID spaceId, LocalDate date, String startTime, int partySize) {
+        return Reservation.builder()
+                .spaceId(spaceId)
+                .reservationDate(date)
+                .startTime(startTime)
+                .partySize(partySize)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("addReservations")
+    class AddReservationsTests {
+
+        @Test
+        @DisplayName("Should count reservations per day-space and per day-start-hour")
+        void shouldCountBothProjections() {
+            grid.addReservations(List.of(
+                    reservation(garden, START, "18:00", 6),
+                    reservation(garden, START, "18:30", 4),
+                    reservation(cellar, START, "19:00", 8),
+                    reservation(cellar, START.plusDays(2), "12:15", 2)));
+
+            assertEquals(3, grid.days());
+            assertEquals(START.plusDays(2), grid.date(2));
+            assertEquals(2, grid.spaceReservations(0, 0));
+            assertEquals(10, grid.spaceGuests(0, 0));
+            assertEquals(1, grid.spaceReservations(0, 1));
+            assertEquals(2, grid.hourReservations(0, 18));
+            assertEquals(10, grid.hourGuests(0, 18));
+            assertEquals(8, grid.hourGuests(0, 19));
+            assertEquals(0, grid.spaceReservations(1, 0));
+            assertEquals(2, grid.hourGuests(2, 12));
+        }
+
+        @Test
+        @DisplayName("Should count unknown spaces in hour totals only and skip dates outside the range")
+        void shouldHandleUnknownSpacesAndOutOfRangeDates() {
+            grid.addReservations(List.of(
+                    reservation(UUID.randomUUID(), START, "18:00", 6),
+                    reservation(garden, START.minusDays(1), "18:00", 4),
+                    reservation(garden, START.plusDays(3), "18:00", 4)));
+
+            assertEquals(6, grid.hourGuests(0, 18));
+            assertEquals(0, grid.spaceGuests(0, 0));
+            assertEquals(0, grid.spaceGuests(0, 1));
+            assertEquals(0, grid.hourGuests(2, 18));
+        }
+    }
+
+    @Nested
+    @DisplayName("addRollups")
+    class AddRollupsTests {
+
+        @Test
+        @DisplayName("Should fold rollup rows and their cancellations")
+        void shouldFoldRollups() {
+            grid.addRollups(List.of(
+                    OccupancyRollup.builder().date(START).spaceId(garden).hour(18)
+                            .reservations(2).guests(10).cancelled(1).build(),
+                    OccupancyRollup.builder().date(START.plusDays(1)).spaceId(cellar).hour(20)
+                            .reservations(0).guests(0).cancelled(2).build()));
+
+            assertEquals(2, grid.spaceReservations(0, 0));
+            assertEquals(10, grid.hourGuests(0, 18));
+            assertEquals(0, grid.hourReservations(1, 20));
+            assertEquals(3, grid.cancelled());
+        }
+    }
+}
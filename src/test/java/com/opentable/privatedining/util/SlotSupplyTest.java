@@ -0,0 +1,79 @@
+package com.opentable.privatedining.util;
+
+import com.opentable.privatedining.model.OperatingHours;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.Space;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SlotSupply Tests")
+class SlotSupplyTest {
+
+    private Space garden;
+    private Space cellar;
+    private List<OperatingHours> hours;
+
+    @BeforeEach
+    void setUp() {
+        garden = Space.builder().id(UUID.randomUUID()).maxCapacity(20).slotDurationMinutes(60).build();
+        cellar = Space.builder().id(UUID.randomUUID()).maxCapacity(30).slotDurationMinutes(90).build();
+        hours = List.of(
+                OperatingHours.builder().dayOfWeek(1).openTime("18:00").closeTime("22:00").build(),
+                OperatingHours.builder().dayOfWeek(2).openTime("18:00").closeTime("22:00").isClosed(true).build(),
+                OperatingHours.builder().dayOfWeek(6).openTime("12:00").closeTime("23:30").build());
+    }
+
+    @Test
+    @DisplayName("Should count the slots that fit between opening and closing time per weekday")
+    void shouldComputeWeekdaySupply() {
+        SlotSupply supply = SlotSupply.of(hours, List.of(garden, cellar));
+
+        assertTrue(supply.isConfigured());
+        // Monday 18:00-22:00: 4 one-hour slots, 2 ninety-minute slots
+        assertEquals(6, supply.operatingSlots(DayOfWeek.MONDAY));
+        assertEquals(20 * 4 * 60, supply.availableSeatMinutes(DayOfWeek.MONDAY, 0));
+        assertEquals(20 * 4 * 60 + 30 * 2 * 90, supply.availableSeatMinutes(DayOfWeek.MONDAY));
+        // Saturday 12:00-23:30: 11 one-hour slots, 7 ninety-minute slots
+        assertEquals(18, supply.operatingSlots(DayOfWeek.SATURDAY));
+    }
+
+    @Test
+    @DisplayName("Should offer nothing on closed or unconfigured weekdays")
+    void shouldHaveNoSupplyWhenClosed() {
+        SlotSupply supply = SlotSupply.of(hours, List.of(garden, cellar));
+
+        assertEquals(0, supply.availableSeatMinutes(DayOfWeek.TUESDAY));
+        assertEquals(0, supply.operatingSlots(DayOfWeek.SUNDAY));
+    }
+
+    @Test
+    @DisplayName("Should weigh each space's guests by its slot duration")
+    void shouldComputeBookedSeatMinutes() {
+        LocalDate monday = LocalDate.of(2024, 2, 12);
+        OccupancyGrid grid = new OccupancyGrid(monday, monday, List.of(garden.getId(), cellar.getId()))
+                .addReservations(List.of(
+                        Reservation.builder().spaceId(garden.getId()).reservationDate(monday)
+                                .startTime("18:00").partySize(10).build(),
+                        Reservation.builder().spaceId(cellar.getId()).reservationDate(monday)
+                                .startTime("19:30").partySize(4).build()));
+
+        SlotSupply supply = SlotSupply.of(hours, List.of(garden, cellar));
+
+        assertEquals(10 * 60 + 4 * 90, supply.bookedSeatMinutes(grid, 0));
+    }
+
+    @Test
+    @DisplayName("Should not be configured without operating hours")
+    void shouldNotBeConfiguredWithoutHours() {
+        assertFalse(SlotSupply.of(List.of(), List.of(garden)).isConfigured());
+        assertFalse(SlotSupply.of(null, List.of(garden)).isConfigured());
+    }
+}
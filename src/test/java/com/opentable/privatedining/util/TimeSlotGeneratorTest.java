@@ -0,0 +1,129 @@
+package com.opentable.privatedining.util;
+
+import com.opentable.privatedining.dto.response.TimeSlotResponse;
+import com.opentable.privatedining.model.OperatingHours;
+import com.opentable.privatedining.model.Reservation;
+import com.opentable.privatedining.model.Space;
+import com.opentable.privatedining.model.enums.SlotStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TimeSlotGenerator Tests")
+class TimeSlotGeneratorTest {
+
+    private TimeSlotGenerator timeSlotGenerator;
+    private OperatingHours operatingHours;
+    private Space space;
+
+    @BeforeEach
+    void setUp() {
+        timeSlotGenerator = new TimeSlotGenerator();
+        operatingHours = OperatingHours.builder()
+                .dayOfWeek(1)
+                .openTime("18:00")
+                .closeTime("23:00")
+                .isClosed(false)
+                .build();
+        space = Space.builder()
+                .name("Garden Room")
+                .maxCapacity(20)
+                .slotDurationMinutes(60)
+                .build();
+    }
+
+    private Reservation reservation(String startTime, String endTime, int partySize) {
+        return Reservation.builder().startTime(startTime).endTime(endTime).partySize(partySize).build();
+    }
+
+    @Nested
+    @DisplayName("generateTimeSlots")
+    class GenerateTimeSlotsTests {
+
+        @Test
+        @DisplayName("Should generate slots that fit within operating hours")
+        void shouldGenerateSlotsWithinHours() {
+            space.setSlotDurationMinutes(90);
+
+            List<TimeSlotResponse> slots = timeSlotGenerator.generateTimeSlots(operatingHours, space, List.of());
+
+            assertEquals(List.of("18:00", "19:30", "21:00"), slots.stream().map(TimeSlotResponse::getStartTime).toList());
+            assertTrue(slots.stream().allMatch(slot -> slot.getAvailableCapacity() == 20));
+        }
+
+        @Test
+        @DisplayName("Should sum overlapping reservations and ignore touching endpoints")
+        void shouldSumOverlappingReservations() {
+            List<Reservation> reservations = List.of(
+                    reservation("17:00", "18:00", 9),   // touches the first slot, no overlap
+                    reservation("18:00", "19:00", 6),
+                    reservation("18:30", "20:00", 10),
+                    reservation("22:00", "23:00", 20));
+
+            List<TimeSlotResponse> slots = timeSlotGenerator.generateTimeSlots(operatingHours, space, reservations);
+
+            assertEquals(16, slots.get(0).getBookedCapacity());
+            assertEquals(2, slots.get(0).getExistingReservations());
+            assertEquals(SlotStatus.LIMITED, slots.get(0).getStatus());
+            assertEquals(10, slots.get(1).getBookedCapacity());
+            assertEquals(0, slots.get(2).getBookedCapacity());
+            assertEquals(SlotStatus.FULL, slots.get(4).getStatus());
+        }
+
+        @Test
+        @DisplayName("Should return no slots on closed days")
+        void shouldReturnNoSlotsWhenClosed() {
+            operatingHours.setIsClosed(true);
+
+            assertTrue(timeSlotGenerator.generateTimeSlots(operatingHours, space, List.of()).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should match a pairwise overlap scan on random bookings")
+        void shouldMatchPairwiseScan() {
+            Random random = new Random(42);
+            operatingHours.setOpenTime("08:00");
+            operatingHours.setCloseTime("23:45");
+            space.setSlotDurationMinutes(15);
+            space.setMaxCapacity(500);
+
+            List<BookedInterval> intervals = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                int start = random.nextInt(24 * 60);
+                int end = random.nextInt(24 * 60);  // includes zero-length and reversed intervals
+                intervals.add(new BookedInterval(LocalTime.of(start / 60, start % 60),
+                        LocalTime.of(end / 60, end % 60), 1 + random.nextInt(12), 1));
+            }
+
+            List<TimeSlotResponse> slots =
+                    timeSlotGenerator.generateTimeSlotsForIntervals(operatingHours, space, intervals);
+
+            assertFalse(slots.isEmpty());
+            for (TimeSlotResponse slot : slots) {
+                LocalTime slotStart = LocalTime.parse(slot.getStartTime());
+                LocalTime slotEnd = LocalTime.parse(slot.getEndTime());
+                List<BookedInterval> overlapping = intervals.stream()
+                        .filter(i -> i.start().isBefore(slotEnd) && i.end().isAfter(slotStart))
+                        .toList();
+                assertEquals(overlapping.stream().mapToInt(BookedInterval::partySize).sum(),
+                        slot.getBookedCapacity(), "booked capacity of " + slot.getStartTime());
+                assertEquals(overlapping.size(), slot.getExistingReservations(),
+                        "reservations of " + slot.getStartTime());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should calculate end time from slot duration")
+    void shouldCalculateEndTime() {
+        assertEquals("19:30", timeSlotGenerator.calculateEndTimeString("18:00", 90));
+    }
+}